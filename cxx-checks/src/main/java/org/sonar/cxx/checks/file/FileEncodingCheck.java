@@ -28,6 +28,7 @@ import java.nio.file.Files;
 import javax.annotation.Nullable;
 import org.sonar.check.Priority;
 import org.sonar.check.Rule;
+import org.sonar.cxx.squidbridge.ParallelVisitor;
 import org.sonar.cxx.squidbridge.annotations.ActivatedByDefault;
 import org.sonar.cxx.squidbridge.annotations.NoSqale;
 import org.sonar.cxx.squidbridge.checks.SquidCheck;
@@ -42,7 +43,7 @@ import org.sonar.cxx.visitors.CxxCharsetAwareVisitor;
   priority = Priority.MINOR)
 @ActivatedByDefault
 @NoSqale
-public class FileEncodingCheck extends SquidCheck<Grammar> implements CxxCharsetAwareVisitor {
+public class FileEncodingCheck extends SquidCheck<Grammar> implements CxxCharsetAwareVisitor, ParallelVisitor {
 
   private Charset charset = StandardCharsets.UTF_8;
 
@@ -53,13 +54,25 @@ public class FileEncodingCheck extends SquidCheck<Grammar> implements CxxCharset
 
   @Override
   public void visitFile(@Nullable AstNode astNode) {
-    try {
-      Files.readAllLines(getContext().getFile().toPath(), charset);
-    } catch (IOException e) {
+    if (!canBeDecoded()) {
       getContext().createFileViolation(this,
         "Not all characters of the file can be encoded with the predefined charset "
         + charset.name() + ".");
     }
   }
 
+  private boolean canBeDecoded() {
+    var snapshot = getContext().getInputFile() != null ? getContext().getInputFileSnapshot() : null;
+    if (snapshot != null && charset.equals(snapshot.charset())) {
+      return !snapshot.hasDecodingErrors() && charset.newEncoder().canEncode(snapshot.text());
+    }
+    // file was decoded with another charset: read it again
+    try {
+      Files.readAllLines(getContext().getFile().toPath(), charset);
+      return true;
+    } catch (IOException e) {
+      return false;
+    }
+  }
+
 }
@@ -24,6 +24,7 @@ import com.sonar.cxx.sslr.api.Grammar;
 import javax.annotation.Nullable;
 import org.sonar.check.Priority;
 import org.sonar.check.Rule;
+import org.sonar.cxx.squidbridge.ParallelVisitor;
 import org.sonar.cxx.squidbridge.annotations.ActivatedByDefault;
 import org.sonar.cxx.squidbridge.annotations.SqaleConstantRemediation;
 import org.sonar.cxx.squidbridge.checks.SquidCheck;
@@ -36,7 +37,7 @@ import org.sonar.cxx.tag.Tag;
   priority = Priority.MINOR)
 @ActivatedByDefault
 @SqaleConstantRemediation("1min")
-public class MissingNewLineAtEndOfFileCheck extends SquidCheck<Grammar> {
+public class MissingNewLineAtEndOfFileCheck extends SquidCheck<Grammar> implements ParallelVisitor {
 
   @Override
   public void visitFile(@Nullable AstNode astNode) {
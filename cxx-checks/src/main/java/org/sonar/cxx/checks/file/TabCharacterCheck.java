@@ -25,6 +25,7 @@ import javax.annotation.Nullable;
 import org.sonar.check.Priority;
 import org.sonar.check.Rule;
 import org.sonar.check.RuleProperty;
+import org.sonar.cxx.squidbridge.ParallelVisitor;
 import org.sonar.cxx.squidbridge.annotations.ActivatedByDefault;
 import org.sonar.cxx.squidbridge.annotations.SqaleConstantRemediation;
 import org.sonar.cxx.squidbridge.checks.SquidCheck;
@@ -41,7 +42,7 @@ import org.sonar.cxx.tag.Tag;
   priority = Priority.MINOR)
 @ActivatedByDefault
 @SqaleConstantRemediation("5min")
-public class TabCharacterCheck extends SquidCheck<Grammar> {
+public class TabCharacterCheck extends SquidCheck<Grammar> implements ParallelVisitor {
 
   private static final boolean DEFAULT_CREATE_LINE_VIOLATION = false;
 
@@ -56,14 +57,18 @@ public class TabCharacterCheck extends SquidCheck<Grammar> {
 
   @Override
   public void visitFile(@Nullable AstNode astNode) {
-    var nr = 0;
-    for (var line : getContext().getInputFileLines()) {
-      ++nr;
-      if (line.contains("\t")) {
+    var snapshot = getContext().getInputFileSnapshot();
+    var text = snapshot.text();
+    for (int i = 0; i < snapshot.lineCount(); i++) {
+      int tab = text.indexOf('\t', snapshot.lineStart(i));
+      if (tab < 0) {
+        break;
+      }
+      if (tab < snapshot.lineEnd(i)) {
         if (createLineViolation) {
           getContext().createLineViolation(
             this,
-            "Replace all tab characters in this line by sequences of white-spaces.", nr);
+            "Replace all tab characters in this line by sequences of white-spaces.", i + 1);
         } else {
           getContext().createFileViolation(
             this,
@@ -25,6 +25,7 @@ import javax.annotation.Nullable;
 import org.sonar.check.Priority;
 import org.sonar.check.Rule;
 import org.sonar.check.RuleProperty;
+import org.sonar.cxx.squidbridge.ParallelVisitor;
 import org.sonar.cxx.squidbridge.annotations.ActivatedByDefault;
 import org.sonar.cxx.squidbridge.annotations.SqaleConstantRemediation;
 import org.sonar.cxx.squidbridge.checks.SquidCheck;
@@ -41,7 +42,7 @@ import org.sonar.cxx.tag.Tag;
   priority = Priority.MINOR)
 @ActivatedByDefault
 @SqaleConstantRemediation("5min")
-public class TooLongLineCheck extends SquidCheck<Grammar> {
+public class TooLongLineCheck extends SquidCheck<Grammar> implements ParallelVisitor {
 
   private static final int DEFAULT_MAXIMUM_LINE_LENHGTH = 160;
   private static final int DEFAULT_TAB_WIDTH = 8;
@@ -66,16 +67,22 @@ public class TooLongLineCheck extends SquidCheck<Grammar> {
 
   @Override
   public void visitFile(@Nullable AstNode astNode) {
-    var nr = 0;
-    for (var line : getContext().getInputFileLines()) {
-      ++nr;
-      long length = line.chars().filter(c -> c == '\t').count();
-      length = line.length() + length * (tabWidth - 1);
+    var snapshot = getContext().getInputFileSnapshot();
+    var text = snapshot.text();
+    for (int i = 0; i < snapshot.lineCount(); i++) {
+      int start = snapshot.lineStart(i);
+      int end = snapshot.lineEnd(i);
+      long length = end - start;
+      for (int pos = start; pos < end; pos++) {
+        if (text.charAt(pos) == '\t') {
+          length += tabWidth - 1;
+        }
+      }
       if (length > maximumLineLength) {
         getContext().createLineViolation(
           this,
           "Split this {0} characters long line (which is greater than {1} authorized).",
-          nr, length, maximumLineLength);
+          i + 1, length, maximumLineLength);
       }
     }
   }
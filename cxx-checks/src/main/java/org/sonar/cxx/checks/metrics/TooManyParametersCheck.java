@@ -25,6 +25,7 @@ import org.sonar.check.Priority;
 import org.sonar.check.Rule;
 import org.sonar.check.RuleProperty;
 import org.sonar.cxx.parser.CxxGrammarImpl;
+import org.sonar.cxx.squidbridge.ParallelVisitor;
 import org.sonar.cxx.squidbridge.annotations.ActivatedByDefault;
 import org.sonar.cxx.squidbridge.annotations.SqaleConstantRemediation;
 import org.sonar.cxx.squidbridge.checks.SquidCheck;
@@ -39,7 +40,7 @@ import org.sonar.cxx.tag.Tag;
 )
 @SqaleConstantRemediation("20min")
 @ActivatedByDefault
-public class TooManyParametersCheck extends SquidCheck<Grammar> {
+public class TooManyParametersCheck extends SquidCheck<Grammar> implements ParallelVisitor {
 
   private static final int DEFAULT_MAX = 7;
 
@@ -26,6 +26,7 @@ import org.sonar.check.Rule;
 import org.sonar.check.RuleProperty;
 import org.sonar.cxx.parser.CxxGrammarImpl;
 import org.sonar.cxx.parser.CxxKeyword;
+import org.sonar.cxx.squidbridge.ParallelVisitor;
 import org.sonar.cxx.squidbridge.annotations.ActivatedByDefault;
 import org.sonar.cxx.squidbridge.annotations.SqaleConstantRemediation;
 import org.sonar.cxx.squidbridge.checks.AbstractOneStatementPerLineCheck;
@@ -41,7 +42,7 @@ import org.sonar.cxx.tag.Tag;
   priority = Priority.MAJOR)
 @ActivatedByDefault
 @SqaleConstantRemediation("5min")
-public class TooManyStatementsPerLineCheck extends AbstractOneStatementPerLineCheck<Grammar> {
+public class TooManyStatementsPerLineCheck extends AbstractOneStatementPerLineCheck<Grammar> implements ParallelVisitor {
 
   private static final boolean DEFAULT_EXCLUDE_CASE_BREAK = false;
   /**
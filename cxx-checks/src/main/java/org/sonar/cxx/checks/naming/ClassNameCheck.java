@@ -27,6 +27,7 @@ import org.sonar.check.Rule;
 import org.sonar.check.RuleProperty;
 import org.sonar.cxx.checks.utils.CheckUtils;
 import org.sonar.cxx.parser.CxxGrammarImpl;
+import org.sonar.cxx.squidbridge.ParallelVisitor;
 import org.sonar.cxx.squidbridge.annotations.ActivatedByDefault;
 import org.sonar.cxx.squidbridge.annotations.SqaleConstantRemediation;
 import org.sonar.cxx.squidbridge.checks.SquidCheck;
@@ -43,7 +44,7 @@ import org.sonar.cxx.tag.Tag;
   tags = {Tag.CONVENTION})
 @SqaleConstantRemediation("5min")
 @ActivatedByDefault
-public class ClassNameCheck extends SquidCheck<Grammar> {
+public class ClassNameCheck extends SquidCheck<Grammar> implements ParallelVisitor {
 
   private static final String DEFAULT = "^[A-Z_][a-zA-Z0-9]+$";
 
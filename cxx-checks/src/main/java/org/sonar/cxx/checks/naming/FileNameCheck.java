@@ -27,6 +27,7 @@ import org.sonar.check.Priority;
 import org.sonar.check.Rule;
 import org.sonar.check.RuleProperty;
 import org.sonar.cxx.checks.utils.CheckUtils;
+import org.sonar.cxx.squidbridge.ParallelVisitor;
 import org.sonar.cxx.squidbridge.annotations.SqaleConstantRemediation;
 import org.sonar.cxx.squidbridge.checks.SquidCheck;
 import org.sonar.cxx.tag.Tag;
@@ -41,7 +42,7 @@ import org.sonar.cxx.tag.Tag;
   name = "File names should comply with a naming convention",
   tags = {Tag.CONVENTION})
 @SqaleConstantRemediation("10min")
-public class FileNameCheck extends SquidCheck<Grammar> {
+public class FileNameCheck extends SquidCheck<Grammar> implements ParallelVisitor {
 
   private static final String DEFAULT = "(([a-z_][a-z0-9_]*)|([A-Z][a-zA-Z0-9]+))$";
   private static final String MESSAGE = "Rename this file to match this regular expression: \"%s\".";
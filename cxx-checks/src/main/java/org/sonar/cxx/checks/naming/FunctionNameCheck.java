@@ -28,6 +28,7 @@ import org.sonar.check.Rule;
 import org.sonar.check.RuleProperty;
 import org.sonar.cxx.checks.utils.CheckUtils;
 import org.sonar.cxx.parser.CxxGrammarImpl;
+import org.sonar.cxx.squidbridge.ParallelVisitor;
 import org.sonar.cxx.squidbridge.annotations.ActivatedByDefault;
 import org.sonar.cxx.squidbridge.annotations.SqaleConstantRemediation;
 import org.sonar.cxx.squidbridge.checks.SquidCheck;
@@ -45,7 +46,7 @@ import org.sonar.cxx.tag.Tag;
 )
 @SqaleConstantRemediation("10min")
 @ActivatedByDefault
-public class FunctionNameCheck extends SquidCheck<Grammar> {
+public class FunctionNameCheck extends SquidCheck<Grammar> implements ParallelVisitor {
 
   private static final String DEFAULT = "^[a-z_][a-z0-9_]{2,30}$";
 
@@ -32,6 +32,7 @@ import org.sonar.check.RuleProperty;
 import org.sonar.cxx.checks.utils.CheckUtils;
 import static org.sonar.cxx.checks.utils.CheckUtils.isFunctionDefinition;
 import org.sonar.cxx.parser.CxxGrammarImpl;
+import org.sonar.cxx.squidbridge.ParallelVisitor;
 import org.sonar.cxx.squidbridge.annotations.ActivatedByDefault;
 import org.sonar.cxx.squidbridge.annotations.SqaleConstantRemediation;
 import org.sonar.cxx.squidbridge.checks.SquidCheck;
@@ -48,7 +49,7 @@ import org.sonar.cxx.tag.Tag;
   tags = {Tag.CONVENTION})
 @SqaleConstantRemediation("10min")
 @ActivatedByDefault
-public class MethodNameCheck extends SquidCheck<Grammar> {
+public class MethodNameCheck extends SquidCheck<Grammar> implements ParallelVisitor {
 
   private static final String DEFAULT = "^[A-Z][A-Za-z0-9]{2,30}$";
   /**
@@ -21,6 +21,7 @@ package org.sonar.cxx.checks.regex;
 
 import com.sonar.cxx.sslr.api.Token;
 import java.util.regex.Pattern;
+import org.sonar.cxx.squidbridge.checks.PatternPrefilter;
 import org.sonar.cxx.squidbridge.checks.SquidCheck;
 
 class CommentContainsPatternChecker {
@@ -30,6 +31,7 @@ class CommentContainsPatternChecker {
   private final String pattern;
   private final String message;
   private final Pattern p;
+  private PatternPrefilter.Filter filter;
 
   /**
    * CommentContainsPatternChecker
@@ -45,6 +47,13 @@ class CommentContainsPatternChecker {
     p = Pattern.compile(pattern, Pattern.CASE_INSENSITIVE);
   }
 
+  /**
+   * init, must be called from init of the check: the scanner sets the context of the check before
+   */
+  public void init() {
+    filter = check.getContext().getPatternPrefilter().register(p);
+  }
+
   /**
    * visitToken
    *
@@ -58,7 +67,7 @@ class CommentContainsPatternChecker {
       var triviaToken = trivia.getToken();
       String comment = triviaToken.getOriginalValue();
       int line = triviaToken.getLine();
-      if (indexOfIgnoreCase(comment) != -1) {
+      if (filter.mayMatchComment(comment) && indexOfIgnoreCase(comment) != -1) {
         String[] lines = EOL_PATTERN.split(comment);
 
         for (var i = 0; i < lines.length; i++) {
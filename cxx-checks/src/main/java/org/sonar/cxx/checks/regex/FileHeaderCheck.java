@@ -31,6 +31,7 @@ import org.sonar.check.RuleProperty;
 import org.sonar.cxx.checks.utils.CheckUtils;
 import org.sonar.cxx.squidbridge.annotations.ActivatedByDefault;
 import org.sonar.cxx.squidbridge.annotations.SqaleConstantRemediation;
+import org.sonar.cxx.squidbridge.checks.PatternPrefilter;
 import org.sonar.cxx.squidbridge.checks.SquidCheck;
 
 /**
@@ -70,6 +71,7 @@ public class FileHeaderCheck extends SquidCheck<Grammar> {
 
   private String[] expectedLines = null;
   private Pattern searchPattern = null;
+  private PatternPrefilter.Filter filter = null;
 
   @Override
   public void init() {
@@ -77,6 +79,7 @@ public class FileHeaderCheck extends SquidCheck<Grammar> {
       if (searchPattern == null) {
         searchPattern = CheckUtils.compileUserRegexp(getHeaderFormat(), Pattern.DOTALL);
       }
+      filter = getContext().getPatternPrefilter().register(searchPattern);
     } else {
       expectedLines = headerFormat.split("(?:\r)?\n|\r");
     }
@@ -88,7 +91,7 @@ public class FileHeaderCheck extends SquidCheck<Grammar> {
       String fileContent = getContext().getInputFileContent();
       checkRegularExpression(fileContent);
     } else {
-      if (!matches(expectedLines, getContext().getInputFileLines())) {
+      if (!matches(expectedLines, getContext().getInputFileSnapshot().lines())) {
         getContext().createFileViolation(this, MESSAGE);
       }
     }
@@ -103,22 +106,26 @@ public class FileHeaderCheck extends SquidCheck<Grammar> {
   }
 
   private void checkRegularExpression(String fileContent) {
+    if (!filter.mayMatchFile()) {
+      getContext().createFileViolation(this, MESSAGE);
+      return;
+    }
     var matcher = searchPattern.matcher(fileContent);
     if (!matcher.find() || matcher.start() != 0) {
       getContext().createFileViolation(this, MESSAGE);
     }
   }
 
-  private static boolean matches(String[] expectedLines, List<String> lines) {
+  private static boolean matches(String[] expectedLines, List<CharSequence> lines) {
     var result = false;
 
     if (expectedLines.length <= lines.size()) {
       result = true;
 
-      Iterator<String> it = lines.iterator();
+      Iterator<CharSequence> it = lines.iterator();
       for (var expectedLine : expectedLines) {
-        String line = it.next();
-        if (!line.equals(expectedLine)) {
+        CharSequence line = it.next();
+        if (!expectedLine.contentEquals(line)) {
           result = false;
           break;
         }
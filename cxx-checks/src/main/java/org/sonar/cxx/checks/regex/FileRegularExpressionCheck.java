@@ -31,6 +31,7 @@ import org.sonar.check.RuleProperty;
 import org.sonar.cxx.checks.utils.CheckUtils;
 import org.sonar.cxx.squidbridge.annotations.NoSqale;
 import org.sonar.cxx.squidbridge.annotations.RuleTemplate;
+import org.sonar.cxx.squidbridge.checks.PatternPrefilter;
 import org.sonar.cxx.squidbridge.checks.SquidCheck;
 
 /**
@@ -96,6 +97,7 @@ public class FileRegularExpressionCheck extends SquidCheck<Grammar> {
     defaultValue = DEFAULT_MESSAGE)
   public String message = DEFAULT_MESSAGE;
   private Pattern pattern = null;
+  private PatternPrefilter.Filter filter = null;
 
   private static boolean compare(boolean invert, boolean condition) {
     return invert ? !condition : condition;
@@ -104,6 +106,7 @@ public class FileRegularExpressionCheck extends SquidCheck<Grammar> {
   @Override
   public void init() {
     pattern = CheckUtils.compileUserRegexp(regularExpression);
+    filter = getContext().getPatternPrefilter().register(pattern);
   }
 
   @Override
@@ -112,10 +115,8 @@ public class FileRegularExpressionCheck extends SquidCheck<Grammar> {
       return;
     }
 
-    String fileContent = getContext().getInputFileContent();
-    var matcher = pattern.matcher(fileContent);
-
-    if (compare(invertRegularExpression, matcher.find())) {
+    var found = filter.mayMatchFile() && pattern.matcher(getContext().getInputFileContent()).find();
+    if (compare(invertRegularExpression, found)) {
       getContext().createFileViolation(this, message);
     }
   }
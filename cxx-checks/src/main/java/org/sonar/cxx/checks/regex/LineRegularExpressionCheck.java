@@ -31,6 +31,7 @@ import org.sonar.check.RuleProperty;
 import org.sonar.cxx.checks.utils.CheckUtils;
 import org.sonar.cxx.squidbridge.annotations.NoSqale;
 import org.sonar.cxx.squidbridge.annotations.RuleTemplate;
+import org.sonar.cxx.squidbridge.checks.PatternPrefilter;
 import org.sonar.cxx.squidbridge.checks.SquidCheck;
 
 /**
@@ -96,6 +97,7 @@ public class LineRegularExpressionCheck extends SquidCheck<Grammar> {
     defaultValue = DEFAULT_MESSAGE)
   public String message = DEFAULT_MESSAGE;
   private Pattern pattern = null;
+  private PatternPrefilter.Filter filter = null;
 
   private static boolean compare(boolean invert, boolean condition) {
     return invert ? !condition : condition;
@@ -104,17 +106,32 @@ public class LineRegularExpressionCheck extends SquidCheck<Grammar> {
   @Override
   public void init() {
     pattern = CheckUtils.compileUserRegexp(regularExpression);
+    filter = getContext().getPatternPrefilter().register(pattern);
   }
 
   @Override
   public void visitFile(@Nullable AstNode fileNode) {
     if (compare(invertFilePattern, matchFile())) {
-      var nr = 0;
-      for (var line : getContext().getInputFileLines()) {
-        var matcher = pattern.matcher(line);
-        ++nr;
-        if (compare(invertRegularExpression, matcher.find())) {
-          getContext().createLineViolation(this, message, nr);
+      var snapshot = getContext().getInputFileSnapshot();
+      var matcher = pattern.matcher("");
+      // lines which are not candidates of the prefilter cannot match
+      if (invertRegularExpression) {
+        int candidate = filter.nextCandidateLine(0);
+        for (int i = 0; i < snapshot.lineCount(); i++) {
+          var found = false;
+          if (i == candidate) {
+            found = matcher.reset(snapshot.line(i)).find();
+            candidate = filter.nextCandidateLine(i + 1);
+          }
+          if (!found) {
+            getContext().createLineViolation(this, message, i + 1);
+          }
+        }
+      } else {
+        for (int i = filter.nextCandidateLine(0); i >= 0; i = filter.nextCandidateLine(i + 1)) {
+          if (matcher.reset(snapshot.line(i)).find()) {
+            getContext().createLineViolation(this, message, i + 1);
+          }
         }
       }
     }
@@ -25,6 +25,7 @@ import com.sonar.cxx.sslr.api.Token;
 import java.util.regex.Pattern;
 import org.sonar.check.Priority;
 import org.sonar.check.Rule;
+import org.sonar.cxx.squidbridge.ParallelVisitor;
 import org.sonar.cxx.squidbridge.annotations.ActivatedByDefault;
 import org.sonar.cxx.squidbridge.annotations.NoSqale;
 import org.sonar.cxx.squidbridge.checks.SquidCheck;
@@ -38,7 +39,7 @@ import org.sonar.cxx.squidbridge.checks.SquidCheck;
   priority = Priority.INFO)
 @ActivatedByDefault
 @NoSqale
-public class NoSonarCheck extends SquidCheck<Grammar> implements AstAndTokenVisitor {
+public class NoSonarCheck extends SquidCheck<Grammar> implements AstAndTokenVisitor, ParallelVisitor {
 
   private static final Pattern EOL_PATTERN = Pattern.compile("\\R");
 
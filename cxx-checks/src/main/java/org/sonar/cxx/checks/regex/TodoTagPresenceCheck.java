@@ -43,6 +43,11 @@ public class TodoTagPresenceCheck extends SquidCheck<Grammar> implements AstAndT
 
   private final CommentContainsPatternChecker checker = new CommentContainsPatternChecker(this, PATTERN, MESSAGE);
 
+  @Override
+  public void init() {
+    checker.init();
+  }
+
   @Override
   public void visitToken(Token token) {
     checker.visitToken(token);
@@ -27,6 +27,7 @@ import org.sonar.api.utils.WildcardPattern;
 import org.sonar.check.Priority;
 import org.sonar.check.Rule;
 import org.sonar.check.RuleProperty;
+import org.sonar.cxx.squidbridge.ParallelVisitor;
 import org.sonar.cxx.squidbridge.annotations.NoSqale;
 import org.sonar.cxx.squidbridge.annotations.RuleTemplate;
 import org.sonar.cxx.squidbridge.checks.AbstractXPathCheck;
@@ -37,7 +38,7 @@ import org.sonar.cxx.squidbridge.checks.AbstractXPathCheck;
   priority = Priority.MAJOR)
 @RuleTemplate
 @NoSqale
-public class XPathCheck extends AbstractXPathCheck<Grammar> {
+public class XPathCheck extends AbstractXPathCheck<Grammar> implements ParallelVisitor {
 
   private static final String DEFAULT_MATCH_FILE_PATTERN = "";
   private static final boolean DEFAULT_INVERT_FILE_PATTERN = false;
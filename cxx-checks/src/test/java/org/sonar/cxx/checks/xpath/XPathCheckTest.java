@@ -23,6 +23,7 @@ import java.io.IOException;
 import org.junit.jupiter.api.Test;
 import org.sonar.cxx.CxxAstScanner;
 import org.sonar.cxx.checks.CxxFileTesterHelper;
+import org.sonar.cxx.config.CxxSquidConfiguration;
 import org.sonar.cxx.squidbridge.api.SourceFile;
 import org.sonar.cxx.squidbridge.checks.CheckMessagesVerifier;
 
@@ -102,4 +103,29 @@ class XPathCheckTest {
       .noMore();
   }
 
+  @Test
+  @SuppressWarnings("squid:S2699") // ... verify contains the assertion
+  void xpathSkippedInLexerOnlyTier() throws IOException {
+    var check = new XPathCheck();
+    check.xpathQuery = "//IDENTIFIER";
+    check.message = "Avoid identifiers!! ";
+
+    var tester = CxxFileTesterHelper.create("src/test/resources/checks/xpath.cc", ".");
+    SourceFile file = CxxAstScanner.scanSingleInputFile(tester.asInputFile(), check);
+    CheckMessagesVerifier.verify(file.getCheckMessages())
+      .next().atLine(1).withMessage(check.message)
+      .noMore();
+
+    // without syntax tree the query would be evaluated on a flat tree of tokens: the check is skipped
+    var squidConfig = new CxxSquidConfiguration();
+    squidConfig.add(CxxSquidConfiguration.SONAR_PROJECT_PROPERTIES, CxxSquidConfiguration.ANALYSIS_TIER,
+                    CxxAstScanner.TIER_LEXER);
+    var lexerOnlyCheck = new XPathCheck();
+    lexerOnlyCheck.xpathQuery = check.xpathQuery;
+    lexerOnlyCheck.message = check.message;
+    file = CxxAstScanner.scanSingleInputFileConfig(tester.asInputFile(), squidConfig, lexerOnlyCheck);
+    CheckMessagesVerifier.verify(file.getCheckMessages())
+      .noMore();
+  }
+
 }
@@ -36,6 +36,7 @@ import org.sonar.api.batch.sensor.SensorContext;
 import org.sonar.api.batch.sensor.SensorDescriptor;
 import org.sonar.api.scanner.sensor.ProjectSensor;
 import org.sonar.cxx.sensors.utils.CxxUtils;
+import org.sonar.cxx.sensors.utils.ReportFileIndex;
 
 @Phase(name = Phase.Name.PRE)
 public class XlstSensor implements ProjectSensor {
@@ -49,8 +50,16 @@ public class XlstSensor implements ProjectSensor {
   private static final Logger LOG = LoggerFactory.getLogger(XlstSensor.class);
   private static final int MAX_STYLESHEETS = 10;
 
+  private final ReportFileIndex reportFileIndex;
   private SensorContext context;
 
+  /**
+   * @param reportFileIndex index of the report files, shared by all sensors: the transformed files are added to it
+   */
+  public XlstSensor(ReportFileIndex reportFileIndex) {
+    this.reportFileIndex = reportFileIndex;
+  }
+
   private static void transformFile(Source stylesheetFile, File input, File output) throws TransformerException {
     var factory = TransformerFactory.newInstance();
     factory.setAttribute(XMLConstants.ACCESS_EXTERNAL_DTD, "");
@@ -90,7 +99,7 @@ public class XlstSensor implements ProjectSensor {
         paramError = true;
       }
 
-      List<File> inputs = CxxUtils.getFiles(context, inputKey);
+      List<File> inputs = CxxUtils.getFiles(context, inputKey, reportFileIndex);
       if (inputs.isEmpty()) {
         LOG.error(MISSING_VALUE, inputKey);
         paramError = true;
@@ -124,6 +133,7 @@ public class XlstSensor implements ProjectSensor {
         var inputFile = inputs.get(j);
         var outputFile = createOutputFile(inputFile.getPath(), outputs);
         transformFile(stylesheetFile, inputFile, outputFile);
+        reportFileIndex.add(outputFile);
       } catch (TransformerException | NullPointerException e) {
         CxxUtils.validateRecovery("Cannot XLS transform files", e, context.config());
       }
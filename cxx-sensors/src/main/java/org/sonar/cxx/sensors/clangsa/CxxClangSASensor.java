@@ -19,23 +19,25 @@
  */
 package org.sonar.cxx.sensors.clangsa;
 
-import com.dd.plist.NSArray;
-import com.dd.plist.NSDictionary;
-import com.dd.plist.NSNumber;
-import com.dd.plist.NSObject;
-import com.dd.plist.NSString;
-import com.dd.plist.PropertyListParser;
 import java.io.File;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
-import javax.annotation.Nullable;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import org.sonar.api.batch.sensor.SensorDescriptor;
 import org.sonar.api.config.PropertyDefinition;
 import org.sonar.api.resources.Qualifiers;
 import org.sonar.cxx.sensors.utils.CxxIssuesReportSensor;
 import org.sonar.cxx.sensors.utils.CxxReportSensor;
+import org.sonar.cxx.sensors.utils.InputFileIndex;
 import org.sonar.cxx.sensors.utils.InvalidReportException;
+import org.sonar.cxx.sensors.utils.ReportFileIndex;
 import org.sonar.cxx.utils.CxxReportIssue;
 
 /**
@@ -46,6 +48,17 @@ public class CxxClangSASensor extends CxxIssuesReportSensor {
 
   public static final String REPORT_PATH_KEY = "sonar.cxx.clangsa.reportPaths";
 
+  private static final int READ_AHEAD_PER_THREAD = 4;
+
+  private final Map<File, Future<List<CxxReportIssue>>> pendingReports = new HashMap<>();
+  private Iterator<File> nextReports = Collections.emptyIterator();
+  private ExecutorService executor;
+  private int readAhead;
+
+  public CxxClangSASensor(InputFileIndex inputFileIndex, ReportFileIndex reportFileIndex) {
+    super(inputFileIndex, reportFileIndex);
+  }
+
   public static List<PropertyDefinition> properties() {
     return Collections.unmodifiableList(Arrays.asList(
       PropertyDefinition.builder(REPORT_PATH_KEY)
@@ -62,13 +75,6 @@ public class CxxClangSASensor extends CxxIssuesReportSensor {
     ));
   }
 
-  private static NSObject require(@Nullable NSObject object, String errorMsg) {
-    if (object == null) {
-      throw new IllegalArgumentException(errorMsg);
-    }
-    return object;
-  }
-
   @Override
   public void describe(SensorDescriptor descriptor) {
     descriptor
@@ -78,144 +84,74 @@ public class CxxClangSASensor extends CxxIssuesReportSensor {
       .onlyWhenConfiguration(conf -> conf.hasKey(getReportPathsKey()));
   }
 
-  private void addFlowToIssue(final NSDictionary diagnostic, final NSObject[] sourceFiles, final CxxReportIssue issue) {
-    NSObject[] path = ((NSArray) require(
-      diagnostic.objectForKey("path"), "Missing mandatory entry 'path'")).getArray();
-    for (var pathObject : path) {
-      var pathElement = new PathElement(pathObject);
-      if (pathElement.getKind() != PathElementKind.EVENT) {
-        continue;
-      }
-
-      var event = new PathEvent(pathObject, sourceFiles);
-      issue.addFlowElement(
-        event.getFilePath(), event.getLineNumber(), event.getColumnNumber(), event.getExtendedMessage()
-      );
+  /**
+   * The plist files are read concurrently by a thread pool. To limit the memory usage only a limited number of reports
+   * is read in advance. The issues are saved on the sensor thread in the order of the reports.
+   */
+  @Override
+  protected void executeReports(List<File> reports) {
+    int threads = Math.max(1, Runtime.getRuntime().availableProcessors());
+    executor = Executors.newFixedThreadPool(threads);
+    readAhead = READ_AHEAD_PER_THREAD * threads;
+    nextReports = reports.iterator();
+    try {
+      readAhead();
+      super.executeReports(reports);
+    } finally {
+      executor.shutdownNow();
+      executor = null;
+      pendingReports.clear();
     }
   }
 
   @Override
   protected void processReport(File report) {
+    List<CxxReportIssue> issues;
     try {
-      var f = new File(report.getPath());
-
-      var rootDict = (NSDictionary) PropertyListParser.parse(f);
-
-      NSObject[] diagnostics = ((NSArray) require(rootDict.objectForKey("diagnostics"),
-        "Missing mandatory entry 'diagnostics'")).getArray();
-      NSObject[] sourceFiles = ((NSArray) require(rootDict.objectForKey("files"),
-        "Missing mandatory entry 'files'")).getArray();
-
-      for (var diagnostic : diagnostics) {
-        var diag = (NSDictionary) diagnostic;
-
-        String description = ((NSString) require(diag.get("description"),
-          "Missing mandatory entry 'diagnostics/description'")).getContent();
-        String checkerName = ((NSString) require(diag.get("check_name"),
-          "Missing mandatory entry 'diagnostics/check_name'")).getContent();
-        var location = (NSDictionary) require(diag.get("location"),
-          "Missing mandatory entry 'diagnostics/location'");
-        var line = ((NSNumber) require(location.get("line"),
-          "Missing mandatory entry 'diagnostics/location/line'")).intValue();
-        var column = ((NSNumber) require(location.get("col"),
-          "Missing mandatory entry 'diagnostics/location/col'")).intValue();
-        var fileIndex = ((NSNumber) require(location.get("file"),
-          "Missing mandatory entry 'diagnostics/location/file'")).intValue();
-
-        if (fileIndex < 0 || fileIndex >= sourceFiles.length) {
-          throw new IllegalArgumentException("Invalid file index");
-        }
-        String filePath = ((NSString) sourceFiles[fileIndex]).getContent();
-
-        var issue = new CxxReportIssue(
-          checkerName, filePath,
-          Integer.toString(line), Integer.toString(column),
-          description);
-
-        addFlowToIssue(diag, sourceFiles, issue);
-
-        saveUniqueViolation(issue);
-      }
+      issues = readReport(report);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InvalidReportException("The 'Clang Static Analyzer' report is invalid", e);
     } catch (Exception e) {
       throw new InvalidReportException("The 'Clang Static Analyzer' report is invalid", e);
     }
-  }
-
-  @Override
-  protected String getReportPathsKey() {
-    return REPORT_PATH_KEY;
-  }
-
-  @Override
-  protected String getRuleRepositoryKey() {
-    return CxxClangSARuleRepository.KEY;
-  }
 
-  private enum PathElementKind {
-    CONTROL, EVENT, UNKNOWN
+    for (var issue : issues) {
+      saveUniqueViolation(issue);
+    }
   }
 
-  private class PathElement {
-
-    private final NSDictionary pathDict;
-
-    public PathElement(NSObject pathObject) {
-      pathDict = (NSDictionary) pathObject;
+  private List<CxxReportIssue> readReport(File report) throws Exception {
+    var future = pendingReports.remove(report);
+    if (future == null) {
+      return PlistReportReader.read(report);
     }
-
-    public PathElementKind getKind() {
-      String kind = ((NSString) require(pathDict.get("kind"), "Missing mandatory entry 'kind'")).getContent();
-      if (null == kind) {
-        return PathElementKind.UNKNOWN;
-      } else {
-        switch (kind) {
-          case "event":
-            return PathElementKind.EVENT;
-          case "control":
-            return PathElementKind.CONTROL;
-          default:
-            return PathElementKind.UNKNOWN;
-        }
+    readAhead();
+    try {
+      return future.get();
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof Exception cause) {
+        throw cause;
       }
+      throw e;
     }
   }
 
-  private class PathEvent {
-
-    private final NSDictionary eventDict;
-    private final NSObject[] sourceFiles;
-
-    public PathEvent(final NSObject eventDict, final NSObject[] sourceFiles) {
-      this.eventDict = (NSDictionary) eventDict;
-      this.sourceFiles = sourceFiles.clone();
-    }
-
-    public String getExtendedMessage() {
-      return ((NSString) require(eventDict.get("extended_message"), "Missing mandatory entry 'extended_message'"))
-        .getContent();
-    }
-
-    public String getLineNumber() {
-      var lineNumber = ((NSNumber) require(getLocation().get("line"), "Missing mandatory entry 'line'")).intValue();
-      return Integer.toString(lineNumber);
-    }
-
-    public String getColumnNumber() {
-      var columnNumber = ((NSNumber) require(getLocation().get("col"), "Missing mandatory entry 'col'")).intValue();
-      return Integer.toString(columnNumber);
+  private void readAhead() {
+    while (executor != null && pendingReports.size() < readAhead && nextReports.hasNext()) {
+      var report = nextReports.next();
+      pendingReports.putIfAbsent(report, executor.submit(() -> PlistReportReader.read(report)));
     }
+  }
 
-    public String getFilePath() {
-      var fileIndex = ((NSNumber) require(getLocation().get("file"), "Missing mandatory entry 'file'")).intValue();
-      if (fileIndex < 0 || fileIndex >= sourceFiles.length) {
-        throw new IllegalArgumentException("Invalid file index");
-      }
-      return ((NSString) sourceFiles[fileIndex]).getContent();
-    }
+  @Override
+  protected String getReportPathsKey() {
+    return REPORT_PATH_KEY;
+  }
 
-    private NSDictionary getLocation() {
-      return (NSDictionary) require(eventDict.get("location"), "Missing mandatory entry 'location'");
-    }
+  @Override
+  protected String getRuleRepositoryKey() {
+    return CxxClangSARuleRepository.KEY;
   }
 
 }
@@ -0,0 +1,308 @@
+/*
+ * C++ Community Plugin (cxx plugin)
+ * Copyright (C) 2010-2024 SonarOpenCommunity
+ * http://github.com/SonarOpenCommunity/sonar-cxx
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.cxx.sensors.clangsa;
+
+import com.dd.plist.PropertyListParser;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import javax.annotation.Nullable;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import org.codehaus.staxmate.in.SMHierarchicCursor;
+import org.sonar.cxx.sensors.utils.StaxParser;
+import org.sonar.cxx.utils.CxxReportIssue;
+
+/**
+ * Reads the issues of a Clang Static Analyzer plist report.
+ *
+ * The XML is read in a single pass with StAX. Only the entries {@code files}, {@code diagnostics} and the events of
+ * {@code path} are evaluated, all other values (e.g. {@code edges} and {@code ranges}) are skipped without creating
+ * objects. Because the diagnostics refer to the files by index and clang writes the keys in alphabetical order
+ * ({@code diagnostics} before {@code files}), the diagnostics are collected first and the issues are created at the
+ * end.
+ *
+ * Binary plist files are converted to XML with dd-plist before reading.
+ */
+final class PlistReportReader {
+
+  private final List<String> files = new ArrayList<>();
+  private final List<Diagnostic> diagnostics = new ArrayList<>();
+  private boolean hasFiles = false;
+  private boolean hasDiagnostics = false;
+
+  private PlistReportReader() {
+  }
+
+  /**
+   * Read the issues of a report.
+   *
+   * @param report plist file to read
+   * @return issues in the order of the report
+   * @throws IllegalArgumentException if a mandatory entry is missing
+   */
+  static List<CxxReportIssue> read(File report) throws XMLStreamException, IOException {
+    var reader = new PlistReportReader();
+    var parser = new StaxParser((SMHierarchicCursor rootCursor) -> {
+      rootCursor.advance();
+      reader.readPlist(rootCursor.getStreamReader());
+    });
+    if (isBinary(report)) {
+      try {
+        parser.parse(new StringReader(PropertyListParser.parse(report).toXMLPropertyList()));
+      } catch (Exception e) {
+        throw new IOException("Cannot convert binary plist '" + report + "'", e);
+      }
+    } else {
+      parser.parse(report);
+    }
+    return reader.createIssues();
+  }
+
+  private static boolean isBinary(File report) throws IOException {
+    var magic = "bplist".getBytes(StandardCharsets.US_ASCII);
+    try (InputStream input = Files.newInputStream(report.toPath())) {
+      var header = input.readNBytes(magic.length);
+      return Arrays.equals(header, magic);
+    }
+  }
+
+  private void readPlist(XMLStreamReader reader) throws XMLStreamException {
+    // reader is positioned on <plist>, the root value is a dictionary
+    if (reader.nextTag() != XMLStreamConstants.START_ELEMENT || !"dict".equals(reader.getLocalName())) {
+      throw new IllegalArgumentException("Missing root dictionary");
+    }
+    while (next(reader)) {
+      var key = reader.getElementText();
+      reader.nextTag();
+      switch (key) {
+        case "files":
+          hasFiles = true;
+          while (next(reader)) {
+            files.add(reader.getElementText());
+          }
+          break;
+        case "diagnostics":
+          hasDiagnostics = true;
+          while (next(reader)) {
+            diagnostics.add(readDiagnostic(reader));
+          }
+          break;
+        default:
+          skip(reader);
+          break;
+      }
+    }
+  }
+
+  private static Diagnostic readDiagnostic(XMLStreamReader reader) throws XMLStreamException {
+    var diagnostic = new Diagnostic();
+    while (next(reader)) {
+      var key = reader.getElementText();
+      reader.nextTag();
+      switch (key) {
+        case "description":
+          diagnostic.description = reader.getElementText();
+          break;
+        case "check_name":
+          diagnostic.checkName = reader.getElementText();
+          break;
+        case "location":
+          diagnostic.location = readLocation(reader);
+          break;
+        case "path":
+          diagnostic.path = new ArrayList<>();
+          while (next(reader)) {
+            var event = readPathElement(reader);
+            if (event != null) {
+              diagnostic.path.add(event);
+            }
+          }
+          break;
+        default:
+          skip(reader);
+          break;
+      }
+    }
+    return diagnostic;
+  }
+
+  @Nullable
+  private static Event readPathElement(XMLStreamReader reader) throws XMLStreamException {
+    String kind = null;
+    var event = new Event();
+    while (next(reader)) {
+      var key = reader.getElementText();
+      reader.nextTag();
+      switch (key) {
+        case "kind":
+          kind = reader.getElementText();
+          break;
+        case "location":
+          event.location = readLocation(reader);
+          break;
+        case "extended_message":
+          event.extendedMessage = reader.getElementText();
+          break;
+        default:
+          skip(reader);
+          break;
+      }
+    }
+    require(kind, "Missing mandatory entry 'kind'");
+    return "event".equals(kind) ? event : null;
+  }
+
+  private static Location readLocation(XMLStreamReader reader) throws XMLStreamException {
+    var location = new Location();
+    while (next(reader)) {
+      var key = reader.getElementText();
+      reader.nextTag();
+      switch (key) {
+        case "line":
+          location.line = readInteger(reader);
+          break;
+        case "col":
+          location.col = readInteger(reader);
+          break;
+        case "file":
+          location.file = readInteger(reader);
+          break;
+        default:
+          skip(reader);
+          break;
+      }
+    }
+    return location;
+  }
+
+  private static Integer readInteger(XMLStreamReader reader) throws XMLStreamException {
+    return Integer.valueOf(reader.getElementText().trim());
+  }
+
+  /**
+   * Move to the next {@code <key>} of a dictionary or to the next value of an array.
+   *
+   * @return false at the end of the dictionary or array
+   */
+  private static boolean next(XMLStreamReader reader) throws XMLStreamException {
+    return reader.nextTag() == XMLStreamConstants.START_ELEMENT;
+  }
+
+  /**
+   * Skip the current element including all children.
+   */
+  private static void skip(XMLStreamReader reader) throws XMLStreamException {
+    var depth = 1;
+    while (depth > 0) {
+      switch (reader.next()) {
+        case XMLStreamConstants.START_ELEMENT:
+          depth++;
+          break;
+        case XMLStreamConstants.END_ELEMENT:
+          depth--;
+          break;
+        default:
+          break;
+      }
+    }
+  }
+
+  private List<CxxReportIssue> createIssues() {
+    if (!hasDiagnostics) {
+      throw new IllegalArgumentException("Missing mandatory entry 'diagnostics'");
+    }
+    if (!hasFiles) {
+      throw new IllegalArgumentException("Missing mandatory entry 'files'");
+    }
+
+    var issues = new ArrayList<CxxReportIssue>(diagnostics.size());
+    for (var diagnostic : diagnostics) {
+      String description = require(diagnostic.description, "Missing mandatory entry 'diagnostics/description'");
+      String checkerName = require(diagnostic.checkName, "Missing mandatory entry 'diagnostics/check_name'");
+      var location = require(diagnostic.location, "Missing mandatory entry 'diagnostics/location'");
+      var line = require(location.line, "Missing mandatory entry 'diagnostics/location/line'");
+      var column = require(location.col, "Missing mandatory entry 'diagnostics/location/col'");
+      var fileIndex = require(location.file, "Missing mandatory entry 'diagnostics/location/file'");
+
+      var issue = new CxxReportIssue(
+        checkerName, getFile(fileIndex),
+        Integer.toString(line), Integer.toString(column),
+        description);
+
+      for (var event : require(diagnostic.path, "Missing mandatory entry 'path'")) {
+        var eventLocation = require(event.location, "Missing mandatory entry 'location'");
+        String message = require(event.extendedMessage, "Missing mandatory entry 'extended_message'");
+        issue.addFlowElement(
+          getFile(require(eventLocation.file, "Missing mandatory entry 'file'")),
+          Integer.toString(require(eventLocation.line, "Missing mandatory entry 'line'")),
+          Integer.toString(require(eventLocation.col, "Missing mandatory entry 'col'")),
+          message
+        );
+      }
+
+      issues.add(issue);
+    }
+    return issues;
+  }
+
+  private String getFile(int fileIndex) {
+    if (fileIndex < 0 || fileIndex >= files.size()) {
+      throw new IllegalArgumentException("Invalid file index");
+    }
+    return files.get(fileIndex);
+  }
+
+  private static <T> T require(@Nullable T object, String errorMsg) {
+    if (object == null) {
+      throw new IllegalArgumentException(errorMsg);
+    }
+    return object;
+  }
+
+  private static class Location {
+
+    private Integer line;
+    private Integer col;
+    private Integer file;
+  }
+
+  private static class Event {
+
+    private Location location;
+    private String extendedMessage;
+  }
+
+  private static class Diagnostic {
+
+    private String description;
+    private String checkName;
+    private Location location;
+    private List<Event> path;
+  }
+
+}
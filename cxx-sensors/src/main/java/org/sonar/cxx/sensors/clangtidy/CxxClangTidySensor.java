@@ -29,7 +29,9 @@ import org.sonar.api.config.PropertyDefinition;
 import org.sonar.api.resources.Qualifiers;
 import org.sonar.cxx.sensors.utils.CxxIssuesReportSensor;
 import org.sonar.cxx.sensors.utils.CxxReportSensor;
+import org.sonar.cxx.sensors.utils.InputFileIndex;
 import org.sonar.cxx.sensors.utils.InvalidReportException;
+import org.sonar.cxx.sensors.utils.ReportFileIndex;
 
 /**
  * Sensor for clang-tidy
@@ -40,6 +42,10 @@ public class CxxClangTidySensor extends CxxIssuesReportSensor {
   public static final String REPORT_ENCODING_DEF = "sonar.cxx.clangtidy.encoding";
   public static final String DEFAULT_ENCODING_DEF = StandardCharsets.UTF_8.name();
 
+  public CxxClangTidySensor(InputFileIndex inputFileIndex, ReportFileIndex reportFileIndex) {
+    super(inputFileIndex, reportFileIndex);
+  }
+
   public static List<PropertyDefinition> properties() {
     return Collections.unmodifiableList(Arrays.asList(
       PropertyDefinition.builder(REPORT_PATH_KEY)
@@ -29,7 +29,9 @@ import javax.annotation.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.sonar.cxx.sensors.utils.CxxIssuesReportSensor;
+import org.sonar.cxx.sensors.utils.InputFileIndex;
 import org.sonar.cxx.sensors.utils.InvalidReportException;
+import org.sonar.cxx.sensors.utils.ReportFileIndex;
 import org.sonar.cxx.sensors.utils.TextScanner;
 import org.sonar.cxx.utils.CxxReportIssue;
 
@@ -41,6 +43,13 @@ public abstract class CxxCompilerSensor extends CxxIssuesReportSensor {
   private static final Logger LOG = LoggerFactory.getLogger(CxxCompilerSensor.class);
   private final Set<String> notExistingGroupName = new HashSet<>();
 
+  /**
+   * {@inheritDoc}
+   */
+  protected CxxCompilerSensor(InputFileIndex inputFileIndex, ReportFileIndex reportFileIndex) {
+    super(inputFileIndex, reportFileIndex);
+  }
+
   @Override
   protected void processReport(File report) {
 
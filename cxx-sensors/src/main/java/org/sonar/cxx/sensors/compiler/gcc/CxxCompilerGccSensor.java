@@ -30,6 +30,8 @@ import org.sonar.api.config.PropertyDefinition;
 import org.sonar.api.resources.Qualifiers;
 import org.sonar.cxx.sensors.compiler.CxxCompilerSensor;
 import org.sonar.cxx.sensors.utils.CxxReportSensor;
+import org.sonar.cxx.sensors.utils.InputFileIndex;
+import org.sonar.cxx.sensors.utils.ReportFileIndex;
 
 public class CxxCompilerGccSensor extends CxxCompilerSensor {
 
@@ -45,6 +47,10 @@ public class CxxCompilerGccSensor extends CxxCompilerSensor {
   public static final String DEFAULT_REGEX_DEF
     = "(?<file>[^:]*+):(?<line>\\d{1,5}):\\d{1,5}:\\x20warning:\\x20(?<message>.*?)(\\x20\\[(?<id>[^\\[]*)\\])?\\s*$";
 
+  public CxxCompilerGccSensor(InputFileIndex inputFileIndex, ReportFileIndex reportFileIndex) {
+    super(inputFileIndex, reportFileIndex);
+  }
+
   public static List<PropertyDefinition> properties() {
     var subcateg = "GCC";
     return Collections.unmodifiableList(Arrays.asList(
@@ -28,6 +28,8 @@ import org.sonar.api.config.PropertyDefinition;
 import org.sonar.api.resources.Qualifiers;
 import org.sonar.cxx.sensors.compiler.CxxCompilerSensor;
 import org.sonar.cxx.sensors.utils.CxxReportSensor;
+import org.sonar.cxx.sensors.utils.InputFileIndex;
+import org.sonar.cxx.sensors.utils.ReportFileIndex;
 
 public class CxxCompilerVcSensor extends CxxCompilerSensor {
 
@@ -40,6 +42,10 @@ public class CxxCompilerVcSensor extends CxxCompilerSensor {
     (?>[^>]*+>)?(?<file>(?>[^\\\\]{1,260}\\\\)*[^\\\\]{1,260})\\((?<line>\\d{1,5})\\)\\x20?:\
     \\x20warning\\x20(?<id>C\\d{4,5}):\\x20?(?<message>.*)""";
 
+  public CxxCompilerVcSensor(InputFileIndex inputFileIndex, ReportFileIndex reportFileIndex) {
+    super(inputFileIndex, reportFileIndex);
+  }
+
   public static List<PropertyDefinition> properties() {
     var subcategory = "Visual C++";
     return Collections.unmodifiableList(Arrays.asList(
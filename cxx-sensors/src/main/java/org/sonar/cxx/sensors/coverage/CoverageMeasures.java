@@ -19,20 +19,38 @@
  */
 package org.sonar.cxx.sensors.coverage;
 
-import java.util.Collection;
+import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Map;
 import java.util.Set;
 
 /**
+ * Line coverage of one file.
+ *
+ * The measures are stored in primitive arrays indexed by line number: hits (-1 = no measure for the line),
+ * conditions and covered conditions. Measures of several reports for the same file are combined with
+ * {@link #merge(CoverageMeasures)}.
  *
  * @author jocs
  */
 public final class CoverageMeasures {
 
-  private final Map<Integer, CoverageMeasure> lineMeasures = new HashMap<>();
+  private static final int NO_MEASURE = -1;
+  private static final int INITIAL_SIZE = 64;
+
+  private int[] hits = new int[0];
+  private int[] conditions = new int[0];
+  private int[] coveredConditions = new int[0];
+  private int size = 0;
+
+  /**
+   * Visitor for the line measures.
+   */
+  @FunctionalInterface
+  public interface LineVisitor {
+
+    void visit(int line, int hits, int conditions, int coveredConditions);
+  }
 
   private CoverageMeasures() {
     // empty
@@ -43,28 +61,72 @@ public final class CoverageMeasures {
   }
 
   public void setHits(int lineId, int hits) {
-    lineMeasures.computeIfAbsent(lineId, v -> new CoverageMeasure(lineId));
-    var coverageMeasure = lineMeasures.get(lineId);
-    coverageMeasure.setHits(hits);
+    if (ensureLine(lineId)) {
+      this.hits[lineId] += hits;
+    }
   }
 
   public void setConditions(int lineId, int totalConditions, int coveredConditions) {
-    lineMeasures.computeIfAbsent(lineId, v -> new CoverageMeasure(lineId));
-    var coverageMeasure = lineMeasures.get(lineId);
-    coverageMeasure.setConditions(totalConditions, coveredConditions);
+    if (ensureLine(lineId)) {
+      this.conditions[lineId] = totalConditions;
+      this.coveredConditions[lineId] = coveredConditions;
+    }
+  }
+
+  /**
+   * Merge the measures of another report for the same file: hits are summed up, for conditions and covered
+   * conditions the maximum is used (same as SonarQube does when saving coverage several times for a file). The merge
+   * is associative and commutative, reports can be merged in any order.
+   *
+   * @param other measures to merge into this one
+   * @return this
+   */
+  public CoverageMeasures merge(CoverageMeasures other) {
+    if (other.size > 0) {
+      ensureCapacity(other.size);
+      for (int line = 0; line < other.size; line++) {
+        if (other.hits[line] != NO_MEASURE) {
+          hits[line] = Math.max(hits[line], 0) + other.hits[line];
+          conditions[line] = Math.max(conditions[line], other.conditions[line]);
+          coveredConditions[line] = Math.max(coveredConditions[line], other.coveredConditions[line]);
+        }
+      }
+      size = Math.max(size, other.size);
+    }
+    return this;
   }
 
-  Collection<CoverageMeasure> getCoverageMeasures() {
-    var measures = new HashMap<Integer, CoverageMeasure>();
-    measures.putAll(lineMeasures);
-    return measures.values();
+  /**
+   * Calls the visitor for all lines with measures in ascending line order.
+   *
+   * @param visitor to call
+   */
+  public void forEachLine(LineVisitor visitor) {
+    for (int line = 0; line < size; line++) {
+      if (hits[line] != NO_MEASURE) {
+        visitor.visit(line, hits[line], conditions[line], coveredConditions[line]);
+      }
+    }
+  }
+
+  /**
+   * Number of lines with measures.
+   */
+  public int lineCount() {
+    var count = 0;
+    for (int line = 0; line < size; line++) {
+      if (hits[line] != NO_MEASURE) {
+        count++;
+      }
+    }
+    return count;
   }
 
   public Set<Integer> getCoveredLines() {
     var coveredLines = new HashSet<Integer>();
-    lineMeasures.forEach((Integer key, CoverageMeasure value) -> {
-      if (value.getHits() != 0) {
-        coveredLines.add(value.getLine());
+    forEachLine((int line, int lineHits, int lineConditions, int lineCoveredConditions) -> {
+      if (lineHits != 0) {
+        coveredLines.add(line);
       }
     });
     return Collections.unmodifiableSet(coveredLines);
@@ -72,12 +134,38 @@ public final class CoverageMeasures {
 
   public Set<Integer> getCoveredConditions() {
     var coveredConditionLines = new HashSet<Integer>();
-    lineMeasures.forEach((Integer key, CoverageMeasure value) -> {
-      if (value.getCoveredConditions() != 0) {
-        coveredConditionLines.add(value.getLine());
+    forEachLine((int line, int lineHits, int lineConditions, int lineCoveredConditions) -> {
+      if (lineCoveredConditions != 0) {
+        coveredConditionLines.add(line);
       }
     });
     return Collections.unmodifiableSet(coveredConditionLines);
   }
 
+  private boolean ensureLine(int lineId) {
+    if (lineId < 0) {
+      // invalid line number in report, cannot be saved anyway
+      return false;
+    }
+    if (lineId >= size) {
+      ensureCapacity(lineId + 1);
+      size = lineId + 1;
+    }
+    if (hits[lineId] == NO_MEASURE) {
+      hits[lineId] = 0;
+    }
+    return true;
+  }
+
+  private void ensureCapacity(int minCapacity) {
+    if (minCapacity > hits.length) {
+      int capacity = Math.max(Math.max(INITIAL_SIZE, minCapacity), hits.length + (hits.length >> 1));
+      int oldCapacity = hits.length;
+      hits = Arrays.copyOf(hits, capacity);
+      Arrays.fill(hits, oldCapacity, capacity, NO_MEASURE);
+      conditions = Arrays.copyOf(conditions, capacity);
+      coveredConditions = Arrays.copyOf(coveredConditions, capacity);
+    }
+  }
+
 }
@@ -20,9 +20,14 @@
 package org.sonar.cxx.sensors.coverage;
 
 import java.io.File;
-import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import javax.annotation.CheckForNull;
+import javax.annotation.Nullable;
+import org.sonar.api.batch.fs.InputFile;
 import org.sonar.api.batch.sensor.coverage.NewCoverage;
 import org.sonar.api.utils.PathUtils;
 import org.slf4j.Logger;
@@ -30,21 +35,33 @@ import org.slf4j.LoggerFactory;
 import org.sonar.cxx.sensors.utils.CxxReportSensor;
 import org.sonar.cxx.sensors.utils.CxxUtils;
 import org.sonar.cxx.sensors.utils.EmptyReportException;
+import org.sonar.cxx.sensors.utils.InputFileIndex;
 import org.sonar.cxx.sensors.utils.ReportException;
+import org.sonar.cxx.sensors.utils.ReportFileIndex;
+import org.sonar.cxx.sensors.utils.ReportParsedEvent;
 
 /**
  * {@inheritDoc}
+ *
+ * All reports of a sensor are parsed concurrently, the measures for the same InputFile are merged and saved once per
+ * InputFile.
  */
 public abstract class CoverageSensor extends CxxReportSensor {
 
   private static final Logger LOG = LoggerFactory.getLogger(CoverageSensor.class);
 
-  private final CoverageParser parser;
+  private final Supplier<CoverageParser> parserFactory;
   private final String reportPathsKey;
 
-  protected CoverageSensor(String reportPathsKey, CoverageParser parser) {
+  /**
+   * @param reportPathsKey property key with report paths
+   * @param parserFactory creates a parser instance per report, parsers are not required to be thread-safe
+   */
+  protected CoverageSensor(InputFileIndex inputFileIndex, ReportFileIndex reportFileIndex, String reportPathsKey,
+                           Supplier<CoverageParser> parserFactory) {
+    super(inputFileIndex, reportFileIndex);
     this.reportPathsKey = reportPathsKey;
-    this.parser = parser;
+    this.parserFactory = parserFactory;
   }
 
   /**
@@ -53,77 +70,147 @@ public abstract class CoverageSensor extends CxxReportSensor {
   @Override
   public void executeImpl() {
     List<File> reports = getReports(reportPathsKey);
-    for (var report : reports) {
-      executeReport(report);
+    List<ParsedReport> parsedReports = reports.parallelStream()
+      .map(this::parseReport)
+      .collect(Collectors.toList());
+
+    var coverage = new LinkedHashMap<InputFile, CoverageMeasures>();
+    for (var parsedReport : parsedReports) {
+      mergeReport(parsedReport, coverage);
     }
+    saveMeasures(coverage);
   }
 
   /**
+   * Parse a report, runs concurrently for all reports of the sensor.
+   *
    * @param report to read
+   * @return parse result or error
    */
-  protected void executeReport(File report) {
+  protected ParsedReport parseReport(File report) {
+    var event = new ReportParsedEvent();
+    event.begin();
+    var parser = parserFactory.get();
+    ParsedReport result;
     try {
       LOG.info("Processing report '{}'", report);
-      processReport(report);
-    } catch (EmptyReportException e) {
-      LOG.warn(e.getMessage());
+      var coverageData = parser.parse(report);
+      if (coverageData.isEmpty()) {
+        throw new EmptyReportException("Coverage report " + report + " result is empty (parsed by " + parser + ")");
+      }
+      result = new ParsedReport(report, coverageData, null);
     } catch (ReportException e) {
-      CxxUtils.validateRecovery(e.getMessage(), e, context.config());
+      result = new ParsedReport(report, null, e);
     }
-  }
 
-  protected void processReport(File report) {
-    var coverageData = parser.parse(report);
-    if (coverageData.isEmpty()) {
-      throw new EmptyReportException("Coverage report " + report + " result is empty (parsed by " + parser + ")");
+    event.end();
+    if (event.shouldCommit()) {
+      event.sensor = toString();
+      event.report = report.getPath();
+      event.size = report.length();
+      event.items = result.coverageData != null ? result.coverageData.size() : 0;
+      event.failed = result.error != null;
+      event.commit();
     }
-
-    saveMeasures(coverageData);
+    return result;
   }
 
-  protected void saveMeasures(Map<String, CoverageMeasures> coverageMeasures) {
-    for (var entry : coverageMeasures.entrySet()) {
-      String filePath = PathUtils.sanitize(entry.getKey());
-      if (filePath != null) {
-        var cxxFile = getInputFileIfInProject(filePath);
-
-        if (cxxFile != null) {
-          var newCoverage = context.newCoverage().onFile(cxxFile);
-          Collection<CoverageMeasure> measures = entry.getValue().getCoverageMeasures();
-          measures.forEach((CoverageMeasure measure) -> checkCoverage(newCoverage, measure));
-
-          try {
-            newCoverage.save();
-            LOG.debug("Saved '{}' coverage measures for file '{}'", measures.size(), filePath);
-          } catch (RuntimeException e) {
-            var msg = "Cannot save coverage measures for file '" + filePath + "'";
-            CxxUtils.validateRecovery(msg, e, context.config());
-          }
+  private void mergeReport(ParsedReport parsedReport, Map<InputFile, CoverageMeasures> coverage) {
+    if (parsedReport.error instanceof EmptyReportException) {
+      LOG.warn(parsedReport.error.getMessage());
+    } else if (parsedReport.error != null) {
+      CxxUtils.validateRecovery(parsedReport.error.getMessage(), parsedReport.error, context.config());
+    } else if (parsedReport.coverageData != null) {
+      var event = new CoverageMergedEvent();
+      event.begin();
+      var ignoredFiles = 0;
+      for (var entry : parsedReport.coverageData.entrySet()) {
+        var inputFile = getInputFile(entry.getKey());
+        if (inputFile != null) {
+          coverage.merge(inputFile, entry.getValue(), CoverageMeasures::merge);
         } else {
-          if (filePath.startsWith(context.fileSystem().baseDir().getAbsolutePath())) {
-            LOG.warn("Cannot find the file '{}', ignoring coverage measures", filePath);
-          } else {
-            LOG.debug("Ignoring coverage measures for '{}'", filePath);
-          }
+          ignoredFiles++;
         }
+      }
+      event.end();
+      if (event.shouldCommit()) {
+        event.sensor = toString();
+        event.report = parsedReport.report.getPath();
+        event.files = parsedReport.coverageData.size() - ignoredFiles;
+        event.ignoredFiles = ignoredFiles;
+        event.commit();
+      }
+    }
+  }
+
+  @CheckForNull
+  private InputFile getInputFile(String path) {
+    String filePath = PathUtils.sanitize(path);
+    if (filePath == null) {
+      LOG.warn("Cannot sanitize file path '{}', ignoring coverage measures", path);
+      return null;
+    }
+
+    var inputFile = getInputFileIfInProject(filePath);
+    if (inputFile == null) {
+      if (filePath.startsWith(context.fileSystem().baseDir().getAbsolutePath())) {
+        LOG.warn("Cannot find the file '{}', ignoring coverage measures", filePath);
       } else {
-        LOG.warn("Cannot sanitize file path '{}', ignoring coverage measures", entry.getKey());
+        LOG.debug("Ignoring coverage measures for '{}'", filePath);
+      }
+    }
+    return inputFile;
+  }
+
+  protected void saveMeasures(Map<InputFile, CoverageMeasures> coverage) {
+    for (var entry : coverage.entrySet()) {
+      var inputFile = entry.getKey();
+      var measures = entry.getValue();
+      var newCoverage = context.newCoverage().onFile(inputFile);
+      measures.forEachLine((int line, int hits, int conditions, int coveredConditions)
+        -> checkCoverage(newCoverage, line, hits, conditions, coveredConditions));
+
+      try {
+        newCoverage.save();
+        LOG.debug("Saved '{}' coverage measures for file '{}'", measures.lineCount(), inputFile);
+      } catch (RuntimeException e) {
+        var msg = "Cannot save coverage measures for file '" + inputFile + "'";
+        CxxUtils.validateRecovery(msg, e, context.config());
       }
     }
   }
 
   /**
    * @param newCoverage
-   * @param measure
+   * @param line
+   * @param hits
+   * @param conditions
+   * @param coveredConditions
    */
-  protected void checkCoverage(NewCoverage newCoverage, CoverageMeasure measure) {
+  protected void checkCoverage(NewCoverage newCoverage, int line, int hits, int conditions, int coveredConditions) {
     try {
-      newCoverage.lineHits(measure.getLine(), measure.getHits());
-      newCoverage.conditions(measure.getLine(), measure.getConditions(), measure.getCoveredConditions());
+      newCoverage.lineHits(line, hits);
+      newCoverage.conditions(line, conditions, coveredConditions);
     } catch (RuntimeException e) {
-      var msg = "Cannot save Conditions Hits for Line '" + measure.getLine() + "'";
+      var msg = "Cannot save Conditions Hits for Line '" + line + "'";
       CxxUtils.validateRecovery(msg, e, context.config());
     }
   }
 
+  /**
+   * Result of parsing one report: either coverage data or an error.
+   */
+  protected static class ParsedReport {
+
+    private final File report;
+    private final Map<String, CoverageMeasures> coverageData;
+    private final ReportException error;
+
+    ParsedReport(File report, @Nullable Map<String, CoverageMeasures> coverageData, @Nullable ReportException error) {
+      this.report = report;
+      this.coverageData = coverageData;
+      this.error = error;
+    }
+  }
+
 }
@@ -27,13 +27,15 @@ import org.sonar.api.config.PropertyDefinition;
 import org.sonar.api.resources.Qualifiers;
 import org.sonar.cxx.sensors.coverage.CoverageSensor;
 import org.sonar.cxx.sensors.utils.CxxReportSensor;
+import org.sonar.cxx.sensors.utils.InputFileIndex;
+import org.sonar.cxx.sensors.utils.ReportFileIndex;
 
 public class CxxCoverageBullseyeSensor extends CoverageSensor {
 
   public static final String REPORT_PATH_KEY = "sonar.cxx.bullseye.reportPaths";
 
-  public CxxCoverageBullseyeSensor() {
-    super(REPORT_PATH_KEY, new BullseyeParser());
+  public CxxCoverageBullseyeSensor(InputFileIndex inputFileIndex, ReportFileIndex reportFileIndex) {
+    super(inputFileIndex, reportFileIndex, REPORT_PATH_KEY, BullseyeParser::new);
   }
 
   public static List<PropertyDefinition> properties() {
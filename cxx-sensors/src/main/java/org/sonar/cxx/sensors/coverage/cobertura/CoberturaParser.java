@@ -21,12 +21,16 @@ package org.sonar.cxx.sensors.coverage.cobertura;
 
 import java.io.File;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.regex.Pattern;
+import javax.annotation.CheckForNull;
+import javax.annotation.Nullable;
+import javax.xml.stream.XMLStreamConstants;
 import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import org.codehaus.staxmate.in.SMHierarchicCursor;
-import org.codehaus.staxmate.in.SMInputCursor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.sonar.cxx.sensors.coverage.CoverageMeasures;
@@ -41,9 +45,6 @@ import org.sonar.cxx.sensors.utils.StaxParser;
 public class CoberturaParser implements CoverageParser {
 
   private static final Logger LOG = LoggerFactory.getLogger(CoberturaParser.class);
-  private static final Pattern CONDITION_PATTERN = Pattern.compile("\\((.*?)\\)");
-
-  private Path baseDir = Path.of(".");
 
   /**
    * Join two paths
@@ -90,28 +91,30 @@ public class CoberturaParser implements CoverageParser {
     return result.toString();
   }
 
-  private static void collectFileData(SMInputCursor clazz, CoverageMeasures builder) throws XMLStreamException {
-    SMInputCursor line = clazz.childElementCursor("lines").advance().childElementCursor("line");
-
-    while (line.getNext() != null) {
-      var lineId = Integer.parseInt(line.getAttrValue("number"));
-      var noHits = Long.parseLong(line.getAttrValue("hits"));
-      if (noHits > Integer.MAX_VALUE) {
-        LOG.warn("Truncating the actual number of hits ({}) to the maximum number supported by SonarQube ({})",
-          noHits, Integer.MAX_VALUE);
-        noHits = Integer.MAX_VALUE;
-      }
-      builder.setHits(lineId, (int) noHits);
-
-      String isBranch = line.getAttrValue("branch");
-      String text = line.getAttrValue("condition-coverage");
-      if (text != null && "true".equals(isBranch) && !text.trim().isEmpty()) {
-        var m = CONDITION_PATTERN.matcher(text);
-        if (m.find()) {
-          String[] conditions = m.group(1).split("/");
-          builder.setConditions(lineId, Integer.parseInt(conditions[1]), Integer.parseInt(conditions[0]));
-        }
-      }
+  /**
+   * Parse the covered and total conditions from a condition-coverage attribute like "50% (1/2)".
+   *
+   * @param text value of condition-coverage attribute
+   * @return [covered, total] or null if the value has no valid format
+   */
+  @CheckForNull
+  public static int[] parseConditions(String text) {
+    int open = text.indexOf('(');
+    if (open < 0) {
+      return null;
+    }
+    int slash = text.indexOf('/', open + 1);
+    int close = text.indexOf(')', open + 1);
+    if (slash < 0 || close < slash) {
+      return null;
+    }
+    try {
+      return new int[]{
+        Integer.parseInt(text, open + 1, slash, 10),
+        Integer.parseInt(text, slash + 1, close, 10)
+      };
+    } catch (NumberFormatException e) {
+      return null;
     }
   }
 
@@ -122,23 +125,15 @@ public class CoberturaParser implements CoverageParser {
   public Map<String, CoverageMeasures> parse(File report) {
     var coverageData = new HashMap<String, CoverageMeasures>();
     try {
-      baseDir = Path.of(".");
-
-      var sourceParser = new StaxParser((SMHierarchicCursor rootCursor) -> {
+      var parser = new StaxParser((SMHierarchicCursor rootCursor) -> {
         try {
           rootCursor.advance();
         } catch (com.ctc.wstx.exc.WstxEOFException e) {
           throw new EmptyReportException("Coverage report " + report + " result is empty (parsed by " + this + ")", e);
         }
-        readBaseDir(rootCursor.descendantElementCursor("source"));
-      });
-      sourceParser.parse(report);
-
-      var packageParser = new StaxParser((SMHierarchicCursor rootCursor) -> {
-        rootCursor.advance();
-        collectPackageMeasures(rootCursor.descendantElementCursor("package"), coverageData);
+        new ReportReader(rootCursor.getStreamReader(), coverageData).read();
       });
-      packageParser.parse(report);
+      parser.parse(report);
     } catch (XMLStreamException e) {
       throw new InvalidReportException("Cobertura coverage report '" + report + "' cannot be parsed.", e);
     }
@@ -150,32 +145,152 @@ public class CoberturaParser implements CoverageParser {
     return getClass().getSimpleName();
   }
 
-  private void readBaseDir(SMInputCursor source) throws XMLStreamException {
-    while (source.getNext() != null) {
-      String sourceValue = source.getElemStringValue().trim();
-      if (!sourceValue.isEmpty()) {
+  /**
+   * Reads the report in a single pass.
+   *
+   * The file names of the classes are relative to the first non-empty {@code <source>} element. Usually the
+   * {@code <sources>} are located before the {@code <packages>}, so the measures can be stored immediately. Classes
+   * found before the base directory is known are buffered and resolved later.
+   */
+  private static class ReportReader {
+
+    private final XMLStreamReader reader;
+    private final Map<String, CoverageMeasures> coverageData;
+    private final List<Map.Entry<String, CoverageMeasures>> pending = new ArrayList<>();
+
+    private Path baseDir = Path.of(".");
+    private boolean baseDirKnown = false;
+    private int packageDepth = 0;
+    private int methodDepth = 0;
+    private boolean inClassLines = false;
+    private CoverageMeasures measures = null;
+
+    ReportReader(XMLStreamReader reader, Map<String, CoverageMeasures> coverageData) {
+      this.reader = reader;
+      this.coverageData = coverageData;
+    }
+
+    void read() throws XMLStreamException {
+      while (reader.hasNext()) {
+        var event = reader.next();
+        if (event == XMLStreamConstants.START_ELEMENT) {
+          startElement(reader.getLocalName());
+        } else if (event == XMLStreamConstants.END_ELEMENT) {
+          endElement(reader.getLocalName());
+        }
+      }
+      resolvePending();
+    }
+
+    private void startElement(String name) throws XMLStreamException {
+      switch (name) {
+        case "source":
+          readBaseDir();
+          break;
+        case "package":
+          packageDepth++;
+          break;
+        case "class":
+          if (packageDepth > 0) {
+            startClass(reader.getAttributeValue(null, "filename"));
+          }
+          break;
+        case "method":
+          methodDepth++;
+          break;
+        case "lines":
+          inClassLines = measures != null && methodDepth == 0;
+          break;
+        case "line":
+          if (inClassLines) {
+            readLine();
+          }
+          break;
+        default:
+          break;
+      }
+    }
+
+    private void endElement(String name) {
+      switch (name) {
+        case "sources":
+          // no further <source> elements: keep default
+          baseDirKnown = true;
+          resolvePending();
+          break;
+        case "package":
+          packageDepth--;
+          break;
+        case "class":
+          measures = null;
+          inClassLines = false;
+          break;
+        case "method":
+          methodDepth--;
+          break;
+        case "lines":
+          inClassLines = false;
+          break;
+        default:
+          break;
+      }
+    }
+
+    private void readBaseDir() throws XMLStreamException {
+      String sourceValue = reader.getElementText().trim();
+      if (!baseDirKnown && !sourceValue.isEmpty()) {
         // join with . to handle also special cases like drive letter only, e.g. C:
         baseDir = Path.of(sourceValue, ".").normalize();
-        break;
+        baseDirKnown = true;
+        resolvePending();
+      }
+    }
+
+    private void startClass(@Nullable String fileName) {
+      measures = null;
+      if (fileName == null) {
+        return;
+      }
+      if (baseDirKnown) {
+        String normalPath = join(baseDir, Path.of(fileName));
+        if (!normalPath.isEmpty()) {
+          measures = coverageData.computeIfAbsent(normalPath, k -> CoverageMeasures.create());
+        }
+      } else {
+        measures = CoverageMeasures.create();
+        pending.add(Map.entry(fileName, measures));
       }
     }
-  }
 
-  private void collectPackageMeasures(SMInputCursor pack, Map<String, CoverageMeasures> coverageData)
-    throws XMLStreamException {
-    while (pack.getNext() != null) {
-      collectFileMeasures(pack.descendantElementCursor("class"), coverageData);
+    private void readLine() {
+      var lineId = Integer.parseInt(reader.getAttributeValue(null, "number"));
+      var noHits = Long.parseLong(reader.getAttributeValue(null, "hits"));
+      if (noHits > Integer.MAX_VALUE) {
+        LOG.warn("Truncating the actual number of hits ({}) to the maximum number supported by SonarQube ({})",
+          noHits, Integer.MAX_VALUE);
+        noHits = Integer.MAX_VALUE;
+      }
+      measures.setHits(lineId, (int) noHits);
+
+      if ("true".equals(reader.getAttributeValue(null, "branch"))) {
+        String text = reader.getAttributeValue(null, "condition-coverage");
+        if (text != null) {
+          var conditions = parseConditions(text);
+          if (conditions != null) {
+            measures.setConditions(lineId, conditions[1], conditions[0]);
+          }
+        }
+      }
     }
-  }
 
-  private void collectFileMeasures(SMInputCursor clazz, Map<String, CoverageMeasures> coverageData)
-    throws XMLStreamException {
-    while (clazz.getNext() != null) {
-      String normalPath = join(baseDir, Path.of(clazz.getAttrValue("filename")));
-      if (!normalPath.isEmpty()) {
-        CoverageMeasures builder = coverageData.computeIfAbsent(normalPath, k -> CoverageMeasures.create());
-        collectFileData(clazz, builder);
+    private void resolvePending() {
+      for (var entry : pending) {
+        String normalPath = join(baseDir, Path.of(entry.getKey()));
+        if (!normalPath.isEmpty()) {
+          coverageData.computeIfAbsent(normalPath, k -> CoverageMeasures.create()).merge(entry.getValue());
+        }
       }
+      pending.clear();
     }
   }
 
@@ -28,6 +28,8 @@ import org.sonar.api.config.PropertyDefinition;
 import org.sonar.api.resources.Qualifiers;
 import org.sonar.cxx.sensors.coverage.CoverageSensor;
 import org.sonar.cxx.sensors.utils.CxxReportSensor;
+import org.sonar.cxx.sensors.utils.InputFileIndex;
+import org.sonar.cxx.sensors.utils.ReportFileIndex;
 
 public class CxxCoverageTestwellCtcTxtSensor extends CoverageSensor {
 
@@ -35,8 +37,8 @@ public class CxxCoverageTestwellCtcTxtSensor extends CoverageSensor {
   public static final String REPORT_ENCODING_DEF = "sonar.cxx.ctctxt.encoding";
   public static final String DEFAULT_ENCODING_DEF = StandardCharsets.UTF_8.name();
 
-  public CxxCoverageTestwellCtcTxtSensor() {
-    super(REPORT_PATH_KEY, new TestwellCtcTxtParser());
+  public CxxCoverageTestwellCtcTxtSensor(InputFileIndex inputFileIndex, ReportFileIndex reportFileIndex) {
+    super(inputFileIndex, reportFileIndex, REPORT_PATH_KEY, TestwellCtcTxtParser::new);
   }
 
   public static List<PropertyDefinition> properties() {
@@ -27,13 +27,15 @@ import org.sonar.api.config.PropertyDefinition;
 import org.sonar.api.resources.Qualifiers;
 import org.sonar.cxx.sensors.coverage.CoverageSensor;
 import org.sonar.cxx.sensors.utils.CxxReportSensor;
+import org.sonar.cxx.sensors.utils.InputFileIndex;
+import org.sonar.cxx.sensors.utils.ReportFileIndex;
 
 public class CxxCoverageVisualStudioSensor extends CoverageSensor {
 
   public static final String REPORT_PATH_KEY = "sonar.cxx.vscoveragexml.reportPaths";
 
-  public CxxCoverageVisualStudioSensor() {
-    super(REPORT_PATH_KEY, new VisualStudioParser());
+  public CxxCoverageVisualStudioSensor(InputFileIndex inputFileIndex, ReportFileIndex reportFileIndex) {
+    super(inputFileIndex, reportFileIndex, REPORT_PATH_KEY, VisualStudioParser::new);
   }
 
   public static List<PropertyDefinition> properties() {
@@ -34,6 +34,8 @@ import org.sonar.cxx.sensors.drmemory.DrMemoryParser.DrMemoryError;
 import org.sonar.cxx.sensors.drmemory.DrMemoryParser.DrMemoryError.Location;
 import org.sonar.cxx.sensors.utils.CxxIssuesReportSensor;
 import org.sonar.cxx.sensors.utils.CxxReportSensor;
+import org.sonar.cxx.sensors.utils.InputFileIndex;
+import org.sonar.cxx.sensors.utils.ReportFileIndex;
 import org.sonar.cxx.utils.CxxReportIssue;
 
 /**
@@ -51,6 +53,10 @@ public class CxxDrMemorySensor extends CxxIssuesReportSensor {
   private static final String DEFAULT_ENCODING_DEF = StandardCharsets.UTF_8.name();
   private static final Logger LOG = LoggerFactory.getLogger(CxxDrMemorySensor.class);
 
+  public CxxDrMemorySensor(InputFileIndex inputFileIndex, ReportFileIndex reportFileIndex) {
+    super(inputFileIndex, reportFileIndex);
+  }
+
   public static List<PropertyDefinition> properties() {
     var subcategory = "Dr. Memory";
     return Collections.unmodifiableList(Arrays.asList(
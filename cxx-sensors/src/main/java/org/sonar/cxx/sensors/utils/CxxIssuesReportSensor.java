@@ -57,7 +57,8 @@ public abstract class CxxIssuesReportSensor extends CxxReportSensor {
   /**
    * {@inheritDoc}
    */
-  protected CxxIssuesReportSensor() {
+  protected CxxIssuesReportSensor(InputFileIndex inputFileIndex, ReportFileIndex reportFileIndex) {
+    super(inputFileIndex, reportFileIndex);
   }
 
   /**
@@ -67,14 +68,28 @@ public abstract class CxxIssuesReportSensor extends CxxReportSensor {
   public void executeImpl() {
     downloadRulesFromServer();
     List<File> reports = getReports(getReportPathsKey());
+    executeReports(reports);
+  }
+
+  /**
+   * Process the reports one after the other. Can be overridden in derived classes e.g. to read the reports in advance
+   * concurrently, {@link #executeReport(File)} must still be called for each report on the sensor thread.
+   *
+   * @param reports to read
+   */
+  protected void executeReports(List<File> reports) {
     for (var report : reports) {
       executeReport(report);
     }
   }
 
   private void downloadRulesFromServer() {
+    var event = new RulesDownloadedEvent();
+    event.begin();
+    String url = context.config().get("sonar.host.url").orElse("http://localhost:9000");
+    var loadedRules = 0;
+    var failed = false;
     try {
-      String url = context.config().get("sonar.host.url").orElse("http://localhost:9000");
       LOG.info("Downloading rules for '{}' from server '{}'", getRuleRepositoryKey(), url);
 
       var rules = SonarServerWebApi.getRules(
@@ -109,8 +124,19 @@ public abstract class CxxIssuesReportSensor extends CxxReportSensor {
         knownRulesPerRepositoryKey.put(getRuleRepositoryKey(), ruleKeys);
       }
       LOG.debug("{} rules for '{}' were loaded from server", ruleKeys.size(), getRuleRepositoryKey());
+      loadedRules = ruleKeys.size();
     } catch (IOException e) {
       LOG.warn("Rules for '{}' could not be loaded from server", getRuleRepositoryKey(), e);
+      failed = true;
+    }
+
+    event.end();
+    if (event.shouldCommit()) {
+      event.repository = getRuleRepositoryKey();
+      event.url = url;
+      event.rules = loadedRules;
+      event.failed = failed;
+      event.commit();
     }
   }
 
@@ -174,15 +200,29 @@ public abstract class CxxIssuesReportSensor extends CxxReportSensor {
    * @param report to read
    */
   protected void executeReport(File report) {
+    var event = new ReportParsedEvent();
+    event.begin();
+    var failed = false;
     try {
       LOG.info("Processing report '{}'", report);
       savedNewIssues = 0;
       processReport(report);
       LOG.info("Processing successful, saved new issues={}", savedNewIssues);
     } catch (ReportException e) {
+      failed = true;
       var msg = e.getMessage() + ", report='" + report + "'";
       CxxUtils.validateRecovery(msg, e, context.config());
     }
+
+    event.end();
+    if (event.shouldCommit()) {
+      event.sensor = toString();
+      event.report = report.getPath();
+      event.size = report.length();
+      event.items = savedNewIssues;
+      event.failed = failed;
+      event.commit();
+    }
   }
 
   private TextRange getRange(CxxReportLocation location, InputFile inputFile) {
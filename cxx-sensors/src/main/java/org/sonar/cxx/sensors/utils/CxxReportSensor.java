@@ -42,17 +42,22 @@ public abstract class CxxReportSensor implements ProjectSensor {
   private static final Logger LOG = LoggerFactory.getLogger(CxxReportSensor.class);
 
   private final Set<String> notFoundFiles = new HashSet<>();
+  private final InputFileIndex inputFileIndex;
+  private final ReportFileIndex reportFileIndex;
 
   protected SensorContext context;
 
   /**
-   * {@inheritDoc}
+   * @param inputFileIndex index of the InputFiles, shared by all report sensors
+   * @param reportFileIndex index of the report files, shared by all sensors
    */
-  protected CxxReportSensor() {
+  protected CxxReportSensor(InputFileIndex inputFileIndex, ReportFileIndex reportFileIndex) {
+    this.inputFileIndex = inputFileIndex;
+    this.reportFileIndex = reportFileIndex;
   }
 
   public List<File> getReports(String reportPathsKey) {
-    return CxxUtils.getFiles(context, reportPathsKey);
+    return CxxUtils.getFiles(context, reportPathsKey, reportFileIndex);
   }
 
   /**
@@ -62,7 +67,7 @@ public abstract class CxxReportSensor implements ProjectSensor {
    * string comparison of the absolute path (relative paths are made absolute to baseDir first and forward/back slashes
    * are also normalized. The resolution of symbolic links and case-sensitive paths is not supported by SQ. In the case
    * of reports that contain case-insensitive paths (e.g. Visual Studio warnings are always lowercase), the function
-   * must normalize them.
+   * must normalize them. Therefore paths are first searched in the {@link InputFileIndex}.
    *
    * @param path relative or absolute path
    * @return InputFile if path is part of project, otherwise none
@@ -74,14 +79,21 @@ public abstract class CxxReportSensor implements ProjectSensor {
     // in case previous search failed don't search again
     if (!notFoundFiles.contains(path)) {
 
-      // try the most generic search predicate first; usually it's the right one
-      inputFile = context.fileSystem().inputFile(context.fileSystem().predicates().hasPath(path));
+      // use the index shared by all sensors first: exact, case-insensitive and suffix matches without file system access
+      inputFile = inputFileIndex.find(path);
 
-      // if there was nothing found, try to normalize the path: resolve symbolic links, make path case-sensitive
       if (inputFile == null) {
-        inputFile = getInputFileTryRealPath(path);
+        // fallback to the generic search predicate
+        inputFile = context.fileSystem().inputFile(context.fileSystem().predicates().hasPath(path));
 
+        // if there was nothing found, try to normalize the path: resolve symbolic links, make path case-sensitive
         if (inputFile == null) {
+          inputFile = getInputFileTryRealPath(path);
+        }
+
+        if (inputFile != null) {
+          inputFileIndex.put(path, inputFile);
+        } else {
           if (LOG.isWarnEnabled()) {
             LOG.warn("Cannot find the file '{}' in project '{}' with baseDir '{}', skipping",
               path, context.project().key(), context.fileSystem().baseDir());
@@ -98,6 +110,7 @@ public abstract class CxxReportSensor implements ProjectSensor {
   public void execute(SensorContext context) {
     this.context = context;
     notFoundFiles.clear();
+    inputFileIndex.build(context.fileSystem());
     executeImpl();
   }
 
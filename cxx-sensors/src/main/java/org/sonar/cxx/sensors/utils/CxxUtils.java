@@ -21,7 +21,6 @@ package org.sonar.cxx.sensors.utils;
 
 import java.io.File;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
@@ -29,7 +28,6 @@ import java.util.regex.Pattern;
 import javax.annotation.CheckForNull;
 import javax.annotation.Nullable;
 import org.apache.commons.lang.exception.ExceptionUtils;
-import org.apache.tools.ant.DirectoryScanner;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.sonar.api.batch.sensor.SensorContext;
@@ -105,7 +103,7 @@ public final class CxxUtils {
   /**
    * Use the given context object in order to get a list of Ant patterns referenced by key reportPathsKey. Apply
    * context.fileSystem().baseDir() in order to make relative Ant patterns to absolute ones. Resolve Ant patterns and
-   * returns the list of existing files.
+   * returns the list of existing files. The file system is walked with a new {@link ReportFileIndex}.
    *
    * @param context sensor context
    * @param reportPathsKey configuration key for files (CSV list of Ant patterns)
@@ -113,6 +111,22 @@ public final class CxxUtils {
    * @return List<File> matching file list
    */
   public static List<File> getFiles(SensorContext context, String reportPathsKey) {
+    return getFiles(context, reportPathsKey, new ReportFileIndex());
+  }
+
+  /**
+   * Use the given context object in order to get a list of Ant patterns referenced by key reportPathsKey. Apply
+   * context.fileSystem().baseDir() in order to make relative Ant patterns to absolute ones. Resolve Ant patterns and
+   * returns the list of existing files.
+   *
+   * @param context sensor context
+   * @param reportPathsKey configuration key for files (CSV list of Ant patterns)
+   * @param reportFileIndex index of the report files, shared by all sensors: the file system is walked once per
+   * analysis
+   *
+   * @return List<File> matching file list
+   */
+  public static List<File> getFiles(SensorContext context, String reportPathsKey, ReportFileIndex reportFileIndex) {
     String[] reportPaths = context.config().getStringArray(reportPathsKey);
     if (reportPaths == null || reportPaths.length == 0) {
       LOG.info("Undefined value for key '{}'", reportPathsKey);
@@ -134,13 +148,9 @@ public final class CxxUtils {
       LOG.debug("Search files(s) in path(s): '{}'", String.join(", ", normalizedReportPaths));
     }
 
-    // Includes array cannot contain null elements
-    var directoryScanner = new DirectoryScanner();
-    directoryScanner.setIncludes(normalizedReportPaths.toArray(String[]::new));
-    directoryScanner.scan();
-    String[] existingReportPaths = directoryScanner.getIncludedFiles();
+    List<String> existingReportPaths = reportFileIndex.find(normalizedReportPaths);
 
-    if (existingReportPaths.length == 0) {
+    if (existingReportPaths.isEmpty()) {
       if (LOG.isWarnEnabled()) {
         LOG.warn("Property '{}': cannot find any files matching the Ant pattern(s) '{}'", reportPathsKey,
           String.join(", ", normalizedReportPaths));
@@ -148,8 +158,8 @@ public final class CxxUtils {
       return Collections.emptyList();
     }
 
-    LOG.debug("Found '{}' file(s)", existingReportPaths.length);
-    return Arrays.stream(existingReportPaths).map(File::new).toList();
+    LOG.debug("Found '{}' file(s)", existingReportPaths.size());
+    return existingReportPaths.stream().map(File::new).toList();
   }
 
 }
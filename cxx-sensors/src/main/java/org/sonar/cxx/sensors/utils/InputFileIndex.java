@@ -0,0 +1,250 @@
+/*
+ * C++ Community Plugin (cxx plugin)
+ * Copyright (C) 2010-2024 SonarOpenCommunity
+ * http://github.com/SonarOpenCommunity/sonar-cxx
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.cxx.sensors.utils;
+
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import javax.annotation.CheckForNull;
+import javax.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.sonar.api.batch.fs.FileSystem;
+import org.sonar.api.batch.fs.InputFile;
+import org.sonar.api.scanner.ScannerSide;
+
+/**
+ * Index of all InputFiles of a project to map paths found in reports to InputFiles.
+ *
+ * The index is a scanner component shared by all report sensors. It is built once per analysis, when the first report
+ * sensor is executed (see {@link CxxReportSensor#execute}); at this point the file system of the project is complete.
+ * Lookups are pure string operations without file system access:
+ * <ul>
+ * <li>exact match of the normalized absolute path (forward slashes, '.' and '..' segments removed, relative paths
+ * resolved against baseDir)</li>
+ * <li>case-insensitive match, if unique (e.g. Visual Studio reports with lowercase paths)</li>
+ * <li>suffix match for relative paths, if unique (e.g. paths relative to the working directory of a build
+ * agent)</li>
+ * </ul>
+ * Successful lookups are cached. Files found by other means (see {@link #put}) are added to the index, so files which
+ * were not part of the file system when the index was built are found by later lookups as well.
+ */
+@ScannerSide
+public final class InputFileIndex {
+
+  private static final Logger LOG = LoggerFactory.getLogger(InputFileIndex.class);
+
+  /**
+   * Marks a lower case path shared by several InputFiles.
+   */
+  private static final Entry AMBIGUOUS = new Entry("", null);
+
+  private FileSystem fileSystem;
+  private String baseDir = "";
+  private final Map<String, InputFile> byPath = new HashMap<>();
+  private final Map<String, Entry> byLowerCasePath = new HashMap<>();
+  private final Map<String, List<Entry>> byLowerCaseName = new HashMap<>();
+  private final Map<String, InputFile> cache = new HashMap<>();
+
+  /**
+   * Create an empty index, filled with {@link #build(FileSystem)}.
+   */
+  public InputFileIndex() {
+    // filled by build
+  }
+
+  /**
+   * Index all InputFiles of the file system. Does nothing if the index was already built for this file system.
+   *
+   * @param fs file system of the analysis
+   */
+  public synchronized void build(FileSystem fs) {
+    if (fs == fileSystem) {
+      return;
+    }
+    fileSystem = fs;
+    baseDir = normalize(fs.baseDir().toPath().toString(), "");
+    byPath.clear();
+    byLowerCasePath.clear();
+    byLowerCaseName.clear();
+    cache.clear();
+    for (var inputFile : fs.inputFiles(fs.predicates().all())) {
+      add(inputFile);
+    }
+    LOG.debug("InputFileIndex created for {} files", byPath.size());
+  }
+
+  /**
+   * Search InputFile for a path from a report.
+   *
+   * @param path relative or absolute path, with forward or back slashes
+   * @return InputFile if found, otherwise null
+   */
+  @CheckForNull
+  public synchronized InputFile find(String path) {
+    var inputFile = cache.get(path);
+    if (inputFile == null) {
+      inputFile = lookup(path);
+      if (inputFile != null) {
+        cache.put(path, inputFile);
+      }
+    }
+    return inputFile;
+  }
+
+  /**
+   * Remember the result of a lookup done by other means (e.g. resolving symbolic links). The InputFile is added to the
+   * index if it is not yet part of it.
+   *
+   * @param path path from the report
+   * @param inputFile InputFile matching the path
+   */
+  public synchronized void put(String path, InputFile inputFile) {
+    cache.put(path, inputFile);
+    add(inputFile);
+  }
+
+  /**
+   * Number of indexed files.
+   */
+  public synchronized int size() {
+    return byPath.size();
+  }
+
+  @CheckForNull
+  private InputFile lookup(String path) {
+    var normalized = normalize(path, baseDir);
+    var inputFile = byPath.get(normalized);
+    if (inputFile == null) {
+      var entry = byLowerCasePath.get(normalized.toLowerCase(Locale.ROOT));
+      if (entry != null && entry != AMBIGUOUS) {
+        inputFile = entry.inputFile;
+      }
+      if (inputFile == null && !isAbsolute(path.replace('\\', '/'))) {
+        inputFile = findBySuffix(normalize(path, "").toLowerCase(Locale.ROOT));
+      }
+    }
+    return inputFile;
+  }
+
+  @CheckForNull
+  private InputFile findBySuffix(String relativePath) {
+    var suffix = relativePath;
+    while (suffix.startsWith("../")) {
+      suffix = suffix.substring(3);
+    }
+    if (suffix.isEmpty()) {
+      return null;
+    }
+    var candidates = byLowerCaseName.get(fileName(suffix));
+    if (candidates == null) {
+      return null;
+    }
+    suffix = "/" + suffix;
+    InputFile found = null;
+    for (var candidate : candidates) {
+      if (candidate.lowerCasePath.endsWith(suffix)) {
+        if (found != null) {
+          return null;
+        }
+        found = candidate.inputFile;
+      }
+    }
+    return found;
+  }
+
+  private void add(InputFile inputFile) {
+    var path = normalize(Path.of(inputFile.uri()).toString(), "");
+    if (byPath.putIfAbsent(path, inputFile) != null) {
+      return;
+    }
+
+    var lowerCasePath = path.toLowerCase(Locale.ROOT);
+    var entry = new Entry(lowerCasePath, inputFile);
+    if (byLowerCasePath.containsKey(lowerCasePath)) {
+      byLowerCasePath.put(lowerCasePath, AMBIGUOUS);
+    } else {
+      byLowerCasePath.put(lowerCasePath, entry);
+    }
+
+    byLowerCaseName.computeIfAbsent(fileName(lowerCasePath), k -> new ArrayList<>(1)).add(entry);
+  }
+
+  private static String fileName(String path) {
+    return path.substring(path.lastIndexOf('/') + 1);
+  }
+
+  private static boolean isAbsolute(String path) {
+    return path.startsWith("/")
+      || (path.length() > 2 && Character.isLetter(path.charAt(0)) && path.charAt(1) == ':' && path.charAt(2) == '/');
+  }
+
+  /**
+   * Normalize path: forward slashes, resolve relative path against baseDir, remove '.' and '..' segments.
+   */
+  static String normalize(String path, String baseDir) {
+    var unixPath = path.replace('\\', '/');
+    if (!isAbsolute(unixPath) && !baseDir.isEmpty()) {
+      unixPath = baseDir + "/" + unixPath;
+    }
+    var segments = new ArrayDeque<String>();
+    var leadingParents = 0;
+    for (var segment : unixPath.split("/")) {
+      if (segment.isEmpty() || ".".equals(segment)) {
+        continue;
+      }
+      if ("..".equals(segment)) {
+        if (segments.isEmpty()) {
+          leadingParents++;
+        } else {
+          segments.removeLast();
+        }
+      } else {
+        segments.addLast(segment);
+      }
+    }
+
+    var result = new StringBuilder(unixPath.length());
+    if (unixPath.startsWith("/")) {
+      result.append('/');
+    }
+    for (int i = 0; i < leadingParents; i++) {
+      result.append("../");
+    }
+    result.append(String.join("/", segments));
+    return result.toString();
+  }
+
+  private static class Entry {
+
+    private final String lowerCasePath;
+    private final InputFile inputFile;
+
+    Entry(String lowerCasePath, @Nullable InputFile inputFile) {
+      this.lowerCasePath = lowerCasePath;
+      this.inputFile = inputFile;
+    }
+  }
+
+}
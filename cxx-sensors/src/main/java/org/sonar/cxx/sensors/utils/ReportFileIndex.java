@@ -0,0 +1,208 @@
+/*
+ * C++ Community Plugin (cxx plugin)
+ * Copyright (C) 2010-2024 SonarOpenCommunity
+ * http://github.com/SonarOpenCommunity/sonar-cxx
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.cxx.sensors.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import javax.annotation.CheckForNull;
+import org.apache.tools.ant.types.selectors.SelectorUtils;
+import org.apache.tools.ant.types.selectors.TokenizedPath;
+import org.apache.tools.ant.types.selectors.TokenizedPattern;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.sonar.api.scanner.ScannerSide;
+
+/**
+ * Index of the files found with the report path patterns of all sensors (Ant patterns with absolute paths).
+ *
+ * The index is a scanner component shared by all sensors of an analysis. A directory tree is walked only once, in
+ * parallel, when a pattern below it is resolved the first time. Patterns of other sensors below an already walked
+ * directory are matched against the cached listing without file system access. Files created during the analysis
+ * (e.g. by the XLST transformation) have to be announced with {@link #add(File)}.
+ *
+ * Matching is done like the Ant DirectoryScanner: case-sensitive, following symbolic links, no default excludes. A
+ * directory reached through several symbolic links is listed with each path. Different from the DirectoryScanner,
+ * a symbolic link to a directory above it (a loop) is not followed at all, the DirectoryScanner follows such a link up
+ * to five times.
+ */
+@ScannerSide
+public final class ReportFileIndex {
+
+  private static final Logger LOG = LoggerFactory.getLogger(ReportFileIndex.class);
+
+  private static final char SEPARATOR = File.separatorChar;
+
+  // walked directory => absolute paths of all files below the directory
+  private final Map<String, NavigableSet<String>> listings = new TreeMap<>();
+
+  /**
+   * Search the existing files matching the patterns.
+   *
+   * @param patterns absolute paths, could also be Ant patterns
+   * @return sorted list of matching files (absolute paths)
+   */
+  public List<String> find(Collection<String> patterns) {
+    var result = new TreeSet<String>();
+    for (var pattern : patterns) {
+      var normalized = normalize(pattern);
+      if (SelectorUtils.hasWildcards(normalized)) {
+        var tokenizedPattern = new TokenizedPattern(normalized);
+        for (var file : listing(root(normalized))) {
+          if (tokenizedPattern.matchPath(new TokenizedPath(file), true)) {
+            result.add(file);
+          }
+        }
+      } else if (new File(normalized).isFile()) {
+        result.add(normalized);
+      }
+    }
+    return new ArrayList<>(result);
+  }
+
+  /**
+   * Add a file created after the directory containing it was walked.
+   *
+   * @param file new file
+   */
+  public synchronized void add(File file) {
+    var path = file.getAbsolutePath();
+    for (var entry : listings.entrySet()) {
+      if (isBelow(path, entry.getKey())) {
+        entry.getValue().add(path);
+      }
+    }
+  }
+
+  private synchronized Set<String> listing(String root) {
+    var files = listings.get(root);
+    if (files != null) {
+      return files;
+    }
+    for (var entry : listings.entrySet()) {
+      if (isBelow(root, entry.getKey())) {
+        var prefix = root.charAt(root.length() - 1) == SEPARATOR ? root : root + SEPARATOR;
+        return entry.getValue().subSet(prefix, true, prefix + Character.MAX_VALUE, false);
+      }
+    }
+    files = walk(root);
+    listings.put(root, files);
+    return files;
+  }
+
+  private static NavigableSet<String> walk(String root) {
+    var dir = Path.of(root);
+    if (!Files.isDirectory(dir)) {
+      return new TreeSet<>();
+    }
+    long start = System.nanoTime();
+    var files = new ConcurrentLinkedQueue<String>();
+    ForkJoinPool.commonPool().invoke(new WalkAction(dir, files, List.of()));
+    LOG.debug("Walked '{}': {} file(s) in {} ms", root, files.size(), (System.nanoTime() - start) / 1_000_000);
+    return new TreeSet<>(files);
+  }
+
+  private static boolean isBelow(String path, String dir) {
+    return path.length() > dir.length() && path.startsWith(dir)
+      && (path.charAt(dir.length()) == SEPARATOR || dir.charAt(dir.length() - 1) == SEPARATOR);
+  }
+
+  /**
+   * Directory in front of the first wildcard, the directory to walk for a pattern.
+   */
+  static String root(String pattern) {
+    return SelectorUtils.rtrimWildcardTokens(pattern);
+  }
+
+  /**
+   * Normalize pattern like the Ant DirectoryScanner: system separators, trailing separator matches everything below.
+   */
+  static String normalize(String pattern) {
+    var normalized = pattern.replace('/', SEPARATOR).replace('\\', SEPARATOR);
+    if (normalized.endsWith(File.separator)) {
+      normalized += "**";
+    }
+    return normalized;
+  }
+
+  private static final class WalkAction extends RecursiveAction {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient Path dir;
+    private final transient Collection<String> files;
+    // real paths of the directories above dir
+    private final transient List<Path> parents;
+
+    WalkAction(Path dir, Collection<String> files, List<Path> parents) {
+      this.dir = dir;
+      this.files = files;
+      this.parents = parents;
+    }
+
+    @Override
+    protected void compute() {
+      var realPath = realPath(dir);
+      if (realPath == null || parents.contains(realPath)) {
+        return; // not accessible or symbolic link loop
+      }
+      var path = new ArrayList<Path>(parents.size() + 1);
+      path.addAll(parents);
+      path.add(realPath);
+      var subdirs = new ArrayList<WalkAction>();
+      try (var stream = Files.newDirectoryStream(dir)) {
+        for (var entry : stream) {
+          if (Files.isDirectory(entry)) {
+            subdirs.add(new WalkAction(entry, files, path));
+          } else if (Files.isRegularFile(entry)) {
+            files.add(entry.toString());
+          }
+        }
+      } catch (IOException | DirectoryIteratorException e) {
+        LOG.debug("Cannot read directory '{}': {}", dir, e.getMessage());
+      }
+      invokeAll(subdirs);
+    }
+
+    @CheckForNull
+    private static Path realPath(Path path) {
+      try {
+        return path.toRealPath();
+      } catch (IOException e) {
+        return null;
+      }
+    }
+
+  }
+
+}
@@ -0,0 +1,57 @@
+/*
+ * C++ Community Plugin (cxx plugin)
+ * Copyright (C) 2010-2024 SonarOpenCommunity
+ * http://github.com/SonarOpenCommunity/sonar-cxx
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.cxx.sensors.utils;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event: a report file was read by a sensor.
+ */
+@Name("org.sonar.cxx.ReportParsed")
+@Label("Report Parsed")
+@Description("Reading of a report file, for issue reports including saving the issues")
+@Category({"C++", "Reports"})
+@StackTrace(false)
+public final class ReportParsedEvent extends Event {
+
+  @Label("Sensor")
+  public String sensor;
+
+  @Label("Report")
+  public String report;
+
+  @Label("Report Size")
+  @DataAmount
+  public long size;
+
+  @Label("Items")
+  @Description("Number of saved issues or number of files with coverage measures")
+  public int items;
+
+  @Label("Failed")
+  public boolean failed;
+
+}
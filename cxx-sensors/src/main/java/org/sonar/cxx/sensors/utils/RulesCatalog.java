@@ -0,0 +1,298 @@
+/*
+ * C++ Community Plugin (cxx plugin)
+ * Copyright (C) 2010-2024 SonarOpenCommunity
+ * http://github.com/SonarOpenCommunity/sonar-cxx
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.cxx.sensors.utils;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+import javax.annotation.CheckForNull;
+import javax.annotation.Nullable;
+import org.sonar.api.rule.RuleStatus;
+import org.sonar.api.server.rule.RuleParamType;
+import org.sonar.api.server.rule.RulesDefinition;
+import org.sonar.cxx.sensors.utils.RulesDefinitionXmlLoader.ParamStruct;
+import org.sonar.cxx.sensors.utils.RulesDefinitionXmlLoader.RuleStruct;
+
+/**
+ * Precompiled binary form of the rule definition XML files.
+ *
+ * The catalog is generated at build time from the XML files shipped with the plugin (see {@link RulesCatalogGenerator}) and
+ * loaded instead of them at runtime. All strings are stored once in a string table and referenced by index, HTML
+ * descriptions are deflated and inflated only when the rule is created in the repository.
+ */
+public final class RulesCatalog {
+
+  public static final String EXTENSION = ".rules";
+
+  private static final int MAGIC = 0x43585852; // CXXR
+  private static final int VERSION = 1;
+  private static final int NULL = -1;
+
+  private RulesCatalog() {
+    // only static methods
+  }
+
+  /**
+   * Resource name of the catalog belonging to a rule definition XML file.
+   *
+   * @param xmlResource name of the XML resource, e.g. "/clangtidy.xml"
+   * @return name of the catalog resource, e.g. "/clangtidy.rules"
+   */
+  public static String catalogName(String xmlResource) {
+    var pos = xmlResource.lastIndexOf('.');
+    return (pos < 0 ? xmlResource : xmlResource.substring(0, pos)) + EXTENSION;
+  }
+
+  /**
+   * Compiles rule definitions from XML into the binary catalog format.
+   *
+   * @param xml reader with rule definitions in XML format, not closed by the method
+   * @param output stream to write the catalog to, not closed by the method
+   * @throws IOException on write error
+   */
+  public static void compile(Reader xml, OutputStream output) throws IOException {
+    var rules = new ArrayList<RuleStruct>();
+    RulesDefinitionXmlLoader.read(xml, rules::add);
+
+    var table = new StringTable();
+    for (var rule : rules) {
+      table.add(rule.key, rule.name, rule.descriptionFormat, rule.internalKey, rule.severity, rule.type,
+        rule.status.name(), rule.gapDescription, rule.debtRemediationFunction, rule.remediationFunctionBaseEffort,
+        rule.remediationFunctionGapMultiplier);
+      rule.tags.forEach(table::add);
+      rule.deprecatedKeys.forEach(table::add);
+      for (var param : rule.params) {
+        table.add(param.key, param.description, param.defaultValue, param.type.toString());
+      }
+    }
+
+    var out = new DataOutputStream(new BufferedOutputStream(output));
+    out.writeInt(MAGIC);
+    out.writeInt(VERSION);
+    table.write(out);
+    out.writeInt(rules.size());
+    var deflater = new Deflater(Deflater.BEST_COMPRESSION);
+    try {
+      for (var rule : rules) {
+        writeRule(out, table, deflater, rule);
+      }
+    } finally {
+      deflater.end();
+    }
+    out.flush();
+  }
+
+  /**
+   * Creates the rules stored in a catalog in the repository.
+   *
+   * @param repo repository to add the rules to
+   * @param input stream with catalog data, not closed by the method
+   */
+  public static void load(RulesDefinition.NewRepository repo, InputStream input) {
+    var inflater = new Inflater();
+    try {
+      var in = new DataInputStream(new BufferedInputStream(input));
+      if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+        throw new IllegalStateException("Invalid rules catalog for repository " + repo.key());
+      }
+      var strings = readStrings(in);
+      var count = in.readInt();
+      for (int i = 0; i < count; i++) {
+        RulesDefinitionXmlLoader.buildRule(repo, readRule(in, strings, inflater));
+      }
+    } catch (IOException | DataFormatException e) {
+      throw new IllegalStateException("Error while reading rules catalog for repository " + repo.key(), e);
+    } finally {
+      inflater.end();
+    }
+  }
+
+  private static void writeRule(DataOutputStream out, StringTable table, Deflater deflater, RuleStruct rule)
+    throws IOException {
+    out.writeInt(table.indexOf(rule.key));
+    out.writeInt(table.indexOf(rule.name));
+    out.writeInt(table.indexOf(rule.descriptionFormat));
+    out.writeInt(table.indexOf(rule.internalKey));
+    out.writeInt(table.indexOf(rule.severity));
+    out.writeInt(table.indexOf(rule.type));
+    out.writeInt(table.indexOf(rule.status.name()));
+    out.writeBoolean(rule.template);
+    out.writeInt(table.indexOf(rule.gapDescription));
+    out.writeInt(table.indexOf(rule.debtRemediationFunction));
+    out.writeInt(table.indexOf(rule.remediationFunctionBaseEffort));
+    out.writeInt(table.indexOf(rule.remediationFunctionGapMultiplier));
+    writeIndexes(out, table, rule.tags);
+    writeIndexes(out, table, rule.deprecatedKeys);
+    out.writeInt(rule.params.size());
+    for (var param : rule.params) {
+      out.writeInt(table.indexOf(param.key));
+      out.writeInt(table.indexOf(param.description));
+      out.writeInt(table.indexOf(param.defaultValue));
+      out.writeInt(table.indexOf(param.type.toString()));
+    }
+    writeDescription(out, deflater, rule.description);
+  }
+
+  private static RuleStruct readRule(DataInputStream in, String[] strings, Inflater inflater)
+    throws IOException, DataFormatException {
+    var rule = new RuleStruct();
+    rule.key = string(strings, in.readInt());
+    rule.name = string(strings, in.readInt());
+    rule.descriptionFormat = string(strings, in.readInt());
+    rule.internalKey = string(strings, in.readInt());
+    rule.severity = string(strings, in.readInt());
+    rule.type = string(strings, in.readInt());
+    rule.status = RuleStatus.valueOf(string(strings, in.readInt()));
+    rule.template = in.readBoolean();
+    rule.gapDescription = string(strings, in.readInt());
+    rule.debtRemediationFunction = string(strings, in.readInt());
+    rule.remediationFunctionBaseEffort = string(strings, in.readInt());
+    rule.remediationFunctionGapMultiplier = string(strings, in.readInt());
+    readIndexes(in, strings, rule.tags);
+    readIndexes(in, strings, rule.deprecatedKeys);
+    var params = in.readInt();
+    for (int i = 0; i < params; i++) {
+      var param = new ParamStruct();
+      param.key = string(strings, in.readInt());
+      param.description = string(strings, in.readInt());
+      param.defaultValue = string(strings, in.readInt());
+      param.type = RuleParamType.parse(string(strings, in.readInt()));
+      rule.params.add(param);
+    }
+    rule.description = readDescription(in, inflater);
+    return rule;
+  }
+
+  private static void writeIndexes(DataOutputStream out, StringTable table, List<String> values) throws IOException {
+    out.writeInt(values.size());
+    for (var value : values) {
+      out.writeInt(table.indexOf(value));
+    }
+  }
+
+  private static void readIndexes(DataInputStream in, String[] strings, List<String> values) throws IOException {
+    var size = in.readInt();
+    for (int i = 0; i < size; i++) {
+      values.add(string(strings, in.readInt()));
+    }
+  }
+
+  private static void writeDescription(DataOutputStream out, Deflater deflater, @Nullable String description)
+    throws IOException {
+    if (description == null) {
+      out.writeInt(NULL);
+      return;
+    }
+    var bytes = description.getBytes(StandardCharsets.UTF_8);
+    deflater.reset();
+    deflater.setInput(bytes);
+    deflater.finish();
+    var compressed = new ByteArrayOutputStream(bytes.length / 2 + 16);
+    var buffer = new byte[8192];
+    while (!deflater.finished()) {
+      compressed.write(buffer, 0, deflater.deflate(buffer));
+    }
+    out.writeInt(bytes.length);
+    out.writeInt(compressed.size());
+    compressed.writeTo(out);
+  }
+
+  @CheckForNull
+  private static String readDescription(DataInputStream in, Inflater inflater)
+    throws IOException, DataFormatException {
+    var length = in.readInt();
+    if (length == NULL) {
+      return null;
+    }
+    var compressed = new byte[in.readInt()];
+    in.readFully(compressed);
+    var bytes = new byte[length];
+    inflater.reset();
+    inflater.setInput(compressed);
+    var size = 0;
+    while (size < length && !inflater.finished()) {
+      size += inflater.inflate(bytes, size, length - size);
+    }
+    return new String(bytes, 0, size, StandardCharsets.UTF_8);
+  }
+
+  private static String[] readStrings(DataInputStream in) throws IOException {
+    var strings = new String[in.readInt()];
+    for (int i = 0; i < strings.length; i++) {
+      var bytes = new byte[in.readInt()];
+      in.readFully(bytes);
+      strings[i] = new String(bytes, StandardCharsets.UTF_8);
+    }
+    return strings;
+  }
+
+  @CheckForNull
+  private static String string(String[] strings, int index) {
+    return index == NULL ? null : strings[index];
+  }
+
+  /**
+   * Interned strings, each distinct value is stored only once.
+   */
+  private static class StringTable {
+
+    private final Map<String, Integer> indexes = new HashMap<>();
+    private final List<String> values = new ArrayList<>();
+
+    void add(@Nullable String... strings) {
+      for (var value : strings) {
+        if (value != null) {
+          indexes.computeIfAbsent(value, v -> {
+            values.add(v);
+            return values.size() - 1;
+          });
+        }
+      }
+    }
+
+    int indexOf(@Nullable String value) {
+      return value == null ? NULL : indexes.get(value);
+    }
+
+    void write(DataOutputStream out) throws IOException {
+      out.writeInt(values.size());
+      for (var value : values) {
+        var bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+      }
+    }
+  }
+
+}
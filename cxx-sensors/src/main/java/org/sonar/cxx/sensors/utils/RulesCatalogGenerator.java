@@ -0,0 +1,73 @@
+/*
+ * C++ Community Plugin (cxx plugin)
+ * Copyright (C) 2010-2024 SonarOpenCommunity
+ * http://github.com/SonarOpenCommunity/sonar-cxx
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.cxx.sensors.utils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Build time entry point: compiles all rule definition XML files of a directory into {@link RulesCatalog}s.
+ *
+ * Runs in the process-classes phase on the copied resources, the class itself is excluded from the jar (see pom.xml).
+ */
+public final class RulesCatalogGenerator {
+
+  private RulesCatalogGenerator() {
+    // only static methods
+  }
+
+  /**
+   * @param args directory containing the XML files
+   * @throws IOException on read or write error
+   */
+  public static void main(String[] args) throws IOException {
+    if (args.length != 1) {
+      throw new IllegalArgumentException("Usage: RulesCatalogGenerator <directory>");
+    }
+    for (var xml : ruleFiles(Path.of(args[0]))) {
+      var catalog = xml.resolveSibling(RulesCatalog.catalogName(xml.getFileName().toString()));
+      try (var reader = Files.newBufferedReader(xml, StandardCharsets.UTF_8);
+           var output = Files.newOutputStream(catalog)) {
+        RulesCatalog.compile(reader, output);
+      }
+    }
+  }
+
+  /**
+   * XML files directly in the directory, sorted by name.
+   */
+  static List<Path> ruleFiles(Path dir) throws IOException {
+    var result = new ArrayList<Path>();
+    try (var files = Files.newDirectoryStream(dir, "*.xml")) {
+      for (var file : files) {
+        if (Files.isRegularFile(file)) {
+          result.add(file);
+        }
+      }
+    }
+    result.sort(null);
+    return result;
+  }
+
+}
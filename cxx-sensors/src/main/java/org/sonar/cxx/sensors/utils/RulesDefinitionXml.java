@@ -71,10 +71,8 @@ public class RulesDefinitionXml implements RulesDefinition {
     var repository = context.createRepository(repositoryKey, repositoryLanguage)
       .setName(repositoryName);
 
-    var xmlLoader = new RulesDefinitionXmlLoader();
     if (!"".equals(repositoryFile)) {
-      var xmlStream = getClass().getResourceAsStream(repositoryFile);
-      xmlLoader.load(repository, xmlStream, encoding);
+      loadPredefinedRules(repository, encoding);
 
       for (var userExtensionXml : getExtensions(repositoryKey, "xml")) {
         try (var input = java.nio.file.Files.newInputStream(userExtensionXml.toPath())) {
@@ -95,6 +93,25 @@ public class RulesDefinitionXml implements RulesDefinition {
     repository.done();
   }
 
+  /**
+   * Rules shipped with the plugin are read from the catalog precompiled at build time. The XML file is only used as
+   * fallback if there is no catalog (e.g. running from an IDE without the Maven build step).
+   */
+  private void loadPredefinedRules(NewRepository repository, Charset encoding) {
+    try (var catalogStream = getClass().getResourceAsStream(RulesCatalog.catalogName(repositoryFile))) {
+      if (catalogStream != null) {
+        RulesCatalog.load(repository, catalogStream);
+        return;
+      }
+    } catch (IOException e) {
+      throw new IllegalStateException("Cannot read rules catalog for repository " + repositoryKey, e);
+    }
+
+    var xmlLoader = new RulesDefinitionXmlLoader();
+    var xmlStream = getClass().getResourceAsStream(repositoryFile);
+    xmlLoader.load(repository, xmlStream, encoding);
+  }
+
   public List<File> getExtensions(String dirName, @Nullable String... suffixes) {
     var dir = new File(fileSystem.getHomeDir(), "extensions/rules/" + dirName);
     var files = new ArrayList<File>();
@@ -49,6 +49,7 @@ import static java.lang.String.format;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 import javax.annotation.Nullable;
 import javax.xml.namespace.QName;
 import javax.xml.stream.XMLEventReader;
@@ -273,6 +274,16 @@ public class RulesDefinitionXmlLoader {
    * @since 4.3
    */
   public void load(RulesDefinition.NewRepository repo, Reader inputReader) {
+    read(inputReader, rule -> buildRule(repo, rule));
+  }
+
+  /**
+   * Reads rules from the XML reader and passes them to the consumer without creating them in a repository. The reader
+   * is not closed by the method, so it should be handled by the caller.
+   *
+   * @since cxx plugin 2.2.0
+   */
+  static void read(Reader inputReader, Consumer<RuleStruct> consumer) {
     XMLInputFactory xmlFactory = XMLInputFactory.newInstance();
     xmlFactory.setProperty(XMLInputFactory.IS_COALESCING, Boolean.TRUE);
     xmlFactory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, Boolean.FALSE);
@@ -285,7 +296,7 @@ public class RulesDefinitionXmlLoader {
         final XMLEvent event = reader.nextEvent();
         if (event.isStartElement() && event.asStartElement().getName()
           .getLocalPart().equals(ELEMENT_RULES)) {
-          parseRules(repo, reader);
+          parseRules(consumer, reader);
         }
       }
     } catch (XMLStreamException e) {
@@ -293,7 +304,7 @@ public class RulesDefinitionXmlLoader {
     }
   }
 
-  private static void parseRules(RulesDefinition.NewRepository repo, XMLEventReader reader) throws XMLStreamException {
+  private static void parseRules(Consumer<RuleStruct> consumer, XMLEventReader reader) throws XMLStreamException {
     while (reader.hasNext()) {
       final XMLEvent event = reader.nextEvent();
       if (event.isEndElement() && event.asEndElement().getName().getLocalPart().equals(ELEMENT_RULES)) {
@@ -303,136 +314,109 @@ public class RulesDefinitionXmlLoader {
         final StartElement element = event.asStartElement();
         final String elementName = element.getName().getLocalPart();
         if (ELEMENT_RULE.equals(elementName)) {
-          processRule(repo, element, reader);
+          processRule(consumer, element, reader);
         }
       }
     }
   }
 
-  private static void processRule(RulesDefinition.NewRepository repo, StartElement ruleElement, XMLEventReader reader)
+  private static void processRule(Consumer<RuleStruct> consumer, StartElement ruleElement, XMLEventReader reader)
     throws XMLStreamException {
-    String key = null;
-    String name = null;
-    String description = null;
-    // enum is not used as variable type as we want to raise an exception with the rule key when format is not supported
-    String descriptionFormat = DescriptionFormat.HTML.name();
-    String internalKey = null;
-    String severity = Severity.defaultSeverity();
-    String type = null;
-    RuleStatus status = RuleStatus.defaultStatus();
-    boolean template = false;
-    String gapDescription = null;
-    String debtRemediationFunction = null;
-    String remediationFunctionBaseEffort = null;
-    String remediationFunctionGapMultiplier = null;
-    List<ParamStruct> params = new ArrayList<>();
-    List<String> tags = new ArrayList<>();
-    List<String> deprecatedKeys = new ArrayList<>();
+    var rule = new RuleStruct();
 
     /* BACKWARD COMPATIBILITY WITH VERY OLD FORMAT */
     Attribute keyAttribute = ruleElement.getAttributeByName(new QName("key"));
     if (keyAttribute != null && StringUtils.isNotBlank(keyAttribute.getValue())) {
-      key = trim(keyAttribute.getValue());
+      rule.key = trim(keyAttribute.getValue());
     }
     Attribute priorityAttribute = ruleElement.getAttributeByName(new QName("priority"));
     if (priorityAttribute != null && StringUtils.isNotBlank(priorityAttribute.getValue())) {
-      severity = trim(priorityAttribute.getValue());
+      rule.severity = trim(priorityAttribute.getValue());
     }
 
     while (reader.hasNext()) {
       final XMLEvent event = reader.nextEvent();
       if (event.isEndElement() && event.asEndElement().getName().getLocalPart().equals(ELEMENT_RULE)) {
-        if ((!"INFO".equals(severity)) && (debtRemediationFunction == null)) {
-          debtRemediationFunction = "CONSTANT_ISSUE";
-          if (remediationFunctionBaseEffort == null) {
-            remediationFunctionBaseEffort = "5min";
+        if ((!"INFO".equals(rule.severity)) && (rule.debtRemediationFunction == null)) {
+          rule.debtRemediationFunction = "CONSTANT_ISSUE";
+          if (rule.remediationFunctionBaseEffort == null) {
+            rule.remediationFunctionBaseEffort = "5min";
           }
         }
-        buildRule(repo, key, name, description, descriptionFormat, internalKey, severity, type, status, template,
-          gapDescription, debtRemediationFunction, remediationFunctionBaseEffort,
-          remediationFunctionGapMultiplier, params, tags, deprecatedKeys);
+        consumer.accept(rule);
         return;
       }
       if (event.isStartElement()) {
         final StartElement element = event.asStartElement();
         final String elementName = element.getName().getLocalPart();
         if ("name".equalsIgnoreCase(elementName)) {
-          name = StringUtils.trim(reader.getElementText());
+          rule.name = StringUtils.trim(reader.getElementText());
         } else if ("type".equalsIgnoreCase(elementName)) {
-          type = StringUtils.trim(reader.getElementText());
+          rule.type = StringUtils.trim(reader.getElementText());
         } else if ("description".equalsIgnoreCase(elementName)) {
-          description = StringUtils.trim(reader.getElementText());
+          rule.description = StringUtils.trim(reader.getElementText());
         } else if ("descriptionFormat".equalsIgnoreCase(elementName)) {
-          descriptionFormat = StringUtils.trim(reader.getElementText());
+          rule.descriptionFormat = StringUtils.trim(reader.getElementText());
         } else if ("key".equalsIgnoreCase(elementName)) {
-          key = StringUtils.trim(reader.getElementText());
+          rule.key = StringUtils.trim(reader.getElementText());
         } else if ("configKey".equalsIgnoreCase(elementName)) {
           // deprecated field, replaced by internalKey
-          internalKey = StringUtils.trim(reader.getElementText());
+          rule.internalKey = StringUtils.trim(reader.getElementText());
         } else if ("internalKey".equalsIgnoreCase(elementName)) {
-          internalKey = StringUtils.trim(reader.getElementText());
+          rule.internalKey = StringUtils.trim(reader.getElementText());
         } else if ("priority".equalsIgnoreCase(elementName) || "severity".equalsIgnoreCase(elementName)) {
           // "priority" is deprecated field and has been replaced by "severity"
-          severity = StringUtils.trim(reader.getElementText());
+          rule.severity = StringUtils.trim(reader.getElementText());
         } else if ("cardinality".equalsIgnoreCase(elementName)) {
-          template = Cardinality.MULTIPLE == Cardinality.valueOf(StringUtils.trim(reader.getElementText()));
+          rule.template = Cardinality.MULTIPLE == Cardinality.valueOf(StringUtils.trim(reader.getElementText()));
         } else if ("gapDescription".equalsIgnoreCase(elementName) || "effortToFixDescription".equalsIgnoreCase(
           elementName)) {
-          gapDescription = StringUtils.trim(reader.getElementText());
+          rule.gapDescription = StringUtils.trim(reader.getElementText());
         } else if ("remediationFunction".equalsIgnoreCase(elementName) || "debtRemediationFunction".equalsIgnoreCase(
           elementName)) {
-          debtRemediationFunction = StringUtils.trim(reader.getElementText());
+          rule.debtRemediationFunction = StringUtils.trim(reader.getElementText());
         } else if ("remediationFunctionBaseEffort".equalsIgnoreCase(elementName) || "debtRemediationFunctionOffset"
           .equalsIgnoreCase(elementName)) {
-          remediationFunctionBaseEffort = StringUtils.trim(reader.getElementText());
+          rule.remediationFunctionBaseEffort = StringUtils.trim(reader.getElementText());
         } else if ("remediationFunctionGapMultiplier".equalsIgnoreCase(elementName)
           || "debtRemediationFunctionCoefficient".equalsIgnoreCase(elementName)) {
-          remediationFunctionGapMultiplier = StringUtils.trim(reader.getElementText());
+          rule.remediationFunctionGapMultiplier = StringUtils.trim(reader.getElementText());
         } else if ("status".equalsIgnoreCase(elementName)) {
           String s = StringUtils.trim(reader.getElementText());
           if (s != null) {
-            status = RuleStatus.valueOf(s);
+            rule.status = RuleStatus.valueOf(s);
           }
         } else if (ELEMENT_PARAM.equalsIgnoreCase(elementName)) {
-          params.add(processParameter(element, reader));
+          rule.params.add(processParameter(element, reader));
         } else if ("tag".equalsIgnoreCase(elementName)) {
-          tags.add(StringUtils.trim(reader.getElementText()));
+          rule.tags.add(StringUtils.trim(reader.getElementText()));
         } else if ("deprecatedKey".equalsIgnoreCase(elementName)) {
-          deprecatedKeys.add(StringUtils.trim(reader.getElementText()));
+          rule.deprecatedKeys.add(StringUtils.trim(reader.getElementText()));
         }
       }
     }
   }
 
-  private static void buildRule(RulesDefinition.NewRepository repo, String key, String name,
-    @Nullable String description,
-    String descriptionFormat, @Nullable String internalKey, String severity,
-    @Nullable String type, RuleStatus status,
-    boolean template, @Nullable String gapDescription,
-    @Nullable String debtRemediationFunction,
-    @Nullable String debtRemediationFunctionBaseEffort,
-    @Nullable String debtRemediationFunctionGapMultiplier, List<ParamStruct> params,
-    List<String> tags,
-    List<String> deprecatedKeys) {
+  static void buildRule(RulesDefinition.NewRepository repo, RuleStruct struct) {
     try {
-      RulesDefinition.NewRule rule = repo.createRule(key)
-        .setSeverity(severity)
-        .setName(name)
-        .setInternalKey(internalKey)
-        .setTags(tags.toArray(String[]::new))
-        .setTemplate(template)
-        .setStatus(status)
-        .setGapDescription(gapDescription);
-      if (type != null) {
-        rule.setType(RuleType.valueOf(type));
+      RulesDefinition.NewRule rule = repo.createRule(struct.key)
+        .setSeverity(struct.severity)
+        .setName(struct.name)
+        .setInternalKey(struct.internalKey)
+        .setTags(struct.tags.toArray(String[]::new))
+        .setTemplate(struct.template)
+        .setStatus(struct.status)
+        .setGapDescription(struct.gapDescription);
+      if (struct.type != null) {
+        rule.setType(RuleType.valueOf(struct.type));
       }
-      fillDescription(rule, descriptionFormat, description);
-      fillRemediationFunction(rule, debtRemediationFunction, debtRemediationFunctionGapMultiplier,
-        debtRemediationFunctionBaseEffort);
-      fillParams(rule, params);
-      fillDeprecatedKeys(repo, rule, deprecatedKeys);
+      fillDescription(rule, struct.descriptionFormat, struct.description);
+      fillRemediationFunction(rule, struct.debtRemediationFunction, struct.remediationFunctionGapMultiplier,
+        struct.remediationFunctionBaseEffort);
+      fillParams(rule, struct.params);
+      fillDeprecatedKeys(repo, rule, struct.deprecatedKeys);
     } catch (Exception e) {
-      throw new IllegalStateException(format("Fail to load the rule with key [%s:%s]", repo.key(), key), e);
+      throw new IllegalStateException(format("Fail to load the rule with key [%s:%s]", repo.key(), struct.key), e);
     }
   }
 
@@ -475,12 +459,38 @@ public class RulesDefinitionXmlLoader {
     }
   }
 
-  private static class ParamStruct {
+  /**
+   * Rule definition as read from XML, before it is created in a repository.
+   *
+   * @since cxx plugin 2.2.0
+   */
+  static class RuleStruct {
+
+    String key;
+    String name;
+    String description;
+    // enum is not used as variable type as we want to raise an exception with the rule key when format is not supported
+    String descriptionFormat = DescriptionFormat.HTML.name();
+    String internalKey;
+    String severity = Severity.defaultSeverity();
+    String type;
+    RuleStatus status = RuleStatus.defaultStatus();
+    boolean template;
+    String gapDescription;
+    String debtRemediationFunction;
+    String remediationFunctionBaseEffort;
+    String remediationFunctionGapMultiplier;
+    List<ParamStruct> params = new ArrayList<>();
+    List<String> tags = new ArrayList<>();
+    List<String> deprecatedKeys = new ArrayList<>();
+  }
+
+  static class ParamStruct {
 
-    private String key;
-    private String description;
-    private String defaultValue;
-    private RuleParamType type = RuleParamType.STRING;
+    String key;
+    String description;
+    String defaultValue;
+    RuleParamType type = RuleParamType.STRING;
   }
 
   private static ParamStruct processParameter(StartElement paramElement, XMLEventReader reader) throws
@@ -32,6 +32,7 @@ import org.sonar.api.batch.sensor.internal.SensorContextTester;
 import org.sonar.api.config.internal.MapSettings;
 import org.sonar.api.testfixtures.log.LogTesterJUnit5;
 import org.sonar.cxx.sensors.utils.CxxReportSensor;
+import org.sonar.cxx.sensors.utils.ReportFileIndex;
 import org.sonar.cxx.sensors.utils.TestUtils;
 
 class XlstSensorTest {
@@ -56,7 +57,7 @@ class XlstSensorTest {
   void noLoggingIfNotUsed() {
     var context = SensorContextTester.create(fs.baseDir());
 
-    var sensor = new XlstSensor();
+    var sensor = new XlstSensor(new ReportFileIndex());
     logTester.clear();
     sensor.execute(context);
 
@@ -74,7 +75,7 @@ class XlstSensorTest {
     settings.setProperty(XlstSensor.OTHER_XSLT_KEY + "1" + XlstSensor.OUTPUT_KEY, "notexistingpath");
     context.setSettings(settings);
 
-    var sensor = new XlstSensor();
+    var sensor = new XlstSensor(new ReportFileIndex());
     logTester.clear();
     sensor.execute(context);
 
@@ -89,7 +90,7 @@ class XlstSensorTest {
     settings.setProperty(XlstSensor.OTHER_XSLT_KEY + "1" + XlstSensor.STYLESHEET_KEY, "something");
     context.setSettings(settings);
 
-    var sensor = new XlstSensor();
+    var sensor = new XlstSensor(new ReportFileIndex());
     logTester.clear();
     sensor.execute(context);
 
@@ -104,7 +105,7 @@ class XlstSensorTest {
     settings.setProperty("outputs", "outputs");
     context.setSettings(settings);
 
-    var sensor = new XlstSensor();
+    var sensor = new XlstSensor(new ReportFileIndex());
     logTester.clear();
     sensor.execute(context);
 
@@ -120,7 +121,7 @@ class XlstSensorTest {
     settings.setProperty("something", "something");
     context.setSettings(settings);
 
-    var sensor = new XlstSensor();
+    var sensor = new XlstSensor(new ReportFileIndex());
     logTester.clear();
     sensor.execute(context);
 
@@ -137,7 +138,7 @@ class XlstSensorTest {
     settings.setProperty("something", "something");
     context.setSettings(settings);
 
-    var sensor = new XlstSensor();
+    var sensor = new XlstSensor(new ReportFileIndex());
     logTester.clear();
     sensor.execute(context);
 
@@ -157,7 +158,7 @@ class XlstSensorTest {
     settings.setProperty(XlstSensor.OTHER_XSLT_KEY + "1" + XlstSensor.OUTPUT_KEY, outputFile);
     context.setSettings(settings);
 
-    var sensor = new XlstSensor();
+    var sensor = new XlstSensor(new ReportFileIndex());
     logTester.clear();
     sensor.execute(context);
 
@@ -181,7 +182,7 @@ class XlstSensorTest {
     settings.setProperty(XlstSensor.OTHER_XSLT_KEY + "1" + XlstSensor.OUTPUT_KEY, outputFile);
     context.setSettings(settings);
 
-    var sensor = new XlstSensor();
+    var sensor = new XlstSensor(new ReportFileIndex());
     logTester.clear();
     sensor.execute(context);
 
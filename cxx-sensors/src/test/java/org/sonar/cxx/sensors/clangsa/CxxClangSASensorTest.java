@@ -54,7 +54,7 @@ class CxxClangSASensorTest {
     settings.setProperty(CxxClangSASensor.REPORT_PATH_KEY, "clangsa-reports/clangsa-empty.plist");
     context.setSettings(settings);
 
-    var sensor = new CxxClangSASensor();
+    var sensor = TestUtils.newSensor(CxxClangSASensor::new);
     sensor.execute(context);
 
     assertThat(context.allIssues()).isEmpty();
@@ -80,7 +80,7 @@ class CxxClangSASensorTest {
     context.fileSystem().add(testFile0);
     context.fileSystem().add(testFile1);
 
-    var sensor = new CxxClangSASensor();
+    var sensor = TestUtils.newSensor(CxxClangSASensor::new);
     sensor.execute(context);
 
     assertThat(context.allIssues()).hasSize(3);
@@ -107,7 +107,7 @@ class CxxClangSASensorTest {
     context.fileSystem().add(testFile0);
     context.fileSystem().add(testFile1);
 
-    var sensor = new CxxClangSASensor();
+    var sensor = TestUtils.newSensor(CxxClangSASensor::new);
     sensor.execute(context);
 
     assertThat(context.allIssues()).hasSize(3);
@@ -158,7 +158,67 @@ class CxxClangSASensorTest {
     context.fileSystem().add(TestInputFileBuilder.create("ProjectKey", "src/lib/component1.cc")
       .setLanguage("cxx").initMetadata("asd\nasdas\nasda\n").build());
 
-    var sensor = new CxxClangSASensor();
+    var sensor = TestUtils.newSensor(CxxClangSASensor::new);
+    sensor.execute(context);
+
+    assertThat(context.allIssues()).isEmpty();
+  }
+
+  @Test
+  void shouldReadFilesAfterDiagnostics() {
+    var context = SensorContextTester.create(fs.baseDir());
+    settings.setProperty(CxxClangSASensor.REPORT_PATH_KEY, "clangsa-reports/clangsa-files-last.plist");
+    context.setSettings(settings);
+
+    var testFile1 = TestInputFileBuilder.create("ProjectKey", "src/lib/component1.cc").setLanguage("cxx")
+      .initMetadata("asd\nasdas\nasdaghtzutiojklmg\n").build();
+    context.fileSystem().add(testFile1);
+
+    var sensor = TestUtils.newSensor(CxxClangSASensor::new);
+    sensor.execute(context);
+
+    assertThat(context.allIssues()).hasSize(1);
+    Issue issue = Iterables.get(context.allIssues(), 0);
+    assertThat(issue.ruleKey().rule()).isEqualTo("core.NullDereference");
+    assertThat(issue.primaryLocation().inputComponent()).isEqualTo(testFile1);
+    assertThat(issue.primaryLocation().textRange().start().line()).isEqualTo(3);
+    assertThat(issue.primaryLocation().message()).isEqualTo("Dereference of null pointer (loaded from variable 'p')");
+    assertThat(issue.flows()).hasSize(1);
+    assertThat(issue.flows().get(0).locations().get(0).message()).isEqualTo("Null pointer value stored to 'p'");
+  }
+
+  @Test
+  void shouldReadMultipleReports() {
+    var context = SensorContextTester.create(fs.baseDir());
+    settings.setProperty(CxxClangSASensor.REPORT_PATH_KEY,
+                         "clangsa-reports/clangsa-report.plist,clangsa-reports/clangsa-files-last.plist,"
+                           + "clangsa-reports/clangsa-empty.plist,clangsa-reports/clangsa-report.plist");
+    context.setSettings(settings);
+
+    context.fileSystem().add(TestInputFileBuilder.create("ProjectKey", "src/lib/component0.cc").setLanguage("cxx")
+      .setContents(generateTestFileContents(100, 80)).build());
+    context.fileSystem().add(TestInputFileBuilder.create("ProjectKey", "src/lib/component1.cc").setLanguage("cxx")
+      .setContents(generateTestFileContents(100, 80)).build());
+
+    var sensor = TestUtils.newSensor(CxxClangSASensor::new);
+    sensor.execute(context);
+
+    assertThat(context.allIssues()).hasSize(4);
+    assertThat(context.allIssues()).extracting(issue -> issue.ruleKey().rule())
+      .containsExactlyInAnyOrder("core.uninitialized.Branch", "deadcode.DeadStores", "deadcode.DeadStores",
+                                 "core.NullDereference");
+  }
+
+  @Test
+  void missingMandatoryEntryReportsNoIssues() {
+    var context = SensorContextTester.create(fs.baseDir());
+    settings.setProperty(CxxClangSASensor.REPORT_PATH_KEY, "clangsa-reports/clangsa-missing-files.plist");
+    context.setSettings(settings);
+
+    context.fileSystem().add(TestInputFileBuilder.create("ProjectKey", "src/lib/component1.cc")
+      .setLanguage("cxx").initMetadata("asd\nasdas\nasda\n").build());
+
+    var sensor = TestUtils.newSensor(CxxClangSASensor::new);
     sensor.execute(context);
 
     assertThat(context.allIssues()).isEmpty();
@@ -167,7 +227,7 @@ class CxxClangSASensorTest {
   @Test
   void sensorDescriptor() {
     var descriptor = new DefaultSensorDescriptor();
-    var sensor = new CxxClangSASensor();
+    var sensor = TestUtils.newSensor(CxxClangSASensor::new);
     sensor.describe(descriptor);
 
     var softly = new SoftAssertions();
@@ -57,7 +57,7 @@ class CxxClangTidySensorTest {
     );
     context.setSettings(settings);
 
-    var sensor = new CxxClangTidySensor();
+    var sensor = TestUtils.newSensor(CxxClangTidySensor::new);
     sensor.execute(context);
 
     assertThat(context.allIssues()).isEmpty();
@@ -83,7 +83,7 @@ class CxxClangTidySensorTest {
       .build()
     );
 
-    var sensor = new CxxClangTidySensor();
+    var sensor = TestUtils.newSensor(CxxClangTidySensor::new);
     sensor.execute(context);
 
     assertThat(context.allIssues()).hasSize(4);
@@ -114,7 +114,7 @@ class CxxClangTidySensorTest {
       .build()
     );
 
-    var sensor = new CxxClangTidySensor();
+    var sensor = TestUtils.newSensor(CxxClangTidySensor::new);
     sensor.execute(context);
 
     assertThat(context.allIssues()).hasSize(4);
@@ -150,7 +150,7 @@ class CxxClangTidySensorTest {
       .build()
     );
 
-    var sensor = new CxxClangTidySensor();
+    var sensor = TestUtils.newSensor(CxxClangTidySensor::new);
     sensor.execute(context);
 
     assertThat(context.allIssues()).hasSize(2);
@@ -179,7 +179,7 @@ class CxxClangTidySensorTest {
       .build()
     );
 
-    var sensor = new CxxClangTidySensor();
+    var sensor = TestUtils.newSensor(CxxClangTidySensor::new);
     sensor.execute(context);
 
     assertThat(context.allIssues()).hasSize(1);
@@ -203,7 +203,7 @@ class CxxClangTidySensorTest {
       .build()
     );
 
-    var sensor = new CxxClangTidySensor();
+    var sensor = TestUtils.newSensor(CxxClangTidySensor::new);
     sensor.execute(context);
 
     assertThat(context.allIssues()).hasSize(2);
@@ -234,7 +234,7 @@ class CxxClangTidySensorTest {
       .build()
     );
 
-    var sensor = new CxxClangTidySensor();
+    var sensor = TestUtils.newSensor(CxxClangTidySensor::new);
     sensor.execute(context);
 
     assertThat(context.allIssues()).hasSize(3);
@@ -267,7 +267,7 @@ class CxxClangTidySensorTest {
       .build()
     );
 
-    var sensor = new CxxClangTidySensor();
+    var sensor = TestUtils.newSensor(CxxClangTidySensor::new);
     sensor.execute(context);
 
     assertThat(context.allIssues()).hasSize(1);
@@ -293,7 +293,7 @@ class CxxClangTidySensorTest {
       .build()
     );
 
-    var sensor = new CxxClangTidySensor();
+    var sensor = TestUtils.newSensor(CxxClangTidySensor::new);
     sensor.execute(context);
 
     assertThat(context.allIssues()).hasSize(1);
@@ -322,7 +322,7 @@ class CxxClangTidySensorTest {
       .build()
     );
 
-    var sensor = new CxxClangTidySensor();
+    var sensor = TestUtils.newSensor(CxxClangTidySensor::new);
     sensor.execute(context);
 
     assertThat(context.allIssues()).hasSize(2);
@@ -359,7 +359,7 @@ class CxxClangTidySensorTest {
       .build()
     );
 
-    var sensor = new CxxClangTidySensor();
+    var sensor = TestUtils.newSensor(CxxClangTidySensor::new);
     sensor.execute(context);
 
     var softly = new SoftAssertions();
@@ -389,7 +389,7 @@ class CxxClangTidySensorTest {
       .build()
     );
 
-    var sensor = new CxxClangTidySensor();
+    var sensor = TestUtils.newSensor(CxxClangTidySensor::new);
     sensor.execute(context);
 
     assertThat(context.allIssues()).isEmpty();
@@ -398,7 +398,7 @@ class CxxClangTidySensorTest {
   @Test
   void sensorDescriptor() {
     var descriptor = new DefaultSensorDescriptor();
-    var sensor = new CxxClangTidySensor();
+    var sensor = TestUtils.newSensor(CxxClangTidySensor::new);
     sensor.describe(descriptor);
 
     var softly = new SoftAssertions();
@@ -32,6 +32,8 @@ import org.sonar.api.batch.sensor.internal.SensorContextTester;
 import org.sonar.api.config.internal.MapSettings;
 import org.sonar.api.testfixtures.log.LogTesterJUnit5;
 import org.sonar.cxx.sensors.utils.CxxReportSensor;
+import org.sonar.cxx.sensors.utils.InputFileIndex;
+import org.sonar.cxx.sensors.utils.ReportFileIndex;
 import org.sonar.cxx.sensors.utils.TestUtils;
 
 class CxxCompilerSensorTest {
@@ -93,6 +95,7 @@ class CxxCompilerSensorTest {
     private String regex = "";
 
     public CxxCompilerSensorMock(SensorContext context) {
+      super(new InputFileIndex(), new ReportFileIndex());
       this.context = context;
     }
 
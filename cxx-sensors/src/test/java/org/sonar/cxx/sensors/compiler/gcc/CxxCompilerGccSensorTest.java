@@ -45,7 +45,7 @@ class CxxCompilerGccSensorTest {
   @Test
   void sensorDescriptorGcc() {
     var descriptor = new DefaultSensorDescriptor();
-    var sensor = new CxxCompilerGccSensor();
+    var sensor = TestUtils.newSensor(CxxCompilerGccSensor::new);
     sensor.describe(descriptor);
     var softly = new SoftAssertions();
     softly.assertThat(descriptor.name()).isEqualTo("CXX GCC compiler report import");
@@ -64,7 +64,7 @@ class CxxCompilerGccSensorTest {
     context.fileSystem().add(TestInputFileBuilder.create("ProjectKey", "src/zipmanager.cpp")
       .setLanguage("cxx").initMetadata("asd\nasdas\nasda\n").build());
 
-    var sensor = new CxxCompilerGccSensor();
+    var sensor = TestUtils.newSensor(CxxCompilerGccSensor::new);
     sensor.execute(context);
 
     assertThat(context.allIssues()).hasSize(4);
@@ -79,7 +79,7 @@ class CxxCompilerGccSensorTest {
     context.fileSystem().add(TestInputFileBuilder.create("ProjectKey", "main.c")
       .setLanguage("cxx").initMetadata("asd\nasdas\nasda\n").build());
 
-    var sensor = new CxxCompilerGccSensor();
+    var sensor = TestUtils.newSensor(CxxCompilerGccSensor::new);
     sensor.execute(context);
 
     assertThat(context.allIssues()).hasSize(2);
@@ -44,7 +44,7 @@ class CxxCompilerVcSensorTest {
   @Test
   void sensorDescriptorVc() {
     var descriptor = new DefaultSensorDescriptor();
-    var sensor = new CxxCompilerVcSensor();
+    var sensor = TestUtils.newSensor(CxxCompilerVcSensor::new);
     sensor.describe(descriptor);
     var softly = new SoftAssertions();
     softly.assertThat(descriptor.name()).isEqualTo("CXX Visual C++ compiler report import");
@@ -65,7 +65,7 @@ class CxxCompilerVcSensorTest {
     context.fileSystem().add(TestInputFileBuilder.create("ProjectKey", "zipmanager.cpp")
       .setLanguage("cxx").initMetadata("asd\nasdas\nasda\n").build());
 
-    var sensor = new CxxCompilerVcSensor();
+    var sensor = TestUtils.newSensor(CxxCompilerVcSensor::new);
     sensor.execute(context);
 
     assertThat(context.allIssues()).hasSize(9);
@@ -83,7 +83,7 @@ class CxxCompilerVcSensorTest {
     context.fileSystem().add(TestInputFileBuilder.create("ProjectKey", "Server/source/zip/zipmanager.cpp")
       .setLanguage("cxx").initMetadata("asd\nasdas\nasda\n").build());
 
-    var sensor = new CxxCompilerVcSensor();
+    var sensor = TestUtils.newSensor(CxxCompilerVcSensor::new);
     sensor.execute(context);
 
     assertThat(context.allIssues()).hasSize(9);
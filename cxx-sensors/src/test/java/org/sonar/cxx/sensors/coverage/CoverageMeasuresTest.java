@@ -0,0 +1,90 @@
+/*
+ * C++ Community Plugin (cxx plugin)
+ * Copyright (C) 2010-2024 SonarOpenCommunity
+ * http://github.com/SonarOpenCommunity/sonar-cxx
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.cxx.sensors.coverage;
+
+import java.util.ArrayList;
+import java.util.List;
+import static org.assertj.core.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+class CoverageMeasuresTest {
+
+  @Test
+  void hitsAreSummedUp() {
+    var measures = CoverageMeasures.create();
+    measures.setHits(3, 2);
+    measures.setHits(3, 5);
+    measures.setHits(1, 0);
+
+    assertThat(lines(measures)).containsExactly("1:0:0:0", "3:7:0:0");
+    assertThat(measures.lineCount()).isEqualTo(2);
+    assertThat(measures.getCoveredLines()).containsOnly(3);
+  }
+
+  @Test
+  void conditionsAreReplaced() {
+    var measures = CoverageMeasures.create();
+    measures.setConditions(200, 4, 1);
+    measures.setConditions(200, 4, 3);
+
+    assertThat(lines(measures)).containsExactly("200:0:4:3");
+    assertThat(measures.getCoveredConditions()).containsOnly(200);
+  }
+
+  @Test
+  void invalidLinesAreIgnored() {
+    var measures = CoverageMeasures.create();
+    measures.setHits(-1, 2);
+    measures.setConditions(-1, 2, 2);
+
+    assertThat(measures.lineCount()).isZero();
+  }
+
+  @Test
+  void mergeIsAssociativeAndCommutative() {
+    var a = CoverageMeasures.create();
+    a.setHits(1, 1);
+    a.setConditions(2, 2, 1);
+    var b = CoverageMeasures.create();
+    b.setHits(1, 2);
+    b.setHits(100, 3);
+    var c = CoverageMeasures.create();
+    c.setHits(2, 0);
+    c.setConditions(2, 2, 2);
+
+    var left = copy(a).merge(copy(b)).merge(copy(c));
+    var right = copy(c).merge(copy(b).merge(copy(a)));
+
+    assertThat(lines(left)).containsExactly("1:3:0:0", "2:0:2:2", "100:3:0:0");
+    assertThat(lines(right)).isEqualTo(lines(left));
+  }
+
+  private static CoverageMeasures copy(CoverageMeasures measures) {
+    return CoverageMeasures.create().merge(measures);
+  }
+
+  private static List<String> lines(CoverageMeasures measures) {
+    var result = new ArrayList<String>();
+    measures.forEachLine((int line, int hits, int conditions, int coveredConditions)
+      -> result.add(line + ":" + hits + ":" + conditions + ":" + coveredConditions));
+    return result;
+  }
+
+}
@@ -76,7 +76,7 @@ class CxxBullseyeCoverageSensorTest {
         "asd\nasdas\nasda\n" + "\n".repeat(59))
       .build());
 
-    var sensor = new CxxCoverageBullseyeSensor();
+    var sensor = TestUtils.newSensor(CxxCoverageBullseyeSensor::new);
     sensor.execute(context);
 
     assertThat(context.lineHits("ProjectKey:main.cpp", 7)).isEqualTo(1);
@@ -153,7 +153,7 @@ class CxxBullseyeCoverageSensorTest {
       .initMetadata("asd\nasdas\nasda\n" + "\n".repeat(29))
       .build());
 
-    var sensor = new CxxCoverageBullseyeSensor();
+    var sensor = TestUtils.newSensor(CxxCoverageBullseyeSensor::new);
     sensor.execute(context);
 
     assertThat(context.lineHits("ProjectKey:randomfoldernamethatihopeknowmachinehas/test/test.c", 4))
@@ -194,7 +194,7 @@ class CxxBullseyeCoverageSensorTest {
         .initMetadata("asd\nasdas\nasda\n" + "\n".repeat(4029))
         .build());
     }
-    var sensor = new CxxCoverageBullseyeSensor();
+    var sensor = TestUtils.newSensor(CxxCoverageBullseyeSensor::new);
     sensor.execute(context);
 
     var coveredCondition = new int[]{496, 524};
@@ -272,7 +272,7 @@ class CxxBullseyeCoverageSensorTest {
       .build()
     );
 
-    var sensor = new CxxCoverageBullseyeSensor();
+    var sensor = TestUtils.newSensor(CxxCoverageBullseyeSensor::new);
     sensor.execute(context);
 
     assertThat(context.lineHits("ProjectKey:root/folder/test.cpp", 3)).isEqualTo(1);
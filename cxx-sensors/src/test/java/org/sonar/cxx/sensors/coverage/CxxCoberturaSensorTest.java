@@ -168,7 +168,7 @@ class CxxCoberturaSensorTest {
     context.fileSystem().add(TestInputFileBuilder.create("ProjectKey", "sources/utils/code_chunks.cpp")
       .setLanguage("cxx").initMetadata("asd\nasdas\nasda\n").build());
 
-    var sensor = new CxxCoverageCoberturaSensor();
+    var sensor = TestUtils.newSensor(CxxCoverageCoberturaSensor::new);
     sensor.execute(context);
 
     assertThat(context.lineHits("ProjectKey:sources/utils/code_chunks.cpp", 1)).isEqualTo(1);
@@ -199,7 +199,7 @@ class CxxCoberturaSensorTest {
     context.fileSystem().add(TestInputFileBuilder.create("ProjectKey", "sources/utils/code_chunks.cpp")
       .setLanguage("cxx").initMetadata("asd\nasdas\nasda\n").build());
 
-    var sensor = new CxxCoverageCoberturaSensor();
+    var sensor = TestUtils.newSensor(CxxCoverageCoberturaSensor::new);
     sensor.execute(context);
 
     assertThat(context.lineHits("ProjectKey:sources/utils/code_chunks.cpp", 1)).isEqualTo(1);
@@ -215,7 +215,7 @@ class CxxCoberturaSensorTest {
     settings.setProperty(CxxCoverageCoberturaSensor.REPORT_PATH_KEY, reportPathsValue);
     context.setSettings(settings);
 
-    var sensor = new CxxCoverageCoberturaSensor();
+    var sensor = TestUtils.newSensor(CxxCoverageCoberturaSensor::new);
     sensor.execute(context);
 
     List<String> log = logTester.logs();
@@ -231,7 +231,7 @@ class CxxCoberturaSensorTest {
       "coverage-reports/cobertura/specific-cases/cobertura-bignumberofhits.xml");
     context.setSettings(settings);
 
-    var sensor = new CxxCoverageCoberturaSensor();
+    var sensor = TestUtils.newSensor(CxxCoverageCoberturaSensor::new);
     sensor.execute(context);
 
     assertThat(linesOfCodeByFile).isEmpty();
@@ -251,7 +251,7 @@ class CxxCoberturaSensorTest {
     context.fileSystem().add(TestInputFileBuilder.create("ProjectKey", "sources/utils/code_chunks.cpp")
       .setLanguage("cxx").initMetadata("asd\nasdas\nasda\n").build());
 
-    var sensor = new CxxCoverageCoberturaSensor();
+    var sensor = TestUtils.newSensor(CxxCoverageCoberturaSensor::new);
     sensor.execute(context);
 
     assertThat(context.lineHits("ProjectKey:sources/application/main.cpp", 1)).isNull();
@@ -274,7 +274,7 @@ class CxxCoberturaSensorTest {
     context.fileSystem().add(TestInputFileBuilder.create("ProjectKey", "sources/utils/code_chunks.cpp")
       .setLanguage("cxx").initMetadata("asd\nasdas\nasda\n").build());
 
-    var sensor = new CxxCoverageCoberturaSensor();
+    var sensor = TestUtils.newSensor(CxxCoverageCoberturaSensor::new);
     sensor.execute(context);
 
     assertThat(context.lineHits("ProjectKey:sources/application/main.cpp", 1)).isNull();
@@ -282,4 +282,57 @@ class CxxCoberturaSensorTest {
     assertThat(context.lineHits("ProjectKey:sources/utils/code_chunks.cpp", 1)).isNull();
   }
 
+  @Test
+  void shouldParseConditionCoverage() {
+    assertThat(CoberturaParser.parseConditions("50% (1/2)")).containsExactly(1, 2);
+    assertThat(CoberturaParser.parseConditions("100% (12/12)")).containsExactly(12, 12);
+    assertThat(CoberturaParser.parseConditions("50%")).isNull();
+    assertThat(CoberturaParser.parseConditions("50% (1)")).isNull();
+    assertThat(CoberturaParser.parseConditions("50% (x/2)")).isNull();
+  }
+
+  @Test
+  void shouldResolveClassesFoundBeforeSources() {
+    var report = new File(fs.baseDir(), "coverage-reports/cobertura/specific-cases/cobertura-sources-after-packages.xml");
+    var coverageData = new CoberturaParser().parse(report);
+
+    var path = CoberturaParser.join(Path.of("/project/sources"), Path.of("utils/code_chunks.cpp"));
+    assertThat(coverageData).containsOnlyKeys(path);
+    var measures = coverageData.get(path);
+    assertThat(measures.getCoveredLines()).containsOnly(1, 3);
+    assertThat(measures.getCoveredConditions()).containsOnly(3);
+    measures.forEachLine((int line, int hits, int conditions, int coveredConditions) -> {
+      if (line == 1) {
+        assertThat(hits).isEqualTo(1);
+      }
+    });
+  }
+
+  @Test
+  void shouldParseReportWithSourcesFirstInOnePass() {
+    var report = new File(fs.baseDir(), "coverage-reports/cobertura/specific-cases/cobertura-sources-first.xml");
+    var coverageData = new CoberturaParser().parse(report);
+
+    var chunks = CoberturaParser.join(Path.of("/project/sources"), Path.of("utils/code_chunks.cpp"));
+    var main = CoberturaParser.join(Path.of("/project/sources"), Path.of("application/main.cpp"));
+    assertThat(coverageData).containsOnlyKeys(chunks, main);
+
+    var measures = coverageData.get(chunks);
+    assertThat(measures.lineCount()).isEqualTo(3);
+    assertThat(measures.getCoveredLines()).containsOnly(1, 3);
+    assertThat(measures.getCoveredConditions()).containsOnly(3);
+    measures.forEachLine((int line, int hits, int conditions, int coveredConditions) -> {
+      assertThat(line).isNotEqualTo(2);
+      if (line == 3) {
+        assertThat(hits).isEqualTo(4);
+        assertThat(conditions).isEqualTo(2);
+        assertThat(coveredConditions).isEqualTo(1);
+      }
+    });
+
+    measures = coverageData.get(main);
+    assertThat(measures.getCoveredLines()).containsOnly(5);
+    assertThat(measures.getCoveredConditions()).containsOnly(5);
+  }
+
 }
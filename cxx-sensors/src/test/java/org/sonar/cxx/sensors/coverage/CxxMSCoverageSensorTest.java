@@ -63,7 +63,7 @@ class CxxMSCoverageSensorTest {
       .initMetadata(metaData)
       .build());
 
-    var sensor = new CxxCoverageVisualStudioSensor();
+    var sensor = TestUtils.newSensor(CxxCoverageVisualStudioSensor::new);
     sensor.execute(context);
 
     var oneHitlinesA = new int[]{12, 14, 16, 19, 20, 21, 23, 25, 26, 27, 28};
@@ -91,7 +91,7 @@ class CxxMSCoverageSensorTest {
       .setLanguage("cxx").initMetadata(metaData)
       .build());
 
-    var sensor = new CxxCoverageVisualStudioSensor();
+    var sensor = TestUtils.newSensor(CxxCoverageVisualStudioSensor::new);
     sensor.execute(context);
 
     var oneHitlinesA = new int[]{4, 5, 6, 8, 13, 15, 16, 25};
@@ -129,7 +129,7 @@ class CxxMSCoverageSensorTest {
       .initMetadata(metaData)
       .build());
 
-    var sensor = new CxxCoverageVisualStudioSensor();
+    var sensor = TestUtils.newSensor(CxxCoverageVisualStudioSensor::new);
     logTester.clear();
     sensor.execute(context);
 
@@ -150,7 +150,7 @@ class CxxMSCoverageSensorTest {
       .initMetadata(metaData)
       .build());
 
-    var sensor = new CxxCoverageVisualStudioSensor();
+    var sensor = TestUtils.newSensor(CxxCoverageVisualStudioSensor::new);
     sensor.execute(context);
 
     assertThat(context.lineHits("ProjectKey:source/motorcontroller/motorcontroller.cpp", 1)).isNull();
@@ -160,7 +160,7 @@ class CxxMSCoverageSensorTest {
   void sensorDescriptor() {
     context = SensorContextTester.create(fs.baseDir());
     var descriptor = new DefaultSensorDescriptor();
-    var sensor = new CxxCoverageVisualStudioSensor();
+    var sensor = TestUtils.newSensor(CxxCoverageVisualStudioSensor::new);
     sensor.describe(descriptor);
 
     var softly = new SoftAssertions();
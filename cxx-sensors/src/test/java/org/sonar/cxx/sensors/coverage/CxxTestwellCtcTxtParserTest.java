@@ -55,7 +55,7 @@ class CxxTestwellCtcTxtParserTest {
       .build()
     );
 
-    var sensor = new CxxCoverageTestwellCtcTxtSensor();
+    var sensor = TestUtils.newSensor(CxxCoverageTestwellCtcTxtSensor::new);
     sensor.execute(context);
 
     var softly = new SoftAssertions();
@@ -77,7 +77,7 @@ class CxxTestwellCtcTxtParserTest {
       .build()
     );
 
-    var sensor = new CxxCoverageTestwellCtcTxtSensor();
+    var sensor = TestUtils.newSensor(CxxCoverageTestwellCtcTxtSensor::new);
     sensor.execute(context);
 
     var softly = new SoftAssertions();
@@ -96,7 +96,7 @@ class CxxTestwellCtcTxtParserTest {
     context.fileSystem().add(TestInputFileBuilder.create("ProjectKey", "HGBuildNumberLookup.cpp")
       .setLanguage("cxx").initMetadata("\n".repeat(100)).build());
 
-    var sensor = new CxxCoverageTestwellCtcTxtSensor();
+    var sensor = TestUtils.newSensor(CxxCoverageTestwellCtcTxtSensor::new);
     sensor.execute(context);
 
     var softly = new SoftAssertions();
@@ -117,7 +117,7 @@ class CxxTestwellCtcTxtParserTest {
     context.fileSystem().add(TestInputFileBuilder.create("ProjectKey", "credential-store.c")
       .setLanguage("cxx").initMetadata("\n".repeat(100)).build());
 
-    var sensor = new CxxCoverageTestwellCtcTxtSensor();
+    var sensor = TestUtils.newSensor(CxxCoverageTestwellCtcTxtSensor::new);
     sensor.execute(context);
 
     var softly = new SoftAssertions();
@@ -138,7 +138,7 @@ class CxxTestwellCtcTxtParserTest {
     context.fileSystem().add(TestInputFileBuilder.create("ProjectKey", "credential-store.c")
       .setLanguage("cxx").initMetadata("\n".repeat(100)).build());
 
-    var sensor = new CxxCoverageTestwellCtcTxtSensor();
+    var sensor = TestUtils.newSensor(CxxCoverageTestwellCtcTxtSensor::new);
     sensor.execute(context);
 
     var softly = new SoftAssertions();
@@ -159,7 +159,7 @@ class CxxTestwellCtcTxtParserTest {
     context.fileSystem().add(TestInputFileBuilder.create("ProjectKey", "credential-store.c")
       .setLanguage("cxx").initMetadata("\n".repeat(100)).build());
 
-    var sensor = new CxxCoverageTestwellCtcTxtSensor();
+    var sensor = TestUtils.newSensor(CxxCoverageTestwellCtcTxtSensor::new);
     sensor.execute(context);
 
     var softly = new SoftAssertions();
@@ -178,7 +178,7 @@ class CxxTestwellCtcTxtParserTest {
     context.fileSystem().add(TestInputFileBuilder.create("ProjectKey", "test-wildmatch.c")
       .setLanguage("cxx").initMetadata("\n".repeat(100)).build());
 
-    var sensor = new CxxCoverageTestwellCtcTxtSensor();
+    var sensor = TestUtils.newSensor(CxxCoverageTestwellCtcTxtSensor::new);
     sensor.execute(context);
 
     var softly = new SoftAssertions();
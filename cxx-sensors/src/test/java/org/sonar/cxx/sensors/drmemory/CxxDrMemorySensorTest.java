@@ -49,7 +49,7 @@ class CxxDrMemorySensorTest {
       .initMetadata("asd\nasdas\nasda\n").setCharset(StandardCharsets.UTF_8).build();
     context.fileSystem().add(inputFile);
 
-    var sensor = new CxxDrMemorySensor();
+    var sensor = TestUtils.newSensor(CxxDrMemorySensor::new);
     sensor.execute(context);
 
     assertThat(context.allIssues()).hasSize(1);
@@ -58,7 +58,7 @@ class CxxDrMemorySensorTest {
   @Test
   void sensorDescriptor() {
     var descriptor = new DefaultSensorDescriptor();
-    var sensor = new CxxDrMemorySensor();
+    var sensor = TestUtils.newSensor(CxxDrMemorySensor::new);
     sensor.describe(descriptor);
 
     var softly = new SoftAssertions();
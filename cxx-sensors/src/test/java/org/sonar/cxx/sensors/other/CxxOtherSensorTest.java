@@ -58,7 +58,7 @@ class CxxOtherSensorTest {
     context.fileSystem().add(TestInputFileBuilder.create("ProjectKey", "sources/utils/utils.cpp")
       .setLanguage("cxx").initMetadata("asd\nasdas\nasda\n").build());
 
-    sensor = new CxxOtherSensor();
+    sensor = TestUtils.newSensor(CxxOtherSensor::new);
     sensor.execute(context);
 
     assertThat(context.allIssues()).hasSize(2);
@@ -74,7 +74,7 @@ class CxxOtherSensorTest {
     context.fileSystem().add(TestInputFileBuilder.create("ProjectKey", "sources/utils/code_chunks.cpp")
       .setLanguage("cxx").initMetadata("asd\nasdas\nasda\n").build());
 
-    sensor = new CxxOtherSensor();
+    sensor = TestUtils.newSensor(CxxOtherSensor::new);
     sensor.execute(context);
 
     assertThat(context.allIssues()).hasSize(1);
@@ -87,7 +87,7 @@ class CxxOtherSensorTest {
       "externalrules-reports/externalrules-result-projectlevelviolation.xml");
     context.setSettings(settings);
 
-    sensor = new CxxOtherSensor();
+    sensor = TestUtils.newSensor(CxxOtherSensor::new);
     sensor.execute(context);
 
     assertThat(context.allIssues()).hasSize(1);
@@ -99,7 +99,7 @@ class CxxOtherSensorTest {
     settings.setProperty(CxxReportSensor.ERROR_RECOVERY_KEY, false);
     settings.setProperty(CxxOtherSensor.REPORT_PATH_KEY, "externalrules-reports/externalrules-result-empty.xml");
     context.setSettings(settings);
-    sensor = new CxxOtherSensor();
+    sensor = TestUtils.newSensor(CxxOtherSensor::new);
 
     IllegalStateException thrown = catchThrowableOfType(IllegalStateException.class, () -> {
       sensor.execute(context);
@@ -114,7 +114,7 @@ class CxxOtherSensorTest {
     settings.setProperty(CxxOtherSensor.REPORT_PATH_KEY, "externalrules-reports/noreport.xml");
     context.setSettings(settings);
 
-    sensor = new CxxOtherSensor();
+    sensor = TestUtils.newSensor(CxxOtherSensor::new);
     sensor.execute(context);
 
     assertThat(context.allIssues()).isEmpty();
@@ -126,7 +126,7 @@ class CxxOtherSensorTest {
     settings.setProperty(CxxReportSensor.ERROR_RECOVERY_KEY, false);
     settings.setProperty(CxxOtherSensor.REPORT_PATH_KEY, "externalrules-reports/externalrules-result-invalid.xml");
     context.setSettings(settings);
-    sensor = new CxxOtherSensor();
+    sensor = TestUtils.newSensor(CxxOtherSensor::new);
 
     IllegalStateException thrown = catchThrowableOfType(IllegalStateException.class, () -> {
       sensor.execute(context);
@@ -143,7 +143,7 @@ class CxxOtherSensorTest {
     context.fileSystem().add(TestInputFileBuilder.create("ProjectKey", "sources/utils/code_chunks.cpp")
       .setLanguage("cxx").initMetadata("asd\nasdas\nasda\n").build());
 
-    sensor = new CxxOtherSensor();
+    sensor = TestUtils.newSensor(CxxOtherSensor::new);
     sensor.execute(context);
 
     assertThat(context.allIssues()).hasSize(1);
@@ -152,7 +152,7 @@ class CxxOtherSensorTest {
   @Test
   void sensorDescriptor() {
     var descriptor = new DefaultSensorDescriptor();
-    sensor = new CxxOtherSensor();
+    sensor = TestUtils.newSensor(CxxOtherSensor::new);
     sensor.describe(descriptor);
 
     var softly = new SoftAssertions();
@@ -54,7 +54,7 @@ class CxxRatsSensorTest {
     context.fileSystem().add(TestInputFileBuilder.create("ProjectKey", "report.c").setLanguage("cxx").initMetadata(
       "asd\nasdas\nasda\n").build());
 
-    sensor = new CxxRatsSensor();
+    sensor = TestUtils.newSensor(CxxRatsSensor::new);
     sensor.execute(context);
 
     assertThat(context.allIssues()).hasSize(5);
@@ -63,7 +63,7 @@ class CxxRatsSensorTest {
   @Test
   void sensorDescriptor() {
     var descriptor = new DefaultSensorDescriptor();
-    sensor = new CxxRatsSensor();
+    sensor = TestUtils.newSensor(CxxRatsSensor::new);
     sensor.describe(descriptor);
 
     var softly = new SoftAssertions();
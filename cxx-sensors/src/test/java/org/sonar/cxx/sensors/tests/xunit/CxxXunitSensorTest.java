@@ -48,7 +48,7 @@ class CxxXunitSensorTest {
     settings.setProperty(CxxXunitSensor.REPORT_PATH_KEY, "notexistingpath");
     context.setSettings(settings);
 
-    var sensor = new CxxXunitSensor();
+    var sensor = TestUtils.newSensor(CxxXunitSensor::new);
     sensor.execute(context);
 
     assertThat(context.measures(context.project().key())).isEmpty();
@@ -60,7 +60,7 @@ class CxxXunitSensorTest {
     settings.setProperty(CxxXunitSensor.REPORT_PATH_KEY, "xunit-reports/xunit-result-SAMPLE_with_fileName.xml");
     context.setSettings(settings);
 
-    var sensor = new CxxXunitSensor();
+    var sensor = TestUtils.newSensor(CxxXunitSensor::new);
     sensor.execute(context);
 
     assertThat(context.measures(context.project().key())).hasSize(5);
@@ -79,7 +79,7 @@ class CxxXunitSensorTest {
     var context = SensorContextTester.create(fs.baseDir());
     settings.setProperty(CxxXunitSensor.REPORT_PATH_KEY, "xunit-reports/invalid-time-xunit-report.xml");
     context.setSettings(settings);
-    var sensor = new CxxXunitSensor();
+    var sensor = TestUtils.newSensor(CxxXunitSensor::new);
 
     IllegalStateException thrown = catchThrowableOfType(IllegalStateException.class, () -> {
       sensor.execute(context);
@@ -90,7 +90,7 @@ class CxxXunitSensorTest {
   @Test
   void sensorDescriptor() {
     var descriptor = new DefaultSensorDescriptor();
-    var sensor = new CxxXunitSensor();
+    var sensor = TestUtils.newSensor(CxxXunitSensor::new);
     sensor.describe(descriptor);
 
     assertThat(descriptor.name()).isEqualTo("CXX xUnit Test report import");
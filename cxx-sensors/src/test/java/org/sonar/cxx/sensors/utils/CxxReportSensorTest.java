@@ -109,6 +109,7 @@ class CxxReportSensorTest {
   private class CxxReportSensorImpl extends CxxReportSensor {
 
     public CxxReportSensorImpl(MapSettings settings) {
+      super(new InputFileIndex(), new ReportFileIndex());
     }
 
     @Override
@@ -0,0 +1,168 @@
+/*
+ * C++ Community Plugin (cxx plugin)
+ * Copyright (C) 2010-2024 SonarOpenCommunity
+ * http://github.com/SonarOpenCommunity/sonar-cxx
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.cxx.sensors.utils;
+
+import java.io.File;
+import static org.assertj.core.api.Assertions.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.sonar.api.batch.fs.InputFile;
+import org.sonar.api.batch.fs.internal.TestInputFileBuilder;
+import org.sonar.api.batch.sensor.SensorDescriptor;
+import org.sonar.api.batch.sensor.internal.SensorContextTester;
+
+class InputFileIndexTest {
+
+  @TempDir
+  File baseDir;
+
+  private SensorContextTester context;
+  private InputFile main;
+  private InputFile header;
+
+  @BeforeEach
+  public void setUp() {
+    context = SensorContextTester.create(baseDir);
+    main = add("src/main.cpp");
+    header = add("src/lib/Utils.h");
+    add("src/a/common.h");
+    add("src/b/common.h");
+  }
+
+  @Test
+  void buildOncePerFileSystem() {
+    var index = index();
+    add("src/later.cpp");
+    index.build(context.fileSystem());
+    assertThat(index.size()).isEqualTo(4);
+    index.build(SensorContextTester.create(baseDir).fileSystem());
+    assertThat(index.size()).isZero();
+  }
+
+  @Test
+  void addFileFoundByOtherMeans() {
+    var index = index();
+    var later = add("src/later.cpp");
+    assertThat(index.find("src/later.cpp")).isNull();
+    index.put("link/later.cpp", later);
+    assertThat(index.size()).isEqualTo(5);
+    assertThat(index.find("src/later.cpp")).isSameAs(later);
+    assertThat(index.find("SRC/LATER.CPP")).isSameAs(later);
+  }
+
+  @Test
+  void sharedBySensors() {
+    var index = new InputFileIndex();
+    var sensor = new CxxReportSensor(index, new ReportFileIndex()) {
+      @Override
+      public void describe(SensorDescriptor descriptor) {
+        // not used
+      }
+
+      @Override
+      protected void executeImpl() {
+        // not used
+      }
+    };
+    sensor.execute(context);
+    assertThat(index.size()).isEqualTo(4);
+    assertThat(sensor.getInputFileIfInProject("src\\main.cpp")).isSameAs(main);
+  }
+
+  @Test
+  void findExactPath() {
+    var index = index();
+    assertThat(index.find("src/main.cpp")).isSameAs(main);
+    assertThat(index.find("./src/lib/../main.cpp")).isSameAs(main);
+    assertThat(index.find(new File(baseDir, "src/main.cpp").getAbsolutePath())).isSameAs(main);
+  }
+
+  @Test
+  void findNormalizedSeparators() {
+    var index = index();
+    assertThat(index.find("src\\lib\\Utils.h")).isSameAs(header);
+  }
+
+  @Test
+  void findCaseInsensitive() {
+    var index = index();
+    assertThat(index.find("SRC/LIB/utils.h")).isSameAs(header);
+  }
+
+  @Test
+  void findBySuffix() {
+    var index = index();
+    assertThat(index.find("lib/Utils.h")).isSameAs(header);
+    assertThat(index.find("..\\..\\lib\\Utils.h")).isSameAs(header);
+    assertThat(index.find("a/common.h")).isNotNull();
+  }
+
+  @Test
+  void ambiguousSuffixIsNotFound() {
+    var index = index();
+    assertThat(index.find("common.h")).isNull();
+  }
+
+  @Test
+  void unknownPathIsNotFound() {
+    var index = index();
+    assertThat(index.find("src/unknown.cpp")).isNull();
+    assertThat(index.find("/other/src/main.cpp")).isNull();
+  }
+
+  @Test
+  void cachedResult() {
+    var index = index();
+    index.put("link/main.cpp", main);
+    assertThat(index.find("link/main.cpp")).isSameAs(main);
+    assertThat(index.size()).isEqualTo(4);
+  }
+
+  @Test
+  void ambiguousCaseInsensitivePath() {
+    add("src/Main.cpp");
+    var index = index();
+    assertThat(index.find("src/main.cpp")).isSameAs(main);
+    assertThat(index.find("SRC/MAIN.CPP")).isNull();
+  }
+
+  @Test
+  void normalize() {
+    assertThat(InputFileIndex.normalize("a\\b\\..\\c.h", "")).isEqualTo("a/c.h");
+    assertThat(InputFileIndex.normalize("./a//b/./c.h", "/base")).isEqualTo("/base/a/b/c.h");
+    assertThat(InputFileIndex.normalize("C:\\a\\b.h", "/base")).isEqualTo("C:/a/b.h");
+    assertThat(InputFileIndex.normalize("../../a.h", "")).isEqualTo("../../a.h");
+  }
+
+  private InputFileIndex index() {
+    var index = new InputFileIndex();
+    index.build(context.fileSystem());
+    return index;
+  }
+
+  private InputFile add(String relativePath) {
+    var inputFile = TestInputFileBuilder.create("ProjectKey", baseDir, new File(baseDir, relativePath))
+      .setLanguage("cxx").build();
+    context.fileSystem().add(inputFile);
+    return inputFile;
+  }
+
+}
@@ -0,0 +1,126 @@
+/*
+ * C++ Community Plugin (cxx plugin)
+ * Copyright (C) 2010-2024 SonarOpenCommunity
+ * http://github.com/SonarOpenCommunity/sonar-cxx
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.cxx.sensors.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import org.apache.commons.io.FileUtils;
+import static org.assertj.core.api.Assertions.*;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ReportFileIndexTest {
+
+  @TempDir
+  File tempDir;
+
+  private ReportFileIndex index;
+
+  @BeforeEach
+  public void setUp() throws IOException {
+    FileUtils.touch(new File(tempDir, "report.xml"));
+    FileUtils.touch(new File(tempDir, "path/to/a/report.xml"));
+    FileUtils.touch(new File(tempDir, "path/to/b/report.txt"));
+    FileUtils.touch(new File(tempDir, "other/report.xml"));
+    index = new ReportFileIndex();
+  }
+
+  @Test
+  void testWildcards() {
+    assertThat(find("**/*.xml")).containsExactly("other/report.xml", "path/to/a/report.xml", "report.xml");
+    assertThat(find("path/**/report.*")).containsExactly("path/to/a/report.xml", "path/to/b/report.txt");
+    assertThat(find("path/to/?/*.txt")).containsExactly("path/to/b/report.txt");
+    assertThat(find("*.xml")).containsExactly("report.xml");
+    assertThat(find("path/")).containsExactly("path/to/a/report.xml", "path/to/b/report.txt");
+    assertThat(find("missing/**")).isEmpty();
+  }
+
+  @Test
+  void testWithoutWildcards() {
+    assertThat(find("path/to/a/report.xml")).containsExactly("path/to/a/report.xml");
+    assertThat(find("path/to/a")).isEmpty();
+    assertThat(find("path/to/a/missing.xml")).isEmpty();
+  }
+
+  @Test
+  void testMultiplePatternsAreMerged() {
+    assertThat(find("**/*.xml", "other/report.xml", "path/**/*.txt"))
+      .containsExactly("other/report.xml", "path/to/a/report.xml", "path/to/b/report.txt", "report.xml");
+  }
+
+  @Test
+  void testListingIsReused() throws IOException {
+    assertThat(find("**/*.xml")).hasSize(3);
+
+    // not visible, the directory was already walked
+    FileUtils.touch(new File(tempDir, "path/to/c/report.xml"));
+    assertThat(find("path/to/**/*.xml")).containsExactly("path/to/a/report.xml");
+
+    index.add(new File(tempDir, "path/to/c/report.xml"));
+    assertThat(find("path/to/**/*.xml")).containsExactly("path/to/a/report.xml", "path/to/c/report.xml");
+    assertThat(find("**/*.xml")).hasSize(4);
+  }
+
+  @Test
+  void testDirectoryReachedThroughSeveralSymbolicLinks() throws IOException {
+    // like the Ant DirectoryScanner: the files are listed with each path
+    createSymbolicLink("link1", "path/to/a");
+    createSymbolicLink("link2", "path/to/a");
+    assertThat(find("link*/*.xml")).containsExactly("link1/report.xml", "link2/report.xml");
+    assertThat(find("**/a/*.xml")).containsExactly("path/to/a/report.xml");
+  }
+
+  @Test
+  void testSymbolicLinkLoopIsNotFollowed() throws IOException {
+    // different from the Ant DirectoryScanner, which follows a loop up to five times
+    createSymbolicLink("path/to/a/loop", "path");
+    assertThat(find("path/**/*.xml")).containsExactly("path/to/a/report.xml");
+  }
+
+  @Test
+  void testNormalize() {
+    assertThat(ReportFileIndex.normalize("a/b\\c")).isEqualTo("a" + File.separator + "b" + File.separator + "c");
+    assertThat(ReportFileIndex.normalize("a/")).isEqualTo("a" + File.separator + "**");
+  }
+
+  private void createSymbolicLink(String link, String target) throws IOException {
+    try {
+      Files.createSymbolicLink(tempDir.toPath().resolve(link), tempDir.toPath().resolve(target));
+    } catch (UnsupportedOperationException | IOException e) {
+      Assumptions.assumeTrue(false, "symbolic links are not supported: " + e.getMessage());
+    }
+  }
+
+  private List<String> find(String... patterns) {
+    var absolutePatterns = new String[patterns.length];
+    for (int i = 0; i < patterns.length; i++) {
+      absolutePatterns[i] = CxxUtils.resolveAntPath(tempDir.getAbsolutePath(), patterns[i]);
+    }
+    var prefix = tempDir.getAbsolutePath() + File.separator;
+    return index.find(List.of(absolutePatterns)).stream()
+      .map(path -> path.substring(prefix.length()).replace(File.separatorChar, '/'))
+      .toList();
+  }
+
+}
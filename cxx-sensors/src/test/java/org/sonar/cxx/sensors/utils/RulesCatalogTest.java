@@ -0,0 +1,145 @@
+/*
+ * C++ Community Plugin (cxx plugin)
+ * Copyright (C) 2010-2024 SonarOpenCommunity
+ * http://github.com/SonarOpenCommunity/sonar-cxx
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.cxx.sensors.utils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import static org.assertj.core.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.sonar.api.rule.RuleStatus;
+import org.sonar.api.rule.Severity;
+import org.sonar.api.rules.RuleType;
+import org.sonar.api.server.impl.RulesDefinitionContext;
+import org.sonar.api.server.rule.RulesDefinition;
+
+class RulesCatalogTest {
+
+  private static final String RULES = "/org/sonar/cxx/sensors/utils/RulesDefinitionXmlLoader/rules.xml";
+
+  @TempDir
+  Path tempDir;
+
+  @Test
+  void catalogName() {
+    assertThat(RulesCatalog.catalogName("/clangtidy.xml")).isEqualTo("/clangtidy.rules");
+    assertThat(RulesCatalog.catalogName("/vera++.xml")).isEqualTo("/vera++.rules");
+    assertThat(RulesCatalog.catalogName("rules")).isEqualTo("rules.rules");
+  }
+
+  @Test
+  void roundTrip() throws IOException {
+    RulesDefinition.Repository repository = loadCatalog(compile(RULES));
+    assertThat(repository.rules()).hasSize(2);
+
+    RulesDefinition.Rule rule = repository.rule("complete");
+    assertThat(rule.name()).isEqualTo("Complete");
+    assertThat(rule.htmlDescription()).isEqualTo("Description of Complete");
+    assertThat(rule.severity()).isEqualTo(Severity.BLOCKER);
+    assertThat(rule.template()).isTrue();
+    assertThat(rule.status()).isEqualTo(RuleStatus.BETA);
+    assertThat(rule.internalKey()).isEqualTo("Checker/TreeWalker/LocalVariableName");
+    assertThat(rule.type()).isEqualTo(RuleType.BUG);
+    assertThat(rule.tags()).containsOnly("misra", "spring");
+    assertThat(rule.deprecatedRuleKeys()).hasSize(2);
+    assertThat(rule.params()).hasSize(2);
+    assertThat(rule.param("ignore").defaultValue()).isEqualTo("false");
+    assertThat(rule.param("tokens").description())
+      .isEqualTo("Controls whether the check applies to variable declarations or catch clause parameters");
+
+    rule = repository.rule("minimal");
+    assertThat(rule.htmlDescription()).isEqualTo("Description of Minimal");
+    assertThat(rule.params()).isEmpty();
+    assertThat(rule.status()).isEqualTo(RuleStatus.READY);
+    assertThat(rule.severity()).isEqualTo(Severity.MAJOR);
+  }
+
+  @Test
+  void catalogMatchesXml() throws IOException {
+    RulesDefinition.Repository fromCatalog = loadCatalog(compile("/clangtidy.xml"));
+
+    var context = new RulesDefinitionContext();
+    var newRepository = context.createRepository("test", "cxx");
+    new RulesDefinitionXmlLoader().load(newRepository, getClass().getResourceAsStream("/clangtidy.xml"),
+      StandardCharsets.UTF_8);
+    newRepository.done();
+    RulesDefinition.Repository fromXml = context.repository("test");
+
+    assertThat(fromCatalog.rules()).hasSameSizeAs(fromXml.rules());
+    for (var expected : fromXml.rules()) {
+      var actual = fromCatalog.rule(expected.key());
+      assertThat(actual).isNotNull();
+      assertThat(actual.name()).isEqualTo(expected.name());
+      assertThat(actual.htmlDescription()).isEqualTo(expected.htmlDescription());
+      assertThat(actual.severity()).isEqualTo(expected.severity());
+      assertThat(actual.type()).isEqualTo(expected.type());
+      assertThat(actual.tags()).isEqualTo(expected.tags());
+      assertThat(actual.debtRemediationFunction()).isEqualTo(expected.debtRemediationFunction());
+    }
+  }
+
+  @Test
+  void generator() throws IOException {
+    Files.copy(getClass().getResourceAsStream(RULES), tempDir.resolve("rules.xml"));
+    Files.copy(getClass().getResourceAsStream(RULES), tempDir.resolve("other.xml"));
+    Files.writeString(tempDir.resolve("rules.xsd"), "");
+    Files.createDirectory(tempDir.resolve("dir.xml"));
+    RulesCatalogGenerator.main(new String[]{tempDir.toString()});
+
+    assertThat(RulesCatalogGenerator.ruleFiles(tempDir))
+      .containsExactly(tempDir.resolve("other.xml"), tempDir.resolve("rules.xml"));
+    var catalog = tempDir.resolve("rules.rules");
+    assertThat(catalog).exists();
+    assertThat(tempDir.resolve("other.rules")).exists();
+    assertThat(loadCatalog(Files.readAllBytes(catalog)).rules()).hasSize(2);
+  }
+
+  @Test
+  void invalidCatalog() {
+    var context = new RulesDefinitionContext();
+    var repository = context.createRepository("test", "cxx");
+    var input = new ByteArrayInputStream("<rules/>".getBytes(StandardCharsets.UTF_8));
+    var thrown = catchThrowable(() -> RulesCatalog.load(repository, input));
+    assertThat(thrown).isExactlyInstanceOf(IllegalStateException.class)
+      .hasMessage("Invalid rules catalog for repository test");
+  }
+
+  private byte[] compile(String resource) throws IOException {
+    var output = new ByteArrayOutputStream();
+    try (var reader = new InputStreamReader(getClass().getResourceAsStream(resource), StandardCharsets.UTF_8)) {
+      RulesCatalog.compile(reader, output);
+    }
+    return output.toByteArray();
+  }
+
+  private static RulesDefinition.Repository loadCatalog(byte[] catalog) {
+    var context = new RulesDefinitionContext();
+    var newRepository = context.createRepository("test", "cxx");
+    RulesCatalog.load(newRepository, new ByteArrayInputStream(catalog));
+    newRepository.done();
+    return context.repository("test");
+  }
+
+}
@@ -26,6 +26,7 @@ import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Locale;
+import java.util.function.BiFunction;
 import javax.annotation.CheckForNull;
 import org.apache.tools.ant.DirectoryScanner;
 import org.mockito.Mockito;
@@ -101,6 +102,16 @@ public final class TestUtils {
     return language;
   }
 
+  /**
+   * Creates a report sensor with the indexes the scanner injects, new for each sensor.
+   *
+   * @param constructor constructor of the sensor
+   * @return sensor
+   */
+  public static <T> T newSensor(BiFunction<InputFileIndex, ReportFileIndex, T> constructor) {
+    return constructor.apply(new InputFileIndex(), new ReportFileIndex());
+  }
+
   public static boolean isWindows() {
     return OS.contains("win");
   }
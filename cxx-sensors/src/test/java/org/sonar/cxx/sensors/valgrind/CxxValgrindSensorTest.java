@@ -42,7 +42,7 @@ class CxxValgrindSensorTest {
   @BeforeEach
   public void setUp() {
     fs = TestUtils.mockFileSystem();
-    sensor = new CxxValgrindSensor();
+    sensor = TestUtils.newSensor(CxxValgrindSensor::new);
   }
 
   @Test
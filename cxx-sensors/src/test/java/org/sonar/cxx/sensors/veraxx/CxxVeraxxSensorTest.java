@@ -61,7 +61,7 @@ class CxxVeraxxSensorTest {
     context.fileSystem().add(TestInputFileBuilder.create("ProjectKey", "sources/utils/utils.cpp")
       .setLanguage("cxx").initMetadata("asd\nasdas\nasda\n").build());
 
-    var sensor = new CxxVeraxxSensor();
+    var sensor = TestUtils.newSensor(CxxVeraxxSensor::new);
     sensor.execute(context);
 
     assertThat(context.allIssues()).hasSize(10);
@@ -70,7 +70,7 @@ class CxxVeraxxSensorTest {
   @Test
   void sensorDescriptor() {
     var descriptor = new DefaultSensorDescriptor();
-    var sensor = new CxxVeraxxSensor();
+    var sensor = TestUtils.newSensor(CxxVeraxxSensor::new);
     sensor.describe(descriptor);
 
     var softly = new SoftAssertions();
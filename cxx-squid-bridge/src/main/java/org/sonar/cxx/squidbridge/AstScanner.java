@@ -28,14 +28,25 @@ import static com.google.common.base.Preconditions.checkState;
 import com.google.common.base.Throwables;
 import com.google.common.collect.Lists;
 import com.sonar.cxx.sslr.api.AstNode;
+import com.sonar.cxx.sslr.api.AstNodeIndex;
 import com.sonar.cxx.sslr.api.Grammar;
+import com.sonar.cxx.sslr.api.ParseBudgetExceededException;
 import com.sonar.cxx.sslr.api.RecognitionException;
 import com.sonar.cxx.sslr.impl.Parser;
 import com.sonar.cxx.sslr.impl.ast.AstWalker;
 import java.io.File;
 import java.io.InterruptedIOException;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import javax.annotation.CheckForNull;
 import javax.annotation.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -43,7 +54,9 @@ import org.sonar.api.batch.fs.InputFile;
 import org.sonar.cxx.squidbridge.api.AnalysisException;
 import org.sonar.cxx.squidbridge.api.SourceCodeSearchEngine;
 import org.sonar.cxx.squidbridge.api.SourceCodeTreeDecorator;
+import org.sonar.cxx.squidbridge.api.SourceFile;
 import org.sonar.cxx.squidbridge.api.SourceProject;
+import org.sonar.cxx.squidbridge.checks.PatternPrefilter;
 import org.sonar.cxx.squidbridge.indexer.SquidIndex;
 import org.sonar.cxx.squidbridge.measures.MetricDef;
 
@@ -53,6 +66,20 @@ public class AstScanner<G extends Grammar> {
   private static final String UNABLE_TO_PARSE = "Unable to parse file: ";
 
   private final List<SquidAstVisitor<G>> visitors;
+  private final List<SquidAstVisitor<G>> lexerOnlyVisitors;
+  private final Predicate<SquidAstVisitor<G>> visitorFilter;
+  private List<SquidAstVisitor<G>> activeVisitors;
+  private AstWalker astWalker;
+  private AstWalker lexerOnlyWalker;
+  private final List<ParallelVisitorContext<G>> parallelContexts;
+  private final int parallelVisitorMinLines;
+  private AstWalker sequentialWalker;
+  private List<AstWalker> parallelWalkers = Collections.emptyList();
+  private final Set<File> parseBudgetExceededFiles = new LinkedHashSet<>();
+  private final int prefetchDepth;
+  private final boolean astIndex;
+  private final boolean foldFiles;
+  private PipelineStatistics pipelineStatistics;
   private final Parser<G> parser;
   private final SquidAstVisitorContextImpl<G> context;
 
@@ -62,14 +89,32 @@ public class AstScanner<G extends Grammar> {
 
   protected AstScanner(Builder<G> builder) {
     this.visitors = Lists.newArrayList(builder.visitors);
+    this.lexerOnlyVisitors = Lists.newArrayList(builder.lexerOnlyVisitors);
+    this.visitorFilter = builder.visitorFilter;
     this.parser = builder.baseParser;
     this.context = builder.context;
 
     this.context.setGrammar(parser.getGrammar());
     this.context.getProject().setSourceCodeIndexer(indexer);
     this.context.setCommentAnalyser(builder.commentAnalyser);
+    this.context.setPatternPrefilter(new PatternPrefilter(context));
     this.metrics = builder.metrics;
     this.filesMetric = builder.filesMetric;
+    this.parallelVisitorMinLines = builder.parallelVisitorMinLines;
+    this.parallelContexts = Lists.newArrayList();
+    for (var visitor : visitors) {
+      // only parallel walks need the buffering context, otherwise the visitors share the scanner context
+      if (parallelVisitorMinLines > 0 && visitor instanceof ParallelVisitor) {
+        var parallelContext = new ParallelVisitorContext<>(context);
+        parallelContexts.add(parallelContext);
+        visitor.setContext(parallelContext);
+      } else {
+        visitor.setContext(context);
+      }
+    }
+    this.prefetchDepth = builder.prefetchDepth;
+    this.astIndex = builder.astIndex;
+    this.foldFiles = builder.foldFiles;
     indexer.index(context.getProject());
   }
 
@@ -88,23 +133,35 @@ public class AstScanner<G extends Grammar> {
   public void scanFiles(Collection<File> files) {
     initVisitors();
 
-    var astWalker = new AstWalker(visitors);
-
     for (var file : files) {
       checkCancel();
       context.setFile(file, filesMetric);
+      scan(file, () -> parser.parse(file));
+    }
 
-      Exception parseException = null;
-      AstNode ast = null;
-      try {
-        try {
-          ast = parser.parse(file);
-        } catch (Exception e) {
-          parseException = handleParseException(file, e);
+    destroyVisitors();
+    decorateSquidTree();
+  }
+
+  public void scanInputFiles(Iterable<InputFile> inputFiles) {
+    initVisitors();
+
+    if (prefetchDepth > 0) {
+      try (var prefetcher = new SourcePrefetcher(inputFiles, prefetchDepth)) {
+        SourcePrefetcher.Item item;
+        while ((item = prefetcher.next()) != null) {
+          checkCancel();
+          scanPrefetched(item);
         }
-        walkAndVisit(astWalker, ast, parseException);
-      } catch (Throwable e) {
-        throw new AnalysisException(UNABLE_TO_PARSE + file.getAbsolutePath(), e);
+        pipelineStatistics = prefetcher.statistics();
+        LOG.debug("Scanner pipeline: {}", pipelineStatistics);
+      }
+    } else {
+      for (var inputFile : inputFiles) {
+        var file = new File(inputFile.uri().getPath());
+        checkCancel();
+        context.setInputFile(inputFile, filesMetric);
+        scan(file, () -> parser.parse(context.getInputFileSnapshot().text()));
       }
     }
 
@@ -112,32 +169,98 @@ public class AstScanner<G extends Grammar> {
     decorateSquidTree();
   }
 
-  public void scanInputFiles(Iterable<InputFile> inputFiles) {
-    initVisitors();
+  private void scanPrefetched(SourcePrefetcher.Item item) {
+    var file = new File(item.inputFile().uri().getPath());
+    context.setInputFile(item.inputFile(), filesMetric, item.snapshot());
+    scan(file, () -> {
+      if (item.failure() != null) {
+        throw item.failure();
+      }
+      return parser.parse(item.snapshot().text());
+    });
+  }
 
-    var astWalker = new AstWalker(visitors);
+  /**
+   * Statistics of the reader stage of the last {@link #scanInputFiles(Iterable)}, null if files are not prefetched.
+   */
+  @CheckForNull
+  public PipelineStatistics getPipelineStatistics() {
+    return pipelineStatistics;
+  }
 
-    for (var inputFile : inputFiles) {
-      var file = new File(inputFile.uri().getPath());
-      checkCancel();
-      context.setInputFile(inputFile, filesMetric);
+  /**
+   * Files for which the parse budget was exhausted. These files are analyzed without syntax tree: the visitors which
+   * do not need a syntax tree (see {@link #needsSyntaxTree(SquidAstVisitor)}) and the lexer-only visitors (see
+   * {@link Builder#withLexerOnlyVisitor(SquidAstVisitor)}) get a flat tree with the tokens of the file.
+   */
+  public Set<File> getParseBudgetExceededFiles() {
+    return Collections.unmodifiableSet(parseBudgetExceededFiles);
+  }
 
-      Exception parseException = null;
-      AstNode ast = null;
+  /**
+   * Returns true if the visitor cannot work without syntax tree: it subscribes to node types (call after
+   * {@code init()}) or is marked as {@link SyntaxTreeVisitor}.
+   *
+   * @param visitor visitor to test
+   */
+  public static boolean needsSyntaxTree(SquidAstVisitor<?> visitor) {
+    return visitor instanceof SyntaxTreeVisitor || !visitor.getAstNodeTypesToVisit().isEmpty();
+  }
+
+  private void scan(File file, Supplier<AstNode> parse) {
+    var event = new FileScannedEvent();
+    event.begin();
+    var budget = parser.getParseBudget();
+    if (budget != null) {
+      budget.reset();
+    }
+
+    Exception parseException = null;
+    AstNode ast = null;
+    boolean parseBudgetExceeded = false;
+    int nodes = 0;
+    try {
       try {
-        try {
-          ast = parser.parse(inputFile.contents());
-        } catch (Exception e) {
-          parseException = handleParseException(file, e);
-        }
-        walkAndVisit(astWalker, ast, parseException);
-      } catch (Throwable e) {
-        throw new AnalysisException(UNABLE_TO_PARSE + file.getAbsolutePath(), e);
+        ast = parse.get();
+      } catch (ParseBudgetExceededException e) {
+        LOG.warn("Parse budget exceeded ({}), file is analyzed without syntax tree: {}", e.getMessage(),
+          file.getAbsolutePath());
+        parseBudgetExceededFiles.add(file);
+        parseBudgetExceeded = true;
+        ast = parser.tokenTree(e.getTokens());
+      } catch (Exception e) {
+        parseException = handleParseException(file, e);
       }
+      if (astIndex && ast != null) {
+        nodes = AstNodeIndex.build(ast).size();
+      }
+      walkAndVisit(parseBudgetExceeded ? lexerOnlyWalker : astWalker, ast, parseException);
+      foldSourceFile();
+    } catch (Throwable e) {
+      throw new AnalysisException(UNABLE_TO_PARSE + file.getAbsolutePath(), e);
     }
 
-    destroyVisitors();
-    decorateSquidTree();
+    event.end();
+    if (event.shouldCommit()) {
+      var lastToken = ast != null ? ast.getLastToken() : null;
+      event.path = file.getPath();
+      event.lines = lastToken != null ? lastToken.getLine() : 0;
+      event.nodes = nodes;
+      event.parseError = parseException != null;
+      event.parseBudgetExceeded = parseBudgetExceeded;
+      event.commit();
+    }
+  }
+
+  /**
+   * Aggregate the measures of the functions and classes of the scanned file into the file and drop them, only the
+   * file remains in the tree.
+   */
+  private void foldSourceFile() {
+    if (foldFiles && metrics != null && metrics.length > 0
+          && context.peekSourceCode() instanceof SourceFile sourceFile) {
+      SourceCodeTreeDecorator.fold(sourceFile, metrics);
+    }
   }
 
   private static Exception handleParseException(File file, Exception e) {
@@ -152,14 +275,22 @@ public class AstScanner<G extends Grammar> {
   }
 
   private void walkAndVisit(AstWalker astWalker, AstNode ast, @Nullable Exception parseException) throws Throwable {
+    var sourceFile = context.peekSourceCode();
+    for (var parallelContext : parallelContexts) {
+      parallelContext.setSourceFile(sourceFile);
+    }
     if (parseException == null) {
-      astWalker.walkAndVisit(ast);
+      if (astWalker == this.astWalker && isParallel(ast)) {
+        walkAndVisitInParallel(ast);
+      } else {
+        astWalker.walkAndVisit(ast);
+      }
     } else {
       // process parse error
-      for (var visitor : visitors) {
+      for (var visitor : activeVisitors) {
         visitor.visitFile(ast);
       }
-      for (var visitor : visitors) {
+      for (var visitor : activeVisitors) {
         if (visitor instanceof AstScannerExceptionHandler astScannerExceptionHandler) {
           if (parseException instanceof RecognitionException recognitionException) {
             astScannerExceptionHandler.processRecognitionException(recognitionException);
@@ -168,23 +299,121 @@ public class AstScanner<G extends Grammar> {
           }
         }
       }
-      for (var visitor : visitors) {
+      for (var visitor : activeVisitors) {
         visitor.leaveFile(ast);
       }
     }
+    for (var parallelContext : parallelContexts) {
+      parallelContext.flush();
+    }
     context.popTillSourceProject();
   }
 
+  private boolean isParallel(@Nullable AstNode ast) {
+    if (parallelWalkers.isEmpty() || ast == null) {
+      return false;
+    }
+    var lastToken = ast.getLastToken();
+    return lastToken != null && lastToken.getLine() >= parallelVisitorMinLines;
+  }
+
+  /**
+   * The parallel visitors are walked in groups in the fork/join pool, the other visitors in the current thread. Returns
+   * after all walks are done.
+   */
+  private void walkAndVisitInParallel(AstNode ast) throws Throwable {
+    var tasks = new ArrayList<ForkJoinTask<?>>(parallelWalkers.size());
+    for (var walker : parallelWalkers) {
+      tasks.add(ForkJoinPool.commonPool().submit(() -> walker.walkAndVisit(ast)));
+    }
+    Throwable failure = null;
+    try {
+      sequentialWalker.walkAndVisit(ast);
+    } catch (RuntimeException | Error e) {
+      failure = e;
+    }
+    for (var task : tasks) {
+      task.quietlyJoin();
+      if (failure == null && task.isCompletedAbnormally()) {
+        failure = task.getException();
+      }
+    }
+    if (failure != null) {
+      throw failure;
+    }
+  }
+
   private void initVisitors() {
     for (var visitor : visitors) {
       visitor.init();
     }
+    // the filter is applied after init, visitors subscribe to node types there
+    activeVisitors = visitors;
+    if (visitorFilter != null) {
+      activeVisitors = visitors.stream().filter(visitorFilter).toList();
+    }
+    astWalker = new AstWalker(activeVisitors);
+    initParallelWalkers();
+    initLexerOnlyWalker();
+  }
+
+  /**
+   * Walker for files without syntax tree: the active visitors which do not need a syntax tree and the lexer-only
+   * visitors replacing the others.
+   */
+  private void initLexerOnlyWalker() {
+    var lexerOnly = new ArrayList<SquidAstVisitor<G>>();
+    for (var visitor : activeVisitors) {
+      if (!needsSyntaxTree(visitor)) {
+        lexerOnly.add(visitor);
+      }
+    }
+    for (var visitor : lexerOnlyVisitors) {
+      visitor.init();
+      lexerOnly.add(visitor);
+    }
+    lexerOnlyWalker = new AstWalker(lexerOnly);
+  }
+
+  /**
+   * Visitors marked as {@link ParallelVisitor} are distributed round-robin to groups, one walker per group.
+   */
+  private void initParallelWalkers() {
+    if (parallelVisitorMinLines <= 0) {
+      return;
+    }
+    var sequentialVisitors = new ArrayList<SquidAstVisitor<G>>();
+    var parallelVisitors = new ArrayList<SquidAstVisitor<G>>();
+    for (var visitor : activeVisitors) {
+      if (visitor instanceof ParallelVisitor) {
+        parallelVisitors.add(visitor);
+      } else {
+        sequentialVisitors.add(visitor);
+      }
+    }
+    int groups = Math.min(parallelVisitors.size(), ForkJoinPool.getCommonPoolParallelism());
+    if (groups < 1) {
+      parallelWalkers = Collections.emptyList();
+      return;
+    }
+    var visitorGroups = new ArrayList<List<SquidAstVisitor<G>>>();
+    for (int i = 0; i < groups; i++) {
+      visitorGroups.add(new ArrayList<>());
+    }
+    for (int i = 0; i < parallelVisitors.size(); i++) {
+      visitorGroups.get(i % groups).add(parallelVisitors.get(i));
+    }
+    sequentialWalker = new AstWalker(sequentialVisitors);
+    parallelWalkers = visitorGroups.stream().map(AstWalker::new).toList();
   }
 
   private void destroyVisitors() {
     for (var visitor : visitors) {
       visitor.destroy();
     }
+    for (var visitor : lexerOnlyVisitors) {
+      visitor.destroy();
+    }
   }
 
   /**
@@ -212,6 +441,19 @@ public class AstScanner<G extends Grammar> {
     }
   }
 
+  /**
+   * Statistics of the reader stage.
+   *
+   * @param files number of files handed over to the parse and visit stage
+   * @param stalls number of times the parse and visit stage had to wait for the reader
+   * @param stallMillis total waiting time of the parse and visit stage
+   * @param maxQueueDepth maximal number of files read in advance
+   * @param averageQueueDepth average number of files read in advance
+   */
+  public record PipelineStatistics(int files, int stalls, long stallMillis, int maxQueueDepth,
+                                   double averageQueueDepth) {
+  }
+
   public static <G extends Grammar> Builder<G> builder(SquidAstVisitorContextImpl<G> context) {
     return new Builder<>(context);
   }
@@ -220,10 +462,16 @@ public class AstScanner<G extends Grammar> {
 
     private Parser<G> baseParser;
     private final List<SquidAstVisitor<G>> visitors = Lists.newArrayList();
+    private final List<SquidAstVisitor<G>> lexerOnlyVisitors = Lists.newArrayList();
     private final SquidAstVisitorContextImpl<G> context;
     private CommentAnalyser commentAnalyser;
     private MetricDef[] metrics;
     private MetricDef filesMetric;
+    private Predicate<SquidAstVisitor<G>> visitorFilter;
+    private int parallelVisitorMinLines;
+    private int prefetchDepth;
+    private boolean astIndex = true;
+    private boolean foldFiles;
 
     public Builder(SquidAstVisitorContextImpl<G> context) {
       checkNotNull(context, "context cannot be null");
@@ -244,11 +492,22 @@ public class AstScanner<G extends Grammar> {
 
     public Builder<G> withSquidAstVisitor(SquidAstVisitor<G> visitor) {
       checkNotNull(visitor, "visitor cannot be null");
-      visitor.setContext(context);
       visitors.add(visitor);
       return this;
     }
 
+    /**
+     * Visitor used only for files analyzed without syntax tree because the parse budget was exhausted. It replaces a
+     * visitor which needs the syntax tree for the same measure, e.g. a lines of code visitor counting the tokens of
+     * the whole file instead of the tokens inside of function bodies.
+     */
+    public Builder<G> withLexerOnlyVisitor(SquidAstVisitor<G> visitor) {
+      checkNotNull(visitor, "visitor cannot be null");
+      visitor.setContext(context);
+      lexerOnlyVisitors.add(visitor);
+      return this;
+    }
+
     public Builder<G> withMetrics(MetricDef... metrics) {
       for (var metric : metrics) {
         checkNotNull(metric, "metrics cannot be null");
@@ -263,6 +522,60 @@ public class AstScanner<G extends Grammar> {
       return this;
     }
 
+    /**
+     * Restrict the visitors taking part in the scan. The filter is evaluated after {@link SquidAstVisitor#init()};
+     * visitors which are filtered out are still initialized and destroyed, but do not visit any file.
+     */
+    public Builder<G> setVisitorFilter(Predicate<SquidAstVisitor<G>> visitorFilter) {
+      checkNotNull(visitorFilter, "visitorFilter cannot be null");
+      this.visitorFilter = visitorFilter;
+      return this;
+    }
+
+    /**
+     * Walk the {@link ParallelVisitor}s in parallel to the other visitors over the syntax tree of files with at least
+     * the given number of lines. Smaller files and files with parse errors are visited sequentially.
+     *
+     * @param minLines minimal number of lines, 0 to visit all files sequentially (default)
+     */
+    public Builder<G> setParallelVisitorMinLines(int minLines) {
+      this.parallelVisitorMinLines = minLines;
+      return this;
+    }
+
+    /**
+     * Read and decode the input files in a background thread ahead of the parse and visit stage.
+     *
+     * @param depth maximal number of files read in advance, 0 to read each file when it is scanned (default)
+     */
+    public Builder<G> setPrefetchDepth(int depth) {
+      this.prefetchDepth = depth;
+      return this;
+    }
+
+    /**
+     * Index the syntax tree of each file after parsing, descendant queries of {@link AstNode} then use binary searches
+     * instead of walking the subtree.
+     *
+     * @param astIndex true to index the syntax trees (default), false to walk the trees on each query
+     */
+    public Builder<G> setAstIndex(boolean astIndex) {
+      this.astIndex = astIndex;
+      return this;
+    }
+
+    /**
+     * Aggregate the measures of the source code objects created inside a file (functions, classes) into the file after
+     * the file is scanned and remove them from the tree and the index. Only files remain in the tree, the measures of
+     * files and project are the same.
+     *
+     * @param foldFiles true to fold the files, false to keep the complete tree until the end of the scan (default)
+     */
+    public Builder<G> setFoldFiles(boolean foldFiles) {
+      this.foldFiles = foldFiles;
+      return this;
+    }
+
     public AstScanner<G> build() {
       checkState(baseParser != null, "baseParser must be set");
       checkState(commentAnalyser != null, "commentAnalyser must be set");
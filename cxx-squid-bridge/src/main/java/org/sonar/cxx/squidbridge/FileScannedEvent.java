@@ -0,0 +1,55 @@
+/*
+ * C++ Community Plugin (cxx plugin)
+ * Copyright (C) 2021-2024 SonarOpenCommunity
+ * http://github.com/SonarOpenCommunity/sonar-cxx
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.cxx.squidbridge;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event: a file was parsed and visited by the {@link AstScanner}.
+ */
+@Name("org.sonar.cxx.FileScanned")
+@Label("File Scanned")
+@Description("Parsing and visiting of a source file")
+@Category({"C++", "Squid"})
+@StackTrace(false)
+final class FileScannedEvent extends Event {
+
+  @Label("File")
+  String path;
+
+  @Label("Lines")
+  int lines;
+
+  @Label("Syntax Tree Nodes")
+  @Description("Number of nodes of the syntax tree, 0 if the tree is not indexed")
+  int nodes;
+
+  @Label("Parse Error")
+  boolean parseError;
+
+  @Label("Parse Budget Exceeded")
+  boolean parseBudgetExceeded;
+
+}
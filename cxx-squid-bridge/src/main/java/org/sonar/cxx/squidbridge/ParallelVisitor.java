@@ -0,0 +1,40 @@
+/*
+ * C++ Community Plugin (cxx plugin)
+ * Copyright (C) 2021-2024 SonarOpenCommunity
+ * http://github.com/SonarOpenCommunity/sonar-cxx
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.cxx.squidbridge;
+
+/**
+ * Marker for visitors which can visit the syntax tree of a file concurrently with other visitors.
+ *
+ * If the scanner is configured to run visitors in parallel (see
+ * {@link AstScanner.Builder#setParallelVisitorMinLines(int)}), the visitors with this marker are walked over the
+ * syntax tree of large files in parallel to the other visitors. A parallel visitor must fulfill the following contract:
+ * <ul>
+ * <li>the syntax tree and tokens are only read</li>
+ * <li>state is kept in fields of the visitor only, not in static fields or objects shared with other visitors</li>
+ * <li>results are reported with the violation methods of the context only, no measures are saved</li>
+ * <li>{@link SquidAstVisitorContext#peekSourceCode()} returns always the file, the source code tree of functions and
+ * classes is not available</li>
+ * </ul>
+ * The check messages of parallel visitors are added to the file after the visit, in the order the visitors were added
+ * to the scanner.
+ */
+public interface ParallelVisitor {
+
+}
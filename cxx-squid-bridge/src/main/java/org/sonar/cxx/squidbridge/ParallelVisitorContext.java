@@ -0,0 +1,198 @@
+/*
+ * C++ Community Plugin (cxx plugin)
+ * Copyright (C) 2021-2024 SonarOpenCommunity
+ * http://github.com/SonarOpenCommunity/sonar-cxx
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.cxx.squidbridge;
+
+import com.sonar.cxx.sslr.api.AstNode;
+import com.sonar.cxx.sslr.api.Grammar;
+import com.sonar.cxx.sslr.api.Token;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import org.sonar.api.batch.fs.InputFile;
+import org.sonar.cxx.squidbridge.api.CheckMessage;
+import org.sonar.cxx.squidbridge.api.CodeCheck;
+import org.sonar.cxx.squidbridge.api.SourceCode;
+import org.sonar.cxx.squidbridge.checks.PatternPrefilter;
+
+/**
+ * Context of a {@link ParallelVisitor}: view of the scanner context, which can be used concurrently to the scanner
+ * context. The file information is read from the scanner context, check messages are collected and added to the file
+ * after the visit.
+ */
+class ParallelVisitorContext<G extends Grammar> extends SquidAstVisitorContext<G> {
+
+  private final SquidAstVisitorContextImpl<G> context;
+  private final List<CheckMessage> messages = new ArrayList<>();
+  private SourceCode sourceFile;
+
+  ParallelVisitorContext(SquidAstVisitorContextImpl<G> context) {
+    this.context = context;
+  }
+
+  /**
+   * Set the file visited next.
+   */
+  void setSourceFile(SourceCode sourceFile) {
+    this.sourceFile = sourceFile;
+  }
+
+  /**
+   * Add the collected check messages to the file.
+   */
+  void flush() {
+    for (var message : messages) {
+      sourceFile.log(message);
+    }
+    messages.clear();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public File getFile() {
+    return context.getFile();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public InputFile getInputFile() {
+    return context.getInputFile();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public String getInputFileContent() {
+    return context.getInputFileContent();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public List<String> getInputFileLines() {
+    return context.getInputFileLines();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public SourceSnapshot getInputFileSnapshot() {
+    return context.getInputFileSnapshot();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public G getGrammar() {
+    return context.getGrammar();
+  }
+
+  /**
+   * Not supported, the source code tree is built by the scanner context.
+   */
+  @Override
+  public void addSourceCode(SourceCode child) {
+    throw new UnsupportedOperationException("parallel visitors cannot add source code");
+  }
+
+  /**
+   * Not supported, the source code tree is built by the scanner context.
+   */
+  @Override
+  public void popSourceCode() {
+    throw new UnsupportedOperationException("parallel visitors cannot remove source code");
+  }
+
+  /**
+   * Returns always the visited file.
+   */
+  @Override
+  public SourceCode peekSourceCode() {
+    return sourceFile;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public CommentAnalyser getCommentAnalyser() {
+    return context.getCommentAnalyser();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public PatternPrefilter getPatternPrefilter() {
+    return context.getPatternPrefilter();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void createFileViolation(CodeCheck check, String message, Object... messageParameters) {
+    createLineViolation(check, message, -1, messageParameters);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void createLineViolation(CodeCheck check, String message, AstNode node, Object... messageParameters) {
+    createLineViolation(check, message, node.getToken(), messageParameters);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void createLineViolation(CodeCheck check, String message, Token token, Object... messageParameters) {
+    createLineViolation(check, message, token.getLine(), messageParameters);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void createLineViolation(CodeCheck check, String message, int line, Object... messageParameters) {
+    var checkMessage = new CheckMessage((Object) check, message, messageParameters);
+    if (line > 0) {
+      checkMessage.setLine(line);
+    }
+    log(checkMessage);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void log(CheckMessage message) {
+    messages.add(message);
+  }
+
+}
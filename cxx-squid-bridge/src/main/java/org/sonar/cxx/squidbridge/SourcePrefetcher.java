@@ -0,0 +1,137 @@
+/*
+ * C++ Community Plugin (cxx plugin)
+ * Copyright (C) 2021-2024 SonarOpenCommunity
+ * http://github.com/SonarOpenCommunity/sonar-cxx
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.cxx.squidbridge;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.CheckForNull;
+import javax.annotation.Nullable;
+import org.sonar.api.batch.fs.InputFile;
+import org.sonar.cxx.squidbridge.api.AnalysisException;
+
+/**
+ * Reader stage of the scanner: reads and decodes the files in a background thread, ahead of the parse and visit stage.
+ *
+ * The files are handed over in their original order through a bounded queue, so at most {@code depth} files are held
+ * in memory. The consumer records how often it had to wait for the reader (stall) and the queue depth at each request.
+ */
+final class SourcePrefetcher implements AutoCloseable {
+
+  private static final Item END = new Item(null, null, null);
+
+  private final BlockingQueue<Item> queue;
+  private final Thread thread;
+  private volatile boolean closed = false;
+
+  // statistics, updated by the consumer only
+  private int files = 0;
+  private int stalls = 0;
+  private long stallNanos = 0;
+  private int maxQueueDepth = 0;
+  private long queueDepthSum = 0;
+
+  SourcePrefetcher(Iterable<InputFile> inputFiles, int depth) {
+    queue = new ArrayBlockingQueue<>(depth);
+    thread = new Thread(() -> read(inputFiles), "cxx-source-prefetcher");
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  /**
+   * Returns the next file with its content, waits if the reader is behind.
+   *
+   * @return next file or null after the last file
+   */
+  @CheckForNull
+  Item next() {
+    int depth = queue.size();
+    maxQueueDepth = Math.max(maxQueueDepth, depth);
+    queueDepthSum += depth;
+
+    var item = queue.poll();
+    if (item == null) {
+      stalls++;
+      long start = System.nanoTime();
+      try {
+        item = queue.take();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new AnalysisException("Analysis cancelled", e);
+      } finally {
+        stallNanos += System.nanoTime() - start;
+      }
+    }
+    if (item == END) {
+      return null;
+    }
+    if (item.inputFile() == null) {
+      throw item.failure(); // iterating the files failed
+    }
+    files++;
+    return item;
+  }
+
+  AstScanner.PipelineStatistics statistics() {
+    return new AstScanner.PipelineStatistics(files, stalls, TimeUnit.NANOSECONDS.toMillis(stallNanos), maxQueueDepth,
+                                             files == 0 ? 0.0 : (double) queueDepthSum / (files + 1));
+  }
+
+  @Override
+  public void close() {
+    closed = true;
+    thread.interrupt();
+    queue.clear();
+  }
+
+  private void read(Iterable<InputFile> inputFiles) {
+    try {
+      try {
+        for (var inputFile : inputFiles) {
+          if (closed) {
+            return;
+          }
+          queue.put(read(inputFile));
+        }
+      } catch (RuntimeException e) {
+        queue.put(new Item(null, null, e));
+        return;
+      }
+      queue.put(END);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static Item read(InputFile inputFile) {
+    try {
+      return new Item(inputFile, SourceSnapshot.of(inputFile), null);
+    } catch (RuntimeException e) {
+      return new Item(inputFile, null, e);
+    }
+  }
+
+  /**
+   * File with its content, or the exception thrown while reading it.
+   */
+  record Item(InputFile inputFile, @Nullable SourceSnapshot snapshot, @Nullable RuntimeException failure) {
+  }
+
+}
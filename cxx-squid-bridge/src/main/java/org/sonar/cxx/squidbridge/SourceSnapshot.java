@@ -0,0 +1,224 @@
+/*
+ * C++ Community Plugin (cxx plugin)
+ * Copyright (C) 2021-2024 SonarOpenCommunity
+ * http://github.com/SonarOpenCommunity/sonar-cxx
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.cxx.squidbridge;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CodingErrorAction;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import org.sonar.api.batch.fs.InputFile;
+
+/**
+ * Content of a source file, read once per file and shared by the parser and all checks.
+ *
+ * The snapshot holds the decoded text and the start offsets of all lines. Lines are separated by {@code "\r\n"},
+ * {@code "\n"} or {@code "\r"}; a line terminator at the end of the file is followed by an empty last line. Lines are
+ * provided as views on the text without copying.
+ */
+public final class SourceSnapshot {
+
+  private static final char REPLACEMENT_CHARACTER = '\uFFFD';
+
+  private final String text;
+  private final Charset charset;
+  private final int[] lineStarts;
+  private final int lineCount;
+  private final boolean decodingErrors;
+  private List<String> lineStrings;
+
+  SourceSnapshot(String text, Charset charset) {
+    this(text, charset, false);
+  }
+
+  SourceSnapshot(String text, Charset charset, boolean decodingErrors) {
+    this.text = text;
+    this.charset = charset;
+    this.decodingErrors = decodingErrors;
+
+    var starts = new int[Math.max(16, text.length() / 32)];
+    var count = 1;
+    for (int i = 0; i < text.length(); i++) {
+      char c = text.charAt(i);
+      if (c == '\n' || c == '\r') {
+        if (c == '\r' && i + 1 < text.length() && text.charAt(i + 1) == '\n') {
+          i++;
+        }
+        if (count == starts.length) {
+          starts = Arrays.copyOf(starts, count * 2);
+        }
+        starts[count++] = i + 1;
+      }
+    }
+    this.lineStarts = starts;
+    this.lineCount = count;
+  }
+
+  /**
+   * Read the content of an InputFile.
+   *
+   * @param inputFile file to read
+   * @return snapshot of the file content
+   * @throws IllegalStateException if the file cannot be read
+   */
+  public static SourceSnapshot of(InputFile inputFile) {
+    try {
+      var text = inputFile.contents();
+      var charset = inputFile.charset();
+      // U+FFFD is either the replacement of invalid input or a character of the file: only in this case the content
+      // is decoded again with a decoder reporting invalid input
+      var decodingErrors = text.indexOf(REPLACEMENT_CHARACTER) >= 0 && isMalformed(inputFile, charset);
+      return new SourceSnapshot(text, charset, decodingErrors);
+    } catch (IOException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static boolean isMalformed(InputFile inputFile, Charset charset) throws IOException {
+    try (var stream = inputFile.inputStream()) {
+      return isMalformed(stream.readAllBytes(), charset);
+    }
+  }
+
+  /**
+   * Returns true if the bytes contain malformed or unmappable input for the charset.
+   *
+   * @param bytes content of the file (without byte order mark)
+   * @param charset charset of the file
+   */
+  static boolean isMalformed(byte[] bytes, Charset charset) {
+    var decoder = charset.newDecoder()
+      .onMalformedInput(CodingErrorAction.REPORT)
+      .onUnmappableCharacter(CodingErrorAction.REPORT);
+    try {
+      decoder.decode(ByteBuffer.wrap(bytes));
+      return false;
+    } catch (CharacterCodingException e) {
+      return true;
+    }
+  }
+
+  /**
+   * Decoded content of the file.
+   */
+  public String text() {
+    return text;
+  }
+
+  /**
+   * Charset used to decode the file.
+   */
+  public Charset charset() {
+    return charset;
+  }
+
+  /**
+   * Returns true if the decoder reported malformed or unmappable input, which was replaced with U+FFFD. A U+FFFD
+   * character encoded in the file itself is not a decoding error.
+   */
+  public boolean hasDecodingErrors() {
+    return decodingErrors;
+  }
+
+  /**
+   * Number of lines, at least one.
+   */
+  public int lineCount() {
+    return lineCount;
+  }
+
+  /**
+   * Offset of the first character of a line in {@link #text()}.
+   *
+   * @param index zero-based line index
+   */
+  public int lineStart(int index) {
+    checkIndex(index);
+    return lineStarts[index];
+  }
+
+  /**
+   * Offset after the last character of a line (without line terminator) in {@link #text()}.
+   *
+   * @param index zero-based line index
+   */
+  public int lineEnd(int index) {
+    checkIndex(index);
+    if (index + 1 == lineCount) {
+      return text.length();
+    }
+    int end = lineStarts[index + 1] - 1;
+    if (text.charAt(end) == '\n' && end > lineStarts[index] && text.charAt(end - 1) == '\r') {
+      end--;
+    }
+    return end;
+  }
+
+  /**
+   * Content of a line without line terminator. The returned sequence is a view on the text.
+   *
+   * @param index zero-based line index
+   */
+  public CharSequence line(int index) {
+    return CharBuffer.wrap(text, lineStart(index), lineEnd(index));
+  }
+
+  /**
+   * All lines as views on the text.
+   */
+  public List<CharSequence> lines() {
+    return new AbstractList<CharSequence>() {
+      @Override
+      public CharSequence get(int index) {
+        return line(index);
+      }
+
+      @Override
+      public int size() {
+        return lineCount;
+      }
+    };
+  }
+
+  /**
+   * All lines as strings, created on first use.
+   */
+  public List<String> lineStrings() {
+    if (lineStrings == null) {
+      var result = new String[lineCount];
+      for (int i = 0; i < lineCount; i++) {
+        result[i] = text.substring(lineStart(i), lineEnd(i));
+      }
+      lineStrings = List.of(result);
+    }
+    return lineStrings;
+  }
+
+  private void checkIndex(int index) {
+    if (index < 0 || index >= lineCount) {
+      throw new IndexOutOfBoundsException("Line index " + index + " out of range [0, " + lineCount + ")");
+    }
+  }
+
+}
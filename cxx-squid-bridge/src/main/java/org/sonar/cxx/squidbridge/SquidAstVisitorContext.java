@@ -32,6 +32,7 @@ import org.sonar.api.batch.fs.InputFile;
 import org.sonar.cxx.squidbridge.api.CheckMessage;
 import org.sonar.cxx.squidbridge.api.CodeCheck;
 import org.sonar.cxx.squidbridge.api.SourceCode;
+import org.sonar.cxx.squidbridge.checks.PatternPrefilter;
 
 public abstract class SquidAstVisitorContext<G extends Grammar> {
 
@@ -43,6 +44,11 @@ public abstract class SquidAstVisitorContext<G extends Grammar> {
 
   public abstract List<String> getInputFileLines();
 
+  /**
+   * Content of the current InputFile, read once per file and shared by all visitors.
+   */
+  public abstract SourceSnapshot getInputFileSnapshot();
+
   public abstract G getGrammar();
 
   public abstract void addSourceCode(SourceCode child);
@@ -53,6 +59,12 @@ public abstract class SquidAstVisitorContext<G extends Grammar> {
 
   public abstract CommentAnalyser getCommentAnalyser();
 
+  /**
+   * Prefilter shared by all regular expression based checks of the scanner. Checks register their patterns in
+   * {@code init()}, the scanner sets the context of all visitors before.
+   */
+  public abstract PatternPrefilter getPatternPrefilter();
+
   /**
    * Create a new file violation
    *
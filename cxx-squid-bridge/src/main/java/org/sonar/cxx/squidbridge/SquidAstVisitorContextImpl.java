@@ -27,9 +27,7 @@ import com.sonar.cxx.sslr.api.AstNode;
 import com.sonar.cxx.sslr.api.Grammar;
 import com.sonar.cxx.sslr.api.Token;
 import java.io.File;
-import java.io.IOException;
 import java.util.ArrayDeque;
-import java.util.Arrays;
 import java.util.Deque;
 import java.util.List;
 import javax.annotation.Nullable;
@@ -39,6 +37,7 @@ import org.sonar.cxx.squidbridge.api.CodeCheck;
 import org.sonar.cxx.squidbridge.api.SourceCode;
 import org.sonar.cxx.squidbridge.api.SourceFile;
 import org.sonar.cxx.squidbridge.api.SourceProject;
+import org.sonar.cxx.squidbridge.checks.PatternPrefilter;
 import org.sonar.cxx.squidbridge.measures.MetricDef;
 
 public class SquidAstVisitorContextImpl<G extends Grammar> extends SquidAstVisitorContext<G> {
@@ -47,8 +46,10 @@ public class SquidAstVisitorContextImpl<G extends Grammar> extends SquidAstVisit
   private G grammar;
   private File file;
   private InputFile inputFile;
+  private SourceSnapshot snapshot;
   private final SourceProject project;
   private CommentAnalyser commentAnalyser;
+  private PatternPrefilter patternPrefilter;
 
   public SquidAstVisitorContextImpl(@Nullable SourceProject project) {
     if (project == null) {
@@ -75,6 +76,18 @@ public class SquidAstVisitorContextImpl<G extends Grammar> extends SquidAstVisit
     return commentAnalyser;
   }
 
+  public void setPatternPrefilter(PatternPrefilter patternPrefilter) {
+    this.patternPrefilter = patternPrefilter;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public PatternPrefilter getPatternPrefilter() {
+    return patternPrefilter;
+  }
+
   /**
    * {@inheritDoc}
    */
@@ -100,17 +113,29 @@ public class SquidAstVisitorContextImpl<G extends Grammar> extends SquidAstVisit
     return sourceCodeStack.peek();
   }
 
-  public void setFile(File file, MetricDef filesMetric) {
+  public synchronized void setFile(File file, MetricDef filesMetric) {
     popTillSourceProject();
     this.file = file;
+    this.snapshot = null;
     var sourceFile = new SourceFile(file.getAbsolutePath(), file.getName());
     addSourceCode(sourceFile);
     peekSourceCode().setMeasure(filesMetric, 1);
   }
 
   public void setInputFile(InputFile inputFile, MetricDef filesMetric) {
+    setInputFile(inputFile, filesMetric, null);
+  }
+
+  /**
+   * Set the file to scan with its already read content.
+   *
+   * @param snapshot content of the file, null to read it on first access
+   */
+  public synchronized void setInputFile(InputFile inputFile, MetricDef filesMetric,
+                                        @Nullable SourceSnapshot snapshot) {
     this.inputFile = inputFile;
     setFile(new File(inputFile.uri().getPath()), filesMetric);
+    this.snapshot = snapshot;
   }
 
   protected void popTillSourceProject() {
@@ -140,11 +165,7 @@ public class SquidAstVisitorContextImpl<G extends Grammar> extends SquidAstVisit
    */
   @Override
   public String getInputFileContent() {
-    try {
-      return inputFile.contents();
-    } catch (IOException e) {
-      throw new IllegalStateException(e);
-    }
+    return getInputFileSnapshot().text();
   }
 
   /**
@@ -152,7 +173,18 @@ public class SquidAstVisitorContextImpl<G extends Grammar> extends SquidAstVisit
    */
   @Override
   public List<String> getInputFileLines() {
-    return Arrays.asList(getInputFileContent().split("(?:\r)?\n|\r", -1));
+    return getInputFileSnapshot().lineStrings();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public synchronized SourceSnapshot getInputFileSnapshot() {
+    if (snapshot == null) {
+      snapshot = SourceSnapshot.of(inputFile);
+    }
+    return snapshot;
   }
 
   public SourceProject getProject() {
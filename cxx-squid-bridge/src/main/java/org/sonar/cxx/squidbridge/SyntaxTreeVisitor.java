@@ -0,0 +1,31 @@
+/*
+ * C++ Community Plugin (cxx plugin)
+ * Copyright (C) 2021-2024 SonarOpenCommunity
+ * http://github.com/SonarOpenCommunity/sonar-cxx
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.cxx.squidbridge;
+
+/**
+ * Marker for visitors which query the syntax tree of a file without subscribing to node types, e.g. by evaluating an
+ * XPath expression on the file node in {@code visitFile}.
+ *
+ * Without syntax tree (lexer-only analysis) a visitor is skipped if it subscribes to node types or has this marker,
+ * see {@link AstScanner#needsSyntaxTree(SquidAstVisitor)}.
+ */
+public interface SyntaxTreeVisitor {
+
+}
@@ -0,0 +1,165 @@
+/*
+ * C++ Community Plugin (cxx plugin)
+ * Copyright (C) 2021-2024 SonarOpenCommunity
+ * http://github.com/SonarOpenCommunity/sonar-cxx
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.cxx.squidbridge.api;
+
+import java.util.AbstractSet;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * Set of line numbers of a file.
+ *
+ * The lines are stored in a bit set: one bit per line instead of one {@code Integer} object per line. The set is used
+ * for line based data like lines of code, executable lines, comment lines and NOSONAR lines.
+ */
+public final class LineSet {
+
+  private final BitSet lines = new BitSet();
+
+  public static LineSet of(int... lines) {
+    var result = new LineSet();
+    for (var line : lines) {
+      result.add(line);
+    }
+    return result;
+  }
+
+  /**
+   * Add a line.
+   *
+   * @param line line number, not negative
+   */
+  public void add(int line) {
+    lines.set(line);
+  }
+
+  /**
+   * Add a range of lines.
+   *
+   * @param fromLine first line (inclusive)
+   * @param toLine last line (inclusive)
+   */
+  public void addRange(int fromLine, int toLine) {
+    if (fromLine <= toLine) {
+      lines.set(fromLine, toLine + 1);
+    }
+  }
+
+  public void addAll(LineSet other) {
+    lines.or(other.lines);
+  }
+
+  public void remove(int line) {
+    if (line >= 0) {
+      lines.clear(line);
+    }
+  }
+
+  public boolean contains(int line) {
+    return line >= 0 && lines.get(line);
+  }
+
+  public boolean isEmpty() {
+    return lines.isEmpty();
+  }
+
+  /**
+   * Number of lines in the set.
+   */
+  public int size() {
+    return lines.cardinality();
+  }
+
+  /**
+   * Performs the action for each line in ascending order.
+   */
+  public void forEach(IntConsumer action) {
+    for (int line = lines.nextSetBit(0); line >= 0; line = lines.nextSetBit(line + 1)) {
+      action.accept(line);
+    }
+  }
+
+  /**
+   * Lines in ascending order.
+   */
+  public IntStream stream() {
+    return lines.stream();
+  }
+
+  /**
+   * Unmodifiable view of the lines as {@code Set<Integer>} for APIs expecting boxed values. Values are boxed only
+   * while iterating the view.
+   */
+  public Set<Integer> asSet() {
+    return new AbstractSet<Integer>() {
+      @Override
+      public boolean contains(Object o) {
+        return o instanceof Integer line && LineSet.this.contains(line);
+      }
+
+      @Override
+      public Iterator<Integer> iterator() {
+        return new Iterator<Integer>() {
+          private int next = lines.nextSetBit(0);
+
+          @Override
+          public boolean hasNext() {
+            return next >= 0;
+          }
+
+          @Override
+          public Integer next() {
+            if (next < 0) {
+              throw new NoSuchElementException();
+            }
+            int line = next;
+            next = lines.nextSetBit(line + 1);
+            return line;
+          }
+        };
+      }
+
+      @Override
+      public int size() {
+        return LineSet.this.size();
+      }
+    };
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    return obj instanceof LineSet other && lines.equals(other.lines);
+  }
+
+  @Override
+  public int hashCode() {
+    return lines.hashCode();
+  }
+
+  @Override
+  public String toString() {
+    return lines.toString();
+  }
+
+}
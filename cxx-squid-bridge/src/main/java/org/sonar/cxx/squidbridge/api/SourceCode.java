@@ -438,6 +438,21 @@ public abstract class SourceCode implements Measurable, Comparable<SourceCode> {
     return children;
   }
 
+  /**
+   * Remove all descendants of this SourceCode object from the tree and the index.
+   */
+  public void removeChildren() {
+    if (hasChildren()) {
+      for (var child : children) {
+        child.removeChildren();
+        if (indexer != null) {
+          indexer.remove(child);
+        }
+      }
+      children = null;
+    }
+  }
+
   /**
    * Search for a child in the tree starting from this SourceCode object.
    *
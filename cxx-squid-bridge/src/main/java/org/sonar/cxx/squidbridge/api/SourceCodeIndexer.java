@@ -36,4 +36,11 @@ public interface SourceCodeIndexer {
    * @see SourceCode
    */
   void index(SourceCode sourceCode);
+
+  /**
+   * Remove a SourceCode object from the index.
+   *
+   * @param sourceCode sourceCode object to remove
+   */
+  void remove(SourceCode sourceCode);
 }
@@ -52,6 +52,18 @@ public class SourceCodeTreeDecorator {
     decorateWith(project, metrics);
   }
 
+  /**
+   * Aggregate the measures of the descendants of a SourceCode node into the node and remove the descendants from the
+   * tree. The node keeps the same measures as after {@link #decorateWith(MetricDef...)}.
+   *
+   * @param sourceCode node to fold, e.g. a SourceFile after it is scanned
+   * @param metrics metric definitions to aggregate
+   */
+  public static void fold(SourceCode sourceCode, MetricDef... metrics) {
+    decorateWith(sourceCode, metrics);
+    sourceCode.removeChildren();
+  }
+
   private static void decorateWith(SourceCode sourceCode, MetricDef... metrics) {
     if (sourceCode.hasChildren()) {
       for (var child : sourceCode.getChildren()) {
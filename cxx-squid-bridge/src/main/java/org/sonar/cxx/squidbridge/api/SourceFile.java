@@ -23,7 +23,6 @@
  */
 package org.sonar.cxx.squidbridge.api;
 
-import java.util.HashSet;
 import java.util.Set;
 import javax.annotation.Nullable;
 
@@ -34,7 +33,7 @@ import javax.annotation.Nullable;
  */
 public class SourceFile extends SourceCode {
 
-  private final Set<Integer> noSonarTagLines = new HashSet<>();
+  private final LineSet noSonarTagLines = new LineSet();
 
   /**
    * Initializes a newly created source file node.
@@ -72,16 +71,27 @@ public class SourceFile extends SourceCode {
    * @param noSonarTagLines collection of lines that should be marked //NOSONAR
    */
   public void addNoSonarTagLines(Set<Integer> noSonarTagLines) {
+    for (var line : noSonarTagLines) {
+      this.noSonarTagLines.add(line);
+    }
+  }
+
+  /**
+   * Mark some lines in the file //NOSONAR.
+   *
+   * @param noSonarTagLines lines that should be marked //NOSONAR
+   */
+  public void addNoSonarTagLines(LineSet noSonarTagLines) {
     this.noSonarTagLines.addAll(noSonarTagLines);
   }
 
   /**
    * Get all lines marked with //NOSONAR
    *
-   * @return container with all lines marked with //NOSONAR
+   * @return unmodifiable view of all lines marked with //NOSONAR
    */
   public Set<Integer> getNoSonarTagLines() {
-    return noSonarTagLines;
+    return noSonarTagLines.asSet();
   }
 
 }
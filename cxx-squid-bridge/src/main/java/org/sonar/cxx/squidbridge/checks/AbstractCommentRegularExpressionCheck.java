@@ -34,6 +34,7 @@ public abstract class AbstractCommentRegularExpressionCheck<G extends Grammar> e
   AstAndTokenVisitor {
 
   private Pattern pattern = null;
+  private PatternPrefilter.Filter filter = null;
 
   // See SONAR-3164
   public abstract String getRegularExpression();
@@ -52,6 +53,7 @@ public abstract class AbstractCommentRegularExpressionCheck<G extends Grammar> e
       } catch (RuntimeException e) {
         throw new IllegalStateException("Unable to compile regular expression: " + regularExpression, e);
       }
+      filter = getContext().getPatternPrefilter().register(pattern);
     }
   }
 
@@ -59,11 +61,15 @@ public abstract class AbstractCommentRegularExpressionCheck<G extends Grammar> e
   public void visitToken(Token token) {
     if (pattern != null) {
       for (var trivia : token.getTrivia()) {
-        if (trivia.isComment() && pattern.matcher(trivia.getToken().getOriginalValue()).matches()) {
+        if (trivia.isComment() && matches(trivia.getToken().getOriginalValue())) {
           getContext().createLineViolation(this, getMessage(), trivia.getToken());
         }
       }
     }
   }
 
+  private boolean matches(String comment) {
+    return filter.mayMatchComment(comment) && pattern.matcher(comment).matches();
+  }
+
 }
@@ -29,8 +29,9 @@ import com.sonar.cxx.sslr.api.Grammar;
 import com.sonar.cxx.sslr.xpath.api.AstNodeXPathQuery;
 import java.util.List;
 import javax.annotation.Nullable;
+import org.sonar.cxx.squidbridge.SyntaxTreeVisitor;
 
-public abstract class AbstractXPathCheck<G extends Grammar> extends SquidCheck<G> {
+public abstract class AbstractXPathCheck<G extends Grammar> extends SquidCheck<G> implements SyntaxTreeVisitor {
 
   private AstNodeXPathQuery<Object> query = null;
 
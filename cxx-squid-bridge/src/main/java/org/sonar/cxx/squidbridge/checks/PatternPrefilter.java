@@ -0,0 +1,326 @@
+/*
+ * C++ Community Plugin (cxx plugin)
+ * Copyright (C) 2021-2024 SonarOpenCommunity
+ * http://github.com/SonarOpenCommunity/sonar-cxx
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.cxx.squidbridge.checks;
+
+import java.io.File;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import org.sonar.cxx.squidbridge.SourceSnapshot;
+import org.sonar.cxx.squidbridge.SquidAstVisitorContext;
+
+/**
+ * Prefilter for regular expression based checks.
+ *
+ * All checks of a scanner register their patterns in {@code init()}. For each pattern a literal is extracted which is
+ * part of every match (see {@link RequiredLiteral}). The literals of all patterns are combined into one Aho-Corasick
+ * automaton, which scans the source text (or a comment) only once per file for all checks. A check then runs its
+ * regular expression only on the lines (or comments) containing its literal. Patterns without literal are always
+ * evaluated.
+ *
+ * The prefilter is owned by the scanner and provided to the checks by
+ * {@link SquidAstVisitorContext#getPatternPrefilter()}. Required order: the scanner creates the prefilter and sets the
+ * context of all visitors, then calls {@code init()} of the visitors, where the checks register their patterns, and
+ * scans the files afterwards. The filters can be used concurrently by
+ * {@link org.sonar.cxx.squidbridge.ParallelVisitor}s, the shared state is guarded by the prefilter.
+ */
+public final class PatternPrefilter {
+
+  private static final int MAX_CACHED_COMMENTS = 10_000;
+
+  private final SquidAstVisitorContext<?> context;
+
+  private final List<RequiredLiteral> literals = new ArrayList<>();
+  private final Map<String, Integer> literalIds = new HashMap<>();
+  private Automaton automaton;
+
+  private SourceSnapshot scannedSnapshot;
+  private BitSet[] linesPerLiteral;
+  private File commentsFile;
+  private final Map<String, BitSet> literalsPerComment = new IdentityHashMap<>();
+
+  /**
+   * @param context context of the scanner, provides the file currently scanned
+   */
+  public PatternPrefilter(SquidAstVisitorContext<?> context) {
+    this.context = context;
+  }
+
+  /**
+   * Register a pattern, must be called from {@code init()} of a check.
+   *
+   * @param pattern regular expression of a check
+   * @return filter to query candidates for the pattern
+   */
+  public Filter register(Pattern pattern) {
+    return new Filter(this, add(pattern));
+  }
+
+  private synchronized int add(Pattern pattern) {
+    var literal = RequiredLiteral.of(pattern);
+    if (literal == null) {
+      return -1;
+    }
+    var key = (literal.ignoreCase() ? "i:" : "s:") + literal.text();
+    var id = literalIds.get(key);
+    if (id == null) {
+      id = literals.size();
+      literals.add(literal);
+      literalIds.put(key, id);
+      automaton = null;
+      scannedSnapshot = null;
+      commentsFile = null;
+    }
+    return id;
+  }
+
+  private Automaton automaton() {
+    if (automaton == null) {
+      automaton = new Automaton(literals);
+    }
+    return automaton;
+  }
+
+  private synchronized BitSet lines(SourceSnapshot snapshot, int literalId) {
+    if (snapshot != scannedSnapshot) {
+      linesPerLiteral = automaton().scanLines(snapshot);
+      scannedSnapshot = snapshot;
+    }
+    return linesPerLiteral[literalId];
+  }
+
+  private synchronized boolean commentContains(File file, String comment, int literalId) {
+    if (commentsFile != file || literalsPerComment.size() > MAX_CACHED_COMMENTS) {
+      literalsPerComment.clear();
+      commentsFile = file;
+    }
+    return literalsPerComment.computeIfAbsent(comment, c -> automaton().scan(c)).get(literalId);
+  }
+
+  /**
+   * Candidates of one pattern.
+   */
+  public static final class Filter {
+
+    private final PatternPrefilter prefilter;
+    private final int literalId;
+
+    private Filter(PatternPrefilter prefilter, int literalId) {
+      this.prefilter = prefilter;
+      this.literalId = literalId;
+    }
+
+    /**
+     * Returns false if the pattern cannot match anywhere in the current file.
+     */
+    public boolean mayMatchFile() {
+      return literalId < 0 || !prefilter.lines(prefilter.context.getInputFileSnapshot(), literalId).isEmpty();
+    }
+
+    /**
+     * Returns the index of the next line of the current file, which may contain a match.
+     *
+     * @param fromIndex zero-based line index to start with
+     * @return zero-based line index or -1 if there are no more candidates
+     */
+    public int nextCandidateLine(int fromIndex) {
+      var snapshot = prefilter.context.getInputFileSnapshot();
+      if (literalId < 0) {
+        return fromIndex < snapshot.lineCount() ? fromIndex : -1;
+      }
+      return prefilter.lines(snapshot, literalId).nextSetBit(fromIndex);
+    }
+
+    /**
+     * Returns false if the pattern cannot match the comment. The result of the scan is shared between all checks, the
+     * comment string is identified by reference.
+     */
+    public boolean mayMatchComment(String comment) {
+      return literalId < 0 || prefilter.commentContains(prefilter.context.getFile(), comment, literalId);
+    }
+  }
+
+  /**
+   * Aho-Corasick automaton as deterministic transition table. Input characters are mapped to columns: ASCII characters
+   * to their code, non-ASCII characters used in literals to additional columns, all other characters to one column
+   * leading back to the root. The automaton works on ASCII lower case characters; case-sensitive literals are verified
+   * after a hit.
+   */
+  static final class Automaton {
+
+    private static final int ASCII = 128;
+
+    private final List<RequiredLiteral> literals;
+    private final Map<Character, Integer> extraColumns = new HashMap<>();
+    private final int columns;
+    private final int[] delta;
+    private final int[][] outputs;
+
+    Automaton(List<RequiredLiteral> literals) {
+      this.literals = new ArrayList<>(literals);
+      for (var literal : literals) {
+        for (char c : literal.text().toCharArray()) {
+          c = RequiredLiteral.toLowerCase(c);
+          if (c >= ASCII) {
+            extraColumns.putIfAbsent(c, ASCII + extraColumns.size());
+          }
+        }
+      }
+      columns = ASCII + extraColumns.size() + 1;
+
+      // trie
+      var gotos = new ArrayList<int[]>();
+      var outs = new ArrayList<List<Integer>>();
+      gotos.add(newRow());
+      outs.add(new ArrayList<>());
+      for (int id = 0; id < literals.size(); id++) {
+        int state = 0;
+        for (char c : literals.get(id).text().toCharArray()) {
+          int column = column(RequiredLiteral.toLowerCase(c));
+          if (gotos.get(state)[column] < 0) {
+            gotos.get(state)[column] = gotos.size();
+            gotos.add(newRow());
+            outs.add(new ArrayList<>());
+          }
+          state = gotos.get(state)[column];
+        }
+        outs.get(state).add(id);
+      }
+
+      // failure links, complete transition table
+      int states = gotos.size();
+      delta = new int[states * columns];
+      var fail = new int[states];
+      var queue = new ArrayDeque<Integer>();
+      for (int column = 0; column < columns; column++) {
+        int next = gotos.get(0)[column];
+        if (next < 0) {
+          delta[column] = 0;
+        } else {
+          delta[column] = next;
+          fail[next] = 0;
+          queue.add(next);
+        }
+      }
+      while (!queue.isEmpty()) {
+        int state = queue.poll();
+        outs.get(state).addAll(outs.get(fail[state]));
+        for (int column = 0; column < columns; column++) {
+          int next = gotos.get(state)[column];
+          if (next < 0) {
+            delta[state * columns + column] = delta[fail[state] * columns + column];
+          } else {
+            delta[state * columns + column] = next;
+            fail[next] = delta[fail[state] * columns + column];
+            queue.add(next);
+          }
+        }
+      }
+
+      outputs = new int[states][];
+      for (int state = 0; state < states; state++) {
+        outputs[state] = outs.get(state).stream().mapToInt(Integer::intValue).distinct().toArray();
+      }
+    }
+
+    private int[] newRow() {
+      var row = new int[columns];
+      Arrays.fill(row, -1);
+      return row;
+    }
+
+    private int column(char c) {
+      if (c < ASCII) {
+        return c;
+      }
+      return extraColumns.getOrDefault(c, columns - 1);
+    }
+
+    /**
+     * Scan a text.
+     *
+     * @return ids of the literals found in the text
+     */
+    BitSet scan(CharSequence text) {
+      var found = new BitSet(literals.size());
+      int state = 0;
+      for (int i = 0; i < text.length(); i++) {
+        state = delta[state * columns + column(RequiredLiteral.toLowerCase(text.charAt(i)))];
+        for (int id : outputs[state]) {
+          if (verify(text, i, id)) {
+            found.set(id);
+          }
+        }
+      }
+      return found;
+    }
+
+    /**
+     * Scan the text of a file.
+     *
+     * @return for each literal the zero-based indexes of the lines containing the literal
+     */
+    BitSet[] scanLines(SourceSnapshot snapshot) {
+      var lines = new BitSet[literals.size()];
+      for (int id = 0; id < lines.length; id++) {
+        lines[id] = new BitSet();
+      }
+      var text = snapshot.text();
+      int line = 0;
+      int nextLineStart = snapshot.lineCount() > 1 ? snapshot.lineStart(1) : Integer.MAX_VALUE;
+      int state = 0;
+      for (int i = 0; i < text.length(); i++) {
+        while (i >= nextLineStart) {
+          line++;
+          nextLineStart = line + 1 < snapshot.lineCount() ? snapshot.lineStart(line + 1) : Integer.MAX_VALUE;
+        }
+        state = delta[state * columns + column(RequiredLiteral.toLowerCase(text.charAt(i)))];
+        for (int id : outputs[state]) {
+          if (verify(text, i, id)) {
+            lines[id].set(line);
+          }
+        }
+      }
+      return lines;
+    }
+
+    private boolean verify(CharSequence text, int end, int id) {
+      var literal = literals.get(id);
+      if (literal.ignoreCase()) {
+        return true;
+      }
+      var expected = literal.text();
+      int start = end - expected.length() + 1;
+      for (int i = 0; i < expected.length(); i++) {
+        if (text.charAt(start + i) != expected.charAt(i)) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+
+}
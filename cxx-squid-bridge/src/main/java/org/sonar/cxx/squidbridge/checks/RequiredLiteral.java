@@ -0,0 +1,307 @@
+/*
+ * C++ Community Plugin (cxx plugin)
+ * Copyright (C) 2021-2024 SonarOpenCommunity
+ * http://github.com/SonarOpenCommunity/sonar-cxx
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.cxx.squidbridge.checks;
+
+import java.util.regex.Pattern;
+import javax.annotation.CheckForNull;
+
+/**
+ * Literal text which is part of every match of a regular expression.
+ *
+ * The extraction is conservative: only characters of the top-level sequence of the expression are taken into account.
+ * Groups, character classes, alternatives and escape sequences with a special meaning end a literal run, optional
+ * characters are removed. If the expression contains constructs which cannot be analyzed safely (e.g. top-level
+ * alternatives, inline flags or numeric escapes), no literal is returned.
+ */
+final class RequiredLiteral {
+
+  private static final String QUANTIFIERS = "?*+{";
+  private static final String NO_ARGUMENT_ESCAPES = "dDsSwWbBAzZGRXhHvVntrfae";
+
+  private final String text;
+  private final boolean ignoreCase;
+
+  private RequiredLiteral(String text, boolean ignoreCase) {
+    this.text = text;
+    this.ignoreCase = ignoreCase;
+  }
+
+  /**
+   * Literal text, lower case if {@link #ignoreCase()} is true.
+   */
+  String text() {
+    return text;
+  }
+
+  boolean ignoreCase() {
+    return ignoreCase;
+  }
+
+  /**
+   * Extract the longest literal of a pattern.
+   *
+   * @return literal or null if there is no literal which is required for a match
+   */
+  @CheckForNull
+  static RequiredLiteral of(Pattern pattern) {
+    int flags = pattern.flags();
+    if ((flags & (Pattern.COMMENTS | Pattern.CANON_EQ)) != 0) {
+      return null;
+    }
+    boolean ignoreCase = (flags & Pattern.CASE_INSENSITIVE) != 0;
+    if (ignoreCase && (flags & Pattern.UNICODE_CASE) != 0) {
+      return null;
+    }
+    String longest;
+    if ((flags & Pattern.LITERAL) != 0) {
+      longest = pattern.pattern();
+    } else {
+      longest = longestRun(pattern.pattern());
+    }
+    return create(longest, ignoreCase);
+  }
+
+  @CheckForNull
+  private static RequiredLiteral create(@CheckForNull String literal, boolean ignoreCase) {
+    if (literal == null || literal.isEmpty()) {
+      return null;
+    }
+    if (ignoreCase) {
+      for (int i = 0; i < literal.length(); i++) {
+        if (literal.charAt(i) > 127) {
+          // case folding of non-ASCII characters is not supported
+          return null;
+        }
+      }
+      return new RequiredLiteral(toLowerCase(literal), true);
+    }
+    return new RequiredLiteral(literal, false);
+  }
+
+  static String toLowerCase(String text) {
+    var result = new StringBuilder(text.length());
+    for (int i = 0; i < text.length(); i++) {
+      result.append(toLowerCase(text.charAt(i)));
+    }
+    return result.toString();
+  }
+
+  static char toLowerCase(char c) {
+    return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+  }
+
+  @CheckForNull
+  private static String longestRun(String regex) {
+    var longest = "";
+    var run = new StringBuilder();
+    int i = 0;
+    while (i < regex.length()) {
+      char c = regex.charAt(i);
+      switch (c) {
+        case '|':
+          return null;
+        case '(':
+          if (regex.startsWith("(?", i) && i + 2 < regex.length() && ":=!<>".indexOf(regex.charAt(i + 2)) < 0) {
+            // inline flags
+            return null;
+          }
+          i = skipGroup(regex, i);
+          if (i < 0) {
+            return null;
+          }
+          longest = endRun(run, longest);
+          break;
+        case '[':
+          i = skipClass(regex, i);
+          if (i < 0) {
+            return null;
+          }
+          longest = endRun(run, longest);
+          break;
+        case '.':
+        case '^':
+        case '$':
+          i++;
+          longest = endRun(run, longest);
+          break;
+        case '\\':
+          if (i + 1 >= regex.length()) {
+            return null;
+          }
+          char escaped = regex.charAt(i + 1);
+          if (escaped == 'Q') {
+            int end = regex.indexOf("\\E", i + 2);
+            if (end < 0) {
+              end = regex.length();
+            }
+            String quoted = regex.substring(i + 2, end);
+            i = Math.min(regex.length(), end + 2);
+            if (i < regex.length() && QUANTIFIERS.indexOf(regex.charAt(i)) >= 0 && !quoted.isEmpty()) {
+              run.append(quoted, 0, quoted.length() - 1);
+              longest = endRun(run, longest);
+              i = skipQuantifier(regex, i);
+            } else {
+              run.append(quoted);
+            }
+          } else if (Character.isLetterOrDigit(escaped)) {
+            if (NO_ARGUMENT_ESCAPES.indexOf(escaped) < 0) {
+              // escapes with arguments (e.g. \x41, \p{Lu}, \1)
+              return null;
+            }
+            i = skipQuantifier(regex, i + 2);
+            longest = endRun(run, longest);
+          } else {
+            i = appendChar(regex, i + 2, escaped, run);
+            longest = endRunIfBroken(regex, i, run, longest);
+            i = skipQuantifier(regex, i);
+          }
+          break;
+        case '?':
+        case '*':
+        case '+':
+        case '{':
+          // quantifier without preceding literal character (e.g. after a group)
+          i = skipQuantifier(regex, i);
+          break;
+        default:
+          if (c == '\n' || c == '\r') {
+            i++;
+            longest = endRun(run, longest);
+          } else {
+            i = appendChar(regex, i + 1, c, run);
+            longest = endRunIfBroken(regex, i, run, longest);
+            i = skipQuantifier(regex, i);
+          }
+          break;
+      }
+    }
+    return endRun(run, longest);
+  }
+
+  /**
+   * Append a character to the run. If the character is followed by a quantifier which allows zero occurrences, it is
+   * not required and therefore not appended.
+   */
+  private static int appendChar(String regex, int next, char c, StringBuilder run) {
+    if (next < regex.length()) {
+      char quantifier = regex.charAt(next);
+      if (quantifier == '?' || quantifier == '*' || quantifier == '{') {
+        return next;
+      }
+    }
+    run.append(c);
+    return next;
+  }
+
+  private static String endRunIfBroken(String regex, int i, StringBuilder run, String longest) {
+    if (i < regex.length() && QUANTIFIERS.indexOf(regex.charAt(i)) >= 0) {
+      return endRun(run, longest);
+    }
+    return longest;
+  }
+
+  private static String endRun(StringBuilder run, String longest) {
+    String result = longest;
+    if (run.length() > longest.length()) {
+      result = run.toString();
+    }
+    run.setLength(0);
+    return result;
+  }
+
+  private static int skipQuantifier(String regex, int i) {
+    if (i >= regex.length()) {
+      return i;
+    }
+    char c = regex.charAt(i);
+    if (c == '{') {
+      int end = regex.indexOf('}', i);
+      i = end < 0 ? regex.length() : end + 1;
+    } else if (c == '?' || c == '*' || c == '+') {
+      i++;
+    } else {
+      return i;
+    }
+    // lazy or possessive quantifier
+    if (i < regex.length() && (regex.charAt(i) == '?' || regex.charAt(i) == '+')) {
+      i++;
+    }
+    return i;
+  }
+
+  private static int skipGroup(String regex, int start) {
+    int depth = 0;
+    int i = start;
+    while (i < regex.length()) {
+      char c = regex.charAt(i);
+      if (c == '\\') {
+        i += 2;
+        continue;
+      }
+      if (c == '[') {
+        i = skipClass(regex, i);
+        if (i < 0) {
+          return -1;
+        }
+        continue;
+      }
+      if (c == '(') {
+        depth++;
+      } else if (c == ')') {
+        depth--;
+        if (depth == 0) {
+          return i + 1;
+        }
+      }
+      i++;
+    }
+    return -1;
+  }
+
+  private static int skipClass(String regex, int start) {
+    int depth = 0;
+    int i = start;
+    while (i < regex.length()) {
+      char c = regex.charAt(i);
+      if (c == '\\') {
+        i += 2;
+        continue;
+      }
+      if (c == '[') {
+        depth++;
+        // ']' directly after '[' or '[^' is a literal
+        if (i + 1 < regex.length() && regex.charAt(i + 1) == '^') {
+          i++;
+        }
+        if (i + 1 < regex.length() && regex.charAt(i + 1) == ']') {
+          i++;
+        }
+      } else if (c == ']') {
+        depth--;
+        if (depth == 0) {
+          return i + 1;
+        }
+      }
+      i++;
+    }
+    return -1;
+  }
+
+}
@@ -69,4 +69,9 @@ public class SquidIndex implements SourceCodeIndexer, SourceCodeSearchEngine {
     sourceCode.setSourceCodeIndexer(this);
     index.put(sourceCode.getKey(), sourceCode);
   }
+
+  @Override
+  public void remove(SourceCode sourceCode) {
+    index.remove(sourceCode.getKey(), sourceCode);
+  }
 }
@@ -23,16 +23,33 @@
  */
 package org.sonar.cxx.squidbridge.measures;
 
+import java.util.Arrays;
 import java.util.IdentityHashMap;
 import java.util.Map;
 import javax.annotation.CheckForNull;
 
+/**
+ * Measures of a source code object.
+ *
+ * Metrics which are constants of an enum (like the metrics of a language) are stored in arrays indexed by the ordinal
+ * of the constant, the arrays grow with the highest ordinal set. Metrics of other types, or of a second enum, are stored
+ * in a map.
+ */
 public class Measures {
 
-  private final Map<MetricDef, Measure> measureValues = new IdentityHashMap<>();
+  private static final double[] NO_VALUES = new double[0];
+
+  private Class<?> metricType;
+  private double[] values = NO_VALUES;
+  private Object[] data;
+  private Map<MetricDef, Measure> measureValues;
 
   public double getValue(MetricDef metric) {
-    var measure = measureValues.get(metric);
+    int slot = slot(metric);
+    if (slot >= 0) {
+      return slot < values.length ? values[slot] : 0;
+    }
+    var measure = measureValues != null ? measureValues.get(metric) : null;
     if (measure == null) {
       return 0;
     }
@@ -41,7 +58,11 @@ public class Measures {
 
   @CheckForNull
   public Object getData(MetricDef metric) {
-    var measure = measureValues.get(metric);
+    int slot = slot(metric);
+    if (slot >= 0) {
+      return data != null && slot < data.length ? data[slot] : null;
+    }
+    var measure = measureValues != null ? measureValues.get(metric) : null;
     if (measure == null) {
       return null;
     }
@@ -49,19 +70,65 @@ public class Measures {
   }
 
   public void setValue(MetricDef metric, double measure) {
-    getMeasureOrCreateIt(metric).setValue(measure);
+    int slot = slotOrCreateIt(metric);
+    if (slot >= 0) {
+      if (slot >= values.length) {
+        values = Arrays.copyOf(values, slot + 1);
+      }
+      values[slot] = measure;
+    } else {
+      getMeasureOrCreateIt(metric).setValue(measure);
+    }
   }
 
   public void setData(MetricDef metric, Object data) {
-    getMeasureOrCreateIt(metric).setData(data);
+    int slot = slotOrCreateIt(metric);
+    if (slot >= 0) {
+      if (this.data == null || slot >= this.data.length) {
+        this.data = this.data == null ? new Object[slot + 1] : Arrays.copyOf(this.data, slot + 1);
+      }
+      this.data[slot] = data;
+    } else {
+      getMeasureOrCreateIt(metric).setData(data);
+    }
   }
 
   private Measure getMeasureOrCreateIt(MetricDef metric) {
+    if (measureValues == null) {
+      measureValues = new IdentityHashMap<>();
+    }
     return measureValues.computeIfAbsent(metric, k -> new Measure(0));
   }
 
   public void removeMeasure(MetricDef metric) {
-    measureValues.remove(metric);
+    int slot = slot(metric);
+    if (slot >= 0) {
+      if (slot < values.length) {
+        values[slot] = 0;
+      }
+      if (data != null && slot < data.length) {
+        data[slot] = null;
+      }
+    } else if (measureValues != null) {
+      measureValues.remove(metric);
+    }
+  }
+
+  /**
+   * Position of the metric in the arrays, -1 if it is stored in the map.
+   */
+  private int slot(MetricDef metric) {
+    if (metric instanceof Enum<?> constant && constant.getDeclaringClass() == metricType) {
+      return constant.ordinal();
+    }
+    return -1;
+  }
+
+  private int slotOrCreateIt(MetricDef metric) {
+    if (metricType == null && metric instanceof Enum<?> constant) {
+      metricType = constant.getDeclaringClass();
+    }
+    return slot(metric);
   }
 
   private static final class Measure {
@@ -27,10 +27,9 @@ import com.sonar.cxx.sslr.api.AstAndTokenVisitor;
 import com.sonar.cxx.sslr.api.AstNode;
 import com.sonar.cxx.sslr.api.Grammar;
 import com.sonar.cxx.sslr.api.Token;
-import java.util.HashSet;
-import java.util.Set;
 import javax.annotation.Nullable;
 import org.sonar.cxx.squidbridge.SquidAstVisitor;
+import org.sonar.cxx.squidbridge.api.LineSet;
 import org.sonar.cxx.squidbridge.api.SourceFile;
 import org.sonar.cxx.squidbridge.measures.MetricDef;
 
@@ -39,8 +38,8 @@ import org.sonar.cxx.squidbridge.measures.MetricDef;
  */
 public final class CommentsVisitor<G extends Grammar> extends SquidAstVisitor<G> implements AstAndTokenVisitor {
 
-  private Set<Integer> noSonar;
-  private Set<Integer> comments;
+  private LineSet noSonar;
+  private LineSet comments;
   private boolean seenFirstToken;
 
   private final boolean enableNoSonar;
@@ -66,8 +65,8 @@ public final class CommentsVisitor<G extends Grammar> extends SquidAstVisitor<G>
 
   @Override
   public void visitFile(@Nullable AstNode astNode) {
-    noSonar = new HashSet<>();
-    comments = new HashSet<>();
+    noSonar = new LineSet();
+    comments = new LineSet();
     seenFirstToken = false;
   }
 
@@ -76,19 +75,8 @@ public final class CommentsVisitor<G extends Grammar> extends SquidAstVisitor<G>
     if (!ignoreHeaderComments || seenFirstToken) {
       for (var trivia : token.getTrivia()) {
         if (trivia.isComment()) {
-          String[] commentLines = getContext().getCommentAnalyser().getContents(trivia.getToken().getOriginalValue())
-            .split("(\r)?\n|\r", -1);
-          int line = trivia.getToken().getLine();
-
-          for (var commentLine : commentLines) {
-            if (enableNoSonar && commentLine.contains("NOSONAR")) {
-              addNoSonar(line);
-            } else if (commentMetric != null && !getContext().getCommentAnalyser().isBlank(commentLine)) {
-              addCommentLine(line);
-            }
-
-            line++;
-          }
+          visitComment(getContext().getCommentAnalyser().getContents(trivia.getToken().getOriginalValue()),
+                       trivia.getToken().getLine());
         }
       }
     }
@@ -96,6 +84,37 @@ public final class CommentsVisitor<G extends Grammar> extends SquidAstVisitor<G>
     seenFirstToken = true;
   }
 
+  /**
+   * Visit the lines of a comment. Lines are separated by {@code "\r\n"}, {@code "\n"} or {@code "\r"}.
+   */
+  private void visitComment(String contents, int firstLine) {
+    int line = firstLine;
+    int start = 0;
+    while (true) {
+      int end = start;
+      while (end < contents.length() && contents.charAt(end) != '\n' && contents.charAt(end) != '\r') {
+        end++;
+      }
+      visitCommentLine(contents.substring(start, end), line);
+      if (end == contents.length()) {
+        break;
+      }
+      if (contents.charAt(end) == '\r' && end + 1 < contents.length() && contents.charAt(end + 1) == '\n') {
+        end++;
+      }
+      start = end + 1;
+      line++;
+    }
+  }
+
+  private void visitCommentLine(String commentLine, int line) {
+    if (enableNoSonar && commentLine.contains("NOSONAR")) {
+      addNoSonar(line);
+    } else if (commentMetric != null && !getContext().getCommentAnalyser().isBlank(commentLine)) {
+      addCommentLine(line);
+    }
+  }
+
   @Override
   public void leaveFile(@Nullable AstNode astNode) {
     if (enableNoSonar) {
@@ -59,12 +59,16 @@ public class LinesOfCodeVisitor<G extends Grammar> extends SquidAstVisitor<G> im
   public void visitToken(Token token) {
     if (!EOF.equals(token.getType())) {
       /* Handle all the lines of the token */
-      String[] tokenLines = token.getValue().split("\n", -1);
+      int tokenLines = 1;
+      var value = token.getValue();
+      for (int i = value.indexOf('\n'); i >= 0; i = value.indexOf('\n', i + 1)) {
+        tokenLines++;
+      }
 
       var firstLineAlreadyCounted = lastTokenLine == token.getLine() ? 1.0 : 0.0;
-      getContext().peekSourceCode().add(metric, tokenLines.length - firstLineAlreadyCounted);
+      getContext().peekSourceCode().add(metric, tokenLines - firstLineAlreadyCounted);
 
-      lastTokenLine = token.getLine() + tokenLines.length - 1;
+      lastTokenLine = token.getLine() + tokenLines - 1;
     }
   }
 
@@ -0,0 +1,60 @@
+/*
+ * C++ Community Plugin (cxx plugin)
+ * Copyright (C) 2021-2024 SonarOpenCommunity
+ * http://github.com/SonarOpenCommunity/sonar-cxx
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.cxx.squidbridge;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import static org.assertj.core.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+class SourceSnapshotTest {
+
+  @Test
+  void linesAreSplitLikeRegularExpression() {
+    for (var text : new String[]{"", "a", "a\n", "a\r\nb", "a\rb\n\nc", "\r\n\r\n", "a\n\rb", "x\r"}) {
+      var snapshot = new SourceSnapshot(text, StandardCharsets.UTF_8);
+      var expected = Arrays.asList(text.split("(?:\r)?\n|\r", -1));
+      assertThat(snapshot.lineStrings()).as(text).isEqualTo(expected);
+      assertThat(snapshot.lineCount()).isEqualTo(expected.size());
+      assertThat(snapshot.lines()).extracting(CharSequence::toString).isEqualTo(expected);
+    }
+  }
+
+  @Test
+  void lineOffsets() {
+    var snapshot = new SourceSnapshot("ab\r\ncd\ne", StandardCharsets.UTF_8);
+    assertThat(snapshot.lineStart(1)).isEqualTo(4);
+    assertThat(snapshot.lineEnd(0)).isEqualTo(2);
+    assertThat(snapshot.lineEnd(1)).isEqualTo(6);
+    assertThat(snapshot.line(2)).hasToString("e");
+    assertThatThrownBy(() -> snapshot.line(3)).isInstanceOf(IndexOutOfBoundsException.class);
+  }
+
+  @Test
+  void decodingErrors() {
+    assertThat(new SourceSnapshot("abc", StandardCharsets.US_ASCII).hasDecodingErrors()).isFalse();
+    assertThat(new SourceSnapshot("a\uFFFDc", StandardCharsets.US_ASCII, true).hasDecodingErrors()).isTrue();
+    assertThat(SourceSnapshot.isMalformed(new byte[]{'a', (byte) 0xFF, 'c'}, StandardCharsets.UTF_8)).isTrue();
+    assertThat(SourceSnapshot.isMalformed("a\uFFFDc".getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8))
+      .isFalse();
+    assertThat(new SourceSnapshot("abc", StandardCharsets.US_ASCII).charset()).isEqualTo(StandardCharsets.US_ASCII);
+  }
+
+}
@@ -0,0 +1,68 @@
+/*
+ * C++ Community Plugin (cxx plugin)
+ * Copyright (C) 2021-2024 SonarOpenCommunity
+ * http://github.com/SonarOpenCommunity/sonar-cxx
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.cxx.squidbridge.api;
+
+import java.util.ArrayList;
+import static org.assertj.core.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+class LineSetTest {
+
+  @Test
+  void addAndRemove() {
+    var lines = new LineSet();
+    assertThat(lines.isEmpty()).isTrue();
+    lines.add(3);
+    lines.add(1);
+    lines.add(3);
+    lines.addRange(10, 12);
+    lines.addRange(20, 19);
+    assertThat(lines.size()).isEqualTo(5);
+    assertThat(lines.contains(3)).isTrue();
+    assertThat(lines.contains(2)).isFalse();
+    assertThat(lines.contains(-1)).isFalse();
+    lines.remove(3);
+    lines.remove(-1);
+    assertThat(lines.stream()).containsExactly(1, 10, 11, 12);
+    assertThat(lines).isEqualTo(LineSet.of(12, 11, 10, 1));
+  }
+
+  @Test
+  void forEachInAscendingOrder() {
+    var lines = LineSet.of(7, 2, 5);
+    lines.addAll(LineSet.of(1, 5));
+    var result = new ArrayList<Integer>();
+    lines.forEach(result::add);
+    assertThat(result).containsExactly(1, 2, 5, 7);
+  }
+
+  @Test
+  void setView() {
+    var lines = LineSet.of(4, 8);
+    var view = lines.asSet();
+    assertThat(view).containsExactly(4, 8);
+    assertThat(view.contains(4)).isTrue();
+    assertThat(view.contains("4")).isFalse();
+    lines.add(6);
+    assertThat(view).hasSize(3).containsExactly(4, 6, 8);
+    assertThatThrownBy(() -> view.add(1)).isInstanceOf(UnsupportedOperationException.class);
+  }
+
+}
@@ -26,6 +26,10 @@ package org.sonar.cxx.squidbridge.api;
 import static org.assertj.core.api.Assertions.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import static org.mockito.Mockito.mock;
+import org.sonar.cxx.squidbridge.indexer.SquidIndex;
+import org.sonar.cxx.squidbridge.measures.MetricDef;
+import org.sonar.cxx.squidbridge.test.miniC.MiniCAstScanner.MiniCMetrics;
 
 class SourceCodeTest {
 
@@ -136,4 +140,46 @@ class SourceCodeTest {
     assertThat(class1.getKey()).isEqualTo("src/test/FileName.cpp@classKey:10");
     assertThat(method1.getKey()).isEqualTo("src/test/FileName.cpp@classKey:10@methodKey:20");
   }
+
+  @Test
+  void testMeasures() {
+    var otherMetric = mock(MetricDef.class);
+    sourceFile1.setMeasure(MiniCMetrics.LINES, 10);
+    sourceFile1.add(MiniCMetrics.LINES, 5);
+    sourceFile1.addData(MiniCMetrics.COMMENT_LINES, "data");
+    sourceFile1.setMeasure(otherMetric, 3);
+
+    assertThat(sourceFile1.getInt(MiniCMetrics.LINES)).isEqualTo(15);
+    assertThat(sourceFile1.getData(MiniCMetrics.COMMENT_LINES)).isEqualTo("data");
+    assertThat(sourceFile1.getInt(MiniCMetrics.FUNCTIONS)).isZero();
+    assertThat(sourceFile1.getInt(otherMetric)).isEqualTo(3);
+
+    sourceFile1.removeMeasure(MiniCMetrics.LINES);
+    sourceFile1.removeMeasure(otherMetric);
+    assertThat(sourceFile1.getInt(MiniCMetrics.LINES)).isZero();
+    assertThat(sourceFile1.getInt(otherMetric)).isZero();
+  }
+
+  @Test
+  void testFold() {
+    var indexer = new SquidIndex();
+    sourceFile1.setSourceCodeIndexer(indexer);
+    var function = new SourceFunction(sourceClass1, "function", null, 2);
+    sourceFile1.addChild(function);
+    sourceClass1.setMeasure(MiniCMetrics.FUNCTIONS, 2);
+    sourceClass2.setMeasure(MiniCMetrics.FUNCTIONS, 3);
+    function.setMeasure(MiniCMetrics.FUNCTIONS, 1);
+    sourceFile1.setMeasure(MiniCMetrics.FILES, 1);
+    sourceFile2.setMeasure(MiniCMetrics.FILES, 1);
+
+    SourceCodeTreeDecorator.fold(sourceFile1, MiniCMetrics.values());
+    assertThat(sourceFile1.hasChildren()).isFalse();
+    assertThat(sourceFile1.getInt(MiniCMetrics.FUNCTIONS)).isEqualTo(6);
+    assertThat(indexer.search(function.getKey())).isNull();
+
+    new SourceCodeTreeDecorator(sourceProject).decorateWith(MiniCMetrics.values());
+    assertThat(sourceProject.getInt(MiniCMetrics.FUNCTIONS)).isEqualTo(6);
+    assertThat(sourceProject.getInt(MiniCMetrics.FILES)).isEqualTo(2);
+  }
+
 }
@@ -0,0 +1,103 @@
+/*
+ * C++ Community Plugin (cxx plugin)
+ * Copyright (C) 2021-2024 SonarOpenCommunity
+ * http://github.com/SonarOpenCommunity/sonar-cxx
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.cxx.squidbridge.checks;
+
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Pattern;
+import static org.assertj.core.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+class PatternPrefilterTest {
+
+  @Test
+  void requiredLiteral() {
+    assertThat(literal("TODO", 0)).isEqualTo("TODO");
+    assertThat(literal("TODO", Pattern.CASE_INSENSITIVE)).isEqualTo("todo");
+    assertThat(literal(".*TODO.*", Pattern.DOTALL)).isEqualTo("TODO");
+    assertThat(literal("#include\\s+<stdio\\.h>", 0)).isEqualTo("<stdio.h>");
+    assertThat(literal("abcd?ef", 0)).isEqualTo("abc");
+    assertThat(literal("ab+cdef", 0)).isEqualTo("cdef");
+    assertThat(literal("x(foo|bar)yz", 0)).isEqualTo("yz");
+    assertThat(literal("[abc]+malloc\\(", 0)).isEqualTo("malloc(");
+    assertThat(literal("\\Qa.b\\E", 0)).isEqualTo("a.b");
+    assertThat(literal("a.b", Pattern.LITERAL)).isEqualTo("a.b");
+  }
+
+  @Test
+  void noRequiredLiteral() {
+    assertThat(literal("foo|bar", 0)).isNull();
+    assertThat(literal("(?i)TODO", 0)).isNull();
+    assertThat(literal("\\x41BC", 0)).isNull();
+    assertThat(literal("(a)\\1", 0)).isNull();
+    assertThat(literal("\\p{Lu}x", 0)).isNull();
+    assertThat(literal(".*", 0)).isNull();
+    assertThat(literal("TODO", Pattern.COMMENTS)).isNull();
+    assertThat(literal("TODO", Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE)).isNull();
+  }
+
+  @Test
+  void automatonFindsAllLiterals() {
+    var literals = List.of(literalOf("he", 0), literalOf("she", 0), literalOf("HERS", Pattern.CASE_INSENSITIVE),
+      literalOf("äb", 0));
+    var automaton = new PatternPrefilter.Automaton(literals);
+
+    assertThat(automaton.scan("ushers").stream().toArray()).containsExactly(0, 1, 2);
+    assertThat(automaton.scan("uSHErs").stream().toArray()).containsExactly(2);
+    assertThat(automaton.scan("xäbx").stream().toArray()).containsExactly(3);
+    assertThat(automaton.scan("ÄB").stream().toArray()).isEmpty();
+    assertThat(automaton.scan("").isEmpty()).isTrue();
+  }
+
+  @Test
+  void literalIsContainedInEveryMatch() {
+    var regexes = new String[]{"ab+c", "a?bc", "x(ab|c)*d", "[ab]c{2}a", "ab.c", "(?:ab)?cab", "a\\.b?c", "ca+b"};
+    var random = new Random(42);
+    for (var regex : regexes) {
+      var pattern = Pattern.compile(regex);
+      var literal = RequiredLiteral.of(pattern);
+      for (int n = 0; n < 2_000; n++) {
+        var text = randomText(random, "abcdx.", 12);
+        if (literal != null && pattern.matcher(text).find()) {
+          assertThat(text).as(regex).contains(literal.text());
+        }
+      }
+    }
+  }
+
+  private static String randomText(Random random, String alphabet, int maxLength) {
+    var text = new StringBuilder();
+    int length = random.nextInt(maxLength);
+    for (int i = 0; i < length; i++) {
+      text.append(alphabet.charAt(random.nextInt(alphabet.length())));
+    }
+    return text.toString();
+  }
+
+  private static RequiredLiteral literalOf(String regex, int flags) {
+    return RequiredLiteral.of(Pattern.compile(regex, flags));
+  }
+
+  private static String literal(String regex, int flags) {
+    var literal = literalOf(regex, flags);
+    return literal != null ? literal.text() : null;
+  }
+
+}
@@ -21,7 +21,10 @@ package org.sonar.cxx;
 
 import com.sonar.cxx.sslr.api.AstNode;
 import com.sonar.cxx.sslr.api.Grammar;
+import com.sonar.cxx.sslr.impl.Parser;
 import java.util.Collection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.sonar.api.batch.fs.InputFile;
 import org.sonar.cxx.api.CxxMetric;
 import org.sonar.cxx.config.CxxSquidConfiguration;
@@ -58,6 +61,18 @@ import org.sonar.cxx.visitors.CxxPublicApiVisitor;
 
 public final class CxxAstScanner {
 
+  /**
+   * Analysis tier with preprocessor, lexer and parser: all visitors and checks are executed.
+   */
+  public static final String TIER_FULL = "full";
+
+  /**
+   * Analysis tier with preprocessor and lexer only: visitors and checks depending on the syntax tree are skipped.
+   */
+  public static final String TIER_LEXER = "lexer";
+
+  private static final Logger LOG = LoggerFactory.getLogger(CxxAstScanner.class);
+
   private CxxAstScanner() {
   }
 
@@ -97,7 +112,7 @@ public final class CxxAstScanner {
   }
 
   /**
-   * Create scanner for language
+   * Create scanner for language. The analysis tier is read from the configuration (default {@link #TIER_FULL}).
    *
    * @param squidConfig the Squid configuration
    * @param visitors visitors AST checks and visitors to use
@@ -105,37 +120,19 @@ public final class CxxAstScanner {
    */
   @SafeVarargs
   public static AstScanner<Grammar> create(CxxSquidConfiguration squidConfig, SquidAstVisitor<Grammar>... visitors) {
+    if (isLexerOnly(squidConfig)) {
+      return createLexerOnly(squidConfig, visitors);
+    }
+
     var context = new SquidAstVisitorContextImpl<>(new SourceProject("cxx", null));
     var parser = CxxParser.create(context, squidConfig);
-    var builder = AstScanner.<Grammar>builder(context).setBaseParser(parser);
-
-    /* Metrics */
-    builder.withMetrics(CxxMetric.values());
-
-    /* Files */
-    builder.setFilesMetric(CxxMetric.FILES);
-
-    /* Comments */
-    builder.setCommentAnalyser(
-      new CommentAnalyser() {
-      @Override
-      public boolean isBlank(String line) {
-        for (var i = 0; i < line.length(); i++) {
-          if (Character.isLetterOrDigit(line.charAt(i))) {
-            return false;
-          }
-        }
-        return true;
-      }
-
-      @Override
-      public String getContents(String comment) {
-        final var HEADER_LEN = 2;
-        return "/*".equals(comment.substring(0, HEADER_LEN))
-          ? comment.substring(HEADER_LEN, comment.length() - HEADER_LEN)
-          : comment.substring(HEADER_LEN);
-      }
-    });
+    var builder = createBuilder(context, parser);
+    builder.setParallelVisitorMinLines(squidConfig.getInt(CxxSquidConfiguration.SONAR_PROJECT_PROPERTIES,
+                                                          CxxSquidConfiguration.PARALLEL_VISITOR_MIN_LINES).orElse(0));
+    builder.setPrefetchDepth(squidConfig.getInt(CxxSquidConfiguration.SONAR_PROJECT_PROPERTIES,
+                                                CxxSquidConfiguration.PREFETCH_DEPTH).orElse(0));
+    builder.setAstIndex(squidConfig.getBoolean(CxxSquidConfiguration.SONAR_PROJECT_PROPERTIES,
+                                               CxxSquidConfiguration.AST_INDEX).orElse(Boolean.TRUE));
 
     /* Functions / Methods */
     builder.withSquidAstVisitor(new SourceCodeBuilderVisitor<>((SourceCode parentSourceCode, AstNode astNode) -> {
@@ -202,15 +199,120 @@ public final class CxxAstScanner {
     /* NCLOC & EXECUTABLE_LINES */
     builder.withSquidAstVisitor(new CxxFileLinesVisitor());
 
+    /* CPD & NCLOC of files exceeding the parse budget, analyzed without syntax tree */
+    builder.withLexerOnlyVisitor(new CxxCpdVisitor(squidConfig, true));
+    builder.withLexerOnlyVisitor(new CxxFileLinesVisitor(true));
+
+    /* External visitors (typically Check ones) */
+    addExternalVisitors(builder, squidConfig, visitors);
+
+    return builder.build();
+  }
+
+  /**
+   * Returns true if the configuration selects the lexer-only analysis tier.
+   *
+   * @param squidConfig the Squid configuration
+   * @return true for {@link #TIER_LEXER}
+   */
+  public static boolean isLexerOnly(CxxSquidConfiguration squidConfig) {
+    return squidConfig.get(CxxSquidConfiguration.SONAR_PROJECT_PROPERTIES, CxxSquidConfiguration.ANALYSIS_TIER)
+      .map(String::trim)
+      .filter(TIER_LEXER::equalsIgnoreCase)
+      .isPresent();
+  }
+
+  /**
+   * Scanner of the lexer-only analysis tier: the token stream of preprocessor and lexer is visited without building a
+   * syntax tree. Only visitors working on tokens, trivia or the file content are executed (highlighting, CPD, lines of
+   * code, comments, NOSONAR, token and line based checks). Visitors subscribing to AST node types are skipped.
+   */
+  private static AstScanner<Grammar> createLexerOnly(CxxSquidConfiguration squidConfig,
+                                                     SquidAstVisitor<Grammar>[] visitors) {
+    var context = new SquidAstVisitorContextImpl<>(new SourceProject("cxx", null));
+    var parser = CxxParser.createLexerOnly(context, squidConfig);
+    var builder = createBuilder(context, parser);
+
+    /* Metrics */
+    builder.withSquidAstVisitor(new LinesVisitor<>(CxxMetric.LINES));
+    builder.withSquidAstVisitor(new CxxLinesOfCodeVisitor<>());
+    builder.withSquidAstVisitor(CommentsVisitor.<Grammar>builder().withCommentMetric(CxxMetric.COMMENT_LINES)
+      .withNoSonar(true)
+      .withIgnoreHeaderComment(false)
+      .build()
+    );
+
+    // to emit a 'new file' event to the internals of the plugin
+    builder.withSquidAstVisitor(new CxxFileVisitor<>());
+
+    /* Highlighter */
+    builder.withSquidAstVisitor(new CxxHighlighterVisitor());
+
+    /* CPD */
+    builder.withSquidAstVisitor(new CxxCpdVisitor(squidConfig, true));
+
+    /* NCLOC */
+    builder.withSquidAstVisitor(new CxxFileLinesVisitor(true));
+
     /* External visitors (typically Check ones) */
+    addExternalVisitors(builder, squidConfig, visitors);
+
+    builder.setVisitorFilter((SquidAstVisitor<Grammar> visitor) -> {
+      if (!AstScanner.needsSyntaxTree(visitor)) {
+        return true;
+      }
+      LOG.info("Lexer-only analysis: '{}' depends on the syntax tree and is skipped",
+               visitor.getClass().getSimpleName());
+      return false;
+    });
+
+    return builder.build();
+  }
+
+  private static AstScanner.Builder<Grammar> createBuilder(SquidAstVisitorContextImpl<Grammar> context,
+                                                           Parser<Grammar> parser) {
+    var builder = AstScanner.<Grammar>builder(context).setBaseParser(parser);
+
+    /* Metrics */
+    builder.withMetrics(CxxMetric.values());
+    builder.setFoldFiles(true);
+
+    /* Files */
+    builder.setFilesMetric(CxxMetric.FILES);
+
+    /* Comments */
+    builder.setCommentAnalyser(
+      new CommentAnalyser() {
+      @Override
+      public boolean isBlank(String line) {
+        for (var i = 0; i < line.length(); i++) {
+          if (Character.isLetterOrDigit(line.charAt(i))) {
+            return false;
+          }
+        }
+        return true;
+      }
+
+      @Override
+      public String getContents(String comment) {
+        final var HEADER_LEN = 2;
+        return "/*".equals(comment.substring(0, HEADER_LEN))
+          ? comment.substring(HEADER_LEN, comment.length() - HEADER_LEN)
+          : comment.substring(HEADER_LEN);
+      }
+    });
+
+    return builder;
+  }
+
+  private static void addExternalVisitors(AstScanner.Builder<Grammar> builder, CxxSquidConfiguration squidConfig,
+                                          SquidAstVisitor<Grammar>[] visitors) {
     for (var visitor : visitors) {
       if (visitor instanceof CxxCharsetAwareVisitor charsetAwareVisitor) {
         charsetAwareVisitor.setCharset(squidConfig.getCharset());
       }
       builder.withSquidAstVisitor(visitor);
     }
-
-    return builder.build();
   }
 
 }
@@ -130,6 +130,14 @@ public class CxxSquidConfiguration extends SquidConfiguration {
   public static final String FUNCTION_SIZE_THRESHOLD = "FunctionSizeThreshold";
   public static final String API_FILE_SUFFIXES = "ApiFileSuffixes";
   public static final String JSON_COMPILATION_DATABASE = "JsonCompilationDatabase";
+  public static final String ANALYSIS_TIER = "AnalysisTier";
+  public static final String PARSE_BUDGET_INSTRUCTIONS = "ParseBudgetInstructions";
+  public static final String PARSE_BUDGET_EXPANSION_TOKENS = "ParseBudgetExpansionTokens";
+  public static final String PARSE_BUDGET_TIMEOUT = "ParseBudgetTimeout";
+  public static final String PARSER_BYTECODE = "ParserBytecode";
+  public static final String PARALLEL_VISITOR_MIN_LINES = "ParallelVisitorMinLines";
+  public static final String PREFETCH_DEPTH = "PrefetchDepth";
+  public static final String AST_INDEX = "AstIndex";
 
   // Global/File Properties
   public static final String DEFINES = "Defines";
@@ -214,6 +222,9 @@ public class CxxSquidConfiguration extends SquidConfiguration {
     addLevelElement(root, GLOBAL);
     // UNITS must be first one in the parentList
     addLevelElement(root, UNITS);
+    for (var file : parentList.getFirst().getChildren(FILE)) {
+      index.put(file.getAttributeValue(ATTR_PATH), file);
+    }
 
     return true;
   }
@@ -671,17 +682,11 @@ public class CxxSquidConfiguration extends SquidConfiguration {
     if (element != null) {
       return element;
     }
-    String xpath;
-    if (Verifier.checkElementName(level) == null) {
-      xpath = "/" + ROOT + "/" + level;
-    } else {
-      // handle special case 'UNITS empty' no need to search in tree
-      if (isUnitsEmpty()) {
-        return defaultElement;
-      }
-      xpath = "/" + ROOT + "/" + UNITS + "/" + FILE + "[@" + ATTR_PATH + "='" + unifyPath(level) + "']";
+    if (Verifier.checkElementName(level) != null) {
+      // level is a path: all File elements are indexed by their unified path, no need to search in tree
+      return index.getOrDefault(unifyPath(level), defaultElement);
     }
-    XPathExpression<Element> expr = xFactory.compile(xpath, Filters.element());
+    XPathExpression<Element> expr = xFactory.compile("/" + ROOT + "/" + level, Filters.element());
     element = expr.evaluateFirst(document);
     if (element == null) {
       element = defaultElement;
@@ -19,7 +19,10 @@
  */
 package org.sonar.cxx.config;
 
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.exc.StreamReadException;
 import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonMappingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.io.File;
 import java.io.IOException;
@@ -28,6 +31,8 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.CheckForNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -38,8 +43,14 @@ public class JsonCompilationDatabase {
 
   private static final Logger LOG = LoggerFactory.getLogger(JsonCompilationDatabase.class);
 
+  // number of command objects read before they are processed in parallel
+  private static final int BATCH_SIZE = 1024;
+
   private final CxxSquidConfiguration squidConfig;
 
+  // build systems use the same command line for many files: evaluate it only once and share the values
+  private final Map<CommandLine, UnitSettings> commandLines = new ConcurrentHashMap<>();
+
   public JsonCompilationDatabase(CxxSquidConfiguration squidConfig) {
     this.squidConfig = squidConfig;
   }
@@ -98,6 +109,9 @@ public class JsonCompilationDatabase {
   /**
    * Set up the given CxxSquidConfiguration from the JSON compilation database
    *
+   * The file is read as a stream: the command objects are processed in batches while reading, the command lines of a
+   * batch are evaluated in parallel.
+   *
    * @param compileCommandsFile
    * @throws IOException
    */
@@ -107,23 +121,49 @@ public class JsonCompilationDatabase {
 
     var mapper = new ObjectMapper();
     mapper.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
-    mapper.enable(DeserializationFeature.USE_JAVA_ARRAY_FOR_JSON_ARRAY);
     mapper.enable(DeserializationFeature.ACCEPT_SINGLE_VALUE_AS_ARRAY);
-
-    JsonCompilationDatabaseCommandObject[] commandObjects
-      = mapper.readValue(compileCommandsFile,
-        JsonCompilationDatabaseCommandObject[].class);
-
-    for (var commandObject : commandObjects) {
-      parseCommandObject(commandObject);
+    var reader = mapper.readerFor(JsonCompilationDatabaseCommandObject.class);
+
+    try (var parser = mapper.getFactory().createParser(compileCommandsFile)) {
+      var batch = new ArrayList<JsonCompilationDatabaseCommandObject>(BATCH_SIZE);
+      var token = parser.nextToken();
+      if (token == JsonToken.START_OBJECT) {
+        batch.add(reader.readValue(parser));
+      } else if (token == JsonToken.START_ARRAY) {
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+          JsonCompilationDatabaseCommandObject commandObject = reader.readValue(parser);
+          if (commandObject != null) {
+            batch.add(commandObject);
+          }
+          if (batch.size() == BATCH_SIZE) {
+            addCommandObjects(batch);
+            batch.clear();
+          }
+        }
+      } else {
+        throw JsonMappingException.from(parser, "Expected an array of command objects but found " + token);
+      }
+      addCommandObjects(batch);
+    } catch (StreamReadException e) {
+      // report syntax errors like the data binding does
+      throw JsonMappingException.from(e.getProcessor(), e.getOriginalMessage(), e);
+    } finally {
+      commandLines.clear();
     }
   }
 
-  private void parseCommandObject(JsonCompilationDatabaseCommandObject commandObject) {
-
-    var defines = commandObject.getDefines();
-    var includes = commandObject.getIncludes();
+  private void addCommandObjects(List<JsonCompilationDatabaseCommandObject> commandObjects) {
+    // the order of the command objects is kept: later entries for a file add their values after the first ones
+    for (var unit : commandObjects.parallelStream().map(this::parseCommandObject).toList()) {
+      if (unit != null) {
+        squidConfig.add(unit.level(), CxxSquidConfiguration.DEFINES, unit.settings().defines());
+        squidConfig.add(unit.level(), CxxSquidConfiguration.INCLUDE_DIRECTORIES, unit.settings().includes());
+      }
+    }
+  }
 
+  @CheckForNull
+  private Unit parseCommandObject(JsonCompilationDatabaseCommandObject commandObject) {
     Path cwd;
     if (commandObject.getDirectory() != null) {
       cwd = Path.of(commandObject.getDirectory());
@@ -139,87 +179,107 @@ public class JsonCompilationDatabase {
     }
 
     // No need to parse command lines if we have needed information
-    if (!(commandObject.hasDefines() || commandObject.hasIncludes())) {
-      String[] args;
+    if (commandObject.hasDefines() || commandObject.hasIncludes()) {
+      return new Unit(level, new UnitSettings(toValues(commandObject.getDefines()),
+        toValues(commandObject.getIncludes())));
+    }
 
-      if (commandObject.hasArguments()) {
-        args = commandObject.getArguments().toArray(String[]::new);
-        if (args.length == 1) {
-          args = tokenizeCommandLine(args[0]);
-        }
-      } else if (commandObject.hasCommand()) {
-        args = tokenizeCommandLine(commandObject.getCommand());
-      } else {
-        return;
+    CommandLine commandLine;
+    if (commandObject.hasArguments()) {
+      commandLine = new CommandLine(cwd, null, commandObject.getArguments());
+    } else if (commandObject.hasCommand()) {
+      commandLine = new CommandLine(cwd, commandObject.getCommand(), List.of());
+    } else {
+      return null;
+    }
+
+    return new Unit(level, commandLines.computeIfAbsent(commandLine, JsonCompilationDatabase::parseCommandLine));
+  }
+
+  private static UnitSettings parseCommandLine(CommandLine commandLine) {
+    var cwd = commandLine.directory();
+    String[] args;
+    if (commandLine.command() != null) {
+      args = tokenizeCommandLine(commandLine.command());
+    } else {
+      args = commandLine.arguments().toArray(String[]::new);
+      if (args.length == 1) {
+        args = tokenizeCommandLine(args[0]);
       }
+    }
 
-      defines = new HashMap<>();
-      includes = new ArrayList<>();
-      var iSystem = new ArrayList<Path>();
-      var iDirAfter = new ArrayList<Path>();
-      var next = ArgNext.NONE;
-
-      for (var arg : args) {
-        if (arg.startsWith("-D")) {
-          arg = arg.substring(2);
-          next = ArgNext.DEFINE;
-        } else if (arg.startsWith("-I")) {
-          arg = arg.substring(2);
-          next = ArgNext.INCLUDE;
-        } else if (arg.startsWith("-iquote")) {
-          arg = arg.substring(7);
-          next = ArgNext.INCLUDE;
-        } else if (arg.startsWith("-isystem")) {
-          arg = arg.substring(8);
-          next = ArgNext.ISYSTEM;
-        } else if (arg.startsWith("-idirafter")) {
-          arg = arg.substring(10);
-          next = ArgNext.IDIRAFTER;
-        }
+    var defines = new HashMap<String, String>();
+    var includes = new ArrayList<Path>();
+    var iSystem = new ArrayList<Path>();
+    var iDirAfter = new ArrayList<Path>();
+    var next = ArgNext.NONE;
+
+    for (var arg : args) {
+      if (arg.startsWith("-D")) {
+        arg = arg.substring(2);
+        next = ArgNext.DEFINE;
+      } else if (arg.startsWith("-I")) {
+        arg = arg.substring(2);
+        next = ArgNext.INCLUDE;
+      } else if (arg.startsWith("-iquote")) {
+        arg = arg.substring(7);
+        next = ArgNext.INCLUDE;
+      } else if (arg.startsWith("-isystem")) {
+        arg = arg.substring(8);
+        next = ArgNext.ISYSTEM;
+      } else if (arg.startsWith("-idirafter")) {
+        arg = arg.substring(10);
+        next = ArgNext.IDIRAFTER;
+      }
 
-        if ((next != ArgNext.NONE) && !arg.isEmpty()) {
-          switch (next) {
-            case DEFINE:
-              addMacro(arg, defines);
-              break;
-            case INCLUDE, IQUOTE:
-              includes.add(makeRelativeToCwd(cwd, arg));
-              break;
-            case ISYSTEM:
-              iSystem.add(makeRelativeToCwd(cwd, arg));
-              break;
-            case IDIRAFTER:
-              iDirAfter.add(makeRelativeToCwd(cwd, arg));
-              break;
-            default:
-              break;
-          }
-          next = ArgNext.NONE;
+      if ((next != ArgNext.NONE) && !arg.isEmpty()) {
+        switch (next) {
+          case DEFINE:
+            addMacro(arg, defines);
+            break;
+          case INCLUDE, IQUOTE:
+            includes.add(makeRelativeToCwd(cwd, arg));
+            break;
+          case ISYSTEM:
+            iSystem.add(makeRelativeToCwd(cwd, arg));
+            break;
+          case IDIRAFTER:
+            iDirAfter.add(makeRelativeToCwd(cwd, arg));
+            break;
+          default:
+            break;
         }
+        next = ArgNext.NONE;
       }
-
-      includes.addAll(iSystem);
-      includes.addAll(iDirAfter);
     }
 
-    addDefines(level, defines);
-    addIncludes(level, includes);
+    includes.addAll(iSystem);
+    includes.addAll(iDirAfter);
+
+    return new UnitSettings(toValues(defines), toValues(includes));
   }
 
-  private void addDefines(String level, Map<String, String> defines) {
-    defines.forEach((String k, String v)
-      -> squidConfig.add(level, CxxSquidConfiguration.DEFINES, k + " " + v)
-    );
+  private static List<String> toValues(Map<String, String> defines) {
+    var values = new ArrayList<String>(defines.size());
+    defines.forEach((String k, String v) -> values.add(k + " " + v));
+    return values;
   }
 
-  private void addIncludes(String level, List<Path> includes) {
-    includes.forEach((Path include)
-      -> squidConfig.add(level, CxxSquidConfiguration.INCLUDE_DIRECTORIES, include.toString())
-    );
+  private static List<String> toValues(List<Path> includes) {
+    return includes.stream().map(Path::toString).toList();
   }
 
   private enum ArgNext {
     NONE, DEFINE, INCLUDE, IQUOTE, ISYSTEM, IDIRAFTER;
   }
 
+  private record CommandLine(Path directory, @CheckForNull String command, List<String> arguments) {
+  }
+
+  private record UnitSettings(List<String> defines, List<String> includes) {
+  }
+
+  private record Unit(String level, UnitSettings settings) {
+  }
+
 }
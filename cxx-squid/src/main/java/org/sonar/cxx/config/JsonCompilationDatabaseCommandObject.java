@@ -124,7 +124,7 @@ public class JsonCompilationDatabaseCommandObject implements Serializable {
   }
 
   public List<String> getArguments() {
-    return new ArrayList<>(arguments);
+    return Collections.unmodifiableList(arguments);
   }
 
   /**
@@ -155,7 +155,7 @@ public class JsonCompilationDatabaseCommandObject implements Serializable {
   }
 
   public Map<String, String> getDefines() {
-    return new HashMap<>(defines);
+    return Collections.unmodifiableMap(defines);
   }
 
   /**
@@ -29,6 +29,7 @@ import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.regex.Pattern;
+import javax.annotation.CheckForNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -49,24 +50,24 @@ public class MsBuild {
   private static final String MSC_IX86_600 = "_M_IX86 600";
   private static final String MSC_X64_100 = "_M_X64 100";
 
-  private static final Pattern[] INCLUDE_PATTERNS = {Pattern.compile("/I\"(.*?)\""),
-    Pattern.compile("/I([^\\s\"]++) ")};
-  private static final Pattern[] DEFINE_PATTERNS = {Pattern.compile("[/-]D\\s([^\\s]++)"),
-    Pattern.compile("[/-]D([^\\s]++)")};
+  // the patterns are only evaluated for lines containing their literal parts, see the prefilters in parse
   private static final Pattern PATH_TO_CL_PATTERN = Pattern.compile(
-    "^(?>[^\\\\]{0,260}\\\\)+bin\\\\(?>[^\\\\]{1,260}\\\\)*CL.exe\\x20.*$");
+    "^(?>[^\\\\]{0,260}\\\\)+bin\\\\(?>[^\\\\]{1,260}\\\\)*CL.exe\\x20");
   private static final Pattern PLATFORM_X86_PATTERN = Pattern.compile("Building solution configuration \".*\\|x64\".");
   private static final Pattern TOOLSET_V141_PATTERN = Pattern.compile(
     "^(?>[^\\\\]{0,260}\\\\)+VC\\\\Tools\\\\MSVC\\\\14\\.1\\d\\.\\d{1,6}"
-    + "\\\\bin\\\\HostX(86|64)\\\\x(86|64)\\\\CL.exe.*$");
+    + "\\\\bin\\\\HostX(86|64)\\\\x(86|64)\\\\CL.exe");
   private static final Pattern TOOLSET_V142_PATTERN = Pattern.compile(
     "^(?>[^\\\\]{0,260}\\\\)+VC\\\\Tools\\\\MSVC\\\\14\\.2\\d\\.\\d{1,6}"
-    + "\\\\bin\\\\HostX(86|64)\\\\x(86|64)\\\\CL.exe.*$");
+    + "\\\\bin\\\\HostX(86|64)\\\\x(86|64)\\\\CL.exe");
 
   // It seems that the required line in any language has these elements: "ClCompile" and (*.vcxproj)
   private static final Pattern PATH_TO_VCXPROJ = Pattern.compile(
     "^\\S+\\s\\\"ClCompile\\\".+\\\"((?>[^\\\\]{1,260}\\\\)*[^\\\\]{1,260}\\.vcxproj)\\\".*$");
 
+  // number of CL lines read before they are processed in parallel
+  private static final int BATCH_SIZE = 256;
+
   private String platformToolset = "V143";
   private String platform = "Win32";
 
@@ -81,15 +82,6 @@ public class MsBuild {
     this.squidConfig = squidConfig;
   }
 
-  private static List<String> getMatches(Pattern pattern, String text) {
-    var matches = new ArrayList<String>();
-    var m = pattern.matcher(text);
-    while (m.find()) {
-      matches.add(m.group(1));
-    }
-    return matches;
-  }
-
   public void setPlatform(String platform) {
     this.platform = platform;
   }
@@ -110,7 +102,9 @@ public class MsBuild {
    * @param compilationFile
    */
   public void parse(String line, String projectPath, String compilationFile) {
-    this.parseVCppCompilerCLLine(line, projectPath, compilationFile);
+    var unit = new Unit(line, projectPath, compilationFile, platform, platformToolset);
+    parseVCppCompilerCLLine(unit);
+    addUnit(unit);
   }
 
   /**
@@ -128,9 +122,12 @@ public class MsBuild {
       String line;
       LOG.debug("build log parser baseDir='{}'", baseDir);
       var currentProjectPath = Path.of(baseDir);
+      var batch = new ArrayList<Unit>(BATCH_SIZE);
 
+      // the lines are checked for literals first, the patterns are only evaluated for the remaining lines
       while ((line = br.readLine()) != null) {
-        if (line.trim().startsWith("INCLUDE=")) { // handle environment includes
+        String lineTrimmed = line.trim();
+        if (lineTrimmed.startsWith("INCLUDE=")) { // handle environment includes
           String[] includes = line.split("=")[1].split(";");
           for (var include : includes) {
             squidConfig.add(CxxSquidConfiguration.GLOBAL, CxxSquidConfiguration.INCLUDE_DIRECTORIES, include);
@@ -143,35 +140,44 @@ public class MsBuild {
         // from project
         // "D:\Development\SonarQube\cxx\sonar-cxx\integration-tests\testdata\googletest_bullseye_vs_project\
         //         PathHandling.Test\PathHandling.Test.vcxproj" (target "_ClCompile" depends on it):
-        if (PATH_TO_VCXPROJ.matcher(line).matches()) {
-          String pathProject = getMatches(PATH_TO_VCXPROJ, line).get(0);
-          currentProjectPath = Path.of(pathProject).getParent();
+        if (line.contains(".vcxproj\"") && line.contains("\"ClCompile\"")) {
+          var matcher = PATH_TO_VCXPROJ.matcher(line);
+          if (matcher.matches()) {
+            currentProjectPath = Path.of(matcher.group(1)).getParent();
 
-          if (currentProjectPath == null) {
-            currentProjectPath = Path.of(baseDir);
-          }
+            if (currentProjectPath == null) {
+              currentProjectPath = Path.of(baseDir);
+            }
 
-          LOG.debug("build log parser currentProjectPath='{}'", currentProjectPath);
+            LOG.debug("build log parser currentProjectPath='{}'", currentProjectPath);
+          }
         }
         // 1>Task "Message"
         // 1>  Configuration=Debug
         // 1>Done executing task "Message".
         // 1>Task "Message"
         //1>  Platform=Win32
-        String lineTrimmed = line.trim();
-        if (lineTrimmed.endsWith("Platform=x64") || PLATFORM_X86_PATTERN.matcher(lineTrimmed).matches()) {
+        if (lineTrimmed.endsWith("Platform=x64")
+          || (lineTrimmed.startsWith("Building solution configuration ")
+          && PLATFORM_X86_PATTERN.matcher(lineTrimmed).matches())) {
           setPlatform("x64");
           LOG.debug("build log parser platform='{}'", this.platform);
         }
         // match "bin\CL.exe", "bin\amd64\CL.exe", "bin\x86_amd64\CL.exe"
-        if (PATH_TO_CL_PATTERN.matcher(line).matches()) {
+        if (containsClExe(line) && PATH_TO_CL_PATTERN.matcher(line).lookingAt()) {
           detectedPlatform = setPlatformToolsetFromLine(line);
-          String[] allElems = line.split("\\s++");
-          String data = allElems[allElems.length - 1];
-          parseCLParameters(line, currentProjectPath, data);
+          var unit = createUnit(line, currentProjectPath, lastArgument(line));
+          if (unit != null) {
+            batch.add(unit);
+            if (batch.size() == BATCH_SIZE) {
+              addUnits(batch);
+              batch.clear();
+            }
+          }
           LOG.debug("build log parser cl.exe line='{}'", line);
         }
       }
+      addUnits(batch);
     } catch (IOException e) {
       LOG.error("Cannot parse build log: {}", e.getMessage(), e);
     }
@@ -211,11 +217,11 @@ public class MsBuild {
       setPlatformToolset("V140");
       return true;
     } else if (line.contains("\\V141\\Microsoft.CppBuild.targets")
-      || TOOLSET_V141_PATTERN.matcher(line).matches()) {
+      || TOOLSET_V141_PATTERN.matcher(line).lookingAt()) {
       setPlatformToolset("V141");
       return true;
     } else if (line.contains("\\V142\\Microsoft.CppBuild.targets")
-      || TOOLSET_V142_PATTERN.matcher(line).matches()) {
+      || TOOLSET_V142_PATTERN.matcher(line).lookingAt()) {
       setPlatformToolset("V142");
       return true;
     } else {
@@ -224,75 +230,196 @@ public class MsBuild {
     return false;
   }
 
+  /**
+   * The settings of a CL line only depend on the line and on the state of the log parser when the line was read. The
+   * lines are evaluated in parallel, the results are added to the configuration in the order of the log file.
+   */
+  private void addUnits(List<Unit> units) {
+    units.parallelStream().forEach(this::parseVCppCompilerCLLine);
+    for (var unit : units) {
+      addUnit(unit);
+    }
+  }
+
+  private void addUnit(Unit unit) {
+    squidConfig.add(unit.file, CxxSquidConfiguration.INCLUDE_DIRECTORIES, unit.includes);
+    squidConfig.add(unit.file, CxxSquidConfiguration.DEFINES, unit.defines);
+  }
+
   /**
    * @param line
    * @param currentProjectPath
    * @param data
    */
-  private void parseCLParameters(String line, Path currentProjectPath, String data) {
+  @CheckForNull
+  private Unit createUnit(String line, Path currentProjectPath, String data) {
     String path = data.replace("\"", "");
-    String fileElement;
     try {
       // a) if path is empty: fileElement == currentProjectPath
       // b) if path is absolute: fileElement == path
       // c) otherwise fileElement == currentProjectPath\path
-      fileElement = currentProjectPath.resolve(path).toAbsolutePath().toString();
-      parseVCppCompilerCLLine(line, currentProjectPath.toAbsolutePath().toString(), fileElement);
+      String fileElement = currentProjectPath.resolve(path).toAbsolutePath().toString();
+      return new Unit(line, currentProjectPath.toAbsolutePath().toString(), fileElement, platform, platformToolset);
     } catch (InvalidPathException e) {
       LOG.warn("Cannot extract information from current element: {} - {}", data, e.getMessage(), e);
-    } catch (NullPointerException e) {
-      LOG.error("Bug in parser, please report: '{} @ {}' - '{}'", data, currentProjectPath, e);
     }
+    return null;
   }
 
-  private void parseVCppCompilerCLLine(String line, String projectPath, String fileElement) {
-    for (var includePattern : INCLUDE_PATTERNS) {
-      for (var includeElem : getMatches(includePattern, line)) {
-        parseInclude(includeElem, projectPath, fileElement);
-      }
+  private void parseVCppCompilerCLLine(Unit unit) {
+    var line = unit.line;
+    for (var includeElem : includeSwitches(line)) {
+      parseInclude(includeElem, unit);
     }
 
-    for (var definePattern : DEFINE_PATTERNS) {
-      for (var macroElem : getMatches(definePattern, line)) {
-        addMacro(macroElem, fileElement);
-      }
+    for (var macroElem : defineSwitches(line)) {
+      addMacro(macroElem, unit);
     }
 
     // https://msdn.microsoft.com/en-us/library/vstudio/b0084kay(v=vs.100).aspx
     // https://msdn.microsoft.com/en-us/library/vstudio/b0084kay(v=vs.110).aspx
     // https://msdn.microsoft.com/en-us/library/vstudio/b0084kay(v=vs.120).aspx
     // https://msdn.microsoft.com/en-us/library/vstudio/b0084kay(v=vs.140).aspx
-    parseCommonCompilerOptions(line, fileElement);
+    parseCommonCompilerOptions(line, unit);
 
-    switch (platformToolset) {
+    switch (unit.platformToolset) {
       case "V100":
-        parseV100CompilerOptions(line, fileElement);
+        parseV100CompilerOptions(line, unit);
         break;
       case "V110":
-        parseV110CompilerOptions(line, fileElement);
+        parseV110CompilerOptions(line, unit);
         break;
       case "V120":
-        parseV120CompilerOptions(line, fileElement);
+        parseV120CompilerOptions(line, unit);
         break;
       case "V140":
-        parseV140CompilerOptions(line, fileElement);
+        parseV140CompilerOptions(line, unit);
         break;
       case "V141":
-        parseV141CompilerOptions(line, fileElement);
+        parseV141CompilerOptions(line, unit);
         break;
       case "V142":
-        parseV142CompilerOptions(line, fileElement);
+        parseV142CompilerOptions(line, unit);
         break;
       case "V143":
-        parseV143CompilerOptions(line, fileElement);
+        parseV143CompilerOptions(line, unit);
         break;
       default:
       // do nothing
     }
   }
 
-  private void parseInclude(String element, String project, String fileElement) {
+  /**
+   * Include directories of a CL line: the values of the switches {@code /I"dir"} followed by the values of the
+   * switches {@code /Idir } (terminated by a blank).
+   */
+  static List<String> includeSwitches(String line) {
+    var result = new ArrayList<String>();
+    var i = line.indexOf("/I\"");
+    while (i >= 0) {
+      var start = i + 3;
+      var end = start;
+      while (end < line.length() && line.charAt(end) != '"' && !isLineTerminator(line.charAt(end))) {
+        end++;
+      }
+      if (end < line.length() && line.charAt(end) == '"') {
+        result.add(line.substring(start, end));
+        i = line.indexOf("/I\"", end + 1);
+      } else {
+        i = line.indexOf("/I\"", i + 1);
+      }
+    }
+
+    i = line.indexOf("/I");
+    while (i >= 0) {
+      var start = i + 2;
+      var end = start;
+      while (end < line.length() && line.charAt(end) != '"' && !isSpace(line.charAt(end))) {
+        end++;
+      }
+      if (end > start && end < line.length() && line.charAt(end) == ' ') {
+        result.add(line.substring(start, end));
+        i = line.indexOf("/I", end + 1);
+      } else {
+        i = line.indexOf("/I", i + 1);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Macros of a CL line: the values of the switches {@code /D macro} or {@code -D macro} followed by the values of the
+   * switches {@code /Dmacro} or {@code -Dmacro}.
+   */
+  static List<String> defineSwitches(String line) {
+    var result = new ArrayList<String>();
+    addDefineSwitches(line, true, result);
+    addDefineSwitches(line, false, result);
+    return result;
+  }
+
+  private static void addDefineSwitches(String line, boolean separated, List<String> result) {
+    var i = 0;
+    while (i < line.length() - 2) {
+      var c = line.charAt(i);
+      var start = i + (separated ? 3 : 2);
+      if ((c == '/' || c == '-') && line.charAt(i + 1) == 'D' && (!separated || isSpace(line.charAt(i + 2)))) {
+        var end = start;
+        while (end < line.length() && !isSpace(line.charAt(end))) {
+          end++;
+        }
+        if (end > start) {
+          result.add(line.substring(start, end));
+          i = end;
+          continue;
+        }
+      }
+      i++;
+    }
+  }
+
+  /**
+   * The file of a CL line is its last argument.
+   */
+  private static String lastArgument(String line) {
+    var end = line.length();
+    while (end > 0 && isSpace(line.charAt(end - 1))) {
+      end--;
+    }
+    var start = end;
+    while (start > 0 && !isSpace(line.charAt(start - 1))) {
+      start--;
+    }
+    return line.substring(start, end);
+  }
+
+  /**
+   * Literal part of PATH_TO_CL_PATTERN: "CL", any character, "exe ".
+   */
+  private static boolean containsClExe(String line) {
+    var i = line.indexOf("exe ", 3);
+    while (i >= 0) {
+      if (line.startsWith("CL", i - 3)) {
+        return true;
+      }
+      i = line.indexOf("exe ", i + 1);
+    }
+    return false;
+  }
+
+  // \s of regular expressions
+  private static boolean isSpace(char c) {
+    return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+  }
+
+  // characters not matched by . of regular expressions
+  private static boolean isLineTerminator(char c) {
+    return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+  }
+
+  private static void parseInclude(String element, Unit unit) {
     try {
+      var project = unit.projectPath;
       var includeRoot = new File(element.replace("\"", ""));
       var p = Path.of(project);
       if (!includeRoot.isAbsolute()) {
@@ -304,50 +431,53 @@ public class MsBuild {
           includeRoot = new File(project, includeRoot.getPath());
         }
       }
-      squidConfig.add(fileElement, CxxSquidConfiguration.INCLUDE_DIRECTORIES, includeRoot.getCanonicalPath());
+      unit.includes.add(includeRoot.getCanonicalPath());
     } catch (IOException e) {
       LOG.error("Cannot parse include path using element '{}' : '{}'", element, e.getMessage(), e);
     }
   }
 
-  private void addMacro(String macroElem, String file) {
+  private static void addMacro(String macroElem, Unit unit) {
     String macro = macroElem.replace('=', ' ');
-    squidConfig.add(file, CxxSquidConfiguration.DEFINES, macro);
+    unit.defines.add(macro);
   }
 
-  private boolean existMacro(String macroElem, String file) {
+  private boolean existMacro(String macroElem, Unit unit) {
     String macro = macroElem.replace('=', ' ');
-    List<String> values = squidConfig.getValues(file, CxxSquidConfiguration.DEFINES);
+    if (unit.defines.contains(macro)) {
+      return true;
+    }
+    List<String> values = squidConfig.getValues(unit.file, CxxSquidConfiguration.DEFINES);
     return values.contains(macro);
   }
 
-  private void parseCommonCompilerOptions(String line, String fileElement) {
+  private void parseCommonCompilerOptions(String line, Unit unit) {
     // Always Defined //
     //_INTEGRAL_MAX_BITS Reports the maximum size (in bits) for an integral type.
-    addMacro("_INTEGRAL_MAX_BITS=64", fileElement);
+    addMacro("_INTEGRAL_MAX_BITS=64", unit);
     //_MSC_BUILD Evaluates to the revision number component of the compiler's version number. The revision number is
     // the fourth component of the period-delimited version number. For example, if the version number of the
     // Visual C++ compiler is 15.00.20706.01, the _MSC_BUILD macro evaluates to 1.
-    addMacro("_MSC_BUILD=1", fileElement);
+    addMacro("_MSC_BUILD=1", unit);
     //__COUNTER__ Expands to an integer starting with 0 and incrementing by 1 every time it is used in a source file
     // or included headers of the source file. __COUNTER__ remembers its state when you use precompiled headers.
-    addMacro("__COUNTER__=0", fileElement);
+    addMacro("__COUNTER__=0", unit);
     //__DATE__ The compilation date of the current source file. The date is a string literal of the form Mmm dd yyyy.
     // The month name Mmm is the same as for dates generated by the library function asctime declared in TIME.H.
-    addMacro("__DATE__=\"??? ?? ????\"", fileElement);
+    addMacro("__DATE__=\"??? ?? ????\"", unit);
     //__FILE__ The name of the current source file. __FILE__ expands to a string surrounded by double quotation marks.
     // To ensure that the full path to the file is displayed, use /FC (Full Path of Source Code File in Diagnostics).
-    addMacro("__FILE__=\"file\"", fileElement);
+    addMacro("__FILE__=\"file\"", unit);
     //__LINE__ The line number in the current source file. The line number is a decimal integer constant.
     // It can be changed with a #line directive.
-    addMacro("__LINE__=1", fileElement);
+    addMacro("__LINE__=1", unit);
     //__TIME__ The most recent compilation time of the current source file.
     // The time is a string literal of the form hh:mm:ss.
-    addMacro("__TIME__=\"??:??:??\"", fileElement);
+    addMacro("__TIME__=\"??:??:??\"", unit);
     //__TIMESTAMP__ The date and time of the last modification of the current source file,
     // expressed as a string literal in the form Ddd Mmm Date hh:mm:ss yyyy, where Ddd is
     // the abbreviated day of the week and Date is an integer from 1 to 31.
-    addMacro("__TIMESTAMP__=\"??? ?? ???? ??:??:??\"", fileElement);
+    addMacro("__TIMESTAMP__=\"??? ?? ???? ??:??:??\"", unit);
     // _M_IX86
     //    /GB _M_IX86 = 600 Blend
     //    /G5 _M_IX86 = 500 (Default. Future compilers will emit a different value to reflect the
@@ -356,16 +486,16 @@ public class MsBuild {
     //    /G3 _M_IX86 = 300  80386
     //    /G4 _M_IX86 = 400  80486
     if (line.contains("/GB ") || line.contains("/G6")) {
-      addMacro("_M_IX86=600", fileElement);
+      addMacro("_M_IX86=600", unit);
     }
     if (line.contains("/G5")) {
-      addMacro("_M_IX86=500", fileElement);
+      addMacro("_M_IX86=500", unit);
     }
     if (line.contains("/G3")) {
-      addMacro("_M_IX86=300", fileElement);
+      addMacro("_M_IX86=300", unit);
     }
     if (line.contains("/G4")) {
-      addMacro("_M_IX86=400", fileElement);
+      addMacro("_M_IX86=400", unit);
     }
     //_M_IX86_FP Expands to a value indicating which /arch compiler option was used:
     //    0 if /arch was not used.
@@ -373,20 +503,20 @@ public class MsBuild {
     //    2 if /arch:SSE2 was used.
     // Expands to an integer literal value indicating which /arch compiler option was used.
     // The default value is '2' if /arch was not specified
-    addMacro("_M_IX86_FP=2", fileElement);
+    addMacro("_M_IX86_FP=2", unit);
     if (line.contains("/arch:IA32")) {
-      addMacro("_M_IX86_FP=0", fileElement);
+      addMacro("_M_IX86_FP=0", unit);
     }
     if (line.contains("/arch:SSE")) {
-      addMacro("_M_IX86_FP=1", fileElement);
+      addMacro("_M_IX86_FP=1", unit);
     }
     //arch:ARMv7VE or /arch:VFPv4
     if (line.contains("/arch:ARMv7VE")) {
-      addMacro("_M_ARM=7", fileElement);
-      addMacro("_M_ARM_ARMV7VE=1", fileElement);
+      addMacro("_M_ARM=7", unit);
+      addMacro("_M_ARM_ARMV7VE=1", unit);
     }
     if (line.contains("/arch:VFPv4")) {
-      addMacro("_M_ARM=7", fileElement);
+      addMacro("_M_ARM=7", unit);
     }
     // WinCE and WinRT
     // see https://en.wikipedia.org/wiki/ARM_architecture
@@ -400,35 +530,35 @@ public class MsBuild {
       // In the range 30-39 if no /arch ARM option was specified, indicating the default architecture
       //   for ARM was used (VFPv3).
       // In the range 40-49 if /arch:VFPv4 was used.
-      addMacro("_M_ARM_FP", fileElement);
+      addMacro("_M_ARM_FP", unit);
     }
     // __STDC__ Indicates full conformance with the ANSI C standard. Defined as the integer constant 1 only if
     // the /Za compiler option is given and you are not compiling C++ code; otherwise is undefined.
     if (line.contains("/Za ")) {
-      addMacro("__STDC__=1", fileElement);
+      addMacro("__STDC__=1", unit);
     }
 
     //_CHAR_UNSIGNED Default char type is unsigned. Defined when /J is specified.
     if (line.contains("/J ")) {
-      addMacro("_CHAR_UNSIGNED=1", fileElement);
+      addMacro("_CHAR_UNSIGNED=1", unit);
     }
 
     //_CPPRTTI Defined for code compiled with /GR (Enable Run-Time Type Information).
     if (line.contains("/GR ")) {
-      addMacro("_CPPRTTI", fileElement);
+      addMacro("_CPPRTTI", unit);
     }
 
     //_MANAGED Defined to be 1 when /clr is specified.
     if (line.contains("/clr ")) {
-      addMacro("_MANAGED", fileElement);
+      addMacro("_MANAGED", unit);
     }
     //_M_CEE_PURE Defined for a compilation that uses /clr:pure.
     if (line.contains("/clr:pure ")) {
-      addMacro("_M_CEE_PURE", fileElement);
+      addMacro("_M_CEE_PURE", unit);
     }
     //_M_CEE_SAFE Defined for a compilation that uses /clr:safe.
     if (line.contains("/clr:safe ")) {
-      addMacro("_M_CEE_SAFE", fileElement);
+      addMacro("_M_CEE_SAFE", unit);
     }
     // __CLR_VER Defines the version of the common language runtime used when the application was compiled.
     // The value returned will be in the following format:
@@ -437,68 +567,68 @@ public class MsBuild {
     //_M_CEE Defined for a compilation that uses any form of /clr (/clr:oldSyntax, /clr:safe, for example).
     if (line.contains("/clr")) {
 
-      addMacro("_M_CEE", fileElement);
-      addMacro("__cplusplus_cli=200406", fileElement);
-      addMacro("__CLR_VER", fileElement);
+      addMacro("_M_CEE", unit);
+      addMacro("__cplusplus_cli=200406", unit);
+      addMacro("__CLR_VER", unit);
       if (line.contains("/clr:pure ")) {
-        addMacro("_M_CEE_PURE", fileElement);
+        addMacro("_M_CEE_PURE", unit);
       }
       if (line.contains("/clr:safe ")) {
-        addMacro("_M_CEE_SAFE", fileElement);
+        addMacro("_M_CEE_SAFE", unit);
       }
     }
 
     //_MSC_EXTENSIONS This macro is defined when you compile with the /Ze compiler option (the default).
     //Its value, when defined, is 1.
     if (line.contains("/Ze ")) {
-      addMacro("_MSC_EXTENSIONS", fileElement);
+      addMacro("_MSC_EXTENSIONS", unit);
     }
 
     //__MSVC_RUNTIME_CHECKS Defined when one of the /RTC compiler options is specified.
     if (line.contains("/RTC ")) {
-      addMacro("__MSVC_RUNTIME_CHECKS", fileElement);
+      addMacro("__MSVC_RUNTIME_CHECKS", unit);
     }
 
     //_DEBUG Defined when you compile with /LDd, /MDd, and /MTd.
     if (line.contains("/LDd ")) {
-      addMacro("_DEBUG", fileElement);
+      addMacro("_DEBUG", unit);
     }
     //_DLL Defined when /MD or /MDd (Multithreaded DLL) is specified.
     if (line.contains("/MD ") || line.contains("/MDd ")) {
-      addMacro("_DLL", fileElement);
+      addMacro("_DLL", unit);
     }
     //_MT Defined when /MD (Multithreaded DLL) or /MT (Multithreaded) is specified.
     if (line.contains("/MD ") || line.contains("/MT ")) {
-      addMacro("_MT", fileElement);
+      addMacro("_MT", unit);
     }
     //_MT Defined when /MDd (Multithreaded DLL) or /MTd (Multithreaded) is specified.
     if (line.contains("/MDd ") || line.contains("/MTd ")) {
-      addMacro("_MT", fileElement);
-      addMacro("_DEBUG", fileElement);
+      addMacro("_MT", unit);
+      addMacro("_DEBUG", unit);
     }
     //_OPENMP Defined when compiling with /openmp, returns an integer representing the date of the
     // OpenMP specification implemented by Visual C++.
     if (line.contains("/openmp ")) {
-      addMacro("_OPENMP=200203", fileElement);
+      addMacro("_OPENMP=200203", unit);
     }
 
     //_VC_NODEFAULTLIB Defined when /Zl is used; see /Zl (Omit Default Library Name) for more information.
     if (line.contains("/Zl ")) {
-      addMacro("_VC_NODEFAULTLIB", fileElement);
+      addMacro("_VC_NODEFAULTLIB", unit);
     }
 
     //_NATIVE_WCHAR_T_DEFINED Defined when /Zc:wchar_t is used.
     //_WCHAR_T_DEFINED Defined when /Zc:wchar_t is used or if wchar_t is defined in a system header file
     // included in your project.
     if (line.contains("/Zc:wchar_t ")) {
-      addMacro("_WCHAR_T_DEFINED=1", fileElement);
-      addMacro("_NATIVE_WCHAR_T_DEFINED=1", fileElement);
+      addMacro("_WCHAR_T_DEFINED=1", unit);
+      addMacro("_NATIVE_WCHAR_T_DEFINED=1", unit);
     }
 
     //_Wp64 Defined when specifying /Wp64. Deprecated in Visual Studio 2010 and Visual Studio 2012,
     // and not supported starting in Visual Studio 2013
     if (line.contains("/Wp64 ")) {
-      addMacro("_Wp64", fileElement);
+      addMacro("_Wp64", unit);
     }
 
     //_M_AMD64 Defined for x64 processors.
@@ -508,19 +638,19 @@ public class MsBuild {
     //_M_IX86 Defined for x86 processors. See the Values for _M_IX86 table below for more information.
     //  This is not defined for x64 processors.
     //_M_IA64 Defined for Itanium Processor Family 64-bit processors.
-    if ("x64".equals(platform) || line.contains("/D WIN64")) {
+    if ("x64".equals(unit.platform) || line.contains("/D WIN64")) {
       // Defined for compilations that target x64 processors.
-      addMacro("_WIN32", fileElement);
+      addMacro("_WIN32", unit);
       // This is not defined for x86 processors.
-      addMacro("_WIN64", fileElement);
-      addMacro("_M_X64=100", fileElement);
-      addMacro("_M_IA64", fileElement);
-      addMacro("_M_AMD64", fileElement);
-    } else if ("Win32".equals(platform)) {
+      addMacro("_WIN64", unit);
+      addMacro("_M_X64=100", unit);
+      addMacro("_M_IA64", unit);
+      addMacro("_M_AMD64", unit);
+    } else if ("Win32".equals(unit.platform)) {
       // Defined for compilations that target x86 processors.
-      addMacro("_WIN32", fileElement);
+      addMacro("_WIN32", unit);
       //This is not defined for x64 processors.
-      addMacro("_M_IX86=600", fileElement);
+      addMacro("_M_IX86=600", unit);
     } else {
       // do nothing
     }
@@ -530,114 +660,137 @@ public class MsBuild {
       || line.contains("/EHa ")
       || line.contains("/EHsc ")
       || line.contains("/EHac ")) {
-      addMacro("_CPPUNWIND", fileElement);
+      addMacro("_CPPUNWIND", unit);
     }
-    if (line.contains("/favor:ATOM") && (existMacro(MSC_X64_100, fileElement)
-      || existMacro(MSC_IX86_600, fileElement))) {
-      addMacro("__ATOM__=1", fileElement);
+    if (line.contains("/favor:ATOM") && (existMacro(MSC_X64_100, unit)
+      || existMacro(MSC_IX86_600, unit))) {
+      addMacro("__ATOM__=1", unit);
     }
-    if (line.contains("/arch:AVX") && (existMacro(MSC_X64_100, fileElement)
-      || existMacro(MSC_IX86_600, fileElement))) {
-      addMacro("__AVX__=1", fileElement);
+    if (line.contains("/arch:AVX") && (existMacro(MSC_X64_100, unit)
+      || existMacro(MSC_IX86_600, unit))) {
+      addMacro("__AVX__=1", unit);
     }
-    if (line.contains("/arch:AVX2") && (existMacro(MSC_X64_100, fileElement)
-      || existMacro(MSC_IX86_600, fileElement))) {
-      addMacro("__AVX2__=1", fileElement);
+    if (line.contains("/arch:AVX2") && (existMacro(MSC_X64_100, unit)
+      || existMacro(MSC_IX86_600, unit))) {
+      addMacro("__AVX2__=1", unit);
     }
   }
 
-  private void parseV100CompilerOptions(String line, String fileElement) {
+  private static void parseV100CompilerOptions(String line, Unit unit) {
     // Visual Studio 2010 SP1 [10.0]
-    addMacro("__cplusplus=199711L", fileElement);
+    addMacro("__cplusplus=199711L", unit);
     // __cplusplus_winrt Defined when you use the /ZW option to compile. The value of __cplusplus_winrt is 201009.
     if (line.contains("/ZW ")) {
-      addMacro("__cplusplus_winrt=201009", fileElement);
+      addMacro("__cplusplus_winrt=201009", unit);
     }
-    addMacro("_MSC_VER=1600", fileElement);
-    addMacro("_MSC_FULL_VER=160040219", fileElement);
-    addMacro("_MFC_VER=0x0A00", fileElement);
-    addMacro("_ATL_VER=0x0A00", fileElement);
+    addMacro("_MSC_VER=1600", unit);
+    addMacro("_MSC_FULL_VER=160040219", unit);
+    addMacro("_MFC_VER=0x0A00", unit);
+    addMacro("_ATL_VER=0x0A00", unit);
     if (line.contains("/GX ")) {
-      addMacro("_CPPUNWIND", fileElement);
+      addMacro("_CPPUNWIND", unit);
     }
   }
 
-  private void parseV110CompilerOptions(String line, String fileElement) {
+  private static void parseV110CompilerOptions(String line, Unit unit) {
     // Visual Studio 2012 Update 4 [11.0]
-    addMacro("__cplusplus=199711L", fileElement);
+    addMacro("__cplusplus=199711L", unit);
     // __cplusplus_winrt Defined when you use the /ZW option to compile. The value of __cplusplus_winrt is 201009.
     if (line.contains("/ZW ")) {
-      addMacro("__cplusplus_winrt=201009", fileElement);
+      addMacro("__cplusplus_winrt=201009", unit);
     }
-    addMacro("_MSC_VER=1700", fileElement);
-    addMacro("_MSC_FULL_VER=170061030", fileElement);
-    addMacro("_MFC_VER=0x0B00", fileElement);
-    addMacro("_ATL_VER=0x0B00", fileElement);
+    addMacro("_MSC_VER=1700", unit);
+    addMacro("_MSC_FULL_VER=170061030", unit);
+    addMacro("_MFC_VER=0x0B00", unit);
+    addMacro("_ATL_VER=0x0B00", unit);
   }
 
-  private void parseV120CompilerOptions(String line, String fileElement) {
+  private static void parseV120CompilerOptions(String line, Unit unit) {
     // Visual Studio 2013 Update 5 [12.0]
-    addMacro("__cplusplus=199711L", fileElement);
+    addMacro("__cplusplus=199711L", unit);
     // __cplusplus_winrt Defined when you use the /ZW option to compile. The value of __cplusplus_winrt is 201009.
     if (line.contains("/ZW ")) {
-      addMacro("__cplusplus_winrt=201009", fileElement);
+      addMacro("__cplusplus_winrt=201009", unit);
     }
-    addMacro("_MSC_VER=1800", fileElement);
-    addMacro("_MSC_FULL_VER=180040629", fileElement);
-    addMacro("_MFC_VER=0x0C00", fileElement);
-    addMacro("_ATL_VER=0x0C00", fileElement);
+    addMacro("_MSC_VER=1800", unit);
+    addMacro("_MSC_FULL_VER=180040629", unit);
+    addMacro("_MFC_VER=0x0C00", unit);
+    addMacro("_ATL_VER=0x0C00", unit);
   }
 
-  private void parseV140CompilerOptions(String line, String fileElement) {
+  private static void parseV140CompilerOptions(String line, Unit unit) {
     // Visual Studio 2015 Update 3 [14.0]
-    addMacro("__cplusplus=199711L", fileElement);
+    addMacro("__cplusplus=199711L", unit);
     // __cplusplus_winrt Defined when you use the /ZW option to compile. The value of __cplusplus_winrt is 201009.
     if (line.contains("/ZW ")) {
-      addMacro("__cplusplus_winrt=201009", fileElement);
+      addMacro("__cplusplus_winrt=201009", unit);
     }
-    addMacro("_MSC_VER=1900", fileElement);
-    addMacro("_MSC_FULL_VER=190024210", fileElement);
-    addMacro("_MFC_VER=0x0E00", fileElement);
-    addMacro("_ATL_VER=0x0E00", fileElement);
+    addMacro("_MSC_VER=1900", unit);
+    addMacro("_MSC_FULL_VER=190024210", unit);
+    addMacro("_MFC_VER=0x0E00", unit);
+    addMacro("_ATL_VER=0x0E00", unit);
   }
 
-  private void parseV141CompilerOptions(String line, String fileElement) {
+  private static void parseV141CompilerOptions(String line, Unit unit) {
     // Visual Studio 2017 version 15.9.11
-    addMacro("__cplusplus=199711L", fileElement);
+    addMacro("__cplusplus=199711L", unit);
     // __cplusplus_winrt Defined when you use the /ZW option to compile. The value of __cplusplus_winrt is 201009.
     if (line.contains("/ZW ")) {
-      addMacro("__cplusplus_winrt=201009", fileElement);
+      addMacro("__cplusplus_winrt=201009", unit);
     }
-    addMacro("_MSC_VER=1910", fileElement);
-    addMacro("_MSC_FULL_VER=191627030", fileElement);
-    addMacro("_MFC_VER=0x0E00", fileElement);
-    addMacro("_ATL_VER=0x0E00", fileElement);
+    addMacro("_MSC_VER=1910", unit);
+    addMacro("_MSC_FULL_VER=191627030", unit);
+    addMacro("_MFC_VER=0x0E00", unit);
+    addMacro("_ATL_VER=0x0E00", unit);
   }
 
-  private void parseV142CompilerOptions(String line, String fileElement) {
+  private static void parseV142CompilerOptions(String line, Unit unit) {
     // Visual Studio 2019 version 16.9.2
-    addMacro("__cplusplus=201402L", fileElement);
+    addMacro("__cplusplus=201402L", unit);
     // __cplusplus_winrt Defined when you use the /ZW option to compile. The value of __cplusplus_winrt is 201009.
     if (line.contains("/ZW ")) {
-      addMacro("__cplusplus_winrt=201009", fileElement);
+      addMacro("__cplusplus_winrt=201009", unit);
     }
-    addMacro("_MSC_VER=1920", fileElement);
-    addMacro("_MSC_FULL_VER=192829913", fileElement);
-    addMacro("_MFC_VER=0x0E00", fileElement);
-    addMacro("_ATL_VER=0x0E00", fileElement);
+    addMacro("_MSC_VER=1920", unit);
+    addMacro("_MSC_FULL_VER=192829913", unit);
+    addMacro("_MFC_VER=0x0E00", unit);
+    addMacro("_ATL_VER=0x0E00", unit);
   }
 
-  void parseV143CompilerOptions(String line, String fileElement) {
+  static void parseV143CompilerOptions(String line, Unit unit) {
     // Visual Studio 2022 RTW (17.5)
-    addMacro("__cplusplus=201402L", fileElement); // C++14
+    addMacro("__cplusplus=201402L", unit); // C++14
     // __cplusplus_winrt Defined when you use the /ZW option to compile. The value of __cplusplus_winrt is 201009.
     if (line.contains("/ZW ")) {
-      addMacro("__cplusplus_winrt=201009", fileElement);
+      addMacro("__cplusplus_winrt=201009", unit);
     }
-    addMacro("_MSC_VER=1935", fileElement);
-    addMacro("_MSC_FULL_VER=193532215", fileElement);
-    addMacro("_MFC_VER=0x0E00", fileElement);
-    addMacro("_ATL_VER=0x0E00", fileElement);
+    addMacro("_MSC_VER=1935", unit);
+    addMacro("_MSC_FULL_VER=193532215", unit);
+    addMacro("_MFC_VER=0x0E00", unit);
+    addMacro("_ATL_VER=0x0E00", unit);
+  }
+
+  /**
+   * CL line with the state of the log parser when the line was read, collects the settings of the line.
+   */
+  private static final class Unit {
+
+    private final String line;
+    private final String projectPath;
+    private final String file;
+    private final String platform;
+    private final String platformToolset;
+    private final List<String> includes = new ArrayList<>();
+    private final List<String> defines = new ArrayList<>();
+
+    private Unit(String line, String projectPath, String file, String platform, String platformToolset) {
+      this.line = line;
+      this.projectPath = projectPath;
+      this.file = file;
+      this.platform = platform;
+      this.platformToolset = platformToolset;
+    }
+
   }
 
 }
@@ -22,6 +22,7 @@ package org.sonar.cxx.parser;
 import static com.sonar.cxx.sslr.api.GenericTokenType.EOF;
 import static com.sonar.cxx.sslr.api.GenericTokenType.IDENTIFIER;
 import com.sonar.cxx.sslr.api.Grammar;
+import com.sonar.cxx.sslr.api.TokenType;
 import org.sonar.cxx.config.CxxSquidConfiguration;
 import static org.sonar.cxx.parser.CxxTokenType.CHARACTER;
 import static org.sonar.cxx.parser.CxxTokenType.NUMBER;
@@ -455,6 +456,10 @@ public enum CxxGrammarImpl implements GrammarRuleKey {
 
       // eat all tokens until the next declaration is recognized
       // this works only on top level!!!
+      //
+      // a declaration is retried only at synchronization points and not after every token: braces, parentheses and
+      // square brackets are balanced, a declaration is retried after ';' or a complete '{...}' block at nesting
+      // level zero, or at the beginning of a line at nesting level zero (unless the line starts with '{')
       b.rule(recoveredDeclaration).is(
         b.oneOrMore(
           b.nextNot(
@@ -462,7 +467,12 @@ public enum CxxGrammarImpl implements GrammarRuleKey {
               declaration,
               EOF
             )
-          ), b.anyToken()
+          ), b.synchronizationPoint(
+            new TokenType[]{CxxPunctuator.SEMICOLON},
+            CxxPunctuator.CURLBR_LEFT, CxxPunctuator.CURLBR_RIGHT,
+            new TokenType[]{CxxPunctuator.BR_LEFT, CxxPunctuator.SQBR_LEFT},
+            new TokenType[]{CxxPunctuator.BR_RIGHT, CxxPunctuator.SQBR_RIGHT}
+          )
         )
       );
     } else {
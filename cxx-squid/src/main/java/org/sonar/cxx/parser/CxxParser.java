@@ -20,8 +20,10 @@
 package org.sonar.cxx.parser;
 
 import com.sonar.cxx.sslr.api.Grammar;
+import com.sonar.cxx.sslr.api.ParseBudget;
 import com.sonar.cxx.sslr.impl.Parser;
 import java.lang.ref.WeakReference;
+import javax.annotation.CheckForNull;
 import org.sonar.cxx.config.CxxSquidConfiguration;
 import org.sonar.cxx.preprocessor.CxxPreprocessor;
 import org.sonar.cxx.preprocessor.JoinStringsPreprocessor;
@@ -52,9 +54,43 @@ public final class CxxParser {
   public static Parser<Grammar> create(SquidAstVisitorContext<Grammar> context, CxxSquidConfiguration squidConfig) {
     var cxxpp = new CxxPreprocessor(context, squidConfig);
     currentPreprocessorInstance = new WeakReference<>(cxxpp);
+    var budget = createParseBudget(squidConfig);
+    cxxpp.setParseBudget(budget);
     return Parser.builder(CxxGrammarImpl.create(squidConfig))
       .withLexer(CxxLexerPool.create(squidConfig.getCharset(), cxxpp, new JoinStringsPreprocessor()).getLexer())
+      .withParseBudget(budget)
+      .withBytecodeGrammar(squidConfig.getBoolean(CxxSquidConfiguration.SONAR_PROJECT_PROPERTIES,
+                                                  CxxSquidConfiguration.PARSER_BYTECODE).orElse(Boolean.FALSE))
       .build();
   }
 
+  /**
+   * Create the per-file budget for preprocessing and parsing.
+   *
+   * @return budget or null if no limit is configured
+   */
+  @CheckForNull
+  private static ParseBudget createParseBudget(CxxSquidConfiguration squidConfig) {
+    long instructions = squidConfig.getLong(CxxSquidConfiguration.SONAR_PROJECT_PROPERTIES,
+                                            CxxSquidConfiguration.PARSE_BUDGET_INSTRUCTIONS).orElse(0L);
+    long expansionTokens = squidConfig.getLong(CxxSquidConfiguration.SONAR_PROJECT_PROPERTIES,
+                                               CxxSquidConfiguration.PARSE_BUDGET_EXPANSION_TOKENS).orElse(0L);
+    long timeout = squidConfig.getLong(CxxSquidConfiguration.SONAR_PROJECT_PROPERTIES,
+                                       CxxSquidConfiguration.PARSE_BUDGET_TIMEOUT).orElse(0L);
+    var budget = new ParseBudget(instructions, expansionTokens, timeout * 1000);
+    return budget.isLimited() ? budget : null;
+  }
+
+  /**
+   * Create a parser for the lexer-only analysis tier: the source code is preprocessed and tokenized, but not parsed.
+   * The returned tree contains the tokens as direct children of the root node.
+   */
+  public static Parser<Grammar> createLexerOnly(SquidAstVisitorContext<Grammar> context,
+                                                CxxSquidConfiguration squidConfig) {
+    var cxxpp = new CxxPreprocessor(context, squidConfig);
+    currentPreprocessorInstance = new WeakReference<>(cxxpp);
+    return new CxxTokenStreamParser(CxxGrammarImpl.create(squidConfig),
+      CxxLexerPool.create(squidConfig.getCharset(), cxxpp, new JoinStringsPreprocessor()).getLexer());
+  }
+
 }
@@ -0,0 +1,74 @@
+/*
+ * C++ Community Plugin (cxx plugin)
+ * Copyright (C) 2010-2024 SonarOpenCommunity
+ * http://github.com/SonarOpenCommunity/sonar-cxx
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.cxx.parser;
+
+import com.sonar.cxx.sslr.api.AstNode;
+import com.sonar.cxx.sslr.api.Grammar;
+import com.sonar.cxx.sslr.api.RecognitionException;
+import com.sonar.cxx.sslr.api.Token;
+import com.sonar.cxx.sslr.impl.Lexer;
+import com.sonar.cxx.sslr.impl.LexerException;
+import com.sonar.cxx.sslr.impl.Parser;
+import java.io.File;
+import java.util.List;
+
+/**
+ * Parser of the lexer-only analysis tier.
+ *
+ * The source code is only preprocessed and tokenized, the grammar is not applied. The result is a flat tree: a node of
+ * the root rule of the grammar with one child per token (including EOF). Visitors working on tokens and trivia
+ * (highlighting, CPD, comments, lines of code) get the same token stream as with a full parse.
+ */
+final class CxxTokenStreamParser extends Parser<Grammar> {
+
+  private final Lexer lexer;
+
+  CxxTokenStreamParser(Grammar grammar, Lexer lexer) {
+    super(grammar);
+    this.lexer = lexer;
+    setRootRule(grammar.getRootRule());
+  }
+
+  @Override
+  public AstNode parse(File file) {
+    try {
+      lexer.lex(file);
+    } catch (LexerException e) {
+      throw new RecognitionException(e);
+    }
+    return parse(lexer.getTokens());
+  }
+
+  @Override
+  public AstNode parse(String source) {
+    try {
+      lexer.lex(source);
+    } catch (LexerException e) {
+      throw new RecognitionException(e);
+    }
+    return parse(lexer.getTokens());
+  }
+
+  @Override
+  public AstNode parse(List<Token> tokens) {
+    return tokenTree(tokens);
+  }
+
+}
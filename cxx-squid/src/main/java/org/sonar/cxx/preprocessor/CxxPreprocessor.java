@@ -22,6 +22,7 @@ package org.sonar.cxx.preprocessor;
 import com.sonar.cxx.sslr.api.AstNode;
 import com.sonar.cxx.sslr.api.GenericTokenType;
 import com.sonar.cxx.sslr.api.Grammar;
+import com.sonar.cxx.sslr.api.ParseBudget;
 import com.sonar.cxx.sslr.api.Preprocessor;
 import com.sonar.cxx.sslr.api.PreprocessorAction;
 import com.sonar.cxx.sslr.api.Token;
@@ -35,12 +36,17 @@ import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import javax.annotation.CheckForNull;
+import javax.annotation.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.sonar.cxx.api.CxxMetric;
 import org.sonar.cxx.config.CxxSquidConfiguration;
 import org.sonar.cxx.parser.CxxKeyword;
 import org.sonar.cxx.parser.CxxLexerPool;
@@ -90,12 +96,16 @@ public class CxxPreprocessor extends Preprocessor {
 
   private static int missingFileCounter = 0;
 
+  // number of preprocessor states kept for the reuse in other translation units
+  private static final int MAX_SNAPSHOTS = 32;
+
   private final SquidAstVisitorContext<Grammar> context;
   private final CxxSquidConfiguration squidConfig;
 
   private MacroContainer<String, PPMacro> unitMacros = null;
   private MacroContainer<String, PPMacro> globalMacros = null;
   private List<String> globalIncludeDirectories = null;
+  private List<Path> globalIncludedFiles = Collections.emptyList();
 
   private File currentContextFile;
 
@@ -106,6 +116,20 @@ public class CxxPreprocessor extends Preprocessor {
   private PPInclude include = null;
 
   private final Map<Path, Boolean> fileExists = new HashMap<>();
+  private final IncludeDirectoryIndex includeDirectoryIndex = new IncludeDirectoryIndex(this::exists);
+
+  // state after the prefix of a translation unit (forced includes, first include), like a precompiled header
+  private final Map<List<Object>, Snapshot> snapshots = new LinkedHashMap<>(16, 0.75f, true) {
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<List<Object>, Snapshot> eldest) {
+      return size() > MAX_SNAPSHOTS;
+    }
+  };
+  private List<Object> prefixKey = null;
+
+  private ParseBudget parseBudget = null;
 
   public CxxPreprocessor(SquidAstVisitorContext<Grammar> context) {
     this(context, new CxxSquidConfiguration());
@@ -124,6 +148,14 @@ public class CxxPreprocessor extends Preprocessor {
     return squidConfig.getCharset();
   }
 
+  /**
+   * Set the budget charged with the tokens produced by macro expansions. Once the budget is exhausted, macros are no
+   * longer expanded.
+   */
+  public void setParseBudget(@Nullable ParseBudget parseBudget) {
+    this.parseBudget = parseBudget;
+  }
+
   /**
    * Method called before the lexing starts which can be overridden to initialize a state for instance.
    *
@@ -137,6 +169,7 @@ public class CxxPreprocessor extends Preprocessor {
     // make sure, that the following code is executed for a new file only
     if (!context.getFile().equals(currentContextFile)) {
       currentContextFile = context.getFile();
+      prefixKey = null;
 
       include = new PPInclude(this, currentContextFile.toPath());
       unitMacros = new MacroContainer<>();
@@ -154,6 +187,7 @@ public class CxxPreprocessor extends Preprocessor {
         addGlobalForcedIncludes();
         globalMacros = new MacroContainer<>();
         globalMacros.putAll(unitMacros);
+        globalIncludedFiles = List.copyOf(include.getAnalysedFiles());
 
         if (LOG.isDebugEnabled()) {
           LOG.debug("global include directories: {}", include().getStandardIncludeDirs());
@@ -179,6 +213,7 @@ public class CxxPreprocessor extends Preprocessor {
       } else {
         // use global file directories only
         include().setStandardIncludeDirs(globalIncludeDirectories, squidConfig.getBaseDir());
+        prefixKey = prefixKey(Collections.emptyList(), Collections.emptyList());
       }
     }
   }
@@ -201,8 +236,20 @@ public class CxxPreprocessor extends Preprocessor {
       return oneConsumedToken(token);
     } else if (GenericTokenType.IDENTIFIER.equals(type) || (type instanceof CxxKeyword)) {
       PPMacro macro = getMacro(token.getValue());
-      if (macro != null) {
-        return macroReplacement(macro, tokens);
+      if (macro != null && isExpansionAllowed()) {
+        var event = new MacroExpansionEvent();
+        event.begin();
+        var action = macroReplacement(macro, tokens);
+        event.end();
+        if (event.shouldCommit()) {
+          event.macro = macro.identifier;
+          event.file = String.valueOf(include().state().getFileUnderAnalysis());
+          event.line = token.getLine();
+          event.consumedTokens = action.getNumberOfConsumedTokens();
+          event.producedTokens = action.getTokensToInject().size();
+          event.commit();
+        }
+        return action;
       }
     }
 
@@ -325,6 +372,14 @@ public class CxxPreprocessor extends Preprocessor {
 
     addMissingFiles(include.getMissingFilesCounter());
 
+    // the include files are the dependencies of the translation unit: they are only known if all could be found
+    var sourceCode = context.peekSourceCode();
+    if (sourceCode != null && include.getMissingFilesCounter() == 0) {
+      var includedFiles = new LinkedHashSet<>(globalIncludedFiles);
+      includedFiles.addAll(include.getAnalysedFiles());
+      sourceCode.addData(CxxMetric.INCLUDED_FILES_DATA, new ArrayList<>(includedFiles));
+    }
+
     unitMacros = null;
     include = null;
     currentContextFile = null;
@@ -343,6 +398,21 @@ public class CxxPreprocessor extends Preprocessor {
     return fileExists.computeIfAbsent(fileName, Files::isRegularFile);
   }
 
+  /**
+   * Tests whether a file exists in a directory.
+   *
+   * The entries of the directories are listed once and searched in memory, only a found file is tested with the file
+   * system. Intended for the search in include directories, where most lookups fail.
+   *
+   * @param dir the directory to search in
+   * @param fileName relative path of the file
+   * @return {@code true} if the file exists; {@code false} if the file does not exist or its existence cannot be
+   * determined.
+   */
+  public boolean exists(Path dir, Path fileName) {
+    return includeDirectoryIndex.exists(dir, fileName);
+  }
+
   private void addPredefinedMacros() {
     for (var macro : PPPredefinedMacros.predefinedMacroValues()) {
       squidConfig.add(CxxSquidConfiguration.PREDEFINED_MACROS, CxxSquidConfiguration.DEFINES, macro);
@@ -394,15 +464,71 @@ public class CxxPreprocessor extends Preprocessor {
    */
   private boolean addUnitForcedIncludes(String level) {
     int oldHash = unitMacros.hashCode();
-    for (var file : squidConfig.getLevelValues(level, CxxSquidConfiguration.FORCE_INCLUDES)) {
-      if (!file.isEmpty()) {
+    var forcedIncludes = squidConfig.getLevelValues(level, CxxSquidConfiguration.FORCE_INCLUDES);
+    forcedIncludes.removeIf(String::isEmpty);
+    var key = prefixKey(squidConfig.getLevelValues(level, CxxSquidConfiguration.DEFINES), forcedIncludes);
+    if (!forcedIncludes.isEmpty() && !restoreSnapshot(key)) {
+      int missingFiles = include().getMissingFilesCounter();
+      for (var file : forcedIncludes) {
         LOG.debug("parsing force include: '{}'", file);
         parseIncludeLine("#include \"" + file + "\"");
       }
+      saveSnapshot(key, missingFiles);
     }
+    prefixKey = key;
     return oldHash != unitMacros.hashCode();
   }
 
+  /**
+   * Key of the preprocessor state at the begin of a translation unit: with the same macros, include directories and
+   * forced include files the result of processing the same include file is the same.
+   */
+  private List<Object> prefixKey(List<String> defines, List<String> forcedIncludes) {
+    var key = new ArrayList<Object>();
+    key.add(defines);
+    key.add(List.copyOf(include().getStandardIncludeDirs()));
+    key.add(Set.copyOf(include().getAnalysedFiles()));
+    for (var file : forcedIncludes) {
+      key.add(String.valueOf(include().searchFile(file, true)));
+    }
+    return key;
+  }
+
+  /**
+   * The first include file of a translation unit (e.g. "stdafx.h") is processed only once for all units with the same
+   * state, later units restore the resulting state.
+   */
+  private void handleFirstInclude(AstNode ast, Token token) {
+    var key = new ArrayList<>(prefixKey);
+    prefixKey = null;
+    var fileName = include().searchFile(ast);
+    key.add(String.valueOf(fileName));
+    if (!restoreSnapshot(key)) {
+      int missingFiles = include().getMissingFilesCounter();
+      include().handleFile(fileName, token);
+      saveSnapshot(key, missingFiles);
+    }
+  }
+
+  private void saveSnapshot(List<Object> key, int missingFiles) {
+    var macros = new MacroContainer<String, PPMacro>();
+    macros.putAll(unitMacros);
+    snapshots.put(key, new Snapshot(macros, Set.copyOf(include().getAnalysedFiles()),
+                                    include().getMissingFilesCounter() - missingFiles));
+  }
+
+  private boolean restoreSnapshot(List<Object> key) {
+    var snapshot = snapshots.get(key);
+    if (snapshot == null) {
+      return false;
+    }
+    LOG.debug("restore preprocessor state of '{}'", key.get(key.size() - 1));
+    unitMacros = new MacroContainer<>();
+    unitMacros.putAll(snapshot.macros());
+    include().addAnalysedFiles(snapshot.analysedFiles(), snapshot.missingFiles());
+    return true;
+  }
+
   private void parseIncludeLine(String includeLine) {
     AstNode astNode = lineParser(includeLine);
     if (astNode != null) {
@@ -541,6 +667,7 @@ public class CxxPreprocessor extends Preprocessor {
 
   private PreprocessorAction handleDefineLine(AstNode ast, Token token) {
     if (!include().state().skipTokens()) {
+      prefixKey = null;
       // Here we have a define directive. Parse it and store the macro in a dictionary.
       PPMacro macro = PPMacro.create(ast);
       unitMacros.put(macro.identifier, macro);
@@ -551,6 +678,7 @@ public class CxxPreprocessor extends Preprocessor {
 
   private PreprocessorAction handleUndefLine(AstNode ast, Token token) {
     if (!include().state().skipTokens()) {
+      prefixKey = null;
       String macroName = ast.getFirstDescendant(GenericTokenType.IDENTIFIER).getTokenValue();
       unitMacros.remove(macroName);
     }
@@ -559,7 +687,11 @@ public class CxxPreprocessor extends Preprocessor {
 
   private PreprocessorAction handleIncludeLine(AstNode ast, Token token) {
     if (!include().state().skipTokens()) {
-      include().handleFile(ast, token);
+      if (prefixKey != null) {
+        handleFirstInclude(ast, token);
+      } else {
+        include().handleFile(ast, token);
+      }
     }
 
     return oneConsumedToken(token);
@@ -616,6 +748,10 @@ public class CxxPreprocessor extends Preprocessor {
     }
 
     if (consumedTokens > 0) {
+      if (parseBudget != null) {
+        parseBudget.chargeExpansion(result.size());
+      }
+
       // Rescanning to expand function like macros, in case it requires consuming more tokens
       unitMacros.pushDisable(macro.identifier);
       List<Token> rescanningResult = new ArrayList<>();
@@ -639,7 +775,7 @@ public class CxxPreprocessor extends Preprocessor {
       var action = PreprocessorAction.NO_OPERATION;
       if (GenericTokenType.IDENTIFIER.equals(firstToken.getType())) {
         PPMacro macro = getMacro(firstToken.getValue());
-        if (macro != null) {
+        if (macro != null && isExpansionAllowed()) {
           List<Token> rest = new ArrayList<>(view);
           rest.addAll(tokens.subList(consumedTokens, tokens.size()));
           action = macroReplacement(macro, rest);
@@ -662,6 +798,10 @@ public class CxxPreprocessor extends Preprocessor {
     return consumedTokens;
   }
 
+  private boolean isExpansionAllowed() {
+    return parseBudget == null || !parseBudget.isExceeded();
+  }
+
   private static PreprocessorAction oneConsumedToken(Token token) {
     return new PreprocessorAction(
       1,
@@ -670,4 +810,7 @@ public class CxxPreprocessor extends Preprocessor {
     );
   }
 
+  private record Snapshot(MacroContainer<String, PPMacro> macros, Set<Path> analysedFiles, int missingFiles) {
+  }
+
 }
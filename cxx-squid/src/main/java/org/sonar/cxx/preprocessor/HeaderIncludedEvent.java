@@ -0,0 +1,48 @@
+/*
+ * C++ Community Plugin (cxx plugin)
+ * Copyright (C) 2010-2024 SonarOpenCommunity
+ * http://github.com/SonarOpenCommunity/sonar-cxx
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.cxx.preprocessor;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event: an include file was read by the preprocessor to collect its macros.
+ */
+@Name("org.sonar.cxx.HeaderIncluded")
+@Label("Header Included")
+@Description("Preprocessing of an include file, nested includes are part of the duration")
+@Category({"C++", "Preprocessor"})
+@StackTrace(false)
+final class HeaderIncludedEvent extends Event {
+
+  @Label("Include File")
+  String path;
+
+  @Label("Including File")
+  String includingFile;
+
+  @Label("Characters")
+  int characters;
+
+}
@@ -0,0 +1,152 @@
+/*
+ * C++ Community Plugin (cxx plugin)
+ * Copyright (C) 2010-2024 SonarOpenCommunity
+ * http://github.com/SonarOpenCommunity/sonar-cxx
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.cxx.preprocessor;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.NotDirectoryException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Index of the directory entries of include directories.
+ *
+ * A directory is listed once, on first use. Searching a header in a directory is a lookup of the path segments in the
+ * listings, only the file found is checked with the file system. Header names differing only in case from the directory
+ * entry are also checked with the file system, they exist on case-insensitive file systems.
+ *
+ * The listings live as long as the index, they are not persisted between analyses.
+ */
+class IncludeDirectoryIndex {
+
+  private static final Listing UNREADABLE = new Listing(new HashSet<>());
+
+  private final Predicate<Path> isRegularFile;
+  private final Map<Path, Listing> listings = new HashMap<>();
+
+  /**
+   * @param isRegularFile test if a found file exists and is a regular file
+   */
+  IncludeDirectoryIndex(Predicate<Path> isRegularFile) {
+    this.isRegularFile = isRegularFile;
+  }
+
+  /**
+   * Tests whether a file exists in a directory.
+   *
+   * @param dir directory to search in
+   * @param fileName relative path of the file
+   * @return {@code true} if the file exists
+   */
+  boolean exists(Path dir, Path fileName) {
+    if (!isPlain(fileName)) {
+      return isRegularFile.test(dir.resolve(fileName));
+    }
+    var path = dir;
+    for (var segment : fileName) {
+      var listing = listing(path);
+      if (listing == UNREADABLE) {
+        return isRegularFile.test(dir.resolve(fileName));
+      }
+      var name = segment.toString();
+      if (!listing.contains(name)) {
+        return false;
+      }
+      path = path.resolve(name);
+    }
+    return isRegularFile.test(path);
+  }
+
+  /**
+   * Number of listed directories.
+   */
+  int size() {
+    return listings.size();
+  }
+
+  private Listing listing(Path dir) {
+    return listings.computeIfAbsent(dir, this::read);
+  }
+
+  private Listing read(Path dir) {
+    var names = new HashSet<String>();
+    try (var stream = Files.newDirectoryStream(dir)) {
+      for (var path : stream) {
+        names.add(path.getFileName().toString());
+      }
+      return new Listing(names);
+    } catch (NoSuchFileException | NotDirectoryException e) {
+      return new Listing(new HashSet<>());
+    } catch (IOException | SecurityException e) {
+      return UNREADABLE;
+    }
+  }
+
+  /**
+   * Relative path without '.' and '..' segments, can be searched segment by segment.
+   */
+  private static boolean isPlain(Path fileName) {
+    if (fileName.isAbsolute() || fileName.getRoot() != null) {
+      return false;
+    }
+    for (var segment : fileName) {
+      var name = segment.toString();
+      if (name.isEmpty() || ".".equals(name) || "..".equals(name)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static final class Listing {
+
+    private final Set<String> names;
+    private Set<String> lowerCaseNames;
+
+    Listing(Set<String> names) {
+      this.names = names;
+    }
+
+    /**
+     * Name is in the directory, or could be on a case-insensitive file system.
+     */
+    boolean contains(String name) {
+      return names.contains(name) || lowerCaseNames().contains(name.toLowerCase(Locale.ROOT));
+    }
+
+    private Set<String> lowerCaseNames() {
+      if (lowerCaseNames == null) {
+        lowerCaseNames = new HashSet<>(names.size());
+        for (var name : names) {
+          lowerCaseNames.add(name.toLowerCase(Locale.ROOT));
+        }
+      }
+      return lowerCaseNames;
+    }
+
+  }
+
+}
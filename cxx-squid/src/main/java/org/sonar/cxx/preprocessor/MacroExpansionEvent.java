@@ -0,0 +1,56 @@
+/*
+ * C++ Community Plugin (cxx plugin)
+ * Copyright (C) 2010-2024 SonarOpenCommunity
+ * http://github.com/SonarOpenCommunity/sonar-cxx
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.cxx.preprocessor;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * JFR event: a macro in the source code was expanded, including the expansion of the macros in its replacement.
+ */
+@Name("org.sonar.cxx.MacroExpansion")
+@Label("Macro Expansion Burst")
+@Description("Expansion of a macro instance which took longer than the threshold")
+@Category({"C++", "Preprocessor"})
+@StackTrace(false)
+@Threshold("1 ms")
+final class MacroExpansionEvent extends Event {
+
+  @Label("Macro")
+  String macro;
+
+  @Label("File")
+  String file;
+
+  @Label("Line")
+  int line;
+
+  @Label("Consumed Tokens")
+  int consumedTokens;
+
+  @Label("Produced Tokens")
+  int producedTokens;
+
+}
@@ -36,6 +36,7 @@ import java.util.List;
 import java.util.Set;
 import javax.annotation.CheckForNull;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import org.apache.commons.io.ByteOrderMark;
 import org.apache.commons.io.input.BOMInputStream;
 import org.slf4j.Logger;
@@ -111,22 +112,43 @@ public class PPInclude {
    * @param token current token
    */
   public void handleFile(AstNode ast, Token token) {
-    Path fileName = searchFile(ast);
+    handleFile(searchFile(ast), token);
+  }
+
+  /**
+   * Process an include file found with {@link #searchFile(AstNode)}.
+   *
+   * @param fileName include file, null if the file was not found
+   * @param token current token
+   */
+  public void handleFile(@Nullable Path fileName, Token token) {
     if (fileName == null) {
       missingFileCounter++;
       String rootFilePath = state().getFileUnderAnalysisPath();
       LOG.debug("[{}:{}]: preprocessor cannot find include file '{}'",
         rootFilePath, token.getLine(), token.getValue());
     } else if (analysedFiles.add(fileName)) {
+      var event = new HeaderIncludedEvent();
+      event.begin();
+      var characters = 0;
       state().pushFileState(fileName);
       try {
         LOG.debug("process include file '{}'", fileName);
-        fileLexer.lex(getSourceCode(fileName, pp.getCharset()));
+        var sourceCode = getSourceCode(fileName, pp.getCharset());
+        characters = sourceCode.length();
+        fileLexer.lex(sourceCode);
       } catch (IOException e) {
         LOG.error(LOGMSG, e.getMessage(), fileName, e);
       } finally {
         state().popFileState();
       }
+      event.end();
+      if (event.shouldCommit()) {
+        event.path = fileName.toString();
+        event.includingFile = String.valueOf(state().getFileUnderAnalysis());
+        event.characters = characters;
+        event.commit();
+      }
     }
   }
 
@@ -240,6 +262,26 @@ public class PPInclude {
     return missingFileCounter;
   }
 
+  /**
+   * Restores the result of processing include files from a snapshot.
+   *
+   * @param files include files processed, including nested includes
+   * @param missingFiles number of include files not found
+   */
+  public void addAnalysedFiles(Set<Path> files, int missingFiles) {
+    analysedFiles.addAll(files);
+    missingFileCounter += missingFiles;
+  }
+
+  /**
+   * Returns the include files processed for the current translation unit, including nested includes.
+   *
+   * @return absolute paths of the included files
+   */
+  public Set<Path> getAnalysedFiles() {
+    return Collections.unmodifiableSet(analysedFiles);
+  }
+
   /**
    * (1) Search bracketed filename.
    *
@@ -248,9 +290,8 @@ public class PPInclude {
   @CheckForNull
   private Path searchBracketed(Path fileName) {
     for (var path : standardIncludeDirs) {
-      var abspath = path.resolve(fileName);
-      if (exists(abspath)) {
-        return abspath;
+      if (exists(path, fileName)) {
+        return path.resolve(fileName);
       }
     }
     return null;
@@ -272,16 +313,16 @@ public class PPInclude {
   private Path searchQuoted(Path fileName) {
     var parent = state().getFileUnderAnalysis().getParent();
     String cwd = parent != null ? parent.toString() : ".";
-    var path = Path.of(cwd).resolve(fileName);
-    if (exists(path)) {
-      return path;
+    var dir = Path.of(cwd);
+    if (exists(dir, fileName)) {
+      return dir.resolve(fileName);
     }
 
     for (var include : state().getStack()) {
       if (!include.getFile().equals(state().getContextFile())) {
-        path = include.getFile().getParent().resolve(fileName);
-        if (exists(path)) {
-          return path;
+        dir = include.getFile().getParent();
+        if (exists(dir, fileName)) {
+          return dir.resolve(fileName);
         }
       }
     }
@@ -354,4 +395,15 @@ public class PPInclude {
     return pp.exists(fileName);
   }
 
+  /**
+   * Tests whether a file exists in a directory.
+   *
+   * @param dir the directory to search in
+   * @param fileName relative path of the file
+   * @return {@code true} if the file exists
+   */
+  private boolean exists(Path dir, Path fileName) {
+    return pp.exists(dir, fileName);
+  }
+
 }
@@ -37,11 +37,22 @@ public class CxxCpdVisitor extends SquidAstVisitor<Grammar> implements AstAndTok
 
   private final boolean ignoreLiterals;
   private final boolean ignoreIdentifiers;
+  private final boolean lexerOnly;
   private int isFunctionDefinition;
 
   private List<CpdToken> cpdTokens = null;
 
   public CxxCpdVisitor(CxxSquidConfiguration squidConfig) {
+    this(squidConfig, false);
+  }
+
+  /**
+   * @param squidConfig the Squid configuration
+   * @param lexerOnly true for the lexer-only analysis tier: without syntax tree the tokens of the whole file are used,
+   * otherwise only the tokens of function definitions
+   */
+  public CxxCpdVisitor(CxxSquidConfiguration squidConfig, boolean lexerOnly) {
+    this.lexerOnly = lexerOnly;
     this.ignoreLiterals = squidConfig.getBoolean(CxxSquidConfiguration.SONAR_PROJECT_PROPERTIES,
                                                  CxxSquidConfiguration.CPD_IGNORE_LITERALS).orElse(Boolean.FALSE);
     this.ignoreIdentifiers = squidConfig.getBoolean(CxxSquidConfiguration.SONAR_PROJECT_PROPERTIES,
@@ -50,7 +61,9 @@ public class CxxCpdVisitor extends SquidAstVisitor<Grammar> implements AstAndTok
 
   @Override
   public void init() {
-    subscribeTo(CxxGrammarImpl.functionDefinition);
+    if (!lexerOnly) {
+      subscribeTo(CxxGrammarImpl.functionDefinition);
+    }
   }
 
   @Override
@@ -76,7 +89,7 @@ public class CxxCpdVisitor extends SquidAstVisitor<Grammar> implements AstAndTok
 
   @Override
   public void visitToken(Token token) {
-    if (isFunctionDefinition > 0 && !token.isGeneratedCode()) {
+    if ((lexerOnly || isFunctionDefinition > 0) && !token.isGeneratedCode()) {
       String text;
       if (ignoreIdentifiers && token.getType().equals(GenericTokenType.IDENTIFIER)) {
         text = "_I";
@@ -24,7 +24,6 @@ import com.sonar.cxx.sslr.api.AstNode;
 import com.sonar.cxx.sslr.api.GenericTokenType;
 import com.sonar.cxx.sslr.api.Grammar;
 import com.sonar.cxx.sslr.api.Token;
-import java.util.ArrayList;
 import java.util.List;
 import javax.annotation.Nullable;
 import org.sonar.api.measures.CoreMetrics;
@@ -33,17 +32,30 @@ import org.sonar.cxx.parser.CxxGrammarImpl;
 import org.sonar.cxx.parser.CxxKeyword;
 import org.sonar.cxx.parser.CxxPunctuator;
 import org.sonar.cxx.squidbridge.SquidAstVisitor;
+import org.sonar.cxx.squidbridge.api.LineSet;
 
 /**
  * Visitor that computes {@link CoreMetrics#NCLOC_DATA_KEY} and {@link CoreMetrics#EXECUTABLE_LINES_DATA} metrics used
- * by the DevCockpit.
+ * by the DevCockpit. Both are stored as {@link LineSet}.
+ *
+ * In the lexer-only analysis tier there is no syntax tree: the lines of code are taken from the code tokens of the whole
+ * file and no executable lines are reported.
  */
 public class CxxFileLinesVisitor extends SquidAstVisitor<Grammar> implements AstAndTokenVisitor {
 
-  private List<Integer> linesOfCode = null;
-  private List<Integer> executableLines = null;
+  private final boolean lexerOnly;
+  private LineSet linesOfCode = null;
+  private LineSet executableLines = null;
   private int isWithinFunctionDefinition = 0;
 
+  public CxxFileLinesVisitor() {
+    this(false);
+  }
+
+  public CxxFileLinesVisitor(boolean lexerOnly) {
+    this.lexerOnly = lexerOnly;
+  }
+
   private static boolean isDefaultOrDeleteFunctionBody(AstNode astNode) {
     var node = astNode.getFirstChild(CxxGrammarImpl.functionBody);
     if ((node != null)) {
@@ -82,24 +94,11 @@ public class CxxFileLinesVisitor extends SquidAstVisitor<Grammar> implements Ast
     return !CxxPunctuator.CURLBR_LEFT.equals(type) && !CxxKeyword.DEFAULT.equals(type) && !CxxKeyword.CASE.equals(type);
   }
 
-  static void addLineNumber(List<Integer> collection, int lineNr) {
-    // use the fact, that we iterate over tokens from top to bottom.
-    // if the line was already visited its index was put at the end of
-    // collection.
-    //
-    // don't use Set, because Set would sort elements on each insert
-    // since we potentially insert line number for each token it would create
-    // large run-time overhead
-    //
-    // we sort/filter duplicates only once - on leaveFile(AstNode)
-    //
-    if (collection.isEmpty() || collection.get(collection.size() - 1) != lineNr) {
-      collection.add(lineNr);
-    }
-  }
-
   @Override
   public void init() {
+    if (lexerOnly) {
+      return;
+    }
     subscribeTo(CxxGrammarImpl.functionDefinition,
       CxxGrammarImpl.labeledStatement,
       CxxGrammarImpl.expressionStatement,
@@ -115,8 +114,8 @@ public class CxxFileLinesVisitor extends SquidAstVisitor<Grammar> implements Ast
       return;
     }
 
-    if ((isWithinFunctionDefinition != 0) && isCodeToken(token)) {
-      addLineNumber(linesOfCode, token.getLine());
+    if ((lexerOnly || isWithinFunctionDefinition != 0) && isCodeToken(token)) {
+      linesOfCode.add(token.getLine());
     }
   }
 
@@ -146,8 +145,8 @@ public class CxxFileLinesVisitor extends SquidAstVisitor<Grammar> implements Ast
 
   @Override
   public void visitFile(@Nullable AstNode astNode) {
-    linesOfCode = new ArrayList<>();
-    executableLines = new ArrayList<>();
+    linesOfCode = new LineSet();
+    executableLines = new LineSet();
   }
 
   @Override
@@ -167,7 +166,7 @@ public class CxxFileLinesVisitor extends SquidAstVisitor<Grammar> implements Ast
       return;
     }
     if (isExecutableToken(astNode.getToken())) {
-      addLineNumber(executableLines, astNode.getTokenLine());
+      executableLines.add(astNode.getTokenLine());
     }
   }
 
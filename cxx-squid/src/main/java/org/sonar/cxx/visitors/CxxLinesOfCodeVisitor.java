@@ -24,13 +24,9 @@ import com.sonar.cxx.sslr.api.AstNode;
 import static com.sonar.cxx.sslr.api.GenericTokenType.EOF;
 import com.sonar.cxx.sslr.api.Grammar;
 import com.sonar.cxx.sslr.api.Token;
-import com.sonar.cxx.sslr.api.Trivia;
-import java.util.regex.Pattern;
 import javax.annotation.Nullable;
 import org.sonar.cxx.api.CxxMetric;
 import org.sonar.cxx.squidbridge.SquidAstVisitor;
-import org.sonar.cxx.squidbridge.api.SourceCode;
-import org.sonar.cxx.squidbridge.api.SourceFile;
 
 /**
  * Visitor that computes the number of lines of code of a file.
@@ -40,8 +36,6 @@ import org.sonar.cxx.squidbridge.api.SourceFile;
 public class CxxLinesOfCodeVisitor<GRAMMAR extends Grammar>
   extends SquidAstVisitor<GRAMMAR> implements AstAndTokenVisitor {
 
-  public static final Pattern EOL_PATTERN = Pattern.compile("\\R");
-
   private int lastTokenLine = -1;
 
   /**
@@ -62,38 +56,35 @@ public class CxxLinesOfCodeVisitor<GRAMMAR extends Grammar>
     }
 
     // handle all the lines of the token
-    String[] tokenLines = EOL_PATTERN.split(token.getValue(), -1);
+    int tokenLines = countLines(token.getValue());
 
     int firstLineAlreadyCounted = lastTokenLine == token.getLine() ? 1 : 0;
-    getContext().peekSourceCode().add(CxxMetric.LINES_OF_CODE, (double) tokenLines.length - firstLineAlreadyCounted);
-
-    lastTokenLine = token.getLine() + tokenLines.length - 1;
+    getContext().peekSourceCode().add(CxxMetric.LINES_OF_CODE, (double) tokenLines - firstLineAlreadyCounted);
 
-    // handle comments
-    for (var trivia : token.getTrivia()) {
-      if (trivia.isComment()) {
-        visitComment(trivia);
-      }
-    }
+    lastTokenLine = token.getLine() + tokenLines - 1;
   }
 
   /**
-   * Search in comments for NOSONAR
+   * Number of lines of a text, line terminators are the same as for the regular expression {@code \R}.
    */
-  public void visitComment(Trivia trivia) {
-    String[] commentLines = EOL_PATTERN
-      .split(getContext().getCommentAnalyser().getContents(trivia.getToken().getOriginalValue()), -1);
-    int line = trivia.getToken().getLine();
-
-    for (var commentLine : commentLines) {
-      if (commentLine.contains("NOSONAR")) {
-        SourceCode sourceCode = getContext().peekSourceCode();
-        if (sourceCode instanceof SourceFile sourceFile) {
-          sourceFile.hasNoSonarTagAtLine(line);
-        }
+  static int countLines(String text) {
+    int lines = 1;
+    for (int i = 0; i < text.length(); i++) {
+      switch (text.charAt(i)) {
+        case '\r':
+          if (i + 1 < text.length() && text.charAt(i + 1) == '\n') {
+            i++;
+          }
+          lines++;
+          break;
+        case '\n', '\013', '\f', '\u0085', '\u2028', '\u2029':
+          lines++;
+          break;
+        default:
+          break;
       }
-      line++;
     }
+    return lines;
   }
 
 }
@@ -82,6 +82,9 @@ public class CxxParseErrorLoggerVisitor<GRAMMAR extends Grammar> extends SquidAs
           identifierLine = -1;
         }
       } else if (type.equals(CxxPunctuator.CURLBR_RIGHT)) {
+        // part before CURLBR_RIGHT is typically the end of a skipped block
+        sb.setLength(sb.length() - child.getTokenValue().length());
+        logSyntaxError(identifierLine, sb);
         sb.setLength(0);
         identifierLine = -1;
       } else {
@@ -89,8 +92,12 @@ public class CxxParseErrorLoggerVisitor<GRAMMAR extends Grammar> extends SquidAs
       }
     }
 
+    // part without CURLBR_LEFT is typically a syntax error
+    logSyntaxError(identifierLine, sb);
+  }
+
+  private void logSyntaxError(int identifierLine, StringBuilder sb) {
     if (identifierLine != -1 && sb.length() > 0) {
-      // part without CURLBR_LEFT is typically a syntax error
       LOG.debug("[{}:{}]:    syntax error: {}",
         getContext().getFile(), identifierLine, sb);
     }
@@ -19,17 +19,30 @@
  */
 package org.sonar.cxx;
 
+import com.sonar.cxx.sslr.api.AstNode;
+import com.sonar.cxx.sslr.api.Grammar;
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordingFile;
 import static org.assertj.core.api.Assertions.*;
 import org.assertj.core.api.SoftAssertions;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.sonar.cxx.api.CxxMetric;
 import org.sonar.cxx.config.CxxSquidConfiguration;
+import org.sonar.cxx.parser.CxxGrammarImpl;
+import org.sonar.cxx.squidbridge.ParallelVisitor;
+import org.sonar.cxx.squidbridge.api.LineSet;
 import org.sonar.cxx.squidbridge.api.SourceFile;
 import org.sonar.cxx.squidbridge.api.SourceProject;
+import org.sonar.cxx.squidbridge.checks.PatternPrefilter;
+import org.sonar.cxx.squidbridge.checks.SquidCheck;
 import org.sonar.cxx.squidbridge.indexer.QueryByType;
 
 class CxxAstScannerTest {
@@ -131,6 +144,16 @@ class CxxAstScannerTest {
     assertThat(file.getInt(CxxMetric.FUNCTIONS)).isEqualTo(2);
   }
 
+  @Test
+  void errorRecoverySynchronizationPoints() throws IOException {
+    var tester = CxxFileTesterHelper.create("src/test/resources/parser/bad/error_recovery_synchronization_points.cc",
+                                            ".", "");
+    var recovered = new RecoveredDeclarationCheck();
+    SourceFile file = CxxAstScanner.scanSingleInputFile(tester.asInputFile(), recovered);
+    assertThat(file.getInt(CxxMetric.FUNCTIONS)).isEqualTo(4);
+    assertThat(recovered.lines).containsExactly(16, 23);
+  }
+
   @Test
   void nosonarComments() throws IOException {
     var tester = CxxFileTesterHelper.create("src/test/resources/metrics/nosonar.cc", ".", "");
@@ -138,4 +161,210 @@ class CxxAstScannerTest {
     assertThat(file.getNoSonarTagLines()).containsOnly(3, 6, 9, 11);
   }
 
+  @Test
+  void lexerOnlyTier() throws IOException {
+    var tester = CxxFileTesterHelper.create("src/test/resources/metrics/comments.cc", ".", "");
+    var squidConfig = new CxxSquidConfiguration();
+    squidConfig.add(CxxSquidConfiguration.SONAR_PROJECT_PROPERTIES, CxxSquidConfiguration.ANALYSIS_TIER,
+                    CxxAstScanner.TIER_LEXER);
+    SourceFile full = CxxAstScanner.scanSingleInputFile(tester.asInputFile());
+    SourceFile lexerOnly = CxxAstScanner.scanSingleInputFileConfig(tester.asInputFile(), squidConfig);
+
+    var softly = new SoftAssertions();
+    softly.assertThat(lexerOnly.getInt(CxxMetric.LINES)).isEqualTo(full.getInt(CxxMetric.LINES));
+    softly.assertThat(lexerOnly.getInt(CxxMetric.LINES_OF_CODE)).isEqualTo(full.getInt(CxxMetric.LINES_OF_CODE));
+    softly.assertThat(lexerOnly.getInt(CxxMetric.COMMENT_LINES)).isEqualTo(6);
+    softly.assertThat(lexerOnly.getNoSonarTagLines()).containsExactlyElementsOf(full.getNoSonarTagLines());
+    softly.assertThat((List<?>) lexerOnly.getData(CxxMetric.HIGHLIGTHING_DATA)).isNotEmpty();
+    softly.assertThat((List<?>) lexerOnly.getData(CxxMetric.CPD_TOKENS_DATA)).isNotEmpty();
+    softly.assertThat(((LineSet) lexerOnly.getData(CxxMetric.EXECUTABLE_LINES_DATA)).isEmpty()).isTrue();
+    softly.assertThat(lexerOnly.getInt(CxxMetric.FUNCTIONS)).isZero();
+    softly.assertThat(lexerOnly.getInt(CxxMetric.STATEMENTS)).isZero();
+    softly.assertAll();
+  }
+
+  @Test
+  void parseBudgetExceeded() throws IOException {
+    var tester = CxxFileTesterHelper.create("src/test/resources/metrics/comments.cc", ".", "");
+    var squidConfig = new CxxSquidConfiguration();
+    squidConfig.add(CxxSquidConfiguration.SONAR_PROJECT_PROPERTIES, CxxSquidConfiguration.PARSE_BUDGET_INSTRUCTIONS,
+                    "1");
+    SourceFile full = CxxAstScanner.scanSingleInputFile(tester.asInputFile());
+    SourceFile degraded = CxxAstScanner.scanSingleInputFileConfig(tester.asInputFile(), squidConfig);
+
+    var softly = new SoftAssertions();
+    softly.assertThat(full.getInt(CxxMetric.FUNCTIONS)).isPositive();
+    softly.assertThat(degraded.getInt(CxxMetric.LINES_OF_CODE)).isEqualTo(full.getInt(CxxMetric.LINES_OF_CODE));
+    softly.assertThat(degraded.getInt(CxxMetric.COMMENT_LINES)).isEqualTo(full.getInt(CxxMetric.COMMENT_LINES));
+    softly.assertThat((List<?>) degraded.getData(CxxMetric.HIGHLIGTHING_DATA)).isNotEmpty();
+    softly.assertThat(((LineSet) degraded.getData(CxxMetric.NCLOC_DATA)).size())
+      .isEqualTo(((LineSet) full.getData(CxxMetric.NCLOC_DATA)).size());
+    softly.assertThat((List<?>) degraded.getData(CxxMetric.CPD_TOKENS_DATA)).isNotEmpty();
+    softly.assertThat(degraded.getInt(CxxMetric.FUNCTIONS)).isZero();
+    softly.assertAll();
+  }
+
+  @Test
+  void parallelVisitors() throws IOException {
+    var tester = CxxFileTesterHelper.create("src/test/resources/metrics/functions.cc", ".", "");
+    var squidConfig = new CxxSquidConfiguration();
+    squidConfig.add(CxxSquidConfiguration.SONAR_PROJECT_PROPERTIES, CxxSquidConfiguration.PARALLEL_VISITOR_MIN_LINES,
+                    "1");
+    var sequentialCheck = new FunctionCheck();
+    var sequentialParallelCheck = new ParallelFunctionCheck();
+    SourceFile sequential = CxxAstScanner.scanSingleInputFile(tester.asInputFile(),
+                                                               sequentialCheck, sequentialParallelCheck);
+    var parallelCheck = new FunctionCheck();
+    var parallelParallelCheck = new ParallelFunctionCheck();
+    SourceFile parallel = CxxAstScanner.scanSingleInputFileConfig(tester.asInputFile(), squidConfig,
+                                                                   parallelCheck, parallelParallelCheck);
+
+    var softly = new SoftAssertions();
+    // without parallel walks the scanner context is shared, nothing is buffered
+    softly.assertThat(sequentialParallelCheck.getContext()).isSameAs(sequentialCheck.getContext());
+    softly.assertThat(parallelParallelCheck.getContext()).isNotSameAs(parallelCheck.getContext());
+    softly.assertThat(parallel.getInt(CxxMetric.FUNCTIONS)).isEqualTo(sequential.getInt(CxxMetric.FUNCTIONS));
+    softly.assertThat(messages(parallel)).containsExactlyElementsOf(messages(sequential))
+      .containsExactly("function:3", "function:5", "parallel:3", "parallel:5");
+    softly.assertAll();
+  }
+
+  @Test
+  void patternPrefilterOwnedByScanner() throws IOException {
+    var tester = CxxFileTesterHelper.create("src/test/resources/metrics/functions.cc", ".", "");
+    var check = new PrefilterCheck();
+    var parallelCheck = new ParallelPrefilterCheck();
+    CxxAstScanner.scanSingleInputFile(tester.asInputFile(), check, parallelCheck);
+    var otherCheck = new PrefilterCheck();
+    CxxAstScanner.scanSingleInputFile(tester.asInputFile(), otherCheck);
+
+    var softly = new SoftAssertions();
+    softly.assertThat(check.prefilter).isNotNull().isSameAs(parallelCheck.prefilter);
+    softly.assertThat(otherCheck.prefilter).isNotNull().isNotSameAs(check.prefilter);
+    softly.assertThat(check.mayMatch).isTrue();
+    softly.assertThat(parallelCheck.mayMatch).isTrue();
+    softly.assertAll();
+  }
+
+  @Test
+  void prefetchedFiles() throws IOException {
+    var tester = CxxFileTesterHelper.create("src/test/resources/metrics/functions.cc", ".", "");
+    CxxFileTesterHelper.add(tester, "src/test/resources/metrics/classes.cc", "");
+    CxxFileTesterHelper.add(tester, "src/test/resources/metrics/statements.cc", "");
+    var squidConfig = new CxxSquidConfiguration();
+    squidConfig.add(CxxSquidConfiguration.SONAR_PROJECT_PROPERTIES, CxxSquidConfiguration.PREFETCH_DEPTH, "1");
+
+    var sequential = CxxAstScanner.create(new CxxSquidConfiguration());
+    sequential.scanInputFiles(tester.context.fileSystem().inputFiles());
+    var prefetched = CxxAstScanner.create(squidConfig);
+    prefetched.scanInputFiles(tester.context.fileSystem().inputFiles());
+
+    var expected = (SourceProject) sequential.getIndex().search(new QueryByType(SourceProject.class)).iterator().next();
+    var project = (SourceProject) prefetched.getIndex().search(new QueryByType(SourceProject.class)).iterator().next();
+    var softly = new SoftAssertions();
+    softly.assertThat(sequential.getPipelineStatistics()).isNull();
+    softly.assertThat(prefetched.getPipelineStatistics().files()).isEqualTo(3);
+    softly.assertThat(prefetched.getPipelineStatistics().maxQueueDepth()).isLessThanOrEqualTo(1);
+    softly.assertThat(project.getInt(CxxMetric.FILES)).isEqualTo(3);
+    for (var metric : List.of(CxxMetric.LINES, CxxMetric.FUNCTIONS, CxxMetric.CLASSES, CxxMetric.STATEMENTS)) {
+      softly.assertThat(project.getInt(metric)).as(metric.name()).isEqualTo(expected.getInt(metric));
+    }
+    softly.assertAll();
+  }
+
+  @Test
+  void fileScannedEvent(@TempDir Path tempDir) throws IOException {
+    var tester = CxxFileTesterHelper.create("src/test/resources/metrics/functions.cc", ".", "");
+    var dump = tempDir.resolve("scan.jfr");
+    try (var recording = new Recording()) {
+      recording.enable("org.sonar.cxx.FileScanned");
+      recording.start();
+      CxxAstScanner.scanSingleInputFile(tester.asInputFile());
+      recording.stop();
+      recording.dump(dump);
+    }
+
+    var events = RecordingFile.readAllEvents(dump);
+    assertThat(events).hasSize(1);
+    var softly = new SoftAssertions();
+    softly.assertThat(events.get(0).getString("path")).endsWith("functions.cc");
+    softly.assertThat(events.get(0).getInt("lines")).isPositive();
+    softly.assertThat(events.get(0).getInt("nodes")).isPositive();
+    softly.assertThat(events.get(0).getBoolean("parseError")).isFalse();
+    softly.assertAll();
+  }
+
+  private static List<String> messages(SourceFile file) {
+    return file.getCheckMessages().stream()
+      .map(message -> message.getDefaultMessage() + ":" + message.getLine())
+      .sorted()
+      .toList();
+  }
+
+  private static class FunctionCheck extends SquidCheck<Grammar> {
+
+    @Override
+    public void init() {
+      subscribeTo(CxxGrammarImpl.functionDefinition);
+    }
+
+    @Override
+    public void visitNode(AstNode node) {
+      getContext().createLineViolation(this, "function", node);
+    }
+
+  }
+
+  private static class PrefilterCheck extends SquidCheck<Grammar> {
+
+    PatternPrefilter prefilter;
+    private PatternPrefilter.Filter filter;
+    boolean mayMatch;
+
+    @Override
+    public void init() {
+      prefilter = getContext().getPatternPrefilter();
+      filter = prefilter.register(Pattern.compile("void\\s+foo"));
+    }
+
+    @Override
+    public void visitFile(AstNode node) {
+      mayMatch = filter.mayMatchFile();
+    }
+
+  }
+
+  private static class ParallelPrefilterCheck extends PrefilterCheck implements ParallelVisitor {
+  }
+
+  private static class RecoveredDeclarationCheck extends SquidCheck<Grammar> {
+
+    private final List<Integer> lines = new ArrayList<>();
+
+    @Override
+    public void init() {
+      subscribeTo(CxxGrammarImpl.recoveredDeclaration);
+    }
+
+    @Override
+    public void visitNode(AstNode node) {
+      lines.add(node.getTokenLine());
+    }
+
+  }
+
+  private static class ParallelFunctionCheck extends SquidCheck<Grammar> implements ParallelVisitor {
+
+    @Override
+    public void init() {
+      subscribeTo(CxxGrammarImpl.functionDefinition);
+    }
+
+    @Override
+    public void visitNode(AstNode node) {
+      getContext().createLineViolation(this, "parallel", node);
+    }
+
+  }
+
 }
@@ -22,11 +22,13 @@ package org.sonar.cxx.config;
 import com.fasterxml.jackson.databind.JsonMappingException;
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
 import static org.assertj.core.api.Assertions.*;
 import org.junit.jupiter.api.Assumptions;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.sonar.api.internal.apachecommons.lang3.SystemUtils;
 
 class JsonCompilationDatabaseTest {
@@ -309,6 +311,47 @@ class JsonCompilationDatabaseTest {
     assertThat(thrown).isExactlyInstanceOf(FileNotFoundException.class);
   }
 
+  @Test
+  void testManyCommandObjects(@TempDir Path tempDir) throws Exception {
+    var json = new StringBuilder("[");
+    for (int i = 0; i < 3000; i++) {
+      if (i > 0) {
+        json.append(',');
+      }
+      json.append("{\"directory\": \".\", \"file\": \"file").append(i).append(".cpp\", ")
+        .append("\"command\": \"gcc -DVARIANT=").append(i % 3).append(" -I/usr/include file.cpp\"}");
+    }
+    json.append(']');
+    var file = tempDir.resolve("compile_commands.json");
+    Files.writeString(file, json);
+
+    var squidConfig = new CxxSquidConfiguration();
+    var jsonDb = new JsonCompilationDatabase(squidConfig);
+    jsonDb.parse(file.toFile());
+
+    assertThat(squidConfig.getFiles()).hasSize(3000);
+    for (int i : new int[]{0, 1, 1024, 2047, 2999}) {
+      var filename = Path.of("file" + i + ".cpp").toAbsolutePath().normalize().toString();
+      assertThat(squidConfig.getLevelValues(filename, CxxSquidConfiguration.DEFINES))
+        .containsExactly("VARIANT " + (i % 3));
+      assertThat(squidConfig.getLevelValues(filename, CxxSquidConfiguration.INCLUDE_DIRECTORIES))
+        .containsExactly(unifyPath("/usr/include"));
+    }
+  }
+
+  @Test
+  void testSingleCommandObject(@TempDir Path tempDir) throws Exception {
+    var file = tempDir.resolve("compile_commands.json");
+    Files.writeString(file, "{\"directory\": \".\", \"file\": \"single.cpp\", \"arguments\": [\"-DSINGLE\"]}");
+
+    var squidConfig = new CxxSquidConfiguration();
+    var jsonDb = new JsonCompilationDatabase(squidConfig);
+    jsonDb.parse(file.toFile());
+
+    var filename = Path.of("single.cpp").toAbsolutePath().normalize().toString();
+    assertThat(squidConfig.getLevelValues(filename, CxxSquidConfiguration.DEFINES)).containsExactly("SINGLE 1");
+  }
+
   private static String unifyPath(String path) {
     return Path.of(path).toString();
   }
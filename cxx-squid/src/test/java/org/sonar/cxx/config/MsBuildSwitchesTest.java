@@ -0,0 +1,77 @@
+/*
+ * C++ Community Plugin (cxx plugin)
+ * Copyright (C) 2010-2024 SonarOpenCommunity
+ * http://github.com/SonarOpenCommunity/sonar-cxx
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.cxx.config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Pattern;
+import static org.assertj.core.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+class MsBuildSwitchesTest {
+
+  // regular expressions which were used to extract the switches
+  private static final Pattern[] INCLUDE_PATTERNS = {Pattern.compile("/I\"(.*?)\""),
+    Pattern.compile("/I([^\\s\"]++) ")};
+  private static final Pattern[] DEFINE_PATTERNS = {Pattern.compile("[/-]D\\s([^\\s]++)"),
+    Pattern.compile("[/-]D([^\\s]++)")};
+
+  @Test
+  void includeSwitches() {
+    assertThat(MsBuild.includeSwitches("CL.exe /I\"C:\\a b\\inc\" /Iinc /I\"unterminated /Ilast"))
+      .containsExactly("C:\\a b\\inc", "inc");
+    assertThat(MsBuild.includeSwitches("CL.exe /c main.cpp")).isEmpty();
+  }
+
+  @Test
+  void defineSwitches() {
+    assertThat(MsBuild.defineSwitches("CL.exe /D WIN32 -D_DEBUG /DUNICODE /D -D"))
+      .containsExactly("WIN32", "-D", "_DEBUG", "UNICODE");
+  }
+
+  @Test
+  void sameResultsAsRegularExpressions() {
+    var random = new Random(42);
+    var alphabet = "/-ID\"  \ta=\u0085";
+    for (int n = 0; n < 20_000; n++) {
+      var line = new StringBuilder();
+      int length = random.nextInt(24);
+      for (int i = 0; i < length; i++) {
+        line.append(alphabet.charAt(random.nextInt(alphabet.length())));
+      }
+      var text = line.toString();
+      assertThat(MsBuild.includeSwitches(text)).as(text).isEqualTo(matches(INCLUDE_PATTERNS, text));
+      assertThat(MsBuild.defineSwitches(text)).as(text).isEqualTo(matches(DEFINE_PATTERNS, text));
+    }
+  }
+
+  private static List<String> matches(Pattern[] patterns, String text) {
+    var result = new ArrayList<String>();
+    for (var pattern : patterns) {
+      var m = pattern.matcher(text);
+      while (m.find()) {
+        result.add(m.group(1));
+      }
+    }
+    return result;
+  }
+
+}
@@ -25,6 +25,7 @@ import com.sonar.cxx.sslr.api.Token;
 import com.sonar.cxx.sslr.impl.Lexer;
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Collections;
 import java.util.List;
@@ -32,6 +33,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import org.assertj.core.api.SoftAssertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 import org.sonar.cxx.config.CxxSquidConfiguration;
@@ -868,6 +870,32 @@ class CxxLexerWithPreprocessingTest {
     softly.assertAll();
   }
 
+  @Test
+  void firstIncludeIsReusedForSameState(@TempDir Path tempDir) throws IOException {
+    var header = tempDir.resolve("pch.h");
+    Files.writeString(header, "#define A 1\n");
+    var pp = new CxxPreprocessor(context, new CxxSquidConfiguration());
+    lexer = CxxLexerPool.create(pp).getLexer();
+
+    when(context.getFile()).thenReturn(tempDir.resolve("a.cpp").toFile());
+    List<Token> tokens1 = lexer.lex("#include \"pch.h\"\nA\n");
+
+    // same state: the result of the first unit is restored, the header is not read again
+    Files.writeString(header, "#define A 2\n");
+    when(context.getFile()).thenReturn(tempDir.resolve("b.cpp").toFile());
+    List<Token> tokens2 = lexer.lex("#include \"pch.h\"\nA\n");
+
+    // different state: the header is processed
+    when(context.getFile()).thenReturn(tempDir.resolve("c.cpp").toFile());
+    List<Token> tokens3 = lexer.lex("#define B\n#include \"pch.h\"\nA\n");
+
+    var softly = new SoftAssertions();
+    softly.assertThat(tokens1).anySatisfy(token -> assertThat(token).isValue("1").hasType(CxxTokenType.NUMBER));
+    softly.assertThat(tokens2).anySatisfy(token -> assertThat(token).isValue("1").hasType(CxxTokenType.NUMBER));
+    softly.assertThat(tokens3).anySatisfy(token -> assertThat(token).isValue("2").hasType(CxxTokenType.NUMBER));
+    softly.assertAll();
+  }
+
   @Test
   void elifExpression() {
     List<Token> tokens = lexer.lex("""
@@ -22,6 +22,7 @@ package org.sonar.cxx.parser;
 import com.sonar.cxx.sslr.api.AstNode;
 import com.sonar.cxx.sslr.api.Grammar;
 import com.sonar.cxx.sslr.impl.Parser;
+import com.sonar.cxx.sslr.impl.ast.AstXmlPrinter;
 import java.io.File;
 import java.net.URISyntaxException;
 import java.util.ArrayList;
@@ -167,6 +168,21 @@ class CxxParserTest {
     verify(root, erroneousSources, map);
   }
 
+  @Test
+  void testBytecodeGrammarCreatesSameTree() {
+    Parser<Grammar> interpreter = createParser(null, true, null);
+    // shares lexer and preprocessor with the interpreter
+    Parser<Grammar> bytecode = Parser.builder(interpreter).withBytecodeGrammar(true).build();
+
+    var files = listFiles(goodFiles, new String[]{"cc", "cpp", "hpp"});
+    files.add(erroneousSources);
+    for (var file : files) {
+      assertThat(AstXmlPrinter.print(parse(bytecode, file)))
+        .as(file.getName())
+        .isEqualTo(AstXmlPrinter.print(parse(interpreter, file)));
+    }
+  }
+
   private List<File> listFiles(String[] dirs, String[] extensions) {
     var files = new ArrayList<File>();
     for (var dir : dirs) {
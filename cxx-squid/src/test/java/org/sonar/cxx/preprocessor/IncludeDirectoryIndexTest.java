@@ -0,0 +1,95 @@
+/*
+ * C++ Community Plugin (cxx plugin)
+ * Copyright (C) 2010-2024 SonarOpenCommunity
+ * http://github.com/SonarOpenCommunity/sonar-cxx
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.cxx.preprocessor;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import static org.assertj.core.api.Assertions.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class IncludeDirectoryIndexTest {
+
+  @TempDir
+  Path tempDir;
+
+  private final List<Path> checkedFiles = new ArrayList<>();
+  private IncludeDirectoryIndex index;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    Files.createDirectories(tempDir.resolve("inc1/sys"));
+    Files.createDirectories(tempDir.resolve("inc2"));
+    Files.createFile(tempDir.resolve("inc1/a.h"));
+    Files.createFile(tempDir.resolve("inc1/sys/b.h"));
+    Files.createFile(tempDir.resolve("inc2/c.h"));
+    index = newIndex();
+  }
+
+  @Test
+  void findsFiles() {
+    assertThat(index.exists(tempDir.resolve("inc1"), Path.of("a.h"))).isTrue();
+    assertThat(index.exists(tempDir.resolve("inc1"), Path.of("sys/b.h"))).isTrue();
+    assertThat(index.exists(tempDir.resolve("inc2"), Path.of("c.h"))).isTrue();
+    assertThat(checkedFiles).hasSize(3);
+  }
+
+  @Test
+  void missingFilesAreNotChecked() {
+    assertThat(index.exists(tempDir.resolve("inc1"), Path.of("c.h"))).isFalse();
+    assertThat(index.exists(tempDir.resolve("inc2"), Path.of("a.h"))).isFalse();
+    assertThat(index.exists(tempDir.resolve("inc1"), Path.of("x/b.h"))).isFalse();
+    assertThat(index.exists(tempDir.resolve("inc1"), Path.of("a.h/b.h"))).isFalse();
+    assertThat(index.exists(tempDir.resolve("missing"), Path.of("a.h"))).isFalse();
+    assertThat(checkedFiles).isEmpty();
+    assertThat(index.size()).isEqualTo(4);
+  }
+
+  @Test
+  void directoryIsNoFile() {
+    assertThat(index.exists(tempDir.resolve("inc1"), Path.of("sys"))).isFalse();
+  }
+
+  @Test
+  void differentCaseIsCheckedWithFileSystem() {
+    var found = index.exists(tempDir.resolve("inc1"), Path.of("A.h"));
+    assertThat(found).isEqualTo(Files.isRegularFile(tempDir.resolve("inc1/A.h")));
+    assertThat(checkedFiles).containsExactly(tempDir.resolve("inc1/A.h"));
+  }
+
+  @Test
+  void relativeSegmentsAreCheckedWithFileSystem() {
+    assertThat(index.exists(tempDir.resolve("inc1/sys"), Path.of("../a.h"))).isTrue();
+    assertThat(index.exists(tempDir.resolve("inc1"), Path.of("./a.h"))).isTrue();
+    assertThat(index.size()).isZero();
+  }
+
+  private IncludeDirectoryIndex newIndex() {
+    return new IncludeDirectoryIndex(path -> {
+      checkedFiles.add(path);
+      return Files.isRegularFile(path);
+    });
+  }
+
+}
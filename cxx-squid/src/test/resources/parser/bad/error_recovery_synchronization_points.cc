@@ -0,0 +1,27 @@
+int function_1()
+{
+    return 1;
+}
+
+__asm {
+    mov eax, 1
+    add eax, ebx
+}
+
+int function_2()
+{
+    return 2;
+}
+
+kernel<<<blocks, threads>>>(data, size);
+
+int function_3()
+{
+    return 3;
+}
+
+UNKNOWN_MACRO(a, b)
+int function_4()
+{
+    return 4;
+}
@@ -48,6 +48,11 @@ public class AstNode {
   private int fromIndex;
   private int toIndex;
 
+  // position in the index of the tree, see AstNodeIndex
+  AstNodeIndex index;
+  int preorder;
+  int lastDescendant;
+
   /**
    * Node of abstract syntax tree (AST).
    *
@@ -86,6 +91,9 @@ public class AstNode {
    */
   public void addChild(AstNode child) {
     if (child != null) {
+      if (index != null) {
+        index.invalidate();
+      }
       if (children.isEmpty()) {
         children = new ArrayList<>();
       }
@@ -102,6 +110,10 @@ public class AstNode {
   }
 
   private void addChildToList(AstNode child) {
+    if (child.index != null) {
+      // the node is moved out of an indexed tree (e.g. reused by a re-parse), its old tree has changed
+      child.index.invalidate();
+    }
     children.add(child);
     child.childIndex = children.size() - 1;
     child.parent = this;
@@ -142,6 +154,12 @@ public class AstNode {
    * @since 1.17
    */
   public AstNode getNextAstNode() {
+    if (isIndexed()) {
+      var next = index.getNextAstNode(this);
+      if (next != null) {
+        return next;
+      }
+    }
     var nextSibling = getNextSibling();
     if (nextSibling != null) {
       return nextSibling;
@@ -391,6 +409,9 @@ public class AstNode {
    * @since 1.17
    */
   public AstNode getFirstDescendant(AstNodeType... nodeTypes) {
+    if (isIndexed()) {
+      return index.getFirstDescendant(this, nodeTypes);
+    }
     for (var child : children) {
       if (child.is(nodeTypes)) {
         return child;
@@ -449,6 +470,7 @@ public class AstNode {
    *  |__ D1
    *  |__ B3
    * </pre>
+   * A node is returned once, even if its type is specified several times.
    *
    * @param nodeTypes to be included
    * @return descendants of specified types, never null
@@ -456,6 +478,9 @@ public class AstNode {
    * @since 1.17
    */
   public List<AstNode> getDescendants(AstNodeType... nodeTypes) {
+    if (isIndexed()) {
+      return index.getDescendants(this, nodeTypes);
+    }
     List<AstNode> result = new ArrayList<>();
     if (hasChildren()) {
       for (var child : children) {
@@ -466,10 +491,8 @@ public class AstNode {
   }
 
   private void getDescendants(List<AstNode> result, AstNodeType... nodeTypes) {
-    for (var nodeType : nodeTypes) {
-      if (is(nodeType)) {
-        result.add(this);
-      }
+    if (is(nodeTypes)) {
+      result.add(this);
     }
     if (hasChildren()) {
       for (var child : children) {
@@ -478,6 +501,10 @@ public class AstNode {
     }
   }
 
+  private boolean isIndexed() {
+    return index != null && index.isValid();
+  }
+
   /**
    * Returns the last child of this node.
    *
@@ -0,0 +1,176 @@
+/*
+ * C++ Community Plugin (cxx plugin)
+ * Copyright (C) 2022-2024 SonarOpenCommunity
+ * http://github.com/SonarOpenCommunity/sonar-cxx
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package com.sonar.cxx.sslr.api;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.CheckForNull;
+
+/**
+ * Index of a syntax tree for descendant queries.
+ *
+ * The nodes are numbered in pre-order, the descendants of a node are the nodes from its own number + 1 up to the
+ * number of its last descendant. For each node type the numbers of the nodes of this type are stored in a sorted array,
+ * so a descendant query is a binary search for the interval of the node instead of a walk over the subtree.
+ *
+ * The index is built once after parsing with {@link #build(AstNode)}, the query methods of {@link AstNode} use it if
+ * present. Adding a child to a node of an indexed tree or moving a node of an indexed tree to another parent discards
+ * the index, the queries then walk the tree again. The index itself is not modified after it is built and can be read
+ * concurrently.
+ */
+public final class AstNodeIndex {
+
+  private static final int[] NONE = new int[0];
+
+  private final AstNode[] nodes;
+  private final Map<AstNodeType, int[]> occurrences;
+  private boolean valid = true;
+
+  private AstNodeIndex(AstNode[] nodes, Map<AstNodeType, int[]> occurrences) {
+    this.nodes = nodes;
+    this.occurrences = occurrences;
+  }
+
+  /**
+   * Build the index for a syntax tree and attach it to all nodes of the tree.
+   *
+   * @param root root of the tree
+   * @return index of the tree
+   */
+  public static AstNodeIndex build(AstNode root) {
+    var preorder = new ArrayList<AstNode>();
+    var stack = new ArrayList<AstNode>();
+    stack.add(root);
+    while (!stack.isEmpty()) {
+      var node = stack.remove(stack.size() - 1);
+      preorder.add(node);
+      var children = node.getChildren();
+      for (int i = children.size() - 1; i >= 0; i--) {
+        stack.add(children.get(i));
+      }
+    }
+
+    var nodes = preorder.toArray(new AstNode[0]);
+    var counts = new IdentityHashMap<AstNodeType, int[]>();
+    for (var node : nodes) {
+      counts.computeIfAbsent(node.getType(), t -> new int[1])[0]++;
+    }
+    var occurrences = new IdentityHashMap<AstNodeType, int[]>(counts.size());
+    counts.forEach((type, count) -> occurrences.put(type, new int[count[0]]));
+    var index = new AstNodeIndex(nodes, occurrences);
+
+    for (int i = nodes.length - 1; i >= 0; i--) {
+      var node = nodes[i];
+      node.index = index;
+      node.preorder = i;
+      var lastChild = node.getLastChild();
+      node.lastDescendant = lastChild != null ? lastChild.lastDescendant : i;
+      occurrences.get(node.getType())[--counts.get(node.getType())[0]] = i;
+    }
+    return index;
+  }
+
+  /**
+   * Number of indexed nodes.
+   */
+  public int size() {
+    return nodes.length;
+  }
+
+  boolean isValid() {
+    return valid;
+  }
+
+  void invalidate() {
+    valid = false;
+  }
+
+  @CheckForNull
+  AstNode getFirstDescendant(AstNode node, AstNodeType... nodeTypes) {
+    int first = Integer.MAX_VALUE;
+    for (var nodeType : nodeTypes) {
+      var numbers = occurrences.getOrDefault(nodeType, NONE);
+      int i = firstAfter(numbers, node.preorder);
+      if (i < numbers.length && numbers[i] < first) {
+        first = numbers[i];
+      }
+    }
+    return first <= node.lastDescendant ? nodes[first] : null;
+  }
+
+  List<AstNode> getDescendants(AstNode node, AstNodeType... nodeTypes) {
+    var from = new int[nodeTypes.length];
+    var to = new int[nodeTypes.length];
+    var numbers = new int[nodeTypes.length][];
+    int size = 0;
+    for (int t = 0; t < nodeTypes.length; t++) {
+      numbers[t] = isRepeated(nodeTypes, t) ? NONE : occurrences.getOrDefault(nodeTypes[t], NONE);
+      from[t] = firstAfter(numbers[t], node.preorder);
+      to[t] = firstAfter(numbers[t], node.lastDescendant);
+      size += to[t] - from[t];
+    }
+
+    // merge the occurrences of the types in pre-order
+    List<AstNode> result = new ArrayList<>(size);
+    while (result.size() < size) {
+      int next = -1;
+      for (int t = 0; t < nodeTypes.length; t++) {
+        if (from[t] < to[t] && (next == -1 || numbers[t][from[t]] < numbers[next][from[next]])) {
+          next = t;
+        }
+      }
+      result.add(nodes[numbers[next][from[next]++]]);
+    }
+    return result;
+  }
+
+  /**
+   * Next node in pre-order after the subtree of the node, null at the end of the indexed tree.
+   */
+  @CheckForNull
+  AstNode getNextAstNode(AstNode node) {
+    int next = node.lastDescendant + 1;
+    return next < nodes.length ? nodes[next] : null;
+  }
+
+  /**
+   * Type is already specified before the given position, its nodes are merged only once.
+   */
+  private static boolean isRepeated(AstNodeType[] nodeTypes, int position) {
+    for (int t = 0; t < position; t++) {
+      if (nodeTypes[t] == nodeTypes[position]) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Position of the first number greater than the given number.
+   */
+  private static int firstAfter(int[] numbers, int number) {
+    int i = Arrays.binarySearch(numbers, number + 1);
+    return i >= 0 ? i : -i - 1;
+  }
+
+}
@@ -0,0 +1,140 @@
+/*
+ * C++ Community Plugin (cxx plugin)
+ * Copyright (C) 2022-2024 SonarOpenCommunity
+ * http://github.com/SonarOpenCommunity/sonar-cxx
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package com.sonar.cxx.sslr.api;
+
+/**
+ * Budget for preprocessing and parsing of one source file.
+ *
+ * The budget limits the number of instructions executed by the parsing machine, the number of tokens produced by
+ * macro expansions and the elapsed time. The limits are checked cooperatively: the parser calls
+ * {@link #chargeInstructions(long)} and throws {@link ParseBudgetExceededException}, the preprocessor calls
+ * {@link #chargeExpansion(int)} and stops expanding macros once the budget is exhausted. A limit of zero or less means
+ * unlimited.
+ *
+ * <p>
+ * A budget is not thread-safe, it belongs to one parser. Call {@link #reset()} before each file. Only
+ * {@link #cancel()} may be called from another thread.</p>
+ */
+public final class ParseBudget {
+
+  private final long maxInstructions;
+  private final long maxExpansionTokens;
+  private final long timeoutNanos;
+
+  private long instructions;
+  private long expansionTokens;
+  private long deadline;
+  private String exceededReason;
+  private volatile boolean cancelled;
+
+  /**
+   * @param maxInstructions maximum number of instructions of the parsing machine
+   * @param maxExpansionTokens maximum number of tokens produced by macro expansions
+   * @param timeoutMillis maximum time in milliseconds
+   */
+  public ParseBudget(long maxInstructions, long maxExpansionTokens, long timeoutMillis) {
+    this.maxInstructions = maxInstructions;
+    this.maxExpansionTokens = maxExpansionTokens;
+    this.timeoutNanos = timeoutMillis > 0 ? timeoutMillis * 1_000_000L : 0;
+    reset();
+  }
+
+  /**
+   * Returns true if at least one limit is set.
+   */
+  public boolean isLimited() {
+    return maxInstructions > 0 || maxExpansionTokens > 0 || timeoutNanos > 0;
+  }
+
+  /**
+   * Start a new file: reset the counters and the timer.
+   */
+  public void reset() {
+    instructions = 0;
+    expansionTokens = 0;
+    deadline = timeoutNanos > 0 ? System.nanoTime() + timeoutNanos : 0;
+    exceededReason = null;
+    cancelled = false;
+  }
+
+  /**
+   * Cancel the current file, e.g. from a user interface thread. The next check of the budget fails, a budget without
+   * limits can be used for cancellation only.
+   */
+  public void cancel() {
+    cancelled = true;
+  }
+
+  /**
+   * Charge executed instructions of the parsing machine.
+   *
+   * @param count number of instructions
+   * @throws ParseBudgetExceededException if the budget is exhausted
+   */
+  public void chargeInstructions(long count) {
+    instructions += count;
+    if (exceededReason == null && maxInstructions > 0 && instructions > maxInstructions) {
+      exceededReason = "more than " + maxInstructions + " parser instructions";
+    }
+    checkTimeout();
+    if (exceededReason != null) {
+      throw new ParseBudgetExceededException(exceededReason);
+    }
+  }
+
+  /**
+   * Charge tokens produced by a macro expansion.
+   *
+   * @param count number of tokens
+   * @return false if the budget is exhausted, further macros should not be expanded
+   */
+  public boolean chargeExpansion(int count) {
+    expansionTokens += count;
+    if (exceededReason == null && maxExpansionTokens > 0 && expansionTokens > maxExpansionTokens) {
+      exceededReason = "more than " + maxExpansionTokens + " tokens produced by macro expansions";
+    }
+    checkTimeout();
+    return exceededReason == null;
+  }
+
+  /**
+   * Returns true if a limit was exceeded since the last {@link #reset()}.
+   */
+  public boolean isExceeded() {
+    return exceededReason != null;
+  }
+
+  /**
+   * Description of the exceeded limit, null if the budget is not exhausted.
+   */
+  public String getExceededReason() {
+    return exceededReason;
+  }
+
+  private void checkTimeout() {
+    if (exceededReason == null && cancelled) {
+      exceededReason = "cancelled";
+    }
+    if (exceededReason == null && deadline != 0 && System.nanoTime() - deadline > 0) {
+      exceededReason = "more than " + (timeoutNanos / 1_000_000L) + " ms";
+    }
+  }
+
+}
@@ -0,0 +1,51 @@
+/*
+ * C++ Community Plugin (cxx plugin)
+ * Copyright (C) 2022-2024 SonarOpenCommunity
+ * http://github.com/SonarOpenCommunity/sonar-cxx
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package com.sonar.cxx.sslr.api;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Thrown by the parser if the {@link ParseBudget} of a file is exhausted. Contains the tokens of the file (if the
+ * lexer has finished), which allows a degraded analysis without syntax tree.
+ */
+public class ParseBudgetExceededException extends RuntimeException {
+
+  private static final long serialVersionUID = 1L;
+
+  private final transient List<Token> tokens;
+
+  public ParseBudgetExceededException(String reason) {
+    this(reason, Collections.emptyList());
+  }
+
+  public ParseBudgetExceededException(String reason, List<Token> tokens) {
+    super(reason);
+    this.tokens = tokens;
+  }
+
+  /**
+   * Tokens of the file, empty if the lexer did not finish.
+   */
+  public List<Token> getTokens() {
+    return tokens;
+  }
+
+}
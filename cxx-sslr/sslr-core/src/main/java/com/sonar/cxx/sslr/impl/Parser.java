@@ -25,13 +25,22 @@ package com.sonar.cxx.sslr.impl; // cxx: in use
 
 import com.sonar.cxx.sslr.api.AstNode;
 import com.sonar.cxx.sslr.api.Grammar;
+import com.sonar.cxx.sslr.api.ParseBudget;
+import com.sonar.cxx.sslr.api.ParseBudgetExceededException;
 import com.sonar.cxx.sslr.api.RecognitionException;
 import com.sonar.cxx.sslr.api.Rule;
 import com.sonar.cxx.sslr.api.Token;
 import com.sonar.cxx.sslr.impl.matcher.RuleDefinition;
 import java.io.File;
 import java.util.List;
+import javax.annotation.CheckForNull;
+import javax.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.sonar.cxx.sslr.internal.matchers.LexerfulAstCreator;
+import org.sonar.cxx.sslr.internal.matchers.ParseNode;
+import org.sonar.cxx.sslr.internal.vm.BytecodeGrammar;
+import org.sonar.cxx.sslr.internal.vm.BytecodeGrammarCompiler;
 import org.sonar.cxx.sslr.internal.vm.Machine;
 import org.sonar.cxx.sslr.internal.vm.MutableGrammarCompiler;
 import org.sonar.cxx.sslr.parser.ParserAdapter;
@@ -44,9 +53,14 @@ import org.sonar.cxx.sslr.parser.ParserAdapter;
  */
 public class Parser<G extends Grammar> {
 
+  private static final Logger LOG = LoggerFactory.getLogger(Parser.class);
+
   private RuleDefinition rootRule;
   private final Lexer lexer;
   private final G grammar;
+  private ParseBudget parseBudget;
+  private boolean bytecodeEnabled;
+  private BytecodeGrammar bytecodeGrammar;
 
   /**
    * @since 1.16
@@ -60,6 +74,8 @@ public class Parser<G extends Grammar> {
     this.lexer = builder.lexer;
     this.grammar = builder.grammar;
     this.rootRule = (RuleDefinition) this.grammar.getRootRule();
+    this.parseBudget = builder.parseBudget;
+    this.bytecodeEnabled = builder.bytecodeEnabled;
   }
 
   public AstNode parse(File file) {
@@ -68,7 +84,7 @@ public class Parser<G extends Grammar> {
     } catch (LexerException e) {
       throw new RecognitionException(e);
     }
-    return parse(lexer.getTokens());
+    return parseLexed(lexer.getTokens());
   }
 
   public AstNode parse(String source) {
@@ -77,25 +93,86 @@ public class Parser<G extends Grammar> {
     } catch (LexerException e) {
       throw new RecognitionException(e);
     }
-    return parse(lexer.getTokens());
+    return parseLexed(lexer.getTokens());
+  }
+
+  private AstNode parseLexed(List<Token> tokens) {
+    if (parseBudget != null && parseBudget.isExceeded()) {
+      // exhausted by the channels (e.g. preprocessor) of the lexer
+      throw new ParseBudgetExceededException(parseBudget.getExceededReason(), tokens);
+    }
+    return parse(tokens);
   }
 
   public AstNode parse(List<Token> tokens) {
+    try {
+      return LexerfulAstCreator.create(parseTokens(tokens), tokens);
+    } catch (ParseBudgetExceededException e) {
+      throw new ParseBudgetExceededException(e.getMessage(), tokens);
+    }
+  }
+
+  private ParseNode parseTokens(List<Token> tokens) {
+    if (bytecodeEnabled) {
+      if (bytecodeGrammar == null) {
+        bytecodeGrammar = BytecodeGrammarCompiler.compile(rootRule);
+      }
+      try {
+        return Machine.parse(tokens, bytecodeGrammar, parseBudget);
+      } catch (StackOverflowError e) {
+        // the generated code nests a Java call per rule, the interpreter keeps its stack on the heap
+        LOG.debug("Stack overflow of the bytecode grammar in '{}', the interpreter is used from now on",
+                  tokens.get(0).getURI());
+        bytecodeEnabled = false;
+        if (parseBudget != null) {
+          // the steps of the failed attempt are not charged to the interpreter
+          parseBudget.reset();
+        }
+      }
+    }
     // TODO can be compiled only once
     var g = MutableGrammarCompiler.compile(rootRule);
-    return LexerfulAstCreator.create(Machine.parse(tokens, g), tokens);
+    return Machine.parse(tokens, g, parseBudget);
+  }
+
+  /**
+   * Flat tree of a token stream without applying the grammar: node of the root rule with one child per token
+   * (including EOF).
+   *
+   * @param tokens tokens of the file
+   * @return root node of the flat tree
+   */
+  public AstNode tokenTree(List<Token> tokens) {
+    var root = new AstNode(getRootRule(), getRootRule().getName(), tokens.isEmpty() ? null : tokens.get(0));
+    for (var token : tokens) {
+      root.addChild(new AstNode(token));
+    }
+    return root;
   }
 
   public G getGrammar() {
     return grammar;
   }
 
+  /**
+   * Budget of the parser, null if unlimited. The budget must be reset before parsing a file.
+   */
+  @CheckForNull
+  public ParseBudget getParseBudget() {
+    return parseBudget;
+  }
+
+  public void setParseBudget(@Nullable ParseBudget parseBudget) {
+    this.parseBudget = parseBudget;
+  }
+
   public RuleDefinition getRootRule() {
     return rootRule;
   }
 
   public void setRootRule(Rule rootRule) {
     this.rootRule = (RuleDefinition) rootRule;
+    this.bytecodeGrammar = null;
   }
 
   public static <G extends Grammar> Builder<G> builder(G grammar) {
@@ -111,6 +188,8 @@ public class Parser<G extends Grammar> {
     private Parser<G> baseParser;
     private Lexer lexer;
     private final G grammar;
+    private ParseBudget parseBudget;
+    private boolean bytecodeEnabled;
 
     private Builder(G grammar) {
       this.grammar = grammar;
@@ -120,6 +199,8 @@ public class Parser<G extends Grammar> {
       this.baseParser = parser;
       this.lexer = parser.lexer;
       this.grammar = parser.grammar;
+      this.parseBudget = parser.parseBudget;
+      this.bytecodeEnabled = parser.bytecodeEnabled;
     }
 
     public Parser<G> build() {
@@ -134,6 +215,20 @@ public class Parser<G extends Grammar> {
       return this;
     }
 
+    public Builder<G> withParseBudget(@Nullable ParseBudget parseBudget) {
+      this.parseBudget = parseBudget;
+      return this;
+    }
+
+    /**
+     * Parse with the grammar compiled to JVM bytecode instead of the interpreter. The grammar is compiled on first use
+     * and must not be changed afterwards. A parse budget is charged per rule invocation instead of per instruction.
+     */
+    public Builder<G> withBytecodeGrammar(boolean enabled) {
+      this.bytecodeEnabled = enabled;
+      return this;
+    }
+
   }
 
 }
@@ -0,0 +1,38 @@
+/*
+ * C++ Community Plugin (cxx plugin)
+ * Copyright (C) 2022-2024 SonarOpenCommunity
+ * http://github.com/SonarOpenCommunity/sonar-cxx
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package com.sonar.cxx.sslr.impl.typed;
+
+import java.util.List;
+
+/**
+ * Invokes an action method of a tree factory with the converted children of a parse node.
+ *
+ * Implementations are generated by {@link ActionInvokerGenerator}, this interface has to be public.
+ */
+public interface ActionInvoker {
+
+  /**
+   * @param treeFactory tree factory of the parser
+   * @param arguments converted children of the parse node, one per parameter of the action method
+   * @return result of the action method
+   */
+  Object invoke(Object treeFactory, List<Object> arguments);
+
+}
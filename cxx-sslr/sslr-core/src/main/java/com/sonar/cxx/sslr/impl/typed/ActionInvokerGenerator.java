@@ -0,0 +1,169 @@
+/*
+ * C++ Community Plugin (cxx plugin)
+ * Copyright (C) 2022-2024 SonarOpenCommunity
+ * http://github.com/SonarOpenCommunity/sonar-cxx
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package com.sonar.cxx.sslr.impl.typed;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.List;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+
+/**
+ * Generates an {@link ActionInvoker} class per action method of a tree factory. The generated method casts the
+ * arguments and calls the action method directly, without reflection and without an argument array.
+ *
+ * Like the classes generated by {@link Interceptor}, the invokers are defined by a class loader below the class loader
+ * of the tree factory. If the action method cannot be called from such a class (e.g. because of non-public or
+ * primitive parameter types), a reflective invoker is used instead.
+ */
+final class ActionInvokerGenerator {
+
+  private static final String CLASS_NAME = "GeneratedBySSLR$ActionInvoker";
+
+  private final Class<?> treeFactoryClass;
+  private final GeneratedClassLoader classLoader;
+  private int count = 0;
+
+  ActionInvokerGenerator(Class<?> treeFactoryClass) {
+    this.treeFactoryClass = treeFactoryClass;
+    var parent = treeFactoryClass.getClassLoader();
+    if (parent != null && isVisible(parent, ActionInvoker.class)) {
+      this.classLoader = new GeneratedClassLoader(parent);
+    } else {
+      this.classLoader = null;
+    }
+  }
+
+  ActionInvoker create(Method method) {
+    if (!canInvokeDirectly(method)) {
+      return (Object treeFactory, List<Object> arguments)
+        -> ReflectionUtils.invokeMethod(method, treeFactory, arguments.toArray());
+    }
+
+    String className = CLASS_NAME + count++;
+    var classBytes = generate(className, method);
+    try {
+      return (ActionInvoker) classLoader.define(className, classBytes).getConstructor().newInstance();
+    } catch (ReflectiveOperationException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  private boolean canInvokeDirectly(Method method) {
+    if (classLoader == null || !isAccessible(treeFactoryClass) || !method.getDeclaringClass().isAssignableFrom(
+      treeFactoryClass) || Modifier.isStatic(method.getModifiers()) || !Modifier.isPublic(method.getModifiers())) {
+      return false;
+    }
+    if (method.getReturnType().isPrimitive() && !void.class.equals(method.getReturnType())) {
+      return false;
+    }
+    for (var parameterType : method.getParameterTypes()) {
+      if (parameterType.isPrimitive() || !isAccessible(parameterType) || !isVisible(classLoader, parameterType)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean isAccessible(Class<?> type) {
+    var elementType = type;
+    while (elementType.isArray()) {
+      elementType = elementType.getComponentType();
+    }
+    // the JVM checks only the access flags of the class itself, not those of enclosing classes
+    return Modifier.isPublic(elementType.getModifiers());
+  }
+
+  private static boolean isVisible(ClassLoader classLoader, Class<?> type) {
+    try {
+      return Class.forName(type.getName(), false, classLoader) == type;
+    } catch (ClassNotFoundException e) {
+      return false;
+    }
+  }
+
+  private byte[] generate(String className, Method method) {
+    var cv = new ClassWriter(ClassWriter.COMPUTE_MAXS | ClassWriter.COMPUTE_FRAMES);
+    cv.visit(
+      Opcodes.V1_8,
+      Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL | Opcodes.ACC_SUPER,
+      className,
+      null,
+      Type.getInternalName(Object.class),
+      new String[]{Type.getInternalName(ActionInvoker.class)});
+
+    MethodVisitor mv = cv.visitMethod(Opcodes.ACC_PUBLIC, "<init>", "()V", null, null);
+    mv.visitVarInsn(Opcodes.ALOAD, 0);
+    mv.visitMethodInsn(Opcodes.INVOKESPECIAL, Type.getInternalName(Object.class), "<init>", "()V", false);
+    mv.visitInsn(Opcodes.RETURN);
+    mv.visitMaxs(0, 0);
+    mv.visitEnd();
+
+    mv = cv.visitMethod(
+      Opcodes.ACC_PUBLIC,
+      "invoke",
+      Type.getMethodDescriptor(Type.getType(Object.class), Type.getType(Object.class), Type.getType(List.class)),
+      null,
+      null);
+    String owner = Type.getInternalName(treeFactoryClass);
+    mv.visitVarInsn(Opcodes.ALOAD, 1);
+    mv.visitTypeInsn(Opcodes.CHECKCAST, owner);
+    Class<?>[] parameterTypes = method.getParameterTypes();
+    for (int i = 0; i < parameterTypes.length; i++) {
+      mv.visitVarInsn(Opcodes.ALOAD, 2);
+      mv.visitLdcInsn(i);
+      mv.visitMethodInsn(Opcodes.INVOKEINTERFACE,
+        Type.getInternalName(List.class),
+        "get",
+        Type.getMethodDescriptor(Type.getType(Object.class), Type.INT_TYPE),
+        true);
+      if (!Object.class.equals(parameterTypes[i])) {
+        mv.visitTypeInsn(Opcodes.CHECKCAST, Type.getInternalName(parameterTypes[i]));
+      }
+    }
+    mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL,
+      owner,
+      method.getName(),
+      Type.getMethodDescriptor(method),
+      false);
+    if (void.class.equals(method.getReturnType())) {
+      mv.visitInsn(Opcodes.ACONST_NULL);
+    }
+    mv.visitInsn(Opcodes.ARETURN);
+    mv.visitMaxs(0, 0);
+    mv.visitEnd();
+
+    return cv.toByteArray();
+  }
+
+  private static final class GeneratedClassLoader extends ClassLoader {
+
+    private GeneratedClassLoader(ClassLoader parent) {
+      super(parent);
+    }
+
+    private Class<?> define(String className, byte[] classBytes) {
+      return defineClass(className, classBytes, 0, classBytes.length);
+    }
+  }
+
+}
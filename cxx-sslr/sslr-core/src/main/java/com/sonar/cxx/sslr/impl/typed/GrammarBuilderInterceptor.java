@@ -35,6 +35,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.BiConsumer;
 import javax.annotation.CheckForNull;
 import javax.annotation.Nullable;
 import org.sonar.cxx.sslr.grammar.GrammarRuleKey;
@@ -191,6 +192,13 @@ public class GrammarBuilderInterceptor<T> implements MethodInterceptor, GrammarB
     return actions.get(ruleKey);
   }
 
+  /**
+   * Iterate over all action methods and the rule keys of their invocations.
+   */
+  public void forEachAction(BiConsumer<GrammarRuleKey, Method> consumer) {
+    actions.forEach(consumer);
+  }
+
   @Nullable
   public GrammarRuleKey ruleKeyForMethod(Method method) {
     return methodToRuleKey.get(method);
@@ -32,7 +32,9 @@ import com.sonar.cxx.sslr.api.typed.NodeBuilder;
 import com.sonar.cxx.sslr.api.typed.Optional;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import javax.annotation.CheckForNull;
 import org.sonar.cxx.sslr.internal.grammar.MutableParsingRule;
 import org.sonar.cxx.sslr.internal.matchers.ParseNode;
@@ -42,18 +44,22 @@ import org.sonar.cxx.sslr.internal.vm.TriviaExpression;
 public class SyntaxTreeCreator<T> {
 
   private final Object treeFactory;
-  private final GrammarBuilderInterceptor mapping;
+  private final GrammarBuilderInterceptor<?> mapping;
   private final NodeBuilder nodeBuilder;
+  private final Map<Object, ActionInvoker> invokers = new HashMap<>();
 
   private final Token.Builder tokenBuilder = Token.builder();
   private final List<Trivia> trivias = new ArrayList<>();
 
   private Input input;
 
-  public SyntaxTreeCreator(Object treeFactory, GrammarBuilderInterceptor mapping, NodeBuilder nodeBuilder) {
+  public SyntaxTreeCreator(Object treeFactory, GrammarBuilderInterceptor<?> mapping, NodeBuilder nodeBuilder) {
     this.treeFactory = treeFactory;
     this.mapping = mapping;
     this.nodeBuilder = nodeBuilder;
+
+    var generator = new ActionInvokerGenerator(treeFactory.getClass());
+    mapping.forEachAction((ruleKey, method) -> invokers.put(ruleKey, generator.create(method)));
   }
 
   public T create(ParseNode node, Input input) {
@@ -73,7 +79,7 @@ public class SyntaxTreeCreator<T> {
   private Object visitNonTerminal(ParseNode node) {
     var rule = (MutableParsingRule) node.getMatcher();
     var ruleKey = rule.getRuleKey();
-    var method = mapping.actionForRuleKey(ruleKey);
+    var invoker = invokers.get(ruleKey);
 
     Object result;
 
@@ -105,11 +111,11 @@ public class SyntaxTreeCreator<T> {
         result = convertedChildren;
       } else if (mapping.isZeroOrMoreRule(ruleKey)) {
         result = convertedChildren.isEmpty() ? Optional.absent() : Optional.of(convertedChildren);
-      } else if (method == null) {
+      } else if (invoker == null) {
         result = nodeBuilder.createNonTerminal(ruleKey, rule, convertedChildren, node.getStartIndex(), node
           .getEndIndex());
       } else {
-        result = ReflectionUtils.invokeMethod(method, treeFactory, convertedChildren.toArray(Object[]::new));
+        result = invoker.invoke(treeFactory, convertedChildren);
       }
     }
     return result;
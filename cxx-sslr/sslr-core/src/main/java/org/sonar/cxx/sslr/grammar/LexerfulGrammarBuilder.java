@@ -38,6 +38,7 @@ import org.sonar.cxx.sslr.internal.vm.SequenceExpression;
 import org.sonar.cxx.sslr.internal.vm.ZeroOrMoreExpression;
 import org.sonar.cxx.sslr.internal.vm.lexerful.AdjacentExpression;
 import org.sonar.cxx.sslr.internal.vm.lexerful.AnyTokenExpression;
+import org.sonar.cxx.sslr.internal.vm.lexerful.SynchronizationPointExpression;
 import org.sonar.cxx.sslr.internal.vm.lexerful.TillNewLineExpression;
 import org.sonar.cxx.sslr.internal.vm.lexerful.TokenTypeClassExpression;
 import org.sonar.cxx.sslr.internal.vm.lexerful.TokenTypeExpression;
@@ -189,6 +190,26 @@ public final class LexerfulGrammarBuilder extends GrammarBuilder {
     return TillNewLineExpression.INSTANCE;
   }
 
+  /**
+   * Creates parsing expression - "synchronization point", intended for error recovery. During execution of this
+   * expression parser will consume at least one token and all following tokens up to the next synchronization point.
+   * Brackets and blocks are balanced: parser stops after a terminator outside of brackets and blocks, after the
+   * closing brace of a complete block, or before a token starting a new line outside of brackets and blocks which is
+   * not the opening brace of a block. This expression never consumes EOF and fails, if end of input reached. Use it
+   * instead of {@code anyToken()} in recovery rules, so that the alternatives are retried only at plausible
+   * positions.
+   *
+   * @param terminators types of tokens ending a sequence outside of brackets and blocks (e.g. semicolon)
+   * @param blockOpen type of the token opening a block (e.g. left curly brace)
+   * @param blockClose type of the token closing a block (e.g. right curly brace)
+   * @param openingBrackets types of other tokens increasing the nesting level (e.g. left parenthesis)
+   * @param closingBrackets types of other tokens decreasing the nesting level (e.g. right parenthesis)
+   */
+  public Object synchronizationPoint(TokenType[] terminators, TokenType blockOpen, TokenType blockClose,
+                                     TokenType[] openingBrackets, TokenType[] closingBrackets) {
+    return new SynchronizationPointExpression(terminators, blockOpen, blockClose, openingBrackets, closingBrackets);
+  }
+
   /**
    * Creates parsing expression - "till". Equivalent of expression
    * {@code sequence(zeroOrMore(nextNot(e), anyToken()), e)}. Do not overuse this method.
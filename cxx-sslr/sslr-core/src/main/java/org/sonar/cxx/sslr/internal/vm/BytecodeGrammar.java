@@ -0,0 +1,59 @@
+/*
+ * C++ Community Plugin (cxx plugin)
+ * Copyright (C) 2022-2024 SonarOpenCommunity
+ * http://github.com/SonarOpenCommunity/sonar-cxx
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.cxx.sslr.internal.vm;
+
+/**
+ * Grammar compiled to JVM bytecode by {@link BytecodeGrammarCompiler}, executed by
+ * {@link Machine#parse(java.util.List, BytecodeGrammar, com.sonar.cxx.sslr.api.ParseBudget)}.
+ */
+public final class BytecodeGrammar {
+
+  private final Program program;
+  private final int callTargets;
+
+  BytecodeGrammar(Program program, int callTargets) {
+    this.program = program;
+    this.callTargets = callTargets;
+  }
+
+  public Program getProgram() {
+    return program;
+  }
+
+  /**
+   * Number of rules and token expressions, which are checked for left recursion.
+   */
+  public int getCallTargets() {
+    return callTargets;
+  }
+
+  /**
+   * Implemented by the generated class.
+   */
+  public interface Program {
+
+    /**
+     * Matches the root rule at the current index of the machine.
+     */
+    boolean parse(Machine machine);
+
+  }
+
+}
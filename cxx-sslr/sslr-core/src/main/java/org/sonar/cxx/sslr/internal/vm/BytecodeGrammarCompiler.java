@@ -0,0 +1,546 @@
+/*
+ * C++ Community Plugin (cxx plugin)
+ * Copyright (C) 2022-2024 SonarOpenCommunity
+ * http://github.com/SonarOpenCommunity/sonar-cxx
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.cxx.sslr.internal.vm;
+
+import com.sonar.cxx.sslr.api.RecognitionException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+import org.sonar.cxx.sslr.grammar.GrammarException;
+import org.sonar.cxx.sslr.internal.matchers.Matcher;
+import org.sonar.cxx.sslr.internal.vm.lexerful.TokenTypeExpression;
+import org.sonar.cxx.sslr.internal.vm.lexerful.TokenValueExpression;
+
+/**
+ * Compiles the rules of a lexerful grammar into a class with one method per rule, as alternative to the
+ * {@link Instruction instructions} interpreted by the {@link Machine}.
+ *
+ * Sequence, ordered choice, repetition and predicates become control flow of the generated methods, token type and
+ * token value tests are compared inline, other {@link NativeExpression native expressions} are executed by the
+ * machine. Rule invocations use the memoization, left recursion detection and error reporting of the machine, so the
+ * parse tree and the reported errors are the same as with the interpreter.
+ *
+ * Each method has the following form, the first statement is omitted for rules without memoization:
+ * <pre>
+ * if (machine.memoized(RULE)) return true;
+ * int startIndex = machine.getIndex();
+ * int nodeCount = machine.getNodeCount();
+ * boolean ignoreErrors = machine.isIgnoreErrors();
+ * int leftRecursion = machine.enterRule(ID, RULE);
+ * if (expression) {
+ *   machine.exitRule(ID, leftRecursion, RULE, startIndex, nodeCount, ignoreErrors);
+ *   return true;
+ * }
+ * machine.failRule(ID, leftRecursion, ignoreErrors);
+ * return false;
+ * </pre>
+ */
+public final class BytecodeGrammarCompiler {
+
+  private static final String CLASS_NAME = "GeneratedBySSLR$Grammar";
+  private static final String MACHINE = Type.getInternalName(Machine.class);
+  private static final String MATCHER = Type.getDescriptor(Matcher.class);
+  private static final String RULE_DESCRIPTOR = "(" + Type.getDescriptor(Machine.class) + ")Z";
+
+  // number of constants initialized by one method, keeps the methods below the size limit of the JVM
+  private static final int CONSTANTS_PER_INIT_METHOD = 1000;
+
+  // local variables of a rule method
+  private static final int MACHINE_VAR = 1;
+  private static final int START_INDEX_VAR = 2;
+  private static final int NODE_COUNT_VAR = 3;
+  private static final int IGNORE_ERRORS_VAR = 4;
+  private static final int LEFT_RECURSION_VAR = 5;
+  private static final int FIRST_FREE_VAR = 6;
+
+  private final ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS | ClassWriter.COMPUTE_FRAMES);
+
+  // rule keys and token expressions (by identity) to the number of their method
+  private final Map<Object, Integer> targets = new HashMap<>();
+  private final Queue<Runnable> pending = new ArrayDeque<>();
+
+  private final Map<Object, Integer> constantIndexes = new IdentityHashMap<>();
+  private final List<Object> constants = new ArrayList<>();
+  private final List<String> constantDescriptors = new ArrayList<>();
+
+  private MethodVisitor mv;
+  private int nextVar;
+
+  private BytecodeGrammarCompiler() {
+  }
+
+  /**
+   * Compiles the rules reachable from the given root rule. The rules must not be changed afterwards.
+   *
+   * @throws GrammarException if the grammar contains an expression which is not supported
+   */
+  public static BytecodeGrammar compile(CompilableGrammarRule rule) {
+    return new BytecodeGrammarCompiler().doCompile(rule);
+  }
+
+  private BytecodeGrammar doCompile(CompilableGrammarRule root) {
+    cw.visit(
+      Opcodes.V1_8,
+      Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL | Opcodes.ACC_SUPER,
+      CLASS_NAME,
+      null,
+      Type.getInternalName(Object.class),
+      new String[]{Type.getInternalName(BytecodeGrammar.Program.class)});
+
+    int rootTarget = target(root);
+    while (!pending.isEmpty()) {
+      pending.poll().run();
+    }
+
+    generateParseMethod(rootTarget);
+    generateConstructor();
+    cw.visitEnd();
+
+    var classBytes = cw.toByteArray();
+    try {
+      var cls = new GeneratedClassLoader(Machine.class.getClassLoader()).define(CLASS_NAME, classBytes);
+      var program = (BytecodeGrammar.Program) cls.getConstructor(Object[].class).newInstance(
+        (Object) constants.toArray());
+      return new BytecodeGrammar(program, targets.size());
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private int target(CompilableGrammarRule rule) {
+    var id = targets.get(rule.getRuleKey());
+    if (id == null) {
+      id = targets.size();
+      targets.put(rule.getRuleKey(), id);
+      int ruleId = id;
+      pending.add(() -> generateRuleMethod(ruleId, rule, rule.getExpression(), true));
+    }
+    return id;
+  }
+
+  private int target(Matcher tokenExpression, ParsingExpression subExpression) {
+    var id = targets.get(new IdentityKey(tokenExpression));
+    if (id == null) {
+      id = targets.size();
+      targets.put(new IdentityKey(tokenExpression), id);
+      int ruleId = id;
+      pending.add(() -> generateRuleMethod(ruleId, tokenExpression, subExpression, false));
+    }
+    return id;
+  }
+
+  private void generateRuleMethod(int id, Matcher matcher, ParsingExpression expression, boolean rule) {
+    if (expression == null) {
+      throw new GrammarException("The rule '" + matcher + "' hasn't been defined.");
+    }
+    mv = cw.visitMethod(Opcodes.ACC_PRIVATE, ruleMethodName(id), RULE_DESCRIPTOR, null, null);
+    mv.visitCode();
+    nextVar = FIRST_FREE_VAR;
+
+    if (matcher instanceof MemoParsingExpression memo && memo.shouldMemoize()) {
+      var enter = new Label();
+      mv.visitVarInsn(Opcodes.ALOAD, MACHINE_VAR);
+      loadConstant(matcher, MATCHER);
+      invokeMachine("memoized", "(" + MATCHER + ")Z");
+      mv.visitJumpInsn(Opcodes.IFEQ, enter);
+      mv.visitInsn(Opcodes.ICONST_1);
+      mv.visitInsn(Opcodes.IRETURN);
+      mv.visitLabel(enter);
+    }
+
+    saveState(START_INDEX_VAR, NODE_COUNT_VAR);
+    mv.visitVarInsn(Opcodes.ALOAD, MACHINE_VAR);
+    invokeMachine("isIgnoreErrors", "()Z");
+    mv.visitVarInsn(Opcodes.ISTORE, IGNORE_ERRORS_VAR);
+    mv.visitVarInsn(Opcodes.ALOAD, MACHINE_VAR);
+    pushInt(id);
+    loadConstant(matcher, MATCHER);
+    invokeMachine("enterRule", "(I" + MATCHER + ")I");
+    mv.visitVarInsn(Opcodes.ISTORE, LEFT_RECURSION_VAR);
+    if (!rule) {
+      setIgnoreErrors(true);
+    }
+
+    var fail = new Label();
+    expression(expression, fail);
+
+    mv.visitVarInsn(Opcodes.ALOAD, MACHINE_VAR);
+    pushInt(id);
+    mv.visitVarInsn(Opcodes.ILOAD, LEFT_RECURSION_VAR);
+    loadConstant(matcher, MATCHER);
+    mv.visitVarInsn(Opcodes.ILOAD, START_INDEX_VAR);
+    mv.visitVarInsn(Opcodes.ILOAD, NODE_COUNT_VAR);
+    mv.visitVarInsn(Opcodes.ILOAD, IGNORE_ERRORS_VAR);
+    invokeMachine("exitRule", "(II" + MATCHER + "IIZ)V");
+    mv.visitInsn(Opcodes.ICONST_1);
+    mv.visitInsn(Opcodes.IRETURN);
+
+    mv.visitLabel(fail);
+    mv.visitVarInsn(Opcodes.ALOAD, MACHINE_VAR);
+    pushInt(id);
+    mv.visitVarInsn(Opcodes.ILOAD, LEFT_RECURSION_VAR);
+    mv.visitVarInsn(Opcodes.ILOAD, IGNORE_ERRORS_VAR);
+    invokeMachine("failRule", "(IIZ)V");
+    mv.visitInsn(Opcodes.ICONST_0);
+    mv.visitInsn(Opcodes.IRETURN);
+
+    mv.visitMaxs(0, 0);
+    mv.visitEnd();
+  }
+
+  /**
+   * Generates the code of an expression, which continues after the code if the expression matches and jumps to
+   * {@code fail} otherwise.
+   */
+  private void expression(ParsingExpression expression, Label fail) {
+    if (expression instanceof CompilableGrammarRule rule) {
+      call(target(rule), fail);
+    } else if (expression instanceof TokenExpression token) {
+      call(target(token, token.getSubExpression()), fail);
+    } else if (expression instanceof TriviaExpression trivia) {
+      call(target(trivia, trivia.getSubExpression()), fail);
+    } else if (expression instanceof SequenceExpression sequence) {
+      for (var subExpression : sequence.getSubExpressions()) {
+        expression(subExpression, fail);
+      }
+    } else if (expression instanceof FirstOfExpression firstOf) {
+      firstOf(firstOf.getSubExpressions(), fail);
+    } else if (expression instanceof OptionalExpression optional) {
+      optional(optional.getSubExpression());
+    } else if (expression instanceof ZeroOrMoreExpression zeroOrMore) {
+      zeroOrMore(zeroOrMore.getSubExpression());
+    } else if (expression instanceof OneOrMoreExpression oneOrMore) {
+      oneOrMore(oneOrMore.getSubExpression(), fail);
+    } else if (expression instanceof NextExpression next) {
+      next(next.getSubExpression(), fail);
+    } else if (expression instanceof NextNotExpression nextNot) {
+      nextNot(nextNot.getSubExpression(), fail);
+    } else if (expression instanceof TokenTypeExpression tokenType) {
+      tokenType(tokenType, fail);
+    } else if (expression instanceof TokenValueExpression tokenValue) {
+      tokenValue(tokenValue, fail);
+    } else if (expression instanceof NativeExpression nativeExpression) {
+      mv.visitVarInsn(Opcodes.ALOAD, MACHINE_VAR);
+      loadConstant(nativeExpression, Type.getDescriptor(Instruction.class));
+      invokeMachine("executeNative", "(" + Type.getDescriptor(Instruction.class) + ")Z");
+      mv.visitJumpInsn(Opcodes.IFEQ, fail);
+    } else {
+      throw new GrammarException("The expression '" + expression + "' cannot be compiled to bytecode.");
+    }
+  }
+
+  private void call(int target, Label fail) {
+    mv.visitVarInsn(Opcodes.ALOAD, 0);
+    mv.visitVarInsn(Opcodes.ALOAD, MACHINE_VAR);
+    mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, CLASS_NAME, ruleMethodName(target), RULE_DESCRIPTOR, false);
+    mv.visitJumpInsn(Opcodes.IFEQ, fail);
+  }
+
+  /**
+   * All alternatives except the last one restore the state if they do not match, the last one fails the expression.
+   */
+  private void firstOf(ParsingExpression[] alternatives, Label fail) {
+    if (alternatives.length < 1) {
+      throw new RecognitionException(1, "FirstOfExpression: no subExpression");
+    }
+    var end = new Label();
+    int index = newVar();
+    int nodeCount = newVar();
+    saveState(index, nodeCount);
+    for (int i = 0; i < alternatives.length - 1; i++) {
+      var next = new Label();
+      expression(alternatives[i], next);
+      mv.visitJumpInsn(Opcodes.GOTO, end);
+      mv.visitLabel(next);
+      restoreState(index, nodeCount);
+    }
+    expression(alternatives[alternatives.length - 1], fail);
+    mv.visitLabel(end);
+  }
+
+  private void optional(ParsingExpression subExpression) {
+    var end = new Label();
+    var restore = new Label();
+    int index = newVar();
+    int nodeCount = newVar();
+    saveState(index, nodeCount);
+    expression(subExpression, restore);
+    mv.visitJumpInsn(Opcodes.GOTO, end);
+    mv.visitLabel(restore);
+    restoreState(index, nodeCount);
+    mv.visitLabel(end);
+  }
+
+  private void zeroOrMore(ParsingExpression subExpression) {
+    var loop = new Label();
+    var restore = new Label();
+    int index = newVar();
+    int nodeCount = newVar();
+    mv.visitLabel(loop);
+    saveState(index, nodeCount);
+    expression(subExpression, restore);
+    verifyProgress(index);
+    mv.visitJumpInsn(Opcodes.GOTO, loop);
+    mv.visitLabel(restore);
+    restoreState(index, nodeCount);
+  }
+
+  /**
+   * The first iteration restores the state before failing, as the interpreter reports the error at the start of the
+   * expression.
+   */
+  private void oneOrMore(ParsingExpression subExpression, Label fail) {
+    var first = new Label();
+    int index = newVar();
+    int nodeCount = newVar();
+    saveState(index, nodeCount);
+    expression(subExpression, first);
+    verifyProgress(index);
+    zeroOrMore(subExpression);
+    var end = new Label();
+    mv.visitJumpInsn(Opcodes.GOTO, end);
+    mv.visitLabel(first);
+    restoreState(index, nodeCount);
+    mv.visitJumpInsn(Opcodes.GOTO, fail);
+    mv.visitLabel(end);
+  }
+
+  private void next(ParsingExpression subExpression, Label fail) {
+    var restore = new Label();
+    int index = newVar();
+    int nodeCount = newVar();
+    saveState(index, nodeCount);
+    expression(subExpression, restore);
+    restoreState(index, nodeCount);
+    var end = new Label();
+    mv.visitJumpInsn(Opcodes.GOTO, end);
+    mv.visitLabel(restore);
+    restoreState(index, nodeCount);
+    mv.visitJumpInsn(Opcodes.GOTO, fail);
+    mv.visitLabel(end);
+  }
+
+  /**
+   * Errors are ignored within the predicate, the flag is restored on both paths because a failure can be handled by
+   * an enclosing alternative of the same rule.
+   */
+  private void nextNot(ParsingExpression subExpression, Label fail) {
+    var matched = new Label();
+    int index = newVar();
+    int nodeCount = newVar();
+    int ignoreErrors = newVar();
+    saveState(index, nodeCount);
+    mv.visitVarInsn(Opcodes.ALOAD, MACHINE_VAR);
+    invokeMachine("isIgnoreErrors", "()Z");
+    mv.visitVarInsn(Opcodes.ISTORE, ignoreErrors);
+    setIgnoreErrors(true);
+    expression(subExpression, matched);
+    restoreState(index, nodeCount);
+    mv.visitVarInsn(Opcodes.ALOAD, MACHINE_VAR);
+    mv.visitVarInsn(Opcodes.ILOAD, ignoreErrors);
+    invokeMachine("setIgnoreErrors", "(Z)V");
+    mv.visitJumpInsn(Opcodes.GOTO, fail);
+    mv.visitLabel(matched);
+    restoreState(index, nodeCount);
+    mv.visitVarInsn(Opcodes.ALOAD, MACHINE_VAR);
+    mv.visitVarInsn(Opcodes.ILOAD, ignoreErrors);
+    invokeMachine("setIgnoreErrors", "(Z)V");
+  }
+
+  private void tokenType(TokenTypeExpression expression, Label fail) {
+    mv.visitVarInsn(Opcodes.ALOAD, MACHINE_VAR);
+    invokeMachine("tokenType", "()" + Type.getDescriptor(com.sonar.cxx.sslr.api.TokenType.class));
+    loadConstant(expression.getType(), Type.getDescriptor(Object.class));
+    mv.visitJumpInsn(Opcodes.IF_ACMPNE, fail);
+    createLeafNode(expression);
+  }
+
+  private void tokenValue(TokenValueExpression expression, Label fail) {
+    mv.visitLdcInsn(expression.getValue());
+    mv.visitVarInsn(Opcodes.ALOAD, MACHINE_VAR);
+    invokeMachine("tokenValue", "()" + Type.getDescriptor(String.class));
+    mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, Type.getInternalName(String.class), "equals",
+      "(" + Type.getDescriptor(Object.class) + ")Z", false);
+    mv.visitJumpInsn(Opcodes.IFEQ, fail);
+    createLeafNode(expression);
+  }
+
+  private void createLeafNode(Matcher matcher) {
+    mv.visitVarInsn(Opcodes.ALOAD, MACHINE_VAR);
+    loadConstant(matcher, MATCHER);
+    mv.visitInsn(Opcodes.ICONST_1);
+    invokeMachine("createLeafNode", "(" + MATCHER + "I)V");
+  }
+
+  private void saveState(int index, int nodeCount) {
+    mv.visitVarInsn(Opcodes.ALOAD, MACHINE_VAR);
+    invokeMachine("getIndex", "()I");
+    mv.visitVarInsn(Opcodes.ISTORE, index);
+    mv.visitVarInsn(Opcodes.ALOAD, MACHINE_VAR);
+    invokeMachine("getNodeCount", "()I");
+    mv.visitVarInsn(Opcodes.ISTORE, nodeCount);
+  }
+
+  private void restoreState(int index, int nodeCount) {
+    mv.visitVarInsn(Opcodes.ALOAD, MACHINE_VAR);
+    mv.visitVarInsn(Opcodes.ILOAD, index);
+    mv.visitVarInsn(Opcodes.ILOAD, nodeCount);
+    invokeMachine("restore", "(II)V");
+  }
+
+  private void verifyProgress(int index) {
+    mv.visitVarInsn(Opcodes.ALOAD, MACHINE_VAR);
+    mv.visitVarInsn(Opcodes.ILOAD, index);
+    invokeMachine("verifyProgress", "(I)V");
+  }
+
+  private void setIgnoreErrors(boolean value) {
+    mv.visitVarInsn(Opcodes.ALOAD, MACHINE_VAR);
+    mv.visitInsn(value ? Opcodes.ICONST_1 : Opcodes.ICONST_0);
+    invokeMachine("setIgnoreErrors", "(Z)V");
+  }
+
+  private void invokeMachine(String name, String descriptor) {
+    mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, MACHINE, name, descriptor, false);
+  }
+
+  private int newVar() {
+    return nextVar++;
+  }
+
+  private void pushInt(int value) {
+    if (value <= 5) {
+      mv.visitInsn(Opcodes.ICONST_0 + value);
+    } else if (value <= Byte.MAX_VALUE) {
+      mv.visitIntInsn(Opcodes.BIPUSH, value);
+    } else if (value <= Short.MAX_VALUE) {
+      mv.visitIntInsn(Opcodes.SIPUSH, value);
+    } else {
+      mv.visitLdcInsn(value);
+    }
+  }
+
+  /**
+   * Constants are stored in fields of the generated class, a field has the type of its first use.
+   */
+  private void loadConstant(Object value, String descriptor) {
+    var index = constantIndexes.get(value);
+    if (index == null) {
+      index = constants.size();
+      constantIndexes.put(value, index);
+      constants.add(value);
+      constantDescriptors.add(descriptor);
+      cw.visitField(Opcodes.ACC_PRIVATE, constantName(index), descriptor, null, null).visitEnd();
+    }
+    mv.visitVarInsn(Opcodes.ALOAD, 0);
+    mv.visitFieldInsn(Opcodes.GETFIELD, CLASS_NAME, constantName(index), constantDescriptors.get(index));
+    if (!descriptor.equals(constantDescriptors.get(index))) {
+      mv.visitTypeInsn(Opcodes.CHECKCAST, Type.getType(descriptor).getInternalName());
+    }
+  }
+
+  private void generateParseMethod(int rootTarget) {
+    mv = cw.visitMethod(Opcodes.ACC_PUBLIC, "parse", RULE_DESCRIPTOR, null, null);
+    mv.visitCode();
+    mv.visitVarInsn(Opcodes.ALOAD, 0);
+    mv.visitVarInsn(Opcodes.ALOAD, MACHINE_VAR);
+    mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, CLASS_NAME, ruleMethodName(rootTarget), RULE_DESCRIPTOR, false);
+    mv.visitInsn(Opcodes.IRETURN);
+    mv.visitMaxs(0, 0);
+    mv.visitEnd();
+  }
+
+  private void generateConstructor() {
+    var descriptor = "([" + Type.getDescriptor(Object.class) + ")V";
+    mv = cw.visitMethod(Opcodes.ACC_PUBLIC, "<init>", descriptor, null, null);
+    mv.visitCode();
+    mv.visitVarInsn(Opcodes.ALOAD, 0);
+    mv.visitMethodInsn(Opcodes.INVOKESPECIAL, Type.getInternalName(Object.class), "<init>", "()V", false);
+    for (int from = 0; from < constants.size(); from += CONSTANTS_PER_INIT_METHOD) {
+      mv.visitVarInsn(Opcodes.ALOAD, 0);
+      mv.visitVarInsn(Opcodes.ALOAD, 1);
+      mv.visitMethodInsn(Opcodes.INVOKESPECIAL, CLASS_NAME, "init" + from, descriptor, false);
+    }
+    mv.visitInsn(Opcodes.RETURN);
+    mv.visitMaxs(0, 0);
+    mv.visitEnd();
+
+    for (int from = 0; from < constants.size(); from += CONSTANTS_PER_INIT_METHOD) {
+      mv = cw.visitMethod(Opcodes.ACC_PRIVATE, "init" + from, descriptor, null, null);
+      mv.visitCode();
+      for (int i = from; i < Math.min(from + CONSTANTS_PER_INIT_METHOD, constants.size()); i++) {
+        mv.visitVarInsn(Opcodes.ALOAD, 0);
+        mv.visitVarInsn(Opcodes.ALOAD, 1);
+        pushInt(i);
+        mv.visitInsn(Opcodes.AALOAD);
+        mv.visitTypeInsn(Opcodes.CHECKCAST, Type.getType(constantDescriptors.get(i)).getInternalName());
+        mv.visitFieldInsn(Opcodes.PUTFIELD, CLASS_NAME, constantName(i), constantDescriptors.get(i));
+      }
+      mv.visitInsn(Opcodes.RETURN);
+      mv.visitMaxs(0, 0);
+      mv.visitEnd();
+    }
+  }
+
+  private static String ruleMethodName(int target) {
+    return "rule" + target;
+  }
+
+  private static String constantName(int index) {
+    return "c" + index;
+  }
+
+  /**
+   * Token and trivia expressions do not override equals, but the key must not collide with a rule key.
+   */
+  private record IdentityKey(Object value) {
+
+    @Override
+    public boolean equals(Object obj) {
+      return obj instanceof IdentityKey other && other.value == value;
+    }
+
+    @Override
+    public int hashCode() {
+      return System.identityHashCode(value);
+    }
+  }
+
+  private static final class GeneratedClassLoader extends ClassLoader {
+
+    private GeneratedClassLoader(ClassLoader parent) {
+      super(parent);
+    }
+
+    private Class<?> define(String className, byte[] classBytes) {
+      return defineClass(className, classBytes, 0, classBytes.length);
+    }
+  }
+
+}
@@ -34,6 +34,10 @@ public class FirstOfExpression implements ParsingExpression {
     this.subExpressions = subExpressions;
   }
 
+  public ParsingExpression[] getSubExpressions() {
+    return subExpressions.clone();
+  }
+
   /**
    * Compiles this expression into a sequence of instructions:
    * <pre>
@@ -23,10 +23,13 @@
  */
 package org.sonar.cxx.sslr.internal.vm; // cxx: in use
 
+import com.sonar.cxx.sslr.api.ParseBudget;
 import com.sonar.cxx.sslr.api.RecognitionException;
 import com.sonar.cxx.sslr.api.Token;
+import com.sonar.cxx.sslr.api.TokenType;
 import java.util.Arrays;
 import java.util.List;
+import javax.annotation.CheckForNull;
 import javax.annotation.Nullable;
 import org.sonar.cxx.sslr.grammar.GrammarException;
 import org.sonar.cxx.sslr.internal.matchers.ImmutableInputBuffer;
@@ -39,6 +42,9 @@ import org.sonar.cxx.sslr.parser.ParsingResult;
 
 public class Machine implements CharSequence {
 
+  // number of instructions executed between two checks of the parse budget
+  private static final int BUDGET_CHECK_INTERVAL = 4096;
+
   private final char[] input;
   private final Token[] tokens;
   private final int inputLength;
@@ -57,6 +63,10 @@ public class Machine implements CharSequence {
 
   private boolean ignoreErrors = false;
 
+  // budget charged by code generated from a BytecodeGrammar, see enterRule
+  private ParseBudget budget;
+  private int budgetCountdown = BUDGET_CHECK_INTERVAL;
+
   private static final MachineHandler NOP_HANDLER = (Machine machine) -> {
     // nop
   };
@@ -67,6 +77,10 @@ public class Machine implements CharSequence {
 
   private Machine(@Nullable char[] input, @Nullable Token[] tokens, Instruction[] instructions,
     MachineHandler handler) {
+    this(input, tokens, instructions.length, handler);
+  }
+
+  private Machine(@Nullable char[] input, @Nullable Token[] tokens, int callTargets, MachineHandler handler) {
     this.input = input;
     this.tokens = tokens;
     if (input != null) {
@@ -82,7 +96,7 @@ public class Machine implements CharSequence {
     this.stack = new MachineStack();
     stack = stack.getOrCreateChild();
     stack.setIndex(-1);
-    calls = new int[instructions.length];
+    calls = new int[callTargets];
     Arrays.fill(calls, -1);
   }
 
@@ -92,15 +106,53 @@ public class Machine implements CharSequence {
   }
 
   public static ParseNode parse(List<Token> tokens, CompiledGrammar grammar) {
+    return parse(tokens, grammar, null);
+  }
+
+  /**
+   * Parse a list of tokens.
+   *
+   * @param tokens tokens to parse
+   * @param grammar compiled grammar
+   * @param budget budget charged with the executed instructions, null for unlimited
+   * @throws com.sonar.cxx.sslr.api.ParseBudgetExceededException if the budget is exhausted
+   */
+  public static ParseNode parse(List<Token> tokens, CompiledGrammar grammar, @Nullable ParseBudget budget) {
     var inputTokens = tokens.toArray(Token[]::new);
 
     var errorLocatingHandler = new ErrorLocatingHandler();
     var machine = new Machine(null, inputTokens, grammar.getInstructions(), errorLocatingHandler);
     machine.execute(grammar.getMatcher(grammar.getRootRuleKey()),
-      grammar.getRootRuleOffset(), grammar.getInstructions());
+      grammar.getRootRuleOffset(), grammar.getInstructions(), budget);
 
-    if (machine.matched) {
-      return machine.stack.subNodes().get(0);
+    return machine.getParseNode(tokens, errorLocatingHandler);
+  }
+
+  /**
+   * Parse a list of tokens with a grammar compiled to bytecode.
+   *
+   * The result and the reported errors are the same as for the {@link CompiledGrammar} of the same rules. The budget is
+   * charged with one instruction per rule invocation.
+   *
+   * @param tokens tokens to parse
+   * @param grammar grammar compiled by {@link BytecodeGrammarCompiler}
+   * @param budget budget charged with the rule invocations, null for unlimited
+   * @throws com.sonar.cxx.sslr.api.ParseBudgetExceededException if the budget is exhausted
+   */
+  public static ParseNode parse(List<Token> tokens, BytecodeGrammar grammar, @Nullable ParseBudget budget) {
+    var inputTokens = tokens.toArray(Token[]::new);
+
+    var errorLocatingHandler = new ErrorLocatingHandler();
+    var machine = new Machine(null, inputTokens, grammar.getCallTargets(), errorLocatingHandler);
+    machine.budget = budget;
+    machine.matched = grammar.getProgram().parse(machine);
+
+    return machine.getParseNode(tokens, errorLocatingHandler);
+  }
+
+  private ParseNode getParseNode(List<Token> tokens, ErrorLocatingHandler errorLocatingHandler) {
+    if (matched) {
+      return stack.subNodes().get(0);
     } else {
       if (tokens.isEmpty()) {
         // Godin: weird situation - I expect that list of tokens contains at least EOF,
@@ -121,7 +173,7 @@ public class Machine implements CharSequence {
 
     var errorLocatingHandler = new ErrorLocatingHandler();
     var machine = new Machine(input, null, instructions, errorLocatingHandler);
-    machine.execute(grammar.getMatcher(grammar.getRootRuleKey()), grammar.getRootRuleOffset(), instructions);
+    machine.execute(grammar.getMatcher(grammar.getRootRuleKey()), grammar.getRootRuleOffset(), instructions, null);
 
     if (machine.matched) {
       return new ParsingResult(
@@ -137,13 +189,17 @@ public class Machine implements CharSequence {
     }
   }
 
-  private void execute(Matcher matcher, int offset, Instruction[] instructions) {
+  private void execute(Matcher matcher, int offset, Instruction[] instructions, @Nullable ParseBudget budget) {
     // Place first rule on top of stack
     push(-1);
     stack.setMatcher(matcher);
     jump(offset);
 
-    execute(instructions);
+    if (budget != null) {
+      execute(instructions, budget);
+    } else {
+      execute(instructions);
+    }
   }
 
   // @VisibleForTesting
@@ -170,6 +226,17 @@ public class Machine implements CharSequence {
     }
   }
 
+  private void execute(Instruction[] instructions, ParseBudget budget) {
+    int countdown = BUDGET_CHECK_INTERVAL;
+    while (address != -1) {
+      instructions[address].execute(this);
+      if (--countdown == 0) {
+        budget.chargeInstructions(BUDGET_CHECK_INTERVAL);
+        countdown = BUDGET_CHECK_INTERVAL;
+      }
+    }
+  }
+
   public int getAddress() {
     return address;
   }
@@ -274,6 +341,129 @@ public class Machine implements CharSequence {
     index += offset;
   }
 
+  /*
+   * Operations used by the code generated for a BytecodeGrammar. The generated code calls rules by Java method
+   * invocations and keeps the nodes of all pending rules in the bottom frame of the stack.
+   */
+
+  /**
+   * Adds the memoized node of a rule if it was matched at the current index before.
+   *
+   * @return true if the memoized node has been used
+   */
+  public boolean memoized(Matcher matcher) {
+    var memo = memos[index];
+    if (memo != null && memo.getMatcher() == matcher) {
+      stack.subNodes().add(memo);
+      index = memo.getEndIndex();
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Enters a rule: charges the budget and checks for left recursion.
+   *
+   * @return value to pass to {@link #exitRule} or {@link #failRule}
+   */
+  public int enterRule(int callTarget, Matcher matcher) {
+    if (budget != null && --budgetCountdown == 0) {
+      budget.chargeInstructions(BUDGET_CHECK_INTERVAL);
+      budgetCountdown = BUDGET_CHECK_INTERVAL;
+    }
+    int leftRecursion = calls[callTarget];
+    if (leftRecursion == index) {
+      throw new GrammarException("Left recursion has been detected, involved rule: " + matcher.toString());
+    }
+    calls[callTarget] = index;
+    return leftRecursion;
+  }
+
+  /**
+   * Exits a matched rule: replaces the nodes created since {@code nodeCount} by the node of the rule.
+   */
+  public void exitRule(int callTarget, int leftRecursion, Matcher matcher, int startIndex, int nodeCount,
+    boolean ignoreErrors) {
+    var nodes = stack.subNodes();
+    var children = nodes.subList(nodeCount, nodes.size());
+    var node = new ParseNode(startIndex, index, children, matcher);
+    children.clear();
+    nodes.add(node);
+    if (matcher instanceof MemoParsingExpression && ((MemoParsingExpression) matcher).shouldMemoize()) {
+      memos[startIndex] = node;
+    }
+    this.ignoreErrors = ignoreErrors;
+    calls[callTarget] = leftRecursion;
+  }
+
+  /**
+   * Exits a rule which did not match, the error is reported at the current index.
+   */
+  public void failRule(int callTarget, int leftRecursion, boolean ignoreErrors) {
+    this.ignoreErrors = ignoreErrors;
+    if (!ignoreErrors) {
+      handler.onBacktrack(this);
+    }
+    calls[callTarget] = leftRecursion;
+  }
+
+  /**
+   * Restores the state saved before an alternative: the index and the number of nodes.
+   */
+  public void restore(int index, int nodeCount) {
+    this.index = index;
+    var nodes = stack.subNodes();
+    for (int i = nodes.size() - 1; i >= nodeCount; i--) {
+      nodes.remove(i);
+    }
+  }
+
+  public int getNodeCount() {
+    return stack.subNodes().size();
+  }
+
+  public boolean isIgnoreErrors() {
+    return ignoreErrors;
+  }
+
+  /**
+   * Checks that an iteration of ZeroOrMore or OneOrMore has consumed input.
+   */
+  public void verifyProgress(int startIndex) {
+    if (index == startIndex) {
+      throw new GrammarException("The inner part of ZeroOrMore and OneOrMore must not allow empty matches");
+    }
+  }
+
+  /**
+   * Executes a native expression.
+   *
+   * @return true if the expression matched
+   */
+  public boolean executeNative(Instruction instruction) {
+    // a native expression either jumps to the next instruction or backtracks, which sets the address to -1 as the
+    // bottom frame of the stack is empty
+    address = 0;
+    instruction.execute(this);
+    return address == 1;
+  }
+
+  /**
+   * Type of the current token, null at the end of input.
+   */
+  @CheckForNull
+  public TokenType tokenType() {
+    return index < inputLength ? tokens[index].getType() : null;
+  }
+
+  /**
+   * Value of the current token, null at the end of input.
+   */
+  @CheckForNull
+  public String tokenValue() {
+    return index < inputLength ? tokens[index].getValue() : null;
+  }
+
   public int getIndex() {
     return index;
   }
@@ -31,6 +31,10 @@ public class OneOrMoreExpression implements ParsingExpression {
     this.subExpression = subExpression;
   }
 
+  public ParsingExpression getSubExpression() {
+    return subExpression;
+  }
+
   /**
    * Compiles this expression into a sequence of instructions:
    * <pre>
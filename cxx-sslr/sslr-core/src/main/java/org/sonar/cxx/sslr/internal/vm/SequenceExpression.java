@@ -35,6 +35,10 @@ public class SequenceExpression implements ParsingExpression {
     this.subExpressions = subExpressions;
   }
 
+  public ParsingExpression[] getSubExpressions() {
+    return subExpressions.clone();
+  }
+
   /**
    * Compiles this expression into a sequence of instructions:
    * <pre>
@@ -0,0 +1,129 @@
+/*
+ * C++ Community Plugin (cxx plugin)
+ * Copyright (C) 2022-2024 SonarOpenCommunity
+ * http://github.com/SonarOpenCommunity/sonar-cxx
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.cxx.sslr.internal.vm.lexerful;
+
+import com.sonar.cxx.sslr.api.GenericTokenType;
+import com.sonar.cxx.sslr.api.TokenType;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import org.sonar.cxx.sslr.internal.matchers.Matcher;
+import org.sonar.cxx.sslr.internal.vm.Machine;
+import org.sonar.cxx.sslr.internal.vm.NativeExpression;
+
+/**
+ * Error recovery: consumes tokens up to the next synchronization point.
+ *
+ * At least one token is consumed. Parentheses, square brackets and blocks are balanced; the closing brace of a block
+ * also closes all brackets left open inside of it. Synchronization points are:
+ * <ul>
+ * <li>after a terminator (e.g. ';') outside of brackets and blocks</li>
+ * <li>after the closing brace of a block at nesting level zero, so a block is always skipped completely</li>
+ * <li>before a token starting a new line outside of brackets and blocks, if it is not the opening brace of a block
+ * (e.g. after an unknown macro without trailing semicolon)</li>
+ * </ul>
+ * If the end of input is reached inside of an unbalanced bracket or block, only the tokens up to and including the
+ * first opening bracket are consumed, so an unbalanced bracket cannot swallow the rest of the file. The expression
+ * never consumes EOF and fails only at the end of input.
+ */
+public class SynchronizationPointExpression extends NativeExpression implements Matcher {
+
+  private final TokenType[] terminators;
+  private final TokenType blockOpen;
+  private final TokenType blockClose;
+  private final TokenType[] openingBrackets;
+  private final TokenType[] closingBrackets;
+
+  public SynchronizationPointExpression(TokenType[] terminators, TokenType blockOpen, TokenType blockClose,
+                                        TokenType[] openingBrackets, TokenType[] closingBrackets) {
+    this.terminators = terminators.clone();
+    this.blockOpen = blockOpen;
+    this.blockClose = blockClose;
+    this.openingBrackets = openingBrackets.clone();
+    this.closingBrackets = closingBrackets.clone();
+  }
+
+  @Override
+  public void execute(Machine machine) {
+    int length = machine.length();
+    if (length == 0 || machine.tokenAt(0).getType() == GenericTokenType.EOF) {
+      machine.backtrack();
+      return;
+    }
+    int offset = 0;
+    int depth = 0;
+    var blocks = new ArrayDeque<Integer>();
+    int firstOpening = -1;
+    while (true) {
+      var token = machine.tokenAt(offset);
+      var type = token.getType();
+      offset++;
+      if (type == blockOpen || contains(openingBrackets, type)) {
+        if (firstOpening < 0) {
+          firstOpening = offset;
+        }
+        if (type == blockOpen) {
+          blocks.push(depth);
+        }
+        depth++;
+      } else if (type == blockClose) {
+        depth = blocks.isEmpty() ? 0 : blocks.pop();
+        if (depth == 0) {
+          break;
+        }
+      } else if (contains(closingBrackets, type)) {
+        if (blocks.isEmpty() ? depth > 0 : depth > blocks.peek() + 1) {
+          depth--;
+        }
+      } else if (depth == 0 && contains(terminators, type)) {
+        break;
+      }
+      var next = offset < length ? machine.tokenAt(offset) : null;
+      if (next == null || next.getType() == GenericTokenType.EOF) {
+        if (depth > 0) {
+          // unbalanced: skip only up to the first opening bracket
+          offset = firstOpening;
+        }
+        break;
+      }
+      if (depth == 0 && next.getLine() > token.getLine() && next.getType() != blockOpen) {
+        break;
+      }
+    }
+    for (int i = 0; i < offset; i++) {
+      machine.createLeafNode(this, 1);
+    }
+    machine.jump(1);
+  }
+
+  private static boolean contains(TokenType[] types, TokenType type) {
+    for (var t : types) {
+      if (t == type) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public String toString() {
+    return "SynchronizationPoint" + Arrays.toString(terminators) + "[" + blockOpen + ", " + blockClose + "]";
+  }
+
+}
@@ -35,6 +35,10 @@ public class TokenValueExpression extends NativeExpression implements Matcher {
     this.value = value;
   }
 
+  public String getValue() {
+    return value;
+  }
+
   @Override
   public void execute(Machine machine) {
     if (machine.length() == 0) {
@@ -0,0 +1,156 @@
+/*
+ * C++ Community Plugin (cxx plugin)
+ * Copyright (C) 2022-2024 SonarOpenCommunity
+ * http://github.com/SonarOpenCommunity/sonar-cxx
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package com.sonar.cxx.sslr.api;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import static org.assertj.core.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+class AstNodeIndexTest {
+
+  private static final AstNodeType[] TYPES = {Types.A, Types.B, Types.C, Types.D};
+
+  @Test
+  void queriesAreSameAsWithoutIndex() {
+    var random = new Random(42);
+    for (int n = 0; n < 50; n++) {
+      var seed = random.nextLong();
+      var plain = new ArrayList<AstNode>();
+      var indexed = new ArrayList<AstNode>();
+      randomTree(new Random(seed), plain);
+      var index = AstNodeIndex.build(randomTree(new Random(seed), indexed));
+      assertThat(index.size()).isEqualTo(indexed.size());
+
+      for (int i = 0; i < plain.size(); i++) {
+        for (var nodeTypes : queries()) {
+          assertThat(names(indexed.get(i).getDescendants(nodeTypes)))
+            .isEqualTo(names(plain.get(i).getDescendants(nodeTypes)));
+          assertThat(name(indexed.get(i).getFirstDescendant(nodeTypes)))
+            .isEqualTo(name(plain.get(i).getFirstDescendant(nodeTypes)));
+          assertThat(indexed.get(i).hasDescendant(nodeTypes)).isEqualTo(plain.get(i).hasDescendant(nodeTypes));
+        }
+        assertThat(name(indexed.get(i).getNextAstNode())).isEqualTo(name(plain.get(i).getNextAstNode()));
+      }
+    }
+  }
+
+  /**
+   * <pre>
+   *   A1
+   *   |- C1
+   *   |   \- A2
+   *   \- C2
+   * </pre>
+   */
+  @Test
+  void repeatedNodeTypesReturnNodesOnce() {
+    var a1 = new AstNode(Types.A, "a1", null);
+    var c1 = new AstNode(Types.C, "c1", null);
+    var a2 = new AstNode(Types.A, "a2", null);
+    var c2 = new AstNode(Types.C, "c2", null);
+    a1.addChild(c1);
+    c1.addChild(a2);
+    a1.addChild(c2);
+    assertThat(a1.getDescendants(Types.C, Types.A, Types.C)).containsExactly(c1, a2, c2);
+
+    AstNodeIndex.build(a1);
+    assertThat(a1.getDescendants(Types.C, Types.A, Types.C)).containsExactly(c1, a2, c2);
+    assertThat(a1.getDescendants(Types.C, Types.C)).containsExactly(c1, c2);
+  }
+
+  /**
+   * <pre>
+   *   A1
+   *   |- B1
+   *   |   \- C1
+   *   \- B2
+   * </pre>
+   */
+  @Test
+  void addChildDiscardsIndex() {
+    var a1 = new AstNode(Types.A, "a1", null);
+    var b1 = new AstNode(Types.B, "b1", null);
+    var c1 = new AstNode(Types.C, "c1", null);
+    var b2 = new AstNode(Types.B, "b2", null);
+    a1.addChild(b1);
+    b1.addChild(c1);
+    a1.addChild(b2);
+    AstNodeIndex.build(a1);
+    assertThat(a1.getDescendants(Types.C)).containsExactly(c1);
+    assertThat(c1.getNextAstNode()).isSameAs(b2);
+
+    var c2 = new AstNode(Types.C, "c2", null);
+    b2.addChild(c2);
+    assertThat(a1.getDescendants(Types.C)).containsExactly(c1, c2);
+    assertThat(b2.getFirstDescendant(Types.C)).isSameAs(c2);
+  }
+
+  @Test
+  void movedNodeDiscardsIndex() {
+    var a1 = new AstNode(Types.A, "a1", null);
+    var b1 = new AstNode(Types.B, "b1", null);
+    var c1 = new AstNode(Types.C, "c1", null);
+    var b2 = new AstNode(Types.B, "b2", null);
+    a1.addChild(b1);
+    b1.addChild(c1);
+    a1.addChild(b2);
+    AstNodeIndex.build(a1);
+
+    // new tree reusing a subtree of the indexed tree
+    var a2 = new AstNode(Types.A, "a2", null);
+    var b3 = new AstNode(Types.B, "b3", null);
+    a2.addChild(b1);
+    a2.addChild(b3);
+    assertThat(c1.getNextAstNode()).isSameAs(b3);
+    assertThat(a2.getDescendants(Types.B)).containsExactly(b1, b3);
+  }
+
+  private static List<AstNodeType[]> queries() {
+    return List.of(new AstNodeType[]{Types.A}, new AstNodeType[]{Types.D}, new AstNodeType[]{Types.B, Types.C},
+                   new AstNodeType[]{Types.C, Types.A, Types.C}, new AstNodeType[]{Types.E}, new AstNodeType[0]);
+  }
+
+  private static AstNode randomTree(Random random, List<AstNode> nodes) {
+    var root = new AstNode(Types.A, "n0", null);
+    nodes.add(root);
+    int size = 1 + random.nextInt(60);
+    for (int i = 1; i < size; i++) {
+      var node = new AstNode(TYPES[random.nextInt(TYPES.length)], "n" + i, null);
+      nodes.get(random.nextInt(nodes.size())).addChild(node);
+      nodes.add(node);
+    }
+    return root;
+  }
+
+  private static List<String> names(List<AstNode> nodes) {
+    return nodes.stream().map(AstNode::getName).toList();
+  }
+
+  private static String name(AstNode node) {
+    return node != null ? node.getName() : null;
+  }
+
+  private enum Types implements AstNodeType {
+    A, B, C, D, E
+  }
+
+}
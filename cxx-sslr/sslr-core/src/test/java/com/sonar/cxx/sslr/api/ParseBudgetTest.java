@@ -0,0 +1,152 @@
+/*
+ * C++ Community Plugin (cxx plugin)
+ * Copyright (C) 2022-2024 SonarOpenCommunity
+ * http://github.com/SonarOpenCommunity/sonar-cxx
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package com.sonar.cxx.sslr.api;
+
+import com.sonar.cxx.sslr.impl.Parser;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import static org.assertj.core.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import org.sonar.cxx.sslr.grammar.GrammarRuleKey;
+import org.sonar.cxx.sslr.grammar.LexerfulGrammarBuilder;
+
+class ParseBudgetTest {
+
+  @Test
+  void unlimited() {
+    var budget = new ParseBudget(0, 0, 0);
+    assertThat(budget.isLimited()).isFalse();
+    budget.chargeInstructions(Long.MAX_VALUE / 2);
+    assertThat(budget.chargeExpansion(Integer.MAX_VALUE)).isTrue();
+    assertThat(budget.isExceeded()).isFalse();
+    assertThat(budget.getExceededReason()).isNull();
+  }
+
+  @Test
+  void instructionLimit() {
+    var budget = new ParseBudget(100, 0, 0);
+    assertThat(budget.isLimited()).isTrue();
+    budget.chargeInstructions(100);
+    assertThatThrownBy(() -> budget.chargeInstructions(1))
+      .isInstanceOf(ParseBudgetExceededException.class)
+      .hasMessage("more than 100 parser instructions");
+    assertThat(budget.isExceeded()).isTrue();
+
+    budget.reset();
+    assertThat(budget.isExceeded()).isFalse();
+    budget.chargeInstructions(50);
+  }
+
+  @Test
+  void expansionLimit() {
+    var budget = new ParseBudget(0, 10, 0);
+    assertThat(budget.chargeExpansion(10)).isTrue();
+    assertThat(budget.chargeExpansion(1)).isFalse();
+    assertThat(budget.getExceededReason()).isEqualTo("more than 10 tokens produced by macro expansions");
+  }
+
+  @Test
+  void timeout() throws InterruptedException {
+    var budget = new ParseBudget(0, 0, 1);
+    Thread.sleep(10);
+    assertThat(budget.chargeExpansion(1)).isFalse();
+    assertThat(budget.getExceededReason()).isEqualTo("more than 1 ms");
+  }
+
+  @Test
+  void cancel() {
+    var budget = new ParseBudget(0, 0, 0);
+    budget.cancel();
+    assertThatThrownBy(() -> budget.chargeInstructions(1))
+      .isInstanceOf(ParseBudgetExceededException.class)
+      .hasMessage("cancelled");
+
+    budget.reset();
+    budget.chargeInstructions(1);
+    assertThat(budget.isExceeded()).isFalse();
+  }
+
+  @Test
+  void parserIsCancelled() {
+    var parser = Parser.builder(grammar()).withParseBudget(new ParseBudget(0, 0, 0)).build();
+    parser.getParseBudget().cancel();
+
+    assertThatThrownBy(() -> parser.parse(tokens(10_000)))
+      .isInstanceOf(ParseBudgetExceededException.class)
+      .hasMessage("cancelled");
+  }
+
+  @Test
+  void parserIsStoppedByBudget() {
+    var tokens = tokens(10_000);
+    var parser = Parser.builder(grammar()).withParseBudget(new ParseBudget(1_000, 0, 0)).build();
+    parser.getParseBudget().reset();
+
+    var thrown = catchThrowableOfType(ParseBudgetExceededException.class, () -> parser.parse(tokens));
+    assertThat(thrown.getTokens()).isSameAs(tokens);
+  }
+
+  @Test
+  void parserWithinBudget() {
+    var tokens = tokens(10);
+    var parser = Parser.builder(grammar()).withParseBudget(new ParseBudget(1_000_000, 0, 0)).build();
+    parser.getParseBudget().reset();
+
+    assertThat(parser.parse(tokens).getNumberOfChildren()).isEqualTo(11);
+  }
+
+  @Test
+  void tokenTreeOfExceededBudget() {
+    var parser = Parser.builder(grammar()).withParseBudget(new ParseBudget(1_000, 0, 0)).build();
+    parser.getParseBudget().reset();
+
+    var thrown = catchThrowableOfType(ParseBudgetExceededException.class, () -> parser.parse(tokens(10_000)));
+    var root = parser.tokenTree(thrown.getTokens());
+    assertThat(root.getType()).isSameAs(parser.getRootRule());
+    assertThat(root.getNumberOfChildren()).isEqualTo(10_001);
+    assertThat(root.getToken()).isSameAs(thrown.getTokens().get(0));
+    assertThat(root.getLastChild().is(GenericTokenType.EOF)).isTrue();
+  }
+
+  private static Grammar grammar() {
+    var b = LexerfulGrammarBuilder.create();
+    b.rule(Rules.ROOT).is(b.zeroOrMore(GenericTokenType.IDENTIFIER), GenericTokenType.EOF);
+    b.setRootRule(Rules.ROOT);
+    return b.build();
+  }
+
+  private static List<Token> tokens(int count) {
+    var uri = URI.create("tests://unittest");
+    var result = new ArrayList<Token>();
+    for (int i = 0; i < count; i++) {
+      result.add(Token.builder().setType(GenericTokenType.IDENTIFIER).setValueAndOriginalValue("x" + i)
+        .setURI(uri).setLine(1).setColumn(i).build());
+    }
+    result.add(Token.builder().setType(GenericTokenType.EOF).setValueAndOriginalValue("EOF")
+      .setURI(uri).setLine(1).setColumn(count).build());
+    return result;
+  }
+
+  private enum Rules implements GrammarRuleKey {
+    ROOT
+  }
+
+}
@@ -0,0 +1,108 @@
+/*
+ * C++ Community Plugin (cxx plugin)
+ * Copyright (C) 2022-2024 SonarOpenCommunity
+ * http://github.com/SonarOpenCommunity/sonar-cxx
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package com.sonar.cxx.sslr.impl.typed;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import static org.assertj.core.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+class ActionInvokerGeneratorTest {
+
+  public static class Factory extends BaseFactory {
+
+    public String concat(String a, CharSequence b, Object c) {
+      return a + b + c;
+    }
+
+    public List<String> list(List<String> list) {
+      return new ArrayList<>(list);
+    }
+
+    public void nothing() {
+    }
+
+    public Object primitive(int value) {
+      return value;
+    }
+
+    public Object fail(String message) {
+      throw new IllegalStateException(message);
+    }
+  }
+
+  public static class BaseFactory {
+
+    public String base(String value) {
+      return "base(" + value + ")";
+    }
+  }
+
+  static class PackageLocalFactory {
+
+    public String local(String value) {
+      return "local(" + value + ")";
+    }
+  }
+
+  @Test
+  void directInvocation() throws Exception {
+    var generator = new ActionInvokerGenerator(Factory.class);
+    var factory = new Factory();
+
+    var concat = generator.create(Factory.class.getMethod("concat", String.class, CharSequence.class, Object.class));
+    assertThat(concat.getClass().getName()).startsWith("GeneratedBySSLR");
+    assertThat(concat.invoke(factory, Arrays.asList("a", "b", 1))).isEqualTo("ab1");
+
+    var list = generator.create(Factory.class.getMethod("list", List.class));
+    assertThat(list.invoke(factory, List.of(List.of("x")))).isEqualTo(List.of("x"));
+
+    var base = generator.create(Factory.class.getMethod("base", String.class));
+    assertThat(base.getClass().getName()).startsWith("GeneratedBySSLR");
+    assertThat(base.invoke(factory, List.of("x"))).isEqualTo("base(x)");
+
+    var nothing = generator.create(Factory.class.getMethod("nothing"));
+    assertThat(nothing.invoke(factory, List.of())).isNull();
+  }
+
+  @Test
+  void exceptionsArePropagated() throws Exception {
+    var invoker = new ActionInvokerGenerator(Factory.class).create(Factory.class.getMethod("fail", String.class));
+    var factory = new Factory();
+    var arguments = List.<Object>of("message");
+
+    assertThatThrownBy(() -> invoker.invoke(factory, arguments))
+      .isExactlyInstanceOf(IllegalStateException.class)
+      .hasMessage("message");
+  }
+
+  @Test
+  void reflectiveFallback() throws Exception {
+    var primitive = new ActionInvokerGenerator(Factory.class).create(Factory.class.getMethod("primitive", int.class));
+    assertThat(primitive.getClass().getName()).doesNotStartWith("GeneratedBySSLR");
+    assertThat(primitive.invoke(new Factory(), List.of(42))).isEqualTo(42);
+
+    var local = new ActionInvokerGenerator(PackageLocalFactory.class)
+      .create(PackageLocalFactory.class.getMethod("local", String.class));
+    assertThat(local.getClass().getName()).doesNotStartWith("GeneratedBySSLR");
+  }
+
+}
@@ -0,0 +1,269 @@
+/*
+ * C++ Community Plugin (cxx plugin)
+ * Copyright (C) 2022-2024 SonarOpenCommunity
+ * http://github.com/SonarOpenCommunity/sonar-cxx
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.cxx.sslr.internal.vm;
+
+import com.sonar.cxx.sslr.api.AstNode;
+import com.sonar.cxx.sslr.api.GenericTokenType;
+import com.sonar.cxx.sslr.api.Grammar;
+import com.sonar.cxx.sslr.api.ParseBudget;
+import com.sonar.cxx.sslr.api.ParseBudgetExceededException;
+import com.sonar.cxx.sslr.api.RecognitionException;
+import com.sonar.cxx.sslr.api.Token;
+import com.sonar.cxx.sslr.api.TokenType;
+import com.sonar.cxx.sslr.impl.Parser;
+import com.sonar.cxx.sslr.impl.ast.AstXmlPrinter;
+import com.sonar.cxx.sslr.impl.matcher.RuleDefinition;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicReference;
+import static org.assertj.core.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import org.sonar.cxx.sslr.grammar.GrammarException;
+import org.sonar.cxx.sslr.grammar.GrammarRuleKey;
+import org.sonar.cxx.sslr.grammar.LexerfulGrammarBuilder;
+
+class BytecodeGrammarCompilerTest {
+
+  private static final String[] VALUES = {"if", "x", "a", "1", "(", ")", "{", "}", "[", "]", ";", "+", "-", "!"};
+
+  @Test
+  void sameResultAsInterpreter() {
+    compareWithInterpreter(grammar().build());
+  }
+
+  @Test
+  void sameResultAsInterpreterWithMemoization() {
+    compareWithInterpreter(grammar().buildWithMemoizationOfMatchesForAllRules());
+  }
+
+  @Test
+  void leftRecursion() {
+    var b = LexerfulGrammarBuilder.create();
+    b.rule(Rules.ROOT).is(b.firstOf(b.sequence(Rules.ROOT, "x"), "a"), GenericTokenType.EOF);
+    b.setRootRule(Rules.ROOT);
+    var parser = Parser.builder(b.build()).withBytecodeGrammar(true).build();
+    var tokens = tokens("a", "x");
+
+    assertThatThrownBy(() -> parser.parse(tokens))
+      .isInstanceOf(GrammarException.class)
+      .hasMessage("Left recursion has been detected, involved rule: ROOT");
+  }
+
+  @Test
+  void emptyRepetition() {
+    var b = LexerfulGrammarBuilder.create();
+    b.rule(Rules.ROOT).is(b.zeroOrMore(b.optional("x")), GenericTokenType.EOF);
+    b.setRootRule(Rules.ROOT);
+    var parser = Parser.builder(b.build()).withBytecodeGrammar(true).build();
+    var tokens = tokens("a");
+
+    assertThatThrownBy(() -> parser.parse(tokens))
+      .isInstanceOf(GrammarException.class)
+      .hasMessage("The inner part of ZeroOrMore and OneOrMore must not allow empty matches");
+  }
+
+  @Test
+  void unsupportedExpression() {
+    var b = LexerfulGrammarBuilder.create();
+    ParsingExpression custom = compiler -> new Instruction[]{Instruction.backtrack()};
+    b.rule(Rules.ROOT).is(custom);
+    b.setRootRule(Rules.ROOT);
+    var rule = (RuleDefinition) b.build().getRootRule();
+
+    assertThatThrownBy(() -> BytecodeGrammarCompiler.compile(rule))
+      .isInstanceOf(GrammarException.class)
+      .hasMessageStartingWith("The expression '");
+  }
+
+  @Test
+  void budget() {
+    var values = new ArrayList<String>();
+    for (int i = 0; i < 10_000; i++) {
+      values.add("x");
+      values.add(";");
+    }
+    var tokens = tokens(values.toArray(String[]::new));
+    var budget = new ParseBudget(1_000, 0, 0);
+    var parser = Parser.builder(grammar().build()).withParseBudget(budget).withBytecodeGrammar(true).build();
+
+    assertThatThrownBy(() -> parser.parse(tokens))
+      .isInstanceOf(ParseBudgetExceededException.class);
+  }
+
+  /**
+   * The nested alternative fails only at the end of the input, the rule calls of the generated code overflow a small
+   * stack. The interpreter keeps its stack on the heap and parses the flat alternative with the full budget, the empty
+   * rules make sure that the failed attempt has charged the budget.
+   */
+  @Test
+  void stackOverflowFallsBackToInterpreter() throws InterruptedException {
+    var b = LexerfulGrammarBuilder.create();
+    b.rule(Rules.ROOT).is(b.firstOf(Rules.EXPRESSION, b.zeroOrMore(b.firstOf("(", "x"))), GenericTokenType.EOF);
+    b.rule(Rules.EXPRESSION).is(b.firstOf(b.sequence("(", Rules.STATEMENT, Rules.STATEMENT, Rules.STATEMENT,
+      Rules.STATEMENT, Rules.EXPRESSION, ")"), "x"));
+    b.rule(Rules.STATEMENT).is(b.optional("y"));
+    b.setRootRule(Rules.ROOT);
+    var grammar = b.build();
+    var values = new String[100_001];
+    Arrays.fill(values, "(");
+    values[values.length - 1] = "x";
+    var tokens = tokens(values);
+
+    long instructions = minimalInstructions(grammar, tokens);
+    var budget = new ParseBudget(instructions, 0, 0);
+    var parser = Parser.builder(grammar).withParseBudget(budget).withBytecodeGrammar(true).build();
+    var result = new AtomicReference<AstNode>();
+    var thread = new Thread(null, () -> result.set(parser.parse(tokens)), "parser", 512 * 1024);
+    thread.start();
+    thread.join();
+
+    assertThat(result.get()).isNotNull();
+    assertThat(result.get().getChildren()).hasSize(values.length + 1);
+  }
+
+  /**
+   * Smallest instruction budget of the interpreter for the tokens.
+   */
+  private static long minimalInstructions(Grammar grammar, List<Token> tokens) {
+    long low = 0;
+    long high = 1L << 30;
+    while (high - low > 1) {
+      long middle = (low + high) / 2;
+      var parser = Parser.builder(grammar).withParseBudget(new ParseBudget(middle, 0, 0)).build();
+      try {
+        parser.parse(tokens);
+        high = middle;
+      } catch (ParseBudgetExceededException e) {
+        low = middle;
+      }
+    }
+    return high;
+  }
+
+  private static void compareWithInterpreter(Grammar grammar) {
+    var interpreter = Parser.builder(grammar).build();
+    var compiled = Parser.builder(grammar).withBytecodeGrammar(true).build();
+    var random = new Random(42);
+    int matched = 0;
+    for (int n = 0; n < 3_000; n++) {
+      var values = new String[random.nextInt(12)];
+      for (int i = 0; i < values.length; i++) {
+        values[i] = VALUES[random.nextInt(VALUES.length)];
+      }
+      var tokens = tokens(random, values);
+      var expected = parse(interpreter, tokens);
+      assertThat(parse(compiled, tokens)).as(String.join(" ", values)).isEqualTo(expected);
+      if (!expected.startsWith("error")) {
+        matched++;
+      }
+    }
+    assertThat(matched).isGreaterThan(100);
+  }
+
+  private static String parse(Parser<Grammar> parser, List<Token> tokens) {
+    try {
+      AstNode node = parser.parse(tokens);
+      return AstXmlPrinter.print(node);
+    } catch (RecognitionException e) {
+      return "error " + e.getLine() + ": " + e.getMessage();
+    }
+  }
+
+  private static LexerfulGrammarBuilder grammar() {
+    var b = LexerfulGrammarBuilder.create();
+    b.rule(Rules.ROOT).is(b.zeroOrMore(Rules.STATEMENT), GenericTokenType.EOF);
+    b.rule(Rules.STATEMENT).is(b.firstOf(
+      b.sequence("if", "(", Rules.EXPRESSION, ")", Rules.STATEMENT),
+      b.sequence("{", b.zeroOrMore(Rules.STATEMENT), "}"),
+      b.sequence(b.nextNot("}"), Rules.EXPRESSION, ";"),
+      b.sequence(b.bridge(Brackets.LEFT, Brackets.RIGHT), ";"),
+      b.sequence("!", b.synchronizationPoint(new TokenType[]{Brackets.SEMICOLON}, Brackets.LEFT,
+        Brackets.RIGHT, new TokenType[0], new TokenType[0]))));
+    b.rule(Rules.EXPRESSION).is(Rules.TERM, b.zeroOrMore(b.firstOf("+", "-"), Rules.TERM));
+    b.rule(Rules.TERM).is(b.firstOf(
+      b.isOneOfThem(GenericTokenType.IDENTIFIER, GenericTokenType.CONSTANT),
+      b.sequence("(", Rules.EXPRESSION, ")"),
+      b.sequence("-", b.adjacent(Rules.TERM)),
+      b.sequence(b.next("["), b.bridge(Brackets.LEFT, Brackets.RIGHT)),
+      b.sequence("!", b.oneOrMore("+"), b.optional(Rules.TERM))));
+    b.setRootRule(Rules.ROOT);
+    return b;
+  }
+
+  private static List<Token> tokens(String... values) {
+    return tokens(new Random(0), values);
+  }
+
+  private static List<Token> tokens(Random random, String... values) {
+    var uri = URI.create("tests://unittest");
+    var result = new ArrayList<Token>();
+    int column = 0;
+    for (var value : values) {
+      result.add(Token.builder().setType(type(value)).setValueAndOriginalValue(value)
+        .setURI(uri).setLine(1).setColumn(column).build());
+      column += value.length() + random.nextInt(2);
+    }
+    result.add(Token.builder().setType(GenericTokenType.EOF).setValueAndOriginalValue("EOF")
+      .setURI(uri).setLine(1).setColumn(column).build());
+    return result;
+  }
+
+  private static TokenType type(String value) {
+    switch (value) {
+      case "[":
+        return Brackets.LEFT;
+      case "]":
+        return Brackets.RIGHT;
+      case ";":
+        return Brackets.SEMICOLON;
+      case "1":
+        return GenericTokenType.CONSTANT;
+      default:
+        return Character.isLetter(value.charAt(0)) ? GenericTokenType.IDENTIFIER : GenericTokenType.LITERAL;
+    }
+  }
+
+  private enum Brackets implements TokenType {
+    LEFT, RIGHT, SEMICOLON;
+
+    @Override
+    public String getName() {
+      return name();
+    }
+
+    @Override
+    public String getValue() {
+      return name();
+    }
+
+    @Override
+    public boolean hasToBeSkippedFromAst(AstNode node) {
+      return false;
+    }
+  }
+
+  private enum Rules implements GrammarRuleKey {
+    ROOT, STATEMENT, EXPRESSION, TERM
+  }
+
+}
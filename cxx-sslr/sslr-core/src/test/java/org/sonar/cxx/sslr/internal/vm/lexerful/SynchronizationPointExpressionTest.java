@@ -0,0 +1,160 @@
+/*
+ * C++ Community Plugin (cxx plugin)
+ * Copyright (C) 2022-2024 SonarOpenCommunity
+ * http://github.com/SonarOpenCommunity/sonar-cxx
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.cxx.sslr.internal.vm.lexerful;
+
+import com.sonar.cxx.sslr.api.GenericTokenType;
+import com.sonar.cxx.sslr.api.Token;
+import com.sonar.cxx.sslr.api.TokenType;
+import static org.assertj.core.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.sonar.cxx.sslr.internal.vm.CompilationHandler;
+import org.sonar.cxx.sslr.internal.vm.Machine;
+
+class SynchronizationPointExpressionTest {
+
+  private final TokenType semicolon = mock(TokenType.class);
+  private final TokenType open = mock(TokenType.class);
+  private final TokenType close = mock(TokenType.class);
+  private final TokenType blockOpen = mock(TokenType.class);
+  private final TokenType blockClose = mock(TokenType.class);
+  private final TokenType other = mock(TokenType.class);
+  private final SynchronizationPointExpression expression = new SynchronizationPointExpression(
+    new TokenType[]{semicolon}, blockOpen, blockClose, new TokenType[]{open}, new TokenType[]{close});
+  private final Machine machine = mock(Machine.class);
+
+  @Test
+  void shouldCompile() {
+    assertThat(expression.compile(new CompilationHandler())).containsOnly(expression);
+  }
+
+  @Test
+  void shouldStopAfterSynchronizationPoint() {
+    tokens(token(other, 1), token(other, 1), token(semicolon, 1), token(other, 1), token(GenericTokenType.EOF, 1));
+    expression.execute(machine);
+    verifyConsumed(3);
+  }
+
+  @Test
+  void shouldIgnoreSynchronizationPointInBrackets() {
+    tokens(token(other, 1), token(open, 1), token(semicolon, 1), token(close, 2), token(semicolon, 2),
+      token(other, 2));
+    expression.execute(machine);
+    verifyConsumed(5);
+  }
+
+  @Test
+  void shouldSkipCompleteBlock() {
+    tokens(token(other, 1), token(open, 1), token(close, 1), token(blockOpen, 2), token(other, 3),
+      token(semicolon, 3), token(blockOpen, 4), token(semicolon, 4), token(blockClose, 5), token(other, 6),
+      token(blockClose, 7), token(other, 8));
+    expression.execute(machine);
+    verifyConsumed(11);
+  }
+
+  @Test
+  void shouldCloseUnbalancedBracketsWithBlock() {
+    tokens(token(other, 1), token(blockOpen, 2), token(open, 3), token(other, 3), token(semicolon, 4),
+      token(close, 4), token(blockClose, 5), token(other, 6), token(GenericTokenType.EOF, 6));
+    expression.execute(machine);
+    verifyConsumed(7);
+  }
+
+  @Test
+  void shouldStopAfterUnbalancedBlockClose() {
+    tokens(token(other, 1), token(blockClose, 1), token(other, 1), token(semicolon, 1));
+    expression.execute(machine);
+    verifyConsumed(2);
+  }
+
+  @Test
+  void shouldStopAtNewLine() {
+    tokens(token(other, 1), token(other, 1), token(other, 2), token(semicolon, 2));
+    expression.execute(machine);
+    verifyConsumed(2);
+  }
+
+  @Test
+  void shouldNotStopAtNewLineInBlock() {
+    tokens(token(other, 1), token(blockOpen, 1), token(other, 2), token(blockClose, 3), token(other, 4));
+    expression.execute(machine);
+    verifyConsumed(4);
+  }
+
+  @Test
+  void shouldSkipUnbalancedBracketOnlyAtEof() {
+    tokens(token(other, 1), token(blockOpen, 1), token(other, 2), token(semicolon, 2), token(GenericTokenType.EOF, 3));
+    expression.execute(machine);
+    verifyConsumed(2);
+  }
+
+  @Test
+  void shouldStopBeforeEof() {
+    tokens(token(other, 1), token(other, 1), token(GenericTokenType.EOF, 2));
+    expression.execute(machine);
+    verifyConsumed(2);
+  }
+
+  @Test
+  void shouldConsumeUnbalancedClosingBracket() {
+    tokens(token(close, 1), token(other, 1), token(semicolon, 1));
+    expression.execute(machine);
+    verifyConsumed(3);
+  }
+
+  @Test
+  void shouldBacktrackAtEof() {
+    tokens(token(GenericTokenType.EOF, 1));
+    expression.execute(machine);
+    verify(machine).backtrack();
+    verify(machine, never()).createLeafNode(expression, 1);
+  }
+
+  @Test
+  void shouldBacktrackAtEndOfInput() {
+    when(machine.length()).thenReturn(0);
+    expression.execute(machine);
+    verify(machine).backtrack();
+  }
+
+  private void verifyConsumed(int tokens) {
+    verify(machine, times(tokens)).createLeafNode(expression, 1);
+    verify(machine).jump(1);
+  }
+
+  private void tokens(Token... tokens) {
+    when(machine.length()).thenReturn(tokens.length);
+    for (int i = 0; i < tokens.length; i++) {
+      when(machine.tokenAt(i)).thenReturn(tokens[i]);
+    }
+  }
+
+  private static Token token(TokenType tokenType, int line) {
+    var token = mock(Token.class);
+    when(token.getType()).thenReturn(tokenType);
+    when(token.getLine()).thenReturn(line);
+    return token;
+  }
+
+}
@@ -0,0 +1,122 @@
+/*
+ * C++ Community Plugin (cxx plugin)
+ * Copyright (C) 2022-2024 SonarOpenCommunity
+ * http://github.com/SonarOpenCommunity/sonar-cxx
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.cxx.sslr.internal.toolkit;
+
+import com.sonar.cxx.sslr.api.AstNode;
+import java.util.Arrays;
+import javax.annotation.Nullable;
+import javax.swing.AbstractListModel;
+
+/**
+ * XML representation of an abstract syntax tree as list model with one element per line, in the format of
+ * {@link com.sonar.cxx.sslr.impl.ast.AstXmlPrinter}.
+ *
+ * The tree is indexed once, the text of a line is created when it is requested. A {@link javax.swing.JList} with fixed
+ * cell sizes requests only the visible lines.
+ */
+final class AstXmlLines extends AbstractListModel<String> {
+
+  private static final long serialVersionUID = 1L;
+
+  private static final byte OPEN = 0;
+  private static final byte LEAF = 1;
+  private static final byte CLOSE = 2;
+
+  // length of ' tokenValue="" tokenLine="" tokenColumn=""' plus the brackets and some digits
+  private static final int ATTRIBUTES_LENGTH = 60;
+
+  private transient AstNode[] nodes = new AstNode[64];
+  private int[] levels = new int[64];
+  private byte[] kinds = new byte[64];
+  private int size;
+  private int maxLineLength;
+
+  AstXmlLines(@Nullable AstNode root) {
+    if (root != null) {
+      add(root, 0);
+    }
+  }
+
+  private void add(AstNode node, int level) {
+    if (node.hasChildren()) {
+      addLine(node, level, OPEN);
+      for (var child : node.getChildren()) {
+        add(child, level + 1);
+      }
+      addLine(node, level, CLOSE);
+    } else {
+      addLine(node, level, LEAF);
+    }
+  }
+
+  private void addLine(AstNode node, int level, byte kind) {
+    if (size == nodes.length) {
+      nodes = Arrays.copyOf(nodes, size * 2);
+      levels = Arrays.copyOf(levels, size * 2);
+      kinds = Arrays.copyOf(kinds, size * 2);
+    }
+    nodes[size] = node;
+    levels[size] = level;
+    kinds[size] = kind;
+    size++;
+
+    int length = 2 * level + node.getName().length() + ATTRIBUTES_LENGTH;
+    if (kind != CLOSE) {
+      length += node.getTokenValue().length();
+    }
+    maxLineLength = Math.max(maxLineLength, length);
+  }
+
+  /**
+   * Upper bound of the line lengths, used to size the view without rendering all lines.
+   */
+  int getMaxLineLength() {
+    return maxLineLength;
+  }
+
+  @Override
+  public int getSize() {
+    return size;
+  }
+
+  @Override
+  public String getElementAt(int index) {
+    var node = nodes[index];
+    var sb = new StringBuilder();
+    for (int i = 0; i < levels[index]; i++) {
+      sb.append("  ");
+    }
+    if (kinds[index] == CLOSE) {
+      sb.append("</").append(node.getName()).append(">");
+    } else {
+      sb.append("<").append(node.getName());
+      if (!node.getTokenValue().isEmpty()) {
+        sb.append(" tokenValue=\"").append(node.getTokenValue()).append("\"");
+      }
+      if (node.hasToken()) {
+        sb.append(" tokenLine=\"").append(node.getTokenLine()).append("\" tokenColumn=\"")
+          .append(node.getToken().getColumn()).append("\"");
+      }
+      sb.append(kinds[index] == LEAF ? "/>" : ">");
+    }
+    return sb.toString();
+  }
+
+}
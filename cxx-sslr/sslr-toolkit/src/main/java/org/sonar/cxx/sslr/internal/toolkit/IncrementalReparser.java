@@ -0,0 +1,379 @@
+/*
+ * C++ Community Plugin (cxx plugin)
+ * Copyright (C) 2022-2024 SonarOpenCommunity
+ * http://github.com/SonarOpenCommunity/sonar-cxx
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.cxx.sslr.internal.toolkit;
+
+import com.sonar.cxx.sslr.api.AstNode;
+import com.sonar.cxx.sslr.api.GenericTokenType;
+import com.sonar.cxx.sslr.api.ParseBudgetExceededException;
+import com.sonar.cxx.sslr.api.Token;
+import com.sonar.cxx.sslr.api.Trivia;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import javax.annotation.CheckForNull;
+
+/**
+ * Re-parses only the top-level node of a tree which is affected by an edit of the source code.
+ *
+ * The top-level nodes are the children of the root node or, if the root has only one child besides EOF, of the first
+ * node below the root with several children (e.g. the declarations of a translation unit). If the edit lies inside
+ * one top-level node, the new text of this node is parsed on its own with the root rule of the grammar. Its top-level
+ * nodes replace the old node, the other nodes are reused and the positions of the tokens behind the edit are shifted.
+ * The token indices of the nodes ({@link AstNode#getFromIndex()}, {@link AstNode#getToIndex()}) are kept consistent:
+ * the nodes of the fragment are moved to the index of the old node, the nodes behind it by the difference of the
+ * number of tokens.
+ *
+ * The result is null if the edit cannot be handled this way; the complete source code has to be parsed then. This is
+ * the case for edits touching a node boundary, for source code with preprocessor directives (a directive can change
+ * the meaning of all following code) and for fragments with constructs which could change the lexing of the following
+ * text (open block comments, line continuations, raw strings).
+ */
+final class IncrementalReparser {
+
+  private static final Pattern PREPROCESSOR_DIRECTIVE = Pattern.compile("^[ \\t]*+#", Pattern.MULTILINE);
+
+  private IncrementalReparser() {
+  }
+
+  /**
+   * Re-parse an edited source code.
+   *
+   * @param oldSource source code of the previous tree
+   * @param oldAst previous tree
+   * @param newSource edited source code
+   * @param parser parses a source code with the root rule of the grammar
+   * @return new tree or null if the complete source code has to be parsed
+   */
+  @CheckForNull
+  static AstNode reparse(String oldSource, AstNode oldAst, String newSource, Function<String, AstNode> parser) {
+    if (oldSource.equals(newSource)) {
+      return oldAst;
+    }
+    if (PREPROCESSOR_DIRECTIVE.matcher(oldSource).find() || PREPROCESSOR_DIRECTIVE.matcher(newSource).find()) {
+      return null;
+    }
+
+    var path = topLevelPath(oldAst);
+    var sequence = path.get(path.size() - 1);
+    var topLevel = sequence.getChildren();
+    if (topLevel.stream().anyMatch(node -> !node.hasToken())) {
+      return null;
+    }
+
+    int editStart = commonPrefix(oldSource, newSource);
+    int oldEditEnd = oldSource.length() - commonSuffix(oldSource, newSource, editStart);
+    int delta = newSource.length() - oldSource.length();
+
+    // top-level node containing the edit: its text ranges from its first token up to the token following the node
+    var offsets = new LineOffsets(oldSource);
+    int index = -1;
+    AstNode next = null;
+    for (int i = 0; i < topLevel.size() && !isEof(topLevel.get(i)); i++) {
+      next = followingNode(path, i);
+      if (next == null) {
+        break;
+      }
+      int start = offsets.getStartOffset(topLevel.get(i).getToken());
+      int end = offsets.getStartOffset(next.getToken());
+      if (start < editStart && oldEditEnd < end) {
+        index = i;
+        break;
+      }
+    }
+    if (index < 0) {
+      return null;
+    }
+
+    var edited = topLevel.get(index);
+    int fragmentStart = offsets.getStartOffset(edited.getToken());
+    int fragmentEnd = offsets.getStartOffset(next.getToken()) + delta;
+    var fragment = newSource.substring(fragmentStart, fragmentEnd);
+    if (!Character.isWhitespace(newSource.charAt(fragmentEnd - 1)) || mayChangeFollowingText(fragment)) {
+      return null;
+    }
+
+    var replacement = parseFragment(fragment, path, parser);
+    if (replacement == null) {
+      return null;
+    }
+
+    // shift fragment tokens to the position of the fragment, tokens behind the fragment by the size of the edit; the
+    // comments in front of the fragment are kept, the comments in front of the following node are taken from the
+    // fragment
+    var nodes = replacement.nodes();
+    var first = edited.getToken();
+    int fragmentIndex = edited.getFromIndex() - nodes.get(0).getFromIndex();
+    int indexDelta = (nodes.get(nodes.size() - 1).getToIndex() - nodes.get(0).getFromIndex())
+                       - (edited.getToIndex() - edited.getFromIndex());
+    var fragmentShift = new Shift(1, first.getLine() - 1, first.getColumn(), fragmentIndex, nodes.get(0).getToken(),
+                                  first.getTrivia());
+    var boundary = next.getToken();
+    int lineDelta = countLines(fragment) - countLines(oldSource.substring(fragmentStart, fragmentEnd - delta));
+    int boundaryColumn = fragmentEnd - lineStart(newSource, fragmentEnd);
+    var boundaryTrivia = new ArrayList<Trivia>();
+    for (var trivia : replacement.trailingTrivia()) {
+      boundaryTrivia.add(fragmentShift.trivia(trivia));
+    }
+    var followingShift = new Shift(boundary.getLine(), lineDelta, boundaryColumn - boundary.getColumn(), indexDelta,
+                                   boundary, boundaryTrivia);
+
+    return rebuild(path, 0, index, nodes, fragmentShift, followingShift);
+  }
+
+  /**
+   * Path from the root to the node holding the top-level nodes.
+   */
+  private static List<AstNode> topLevelPath(AstNode root) {
+    var path = new ArrayList<AstNode>();
+    var node = root;
+    path.add(node);
+    while (true) {
+      var children = withoutEof(node.getChildren());
+      if (children.size() != 1 || !children.get(0).hasChildren()) {
+        return path;
+      }
+      node = children.get(0);
+      path.add(node);
+    }
+  }
+
+  /**
+   * Node following a top-level node: the next top-level node or the next node behind the top-level nodes (e.g. EOF).
+   */
+  @CheckForNull
+  private static AstNode followingNode(List<AstNode> path, int index) {
+    var topLevel = path.get(path.size() - 1).getChildren();
+    if (index + 1 < topLevel.size()) {
+      return topLevel.get(index + 1);
+    }
+    for (int depth = path.size() - 2; depth >= 0; depth--) {
+      var children = path.get(depth).getChildren();
+      for (int i = children.indexOf(path.get(depth + 1)) + 1; i < children.size(); i++) {
+        if (children.get(i).hasToken()) {
+          return children.get(i);
+        }
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Parse the fragment and return its top-level nodes. The tree of the fragment must have the same path as the old
+   * tree.
+   */
+  @CheckForNull
+  private static Fragment parseFragment(String fragment, List<AstNode> path, Function<String, AstNode> parser) {
+    AstNode root;
+    try {
+      root = parser.apply(fragment);
+    } catch (ParseBudgetExceededException e) {
+      throw e;
+    } catch (RuntimeException e) {
+      // the complete source code is parsed and reports the error
+      return null;
+    }
+    if (root.getType() != path.get(0).getType()) {
+      return null;
+    }
+    var node = root;
+    for (int i = 1; i < path.size(); i++) {
+      var children = withoutEof(node.getChildren());
+      if (children.size() != 1 || children.get(0).getType() != path.get(i).getType()) {
+        return null;
+      }
+      node = children.get(0);
+    }
+    var result = withoutEof(node.getChildren());
+    if (result.isEmpty() || result.stream().anyMatch(child -> !child.hasToken() || child.getToken()
+      .isGeneratedCode())) {
+      return null;
+    }
+    var eof = root.getLastToken();
+    List<Trivia> trailingTrivia = eof != null && eof.getType() == GenericTokenType.EOF ? eof.getTrivia() : List.of();
+    return new Fragment(result, trailingTrivia);
+  }
+
+  private static AstNode rebuild(List<AstNode> path, int depth, int index, List<AstNode> replacement,
+                                 Shift fragmentShift, Shift followingShift) {
+    var node = path.get(depth);
+    var children = new ArrayList<AstNode>();
+    if (depth + 1 < path.size()) {
+      boolean following = false;
+      for (var child : node.getChildren()) {
+        if (child == path.get(depth + 1)) {
+          children.add(rebuild(path, depth + 1, index, replacement, fragmentShift, followingShift));
+          following = true;
+        } else {
+          children.add(following ? followingShift.copy(child) : child);
+        }
+      }
+    } else {
+      var topLevel = node.getChildren();
+      children.addAll(topLevel.subList(0, index));
+      for (var child : replacement) {
+        children.add(fragmentShift.copy(child));
+      }
+      for (var child : topLevel.subList(index + 1, topLevel.size())) {
+        children.add(followingShift.copy(child));
+      }
+    }
+
+    Token token = null;
+    for (var child : children) {
+      if (child.hasToken()) {
+        token = child.getToken();
+        break;
+      }
+    }
+    // the node contains the edit: it starts in front of it and ends behind it
+    var result = new AstNode(node.getType(), node.getName(), token);
+    result.setFromIndex(node.getFromIndex());
+    result.setToIndex(node.getToIndex() + followingShift.indexDelta);
+    for (var child : children) {
+      result.addChild(child);
+    }
+    return result;
+  }
+
+  private static List<AstNode> withoutEof(List<AstNode> nodes) {
+    return nodes.stream().filter(node -> !isEof(node)).toList();
+  }
+
+  private static boolean isEof(AstNode node) {
+    return node.getType() == GenericTokenType.EOF;
+  }
+
+  private static boolean mayChangeFollowingText(String fragment) {
+    return fragment.lastIndexOf("/*") > fragment.lastIndexOf("*/")
+      || fragment.contains("\\\n") || fragment.contains("\\\r")
+      || fragment.contains("R\"");
+  }
+
+  private static int commonPrefix(String a, String b) {
+    int length = Math.min(a.length(), b.length());
+    int i = 0;
+    while (i < length && a.charAt(i) == b.charAt(i)) {
+      i++;
+    }
+    return i;
+  }
+
+  private static int commonSuffix(String a, String b, int prefix) {
+    int length = Math.min(a.length(), b.length()) - prefix;
+    int i = 0;
+    while (i < length && a.charAt(a.length() - 1 - i) == b.charAt(b.length() - 1 - i)) {
+      i++;
+    }
+    return i;
+  }
+
+  /**
+   * Number of line terminators, same definition as {@link LineOffsets}.
+   */
+  private static int countLines(String text) {
+    int count = 0;
+    for (int i = 0; i < text.length(); i++) {
+      char c = text.charAt(i);
+      if (c == '\n' || (c == '\r' && (i + 1 == text.length() || text.charAt(i + 1) != '\n'))) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  private static int lineStart(String text, int offset) {
+    int i = offset;
+    while (i > 0 && text.charAt(i - 1) != '\n' && text.charAt(i - 1) != '\r') {
+      i--;
+    }
+    return i;
+  }
+
+  private record Fragment(List<AstNode> nodes, List<Trivia> trailingTrivia) {
+  }
+
+  /**
+   * Copies subtrees with moved token positions: tokens on the first line are moved by a column delta, all tokens by a
+   * line delta and the token indices of the nodes by an index delta. The trivia of the boundary token are replaced.
+   * Subtrees which do not change are reused.
+   */
+  private static final class Shift {
+
+    private final int firstLine;
+    private final int lineDelta;
+    private final int columnDelta;
+    private final int indexDelta;
+    private final Token boundary;
+    private final List<Trivia> boundaryTrivia;
+    private final Map<Token, Token> tokens = new IdentityHashMap<>();
+
+    private Shift(int firstLine, int lineDelta, int columnDelta, int indexDelta, Token boundary,
+                  List<Trivia> boundaryTrivia) {
+      this.firstLine = firstLine;
+      this.lineDelta = lineDelta;
+      this.columnDelta = columnDelta;
+      this.indexDelta = indexDelta;
+      this.boundary = boundary;
+      this.boundaryTrivia = boundaryTrivia;
+    }
+
+    AstNode copy(AstNode node) {
+      if (lineDelta == 0 && columnDelta == 0 && indexDelta == 0 && node.getToken() != boundary) {
+        return node;
+      }
+      var result = new AstNode(node.getType(), node.getName(), node.hasToken() ? token(node.getToken()) : null);
+      result.setFromIndex(node.getFromIndex() + indexDelta);
+      result.setToIndex(node.getToIndex() + indexDelta);
+      for (var child : node.getChildren()) {
+        result.addChild(copy(child));
+      }
+      return result;
+    }
+
+    Trivia trivia(Trivia trivia) {
+      return trivia.isComment() ? Trivia.createComment(token(trivia.getToken())) : trivia;
+    }
+
+    private Token token(Token token) {
+      var result = tokens.get(token);
+      if (result == null) {
+        var builder = Token.builder(token)
+          .setLine(token.getLine() + lineDelta)
+          .setColumn(token.getLine() == firstLine ? token.getColumn() + columnDelta : token.getColumn());
+        if (token == boundary) {
+          builder.setTrivia(boundaryTrivia);
+        } else if (token.hasTrivia()) {
+          var trivia = new ArrayList<Trivia>();
+          for (var item : token.getTrivia()) {
+            trivia.add(trivia(item));
+          }
+          builder.setTrivia(trivia);
+        }
+        result = builder.build();
+        tokens.put(token, result);
+      }
+      return result;
+    }
+  }
+
+}
@@ -24,6 +24,8 @@
 package org.sonar.cxx.sslr.internal.toolkit;
 
 import com.sonar.cxx.sslr.api.AstNode;
+import com.sonar.cxx.sslr.api.ParseBudget;
+import com.sonar.cxx.sslr.impl.Parser;
 import com.sonar.cxx.sslr.impl.ast.AstXmlPrinter;
 import java.io.File;
 import java.io.IOException;
@@ -32,18 +34,27 @@ import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Objects;
+import java.util.function.Function;
 import javax.annotation.Nonnull;
 import org.sonar.colorizer.HtmlOptions;
 import org.sonar.colorizer.HtmlRenderer;
 import org.sonar.cxx.sslr.toolkit.ConfigurationModel;
 
+/**
+ * Source code and its abstract syntax tree.
+ *
+ * Parsing is done by the background thread of the presenter, a running parse can be cancelled with
+ * {@link #cancelParsing()}. Editing the source code re-parses only the affected top-level node if possible (see
+ * {@link IncrementalReparser}).
+ */
 public class SourceCodeModel {
 
   private final ConfigurationModel configurationModel;
   private final HtmlRenderer htmlRenderer = new HtmlRenderer(new HtmlOptions(false, null, false));
 
-  private String sourceCode;
-  private AstNode astNode;
+  private volatile String sourceCode;
+  private volatile AstNode astNode;
+  private volatile ParseBudget parseBudget;
 
   public SourceCodeModel(@Nonnull ConfigurationModel configurationModel) {
     Objects.requireNonNull(configurationModel);
@@ -57,12 +68,43 @@ public class SourceCodeModel {
     } catch (IOException e) {
       throw new RuntimeException(e);
     }
-    this.astNode = configurationModel.getParser().parse(source);
+    this.astNode = null;
+    this.astNode = parse(parser -> parser.parse(source));
   }
 
   public void setSourceCode(String sourceCode) {
+    var previousSourceCode = this.sourceCode;
+    var previousAstNode = this.astNode;
     this.sourceCode = sourceCode;
-    this.astNode = configurationModel.getParser().parse(sourceCode);
+    this.astNode = null;
+
+    AstNode result = null;
+    if (previousSourceCode != null && previousAstNode != null) {
+      result = IncrementalReparser.reparse(previousSourceCode, previousAstNode, sourceCode,
+                                           fragment -> parse(parser -> parser.parse(fragment)));
+    }
+    if (result == null) {
+      result = parse(parser -> parser.parse(sourceCode));
+    }
+    this.astNode = result;
+  }
+
+  /**
+   * Cancel a running parse, it fails with a {@link com.sonar.cxx.sslr.api.ParseBudgetExceededException}.
+   */
+  public void cancelParsing() {
+    var budget = parseBudget;
+    if (budget != null) {
+      budget.cancel();
+    }
+  }
+
+  private AstNode parse(Function<Parser, AstNode> action) {
+    var parser = configurationModel.getParser();
+    var budget = new ParseBudget(0, 0, 0);
+    parser.setParseBudget(budget);
+    parseBudget = budget;
+    return action.apply(parser);
   }
 
   public String getHighlightedSourceCode() {
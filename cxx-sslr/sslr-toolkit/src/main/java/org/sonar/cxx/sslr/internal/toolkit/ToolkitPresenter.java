@@ -24,8 +24,10 @@
 package org.sonar.cxx.sslr.internal.toolkit;
 
 import com.sonar.cxx.sslr.api.AstNode;
+import com.sonar.cxx.sslr.api.ParseBudgetExceededException;
 import com.sonar.cxx.sslr.api.RecognitionException;
 import com.sonar.cxx.sslr.xpath.api.AstNodeXPathQuery;
+import java.awt.Point;
 import java.awt.Toolkit;
 import java.awt.datatransfer.Clipboard;
 import java.awt.datatransfer.DataFlavor;
@@ -38,20 +40,52 @@ import java.io.Writer;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
 import javax.annotation.CheckForNull;
 import javax.annotation.Nonnull;
+import javax.swing.SwingUtilities;
 import org.sonar.cxx.sslr.toolkit.ConfigurationModel;
 import org.sonar.cxx.sslr.toolkit.ConfigurationProperty;
 
+/**
+ * Presenter of the toolkit.
+ *
+ * Source code is parsed on a background thread, the view is updated on the event dispatch thread afterwards. Starting
+ * a new parse or editing the source code cancels a running parse, results of outdated parses are dropped.
+ */
 public class ToolkitPresenter {
 
   private final ConfigurationModel configurationModel;
   private final SourceCodeModel model;
+  private final Executor parseExecutor;
+  private final Executor viewExecutor;
   private ToolkitView view = null;
 
+  // incremented on the event dispatch thread for each parse request and edit
+  private volatile int parseGeneration = 0;
+
   public ToolkitPresenter(ConfigurationModel configurationModel, SourceCodeModel model) {
     this.configurationModel = configurationModel;
     this.model = model;
+    this.parseExecutor = Executors.newSingleThreadExecutor((Runnable runnable) -> {
+      var thread = new Thread(runnable, "sslr-toolkit-parser");
+      thread.setDaemon(true);
+      thread.setUncaughtExceptionHandler((Thread t, Throwable e) -> SwingUtilities.invokeLater(
+        () -> displayException(e)));
+      return thread;
+    });
+    this.viewExecutor = SwingUtilities::invokeLater;
+  }
+
+  // @VisibleForTesting
+  ToolkitPresenter(ConfigurationModel configurationModel, SourceCodeModel model, Executor parseExecutor,
+                   Executor viewExecutor) {
+    this.configurationModel = configurationModel;
+    this.model = model;
+    this.parseExecutor = parseExecutor;
+    this.viewExecutor = viewExecutor;
   }
 
   public void setView(@Nonnull ToolkitView view) {
@@ -68,16 +102,70 @@ public class ToolkitPresenter {
 
   // @VisibleForTesting
   void initUncaughtExceptionsHandler() {
-    Thread.currentThread().setUncaughtExceptionHandler((Thread t, Throwable e) -> {
-      Writer result = new StringWriter();
-      var printWriter = new PrintWriter(result);
-      e.printStackTrace(printWriter);
+    Thread.currentThread().setUncaughtExceptionHandler((Thread t, Throwable e) -> displayException(e));
+  }
+
+  private void displayException(Throwable e) {
+    Writer result = new StringWriter();
+    var printWriter = new PrintWriter(result);
+    e.printStackTrace(printWriter);
 
-      view.appendToConsole(result.toString());
-      view.setFocusOnConsoleView();
+    view.appendToConsole(result.toString());
+    view.setFocusOnConsoleView();
+  }
+
+  /**
+   * Parse on the background thread. The highlighted source code is rendered there as well and passed to the display
+   * action, which runs on the view thread if the parse is still the latest one. Syntax errors are displayed in the
+   * console, other exceptions are passed to the uncaught exception handler of the parsing thread.
+   *
+   * @param parseAction action updating the model
+   * @param ignoreParsingErrors display the result also if the source code contains syntax errors
+   * @param displayAction action updating the view
+   */
+  private void parseInBackground(Runnable parseAction, boolean ignoreParsingErrors, Consumer<String> displayAction) {
+    cancelParsing();
+    int generation = parseGeneration;
+    parseExecutor.execute(() -> {
+      if (generation != parseGeneration) {
+        return;
+      }
+      RecognitionException failure = null;
+      String highlightedSourceCode = null;
+      try {
+        try {
+          parseAction.run();
+        } catch (RecognitionException e) {
+          if (!ignoreParsingErrors) {
+            throw e;
+          }
+        }
+        highlightedSourceCode = model.getHighlightedSourceCode();
+      } catch (ParseBudgetExceededException e) {
+        // cancelled
+        return;
+      } catch (RecognitionException e) {
+        failure = e;
+      }
+      var error = failure;
+      var result = highlightedSourceCode;
+      viewExecutor.execute(() -> {
+        if (generation == parseGeneration) {
+          if (error != null) {
+            displayException(error);
+          } else {
+            displayAction.accept(result);
+          }
+        }
+      });
     });
   }
 
+  private void cancelParsing() {
+    parseGeneration++;
+    model.cancelParsing();
+  }
+
   // @VisibleForTesting
   void initConfigurationTab() {
     for (var configurationProperty : configurationModel.getProperties()) {
@@ -94,7 +182,7 @@ public class ToolkitPresenter {
     view.setTitle(title);
     view.displayHighlightedSourceCode("");
     view.displayAst(null);
-    view.displayXml("");
+    view.displayXml(null);
     view.disableXPathEvaluateButton();
 
     initConfigurationTab();
@@ -112,12 +200,7 @@ public class ToolkitPresenter {
       } catch (UnsupportedFlavorException | IOException e) {
         throw new RuntimeException(e);
       }
-      try {
-        model.setSourceCode(txtToParse);
-      } catch (RecognitionException e) {
-        // ignore parsing errors
-      }
-      view.displayHighlightedSourceCode(model.getHighlightedSourceCode());
+      parseInBackground(() -> model.setSourceCode(txtToParse), true, view::displayHighlightedSourceCode);
     }
   }
 
@@ -131,23 +214,25 @@ public class ToolkitPresenter {
       } catch (IOException e) {
         throw new RuntimeException(e);
       }
-      try {
-        model.setSourceCode(fileToParse, configurationModel.getCharset());
-      } catch (RecognitionException e) {
-        // ignore parsing errors
-      }
-      view.displayHighlightedSourceCode(model.getHighlightedSourceCode());
+      var charset = configurationModel.getCharset();
+      parseInBackground(() -> model.setSourceCode(fileToParse, charset), true,
+                        (String highlightedSourceCode) -> displayParseResult(highlightedSourceCode, new Point(0, 0)));
     }
   }
 
   public void onSourceCodeParseButtonClick() {
     view.clearConsole();
     var sourceCode = view.getSourceCode();
-    model.setSourceCode(sourceCode);
-    var sourceCodeScrollbarPosition = view.getSourceCodeScrollbarPosition();
-    view.displayHighlightedSourceCode(model.getHighlightedSourceCode());
+    view.disableXPathEvaluateButton();
+    parseInBackground(() -> model.setSourceCode(sourceCode), false,
+                      (String highlightedSourceCode) -> displayParseResult(highlightedSourceCode,
+                                                                           view.getSourceCodeScrollbarPosition()));
+  }
+
+  private void displayParseResult(String highlightedSourceCode, Point sourceCodeScrollbarPosition) {
+    view.displayHighlightedSourceCode(highlightedSourceCode);
     view.displayAst(model.getAstNode());
-    view.displayXml(model.getXml());
+    view.displayXml(model.getAstNode());
     view.scrollSourceCodeTo(sourceCodeScrollbarPosition);
     view.setFocusOnAbstractSyntaxTreeView();
     view.enableXPathEvaluateButton();
@@ -180,8 +265,9 @@ public class ToolkitPresenter {
   }
 
   public void onSourceCodeKeyTyped() {
+    cancelParsing();
     view.displayAst(null);
-    view.displayXml("");
+    view.displayXml(null);
     view.clearSourceCodeHighlights();
     view.disableXPathEvaluateButton();
   }
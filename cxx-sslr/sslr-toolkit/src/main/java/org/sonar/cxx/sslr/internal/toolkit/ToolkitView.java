@@ -75,11 +75,12 @@ public interface ToolkitView {
   void displayAst(@Nullable AstNode astNode);
 
   /**
-   * Display the given string in the XML view.
+   * Display the XML representation of an abstract syntax tree in the XML view.
+   * Only the visible lines are rendered.
    *
-   * @param xml The string to display
+   * @param astNode The root AST node or null if no XML must be shown
    */
-  void displayXml(String xml);
+  void displayXml(@Nullable AstNode astNode);
 
   /**
    * Get the current source code editor scrollbars' position point.
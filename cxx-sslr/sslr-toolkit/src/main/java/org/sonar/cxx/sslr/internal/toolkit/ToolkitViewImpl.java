@@ -24,6 +24,7 @@
 package org.sonar.cxx.sslr.internal.toolkit;
 
 import com.sonar.cxx.sslr.api.AstNode;
+import com.sonar.cxx.sslr.api.Trivia;
 import java.awt.BorderLayout;
 import java.awt.Color;
 import java.awt.Font;
@@ -36,7 +37,9 @@ import java.awt.event.FocusAdapter;
 import java.awt.event.FocusEvent;
 import static java.awt.event.KeyEvent.*;
 import java.io.File;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.List;
@@ -52,6 +55,7 @@ import javax.swing.JEditorPane;
 import javax.swing.JFileChooser;
 import javax.swing.JFrame;
 import javax.swing.JLabel;
+import javax.swing.JList;
 import javax.swing.JPanel;
 import javax.swing.JScrollPane;
 import javax.swing.JSplitPane;
@@ -88,8 +92,8 @@ public class ToolkitViewImpl extends JFrame implements ToolkitView {
   private final JTree astTree = new JTree();
   private final JScrollPane astTreeScrollPane = new JScrollPane(astTree);
 
-  private final JTextArea xmlTextArea = new JTextArea();
-  private final JScrollPane xmlScrollPane = new JScrollPane(xmlTextArea);
+  private final JList<String> xmlList = new JList<>();
+  private final JScrollPane xmlScrollPane = new JScrollPane(xmlList);
 
   private final JTextArea consoleTextArea = new JTextArea();
   private final JScrollPane consoleScrollPane = new JScrollPane(consoleTextArea);
@@ -149,6 +153,8 @@ public class ToolkitViewImpl extends JFrame implements ToolkitView {
       }
     });
 
+    xmlList.setFont(Font.decode("Monospaced"));
+
     consoleTextArea.setEditable(false);
     consoleTextArea.setFont(Font.decode("Monospaced"));
 
@@ -288,38 +294,86 @@ public class ToolkitViewImpl extends JFrame implements ToolkitView {
     if (astNode == null) {
       astTree.setModel(EMPTY_TREE_MODEL);
     } else {
-      TreeNode treeNode = getTreeNode(astNode);
-      astTree.setModel(new DefaultTreeModel(treeNode));
+      astTree.setModel(new DefaultTreeModel(new AstTreeNode(astNode)));
     }
   }
 
-  private static DefaultMutableTreeNode getTreeNode(AstNode astNode) {
-    var treeNode = new DefaultMutableTreeNode(astNode);
-
-    if (astNode.hasChildren()) {
-      for (var childAstNode : astNode.getChildren()) {
-        treeNode.add(getTreeNode(childAstNode));
+  /**
+   * Children of a node in the abstract syntax tree view: the child nodes of an AST node, the trivia of a token and the
+   * AST of a preprocessing directive.
+   */
+  private static List<?> getChildObjects(Object userObject) {
+    if (userObject instanceof AstNode astNode) {
+      if (astNode.hasChildren()) {
+        return astNode.getChildren();
+      } else if (astNode.hasToken() && astNode.getToken().hasTrivia()) {
+        return astNode.getToken().getTrivia();
       }
-    } else if (astNode.hasToken() && astNode.getToken().hasTrivia()) {
-      for (var trivia : astNode.getToken().getTrivia()) {
-        var childTreeNode = new DefaultMutableTreeNode(trivia);
+    } else if (userObject instanceof Trivia trivia && trivia.hasPreprocessingDirective()) {
+      return List.of(trivia.getPreprocessingDirective().getAst());
+    }
+    return Collections.emptyList();
+  }
 
-        if (trivia.hasPreprocessingDirective()) {
-          childTreeNode.add(getTreeNode(trivia.getPreprocessingDirective().getAst()));
-        }
+  /**
+   * Tree node creating its children when they are accessed the first time, i.e. when the node is expanded.
+   */
+  private static final class AstTreeNode extends DefaultMutableTreeNode {
+
+    private static final long serialVersionUID = 1L;
+
+    private boolean loaded = false;
+
+    AstTreeNode(Object userObject) {
+      super(userObject);
+    }
 
-        treeNode.add(childTreeNode);
+    private void load() {
+      if (!loaded) {
+        loaded = true;
+        for (var childObject : getChildObjects(getUserObject())) {
+          add(new AstTreeNode(childObject));
+        }
       }
     }
 
-    return treeNode;
+    @Override
+    public boolean isLeaf() {
+      return getChildObjects(getUserObject()).isEmpty();
+    }
+
+    @Override
+    public int getChildCount() {
+      load();
+      return super.getChildCount();
+    }
+
+    @Override
+    public TreeNode getChildAt(int index) {
+      load();
+      return super.getChildAt(index);
+    }
+
+    @Override
+    public int getIndex(TreeNode node) {
+      load();
+      return super.getIndex(node);
+    }
+
+    @Override
+    public Enumeration<TreeNode> children() {
+      load();
+      return super.children();
+    }
   }
 
   @Override
-  public void displayXml(@Nonnull String xml) {
-    Objects.requireNonNull(xml);
-
-    xmlTextArea.setText(xml);
+  public void displayXml(@Nullable AstNode astNode) {
+    var lines = new AstXmlLines(astNode);
+    var fontMetrics = xmlList.getFontMetrics(xmlList.getFont());
+    xmlList.setFixedCellHeight(fontMetrics.getHeight() + 2);
+    xmlList.setFixedCellWidth(fontMetrics.charWidth('m') * lines.getMaxLineLength());
+    xmlList.setModel(lines);
   }
 
   @Override
@@ -375,9 +429,7 @@ public class ToolkitViewImpl extends JFrame implements ToolkitView {
     if (astNode != null) {
       try {
         astSelectionEventDisabled = true;
-        var treeNode = getAstTreeNodeWithGivenUserObject(
-          (DefaultMutableTreeNode) astTree.getModel().getRoot(), astNode
-        );
+        var treeNode = getAstTreeNode(astNode);
         if (treeNode != null) {
           astTree.getSelectionModel().addSelectionPath(new TreePath(treeNode.getPath()));
         }
@@ -387,23 +439,35 @@ public class ToolkitViewImpl extends JFrame implements ToolkitView {
     }
   }
 
+  /**
+   * Get the tree node of an AST node. Only the tree nodes on the path from the root to the AST node are created.
+   */
   @CheckForNull
-  private static DefaultMutableTreeNode getAstTreeNodeWithGivenUserObject(DefaultMutableTreeNode treeNode,
-    Object userObject) {
-
-    if (treeNode.getUserObject().equals(userObject)) {
-      return treeNode;
-    } else {
-      for (int i = 0; i < treeNode.getChildCount(); i++) {
-        var treeNodeWithUserObject = getAstTreeNodeWithGivenUserObject((DefaultMutableTreeNode) treeNode.getChildAt(i),
-          userObject);
-        if (treeNodeWithUserObject != null) {
-          return treeNodeWithUserObject;
+  private DefaultMutableTreeNode getAstTreeNode(AstNode astNode) {
+    var root = (DefaultMutableTreeNode) astTree.getModel().getRoot();
+    if (root == null) {
+      return null;
+    }
+    var path = new ArrayDeque<AstNode>();
+    for (var node = astNode; node != null; node = node.getParent()) {
+      path.push(node);
+    }
+    if (root.getUserObject() != path.pop()) {
+      return null;
+    }
+    var treeNode = root;
+    while (treeNode != null && !path.isEmpty()) {
+      var userObject = path.pop();
+      DefaultMutableTreeNode child = null;
+      for (int i = 0; i < treeNode.getChildCount() && child == null; i++) {
+        var candidate = (DefaultMutableTreeNode) treeNode.getChildAt(i);
+        if (candidate.getUserObject() == userObject) {
+          child = candidate;
         }
       }
-
-      return null;
+      treeNode = child;
     }
+    return treeNode;
   }
 
   @Override
@@ -448,7 +512,7 @@ public class ToolkitViewImpl extends JFrame implements ToolkitView {
   @Override
   public void scrollAstTo(@Nullable AstNode astNode) {
     if (astNode != null) {
-      var treeNode = getAstTreeNodeWithGivenUserObject((DefaultMutableTreeNode) astTree.getModel().getRoot(), astNode);
+      var treeNode = getAstTreeNode(astNode);
       if (treeNode != null) {
         astTree.scrollPathToVisible(new TreePath(treeNode.getPath()));
       }
@@ -496,28 +560,29 @@ public class ToolkitViewImpl extends JFrame implements ToolkitView {
   public AstNode getAstNodeFollowingCurrentSourceCodeTextCursorPosition() {
     int currentOffset = sourceCodeEditorPane.getCaretPosition() - getCodeElementStartOffset();
 
-    return getFollowingAstNode((DefaultMutableTreeNode) astTree.getModel().getRoot(), currentOffset);
+    var root = (DefaultMutableTreeNode) astTree.getModel().getRoot();
+    return root != null ? getFollowingAstNode((AstNode) root.getUserObject(), currentOffset) : null;
   }
 
-  private AstNode getFollowingAstNode(DefaultMutableTreeNode treeNode, int offset) {
+  @CheckForNull
+  private AstNode getFollowingAstNode(AstNode root, int offset) {
     AstNode followingAstNode = null;
-
-    if (treeNode != null) {
-      Enumeration enumeration = ((DefaultMutableTreeNode) astTree.getModel().getRoot()).breadthFirstEnumeration();
-
-      int nearestOffsetSoFar = Integer.MAX_VALUE;
-      while (enumeration.hasMoreElements()) {
-        var childTreeNode = (DefaultMutableTreeNode) enumeration.nextElement();
-        if ((childTreeNode.getUserObject() instanceof AstNode astNode) && (astNode.hasToken())) {
-          var token = astNode.getToken();
-          int tokenOffset = lineOffsets.getStartOffset(token);
-
-          if (tokenOffset >= offset && tokenOffset < nearestOffsetSoFar) {
-            nearestOffsetSoFar = tokenOffset;
-            followingAstNode = astNode;
-          }
+    int nearestOffsetSoFar = Integer.MAX_VALUE;
+
+    var queue = new ArrayDeque<Object>();
+    queue.add(root);
+    while (!queue.isEmpty()) {
+      var userObject = queue.poll();
+      if ((userObject instanceof AstNode astNode) && (astNode.hasToken())) {
+        var token = astNode.getToken();
+        int tokenOffset = lineOffsets.getStartOffset(token);
+
+        if (tokenOffset >= offset && tokenOffset < nearestOffsetSoFar) {
+          nearestOffsetSoFar = tokenOffset;
+          followingAstNode = astNode;
         }
       }
+      queue.addAll(getChildObjects(userObject));
     }
 
     return followingAstNode;
@@ -0,0 +1,61 @@
+/*
+ * C++ Community Plugin (cxx plugin)
+ * Copyright (C) 2022-2024 SonarOpenCommunity
+ * http://github.com/SonarOpenCommunity/sonar-cxx
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.cxx.sslr.internal.toolkit;
+
+import com.sonar.cxx.sslr.api.AstNode;
+import com.sonar.cxx.sslr.api.GenericTokenType;
+import com.sonar.cxx.sslr.api.Token;
+import com.sonar.cxx.sslr.impl.ast.AstXmlPrinter;
+import java.net.URI;
+import java.util.ArrayList;
+import static org.assertj.core.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+class AstXmlLinesTest {
+
+  @Test
+  void sameFormatAsAstXmlPrinter() {
+    var uri = URI.create("tests://unittest");
+    var root = new AstNode(GenericTokenType.IDENTIFIER, "root", null);
+    var child = new AstNode(Token.builder().setType(GenericTokenType.IDENTIFIER).setValueAndOriginalValue("x")
+      .setURI(uri).setLine(1).setColumn(2).build());
+    var inner = new AstNode(GenericTokenType.IDENTIFIER, "inner", child.getToken());
+    inner.addChild(child);
+    root.addChild(inner);
+    root.addChild(new AstNode(GenericTokenType.EOF, "empty", null));
+
+    var lines = new AstXmlLines(root);
+    var text = new ArrayList<String>();
+    for (int i = 0; i < lines.getSize(); i++) {
+      text.add(lines.getElementAt(i));
+    }
+
+    assertThat(String.join("\n", text)).isEqualTo(AstXmlPrinter.print(root));
+    assertThat(lines.getSize()).isEqualTo(6);
+    assertThat(lines.getMaxLineLength()).isGreaterThanOrEqualTo(text.stream().mapToInt(String::length).max()
+      .getAsInt());
+  }
+
+  @Test
+  void empty() {
+    assertThat(new AstXmlLines(null).getSize()).isZero();
+  }
+
+}
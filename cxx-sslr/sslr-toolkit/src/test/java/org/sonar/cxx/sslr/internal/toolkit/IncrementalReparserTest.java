@@ -0,0 +1,222 @@
+/*
+ * C++ Community Plugin (cxx plugin)
+ * Copyright (C) 2022-2024 SonarOpenCommunity
+ * http://github.com/SonarOpenCommunity/sonar-cxx
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.cxx.sslr.internal.toolkit;
+
+import com.sonar.cxx.sslr.api.AstNode;
+import com.sonar.cxx.sslr.api.GenericTokenType;
+import com.sonar.cxx.sslr.api.Grammar;
+import com.sonar.cxx.sslr.api.Token;
+import com.sonar.cxx.sslr.api.TokenType;
+import com.sonar.cxx.sslr.impl.Lexer;
+import com.sonar.cxx.sslr.impl.Parser;
+import com.sonar.cxx.sslr.impl.ast.AstXmlPrinter;
+import com.sonar.cxx.sslr.impl.channel.BlackHoleChannel;
+import com.sonar.cxx.sslr.impl.channel.IdentifierAndKeywordChannel;
+import com.sonar.cxx.sslr.impl.channel.PunctuatorChannel;
+import static com.sonar.cxx.sslr.impl.channel.RegexpChannelBuilder.commentRegexp;
+import java.util.Random;
+import static org.assertj.core.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import org.sonar.cxx.sslr.grammar.GrammarRuleKey;
+import org.sonar.cxx.sslr.grammar.LexerfulGrammarBuilder;
+
+class IncrementalReparserTest {
+
+  private static final String SOURCE = """
+    int a;
+    /* comment */
+    struct s {
+      int b;
+      int c;
+    }
+    int d;
+    """;
+
+  private final Parser<Grammar> parser = Parser.builder(grammar()).withLexer(lexer()).build();
+
+  @Test
+  void editInsideTopLevelNode() {
+    assertReparsed(SOURCE, SOURCE.replace("int c;", "int c;\n  long e;"));
+    assertReparsed(SOURCE, SOURCE.replace("int b;", "unsigned int b;"));
+    assertReparsed(SOURCE, SOURCE.replace("int a;", "int aa;"));
+  }
+
+  @Test
+  void editAddingTopLevelNodes() {
+    assertReparsed(SOURCE, SOURCE.replace("int a;", "int a;int x;"));
+  }
+
+  @Test
+  void editOfLastTopLevelNode() {
+    assertReparsed(SOURCE, SOURCE.replace("int d;", "int d; int f;"));
+  }
+
+  @Test
+  void editOfComment() {
+    assertReparsed(SOURCE, SOURCE.replace("int a;\n", "int a;\n\n// new comment\n"));
+  }
+
+  @Test
+  void tokenIndicesOfShiftedNodes() {
+    var result = reparse(SOURCE, SOURCE.replace("int b;", "unsigned int b; int x;"));
+    assertThat(result).isNotNull();
+    var declarations = result.getFirstChild(Rules.SEQUENCE).getChildren(Rules.DECLARATION);
+    var struct = declarations.get(1);
+    var last = declarations.get(2);
+    assertThat(struct.getFromIndex()).isEqualTo(3);
+    assertThat(struct.getFirstChild(Rules.DECLARATION).getFromIndex()).isEqualTo(6);
+    assertThat(last.getFromIndex()).isEqualTo(struct.getToIndex());
+    assertThat(last.getFromIndex()).isEqualTo(indexOf(result, last.getToken()));
+    assertThat(result.getToIndex()).isEqualTo(parser.parse(SOURCE).getToIndex() + 4);
+  }
+
+  @Test
+  void sameSource() {
+    var ast = parser.parse(SOURCE);
+    assertThat(IncrementalReparser.reparse(SOURCE, ast, SOURCE, parser::parse)).isSameAs(ast);
+  }
+
+  @Test
+  void fallbackToCompleteParse() {
+    // edit at a node boundary
+    assertThat(reparse(SOURCE, SOURCE.replace("struct", "xstruct"))).isNull();
+    // syntax error
+    assertThat(reparse(SOURCE, SOURCE.replace("int b;", "int b; }"))).isNull();
+    // open block comment
+    assertThat(reparse(SOURCE, SOURCE.replace("int b;", "int b; /*"))).isNull();
+    // preprocessor directive
+    assertThat(reparse(SOURCE, SOURCE.replace("int a;", "int a;\n#define X"))).isNull();
+  }
+
+  @Test
+  void randomEdits() {
+    var random = new Random(42);
+    var alphabet = "ab ;{}\n";
+    int reparsed = 0;
+    for (int n = 0; n < 2_000; n++) {
+      int position = random.nextInt(SOURCE.length());
+      int length = random.nextInt(3);
+      var edited = SOURCE.substring(0, position) + alphabet.charAt(random.nextInt(alphabet.length()))
+                     + SOURCE.substring(Math.min(SOURCE.length(), position + length));
+      var result = reparse(SOURCE, edited);
+      if (result != null) {
+        assertThat(describe(result)).as(edited).isEqualTo(describe(parser.parse(edited)));
+        reparsed++;
+      }
+    }
+    assertThat(reparsed).isPositive();
+  }
+
+  private void assertReparsed(String oldSource, String newSource) {
+    var result = reparse(oldSource, newSource);
+    assertThat(result).isNotNull();
+    assertThat(describe(result)).isEqualTo(describe(parser.parse(newSource)));
+  }
+
+  private AstNode reparse(String oldSource, String newSource) {
+    return IncrementalReparser.reparse(oldSource, parser.parse(oldSource), newSource, parser::parse);
+  }
+
+  private static int indexOf(AstNode ast, Token token) {
+    var tokens = ast.getTokens();
+    for (int i = 0; i < tokens.size(); i++) {
+      if (tokens.get(i) == token) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * XML of the tree plus the token indices of all nodes and all comments with their positions.
+   */
+  private static String describe(AstNode ast) {
+    var sb = new StringBuilder(AstXmlPrinter.print(ast));
+    describeIndices(ast, sb);
+    for (var token : ast.getTokens()) {
+      for (var trivia : token.getTrivia()) {
+        sb.append('\n').append(trivia.getToken().getValue()).append(" at ").append(trivia.getToken().getLine())
+          .append(':').append(trivia.getToken().getColumn()).append(" before ").append(token.getValue());
+      }
+    }
+    return sb.toString();
+  }
+
+  private static void describeIndices(AstNode node, StringBuilder sb) {
+    sb.append('\n').append(node.getName()).append(' ').append(node.getFromIndex()).append('-')
+      .append(node.getToIndex());
+    for (var child : node.getChildren()) {
+      describeIndices(child, sb);
+    }
+  }
+
+  private static Lexer lexer() {
+    return Lexer.builder()
+      .withFailIfNoChannelToConsumeOneCharacter(true)
+      .withChannel(new IdentifierAndKeywordChannel("[a-z]+", true))
+      .withChannel(commentRegexp("(?s)/\\*.*?\\*/"))
+      .withChannel(commentRegexp("//[^\\n]*+"))
+      .withChannel(new PunctuatorChannel(Punctuators.values()))
+      .withChannel(new BlackHoleChannel("[ \t\r\n]+"))
+      .build();
+  }
+
+  private static Grammar grammar() {
+    var b = LexerfulGrammarBuilder.create();
+    b.rule(Rules.ROOT).is(Rules.SEQUENCE, GenericTokenType.EOF);
+    b.rule(Rules.SEQUENCE).is(b.oneOrMore(Rules.DECLARATION));
+    b.rule(Rules.DECLARATION).is(b.firstOf(
+      b.sequence(GenericTokenType.IDENTIFIER, GenericTokenType.IDENTIFIER, Punctuators.BRACE_L,
+                 b.zeroOrMore(Rules.DECLARATION), Punctuators.BRACE_R),
+      b.sequence(b.oneOrMore(GenericTokenType.IDENTIFIER), Punctuators.SEMICOLON)));
+    b.setRootRule(Rules.ROOT);
+    return b.build();
+  }
+
+  private enum Rules implements GrammarRuleKey {
+    ROOT, SEQUENCE, DECLARATION
+  }
+
+  private enum Punctuators implements TokenType {
+    BRACE_L("{"), BRACE_R("}"), SEMICOLON(";"), HASH("#");
+
+    private final String value;
+
+    Punctuators(String value) {
+      this.value = value;
+    }
+
+    @Override
+    public String getName() {
+      return name();
+    }
+
+    @Override
+    public String getValue() {
+      return value;
+    }
+
+    @Override
+    public boolean hasToBeSkippedFromAst(AstNode node) {
+      return false;
+    }
+  }
+
+}
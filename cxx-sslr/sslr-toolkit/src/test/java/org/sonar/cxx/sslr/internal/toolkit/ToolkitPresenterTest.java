@@ -25,6 +25,7 @@ package org.sonar.cxx.sslr.internal.toolkit;
 
 import com.sonar.cxx.sslr.api.AstNode;
 import com.sonar.cxx.sslr.api.GenericTokenType;
+import com.sonar.cxx.sslr.api.RecognitionException;
 import com.sonar.cxx.sslr.api.Token;
 import java.awt.Point;
 import java.io.File;
@@ -32,6 +33,7 @@ import java.io.PrintWriter;
 import java.net.URI;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import static org.assertj.core.api.Assertions.*;
@@ -41,6 +43,7 @@ import static org.mockito.ArgumentMatchers.anyString;
 import org.mockito.Mockito;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.sonar.cxx.sslr.toolkit.ConfigurationModel;
@@ -131,7 +134,7 @@ class ToolkitPresenterTest {
     verify(view).setTitle("my_mocked_title");
     verify(view).displayHighlightedSourceCode("");
     verify(view).displayAst(null);
-    verify(view).displayXml("");
+    verify(view).displayXml(null);
     verify(view).disableXPathEvaluateButton();
     verify(view).run();
   }
@@ -172,7 +175,7 @@ class ToolkitPresenterTest {
     when(model.getAstNode()).thenReturn(astNode);
     when(model.getXml()).thenReturn("my_mocked_xml");
 
-    var presenter = new ToolkitPresenter((ConfigurationModel) when(mock(ConfigurationModel.class)
+    var presenter = synchronousPresenter((ConfigurationModel) when(mock(ConfigurationModel.class)
       .getCharset()).thenReturn(StandardCharsets.UTF_8).getMock(), model);
     presenter.setView(view);
 
@@ -184,7 +187,7 @@ class ToolkitPresenterTest {
     verify(view).displayHighlightedSourceCode("my_mocked_highlighted_source_code");
     verify(model).setSourceCode(file, StandardCharsets.UTF_8);
     verify(view).displayAst(astNode);
-    verify(view).displayXml("my_mocked_xml");
+    verify(view).displayXml(astNode);
     verify(view).scrollSourceCodeTo(new Point(0, 0));
     verify(view).setFocusOnAbstractSyntaxTreeView();
     verify(view).enableXPathEvaluateButton();
@@ -199,7 +202,7 @@ class ToolkitPresenterTest {
     Mockito.doThrow(new RuntimeException("Parse error")).when(model).setSourceCode(Mockito.any(File.class), Mockito.any(
       Charset.class));
 
-    var presenter = new ToolkitPresenter((ConfigurationModel) when(mock(ConfigurationModel.class)
+    var presenter = synchronousPresenter((ConfigurationModel) when(mock(ConfigurationModel.class)
       .getCharset()).thenReturn(StandardCharsets.UTF_8).getMock(), model);
     presenter.setView(view);
 
@@ -230,7 +233,7 @@ class ToolkitPresenterTest {
     verify(model, never()).setSourceCode(any(File.class), any(Charset.class));
     verify(view, never()).displayHighlightedSourceCode(anyString());
     verify(view, never()).displayAst(any(AstNode.class));
-    verify(view, never()).displayXml(anyString());
+    verify(view, never()).displayXml(any());
     verify(view, never()).scrollSourceCodeTo(any(Point.class));
     verify(view, never()).enableXPathEvaluateButton();
   }
@@ -247,7 +250,7 @@ class ToolkitPresenterTest {
     when(model.getAstNode()).thenReturn(astNode);
     when(model.getXml()).thenReturn("my_mocked_xml");
 
-    var presenter = new ToolkitPresenter(mock(ConfigurationModel.class), model);
+    var presenter = synchronousPresenter(mock(ConfigurationModel.class), model);
     presenter.setView(view);
 
     presenter.onSourceCodeParseButtonClick();
@@ -257,12 +260,50 @@ class ToolkitPresenterTest {
     verify(model).setSourceCode("my_mocked_source");
     verify(view).displayHighlightedSourceCode("my_mocked_highlighted_source_code");
     view.displayAst(astNode);
-    view.displayXml("my_mocked_xml");
+    view.displayXml(astNode);
     view.scrollSourceCodeTo(point);
     verify(view).setFocusOnAbstractSyntaxTreeView();
     verify(view).enableXPathEvaluateButton();
   }
 
+  @Test
+  void onSourceCodeParseButtonClickShouldDropOutdatedResults() {
+    var view = mock(ToolkitView.class);
+    when(view.getSourceCode()).thenReturn("first", "second");
+    when(view.getSourceCodeScrollbarPosition()).thenReturn(new Point(0, 0));
+    var model = mock(SourceCodeModel.class);
+    var parseTasks = new ArrayList<Runnable>();
+
+    var presenter = new ToolkitPresenter(mock(ConfigurationModel.class), model, parseTasks::add, Runnable::run);
+    presenter.setView(view);
+
+    presenter.onSourceCodeParseButtonClick();
+    presenter.onSourceCodeParseButtonClick();
+    parseTasks.forEach(Runnable::run);
+
+    verify(model, times(2)).cancelParsing();
+    verify(model, never()).setSourceCode("first");
+    verify(model).setSourceCode("second");
+    verify(view).enableXPathEvaluateButton();
+  }
+
+  @Test
+  void onSourceCodeParseButtonClickWithParseError() {
+    var view = mock(ToolkitView.class);
+    var model = mock(SourceCodeModel.class);
+    Mockito.doThrow(new RecognitionException(1, "Parse error")).when(model).setSourceCode(Mockito.nullable(
+      String.class));
+
+    var presenter = synchronousPresenter(mock(ConfigurationModel.class), model);
+    presenter.setView(view);
+
+    presenter.onSourceCodeParseButtonClick();
+
+    verify(view).appendToConsole(Mockito.contains("Parse error"));
+    verify(view).setFocusOnConsoleView();
+    verify(view, never()).enableXPathEvaluateButton();
+  }
+
   @Test
   void onXPathEvaluateButtonClickAstNodeResults() {
     var view = mock(ToolkitView.class);
@@ -350,7 +391,7 @@ class ToolkitPresenterTest {
     presenter.onSourceCodeKeyTyped();
 
     verify(view).displayAst(null);
-    verify(view).displayXml("");
+    verify(view).displayXml(null);
     verify(view).clearSourceCodeHighlights();
     verify(view).disableXPathEvaluateButton();
   }
@@ -455,4 +496,8 @@ class ToolkitPresenterTest {
       .hasMessage("No such configuration property: name");
   }
 
+  private static ToolkitPresenter synchronousPresenter(ConfigurationModel configurationModel, SourceCodeModel model) {
+    return new ToolkitPresenter(configurationModel, model, Runnable::run, Runnable::run);
+  }
+
 }
@@ -53,6 +53,8 @@ import org.sonar.cxx.sensors.rats.CxxRatsSensor;
 import org.sonar.cxx.sensors.tests.dotnet.CxxUnitTestResultsAggregator;
 import org.sonar.cxx.sensors.tests.dotnet.CxxUnitTestResultsImportSensor;
 import org.sonar.cxx.sensors.tests.xunit.CxxXunitSensor;
+import org.sonar.cxx.sensors.utils.InputFileIndex;
+import org.sonar.cxx.sensors.utils.ReportFileIndex;
 import org.sonar.cxx.sensors.utils.RulesDefinitionXmlLoader;
 import org.sonar.cxx.sensors.valgrind.CxxValgrindRuleRepository;
 import org.sonar.cxx.sensors.valgrind.CxxValgrindSensor;
@@ -108,6 +110,8 @@ public final class CxxPlugin implements Plugin {
 
     // utility classes
     l.add(CxxUnitTestResultsAggregator.class);
+    l.add(InputFileIndex.class);
+    l.add(ReportFileIndex.class);
     l.add(RulesDefinitionXmlLoader.class);
 
     // metrics
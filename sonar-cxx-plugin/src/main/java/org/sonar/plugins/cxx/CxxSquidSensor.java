@@ -22,16 +22,25 @@ package org.sonar.plugins.cxx;
 import com.sonar.cxx.sslr.api.Grammar;
 import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.LinkOption;
 import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.Locale;
 import java.util.Optional;
+import java.util.Set;
 import java.util.regex.Pattern;
 import java.util.stream.StreamSupport;
 import javax.annotation.Nullable;
@@ -62,7 +71,9 @@ import org.sonar.cxx.checks.CheckList;
 import org.sonar.cxx.config.CxxSquidConfiguration;
 import org.sonar.cxx.config.MsBuild;
 import org.sonar.cxx.sensors.utils.CxxUtils;
+import org.sonar.cxx.sensors.utils.ReportFileIndex;
 import org.sonar.cxx.squidbridge.SquidAstVisitor;
+import org.sonar.cxx.squidbridge.api.LineSet;
 import org.sonar.cxx.squidbridge.api.SourceCode;
 import org.sonar.cxx.squidbridge.api.SourceFile;
 import org.sonar.cxx.squidbridge.indexer.QueryByType;
@@ -80,6 +91,14 @@ public class CxxSquidSensor implements ProjectSensor {
   public static final String DEFINES_KEY = "sonar.cxx.defines";
   public static final String INCLUDE_DIRECTORIES_KEY = "sonar.cxx.includeDirectories";
   public static final String ERROR_RECOVERY_KEY = "sonar.cxx.errorRecoveryEnabled";
+  public static final String ANALYSIS_TIER_KEY = "sonar.cxx.analysisTier";
+  public static final String PARSE_BUDGET_INSTRUCTIONS_KEY = "sonar.cxx.parseBudget.instructions";
+  public static final String PARSE_BUDGET_EXPANSION_TOKENS_KEY = "sonar.cxx.parseBudget.expansionTokens";
+  public static final String PARSE_BUDGET_TIMEOUT_KEY = "sonar.cxx.parseBudget.timeout";
+  public static final String PARSER_BYTECODE_KEY = "sonar.cxx.parser.bytecode";
+  public static final String PARALLEL_VISITOR_MIN_LINES_KEY = "sonar.cxx.parallelVisitors.minLines";
+  public static final String PREFETCH_DEPTH_KEY = "sonar.cxx.prefetch.depth";
+  public static final String AST_INDEX_KEY = "sonar.cxx.astIndex";
   public static final String FORCE_INCLUDES_KEY = "sonar.cxx.forceIncludes";
   public static final String JSON_COMPILATION_DATABASE_KEY = "sonar.cxx.jsonCompilationDatabase";
   public static final String JSON_COMPILATION_DATABASE_ONLY_CONTAINED_FILES_KEY
@@ -93,19 +112,28 @@ public class CxxSquidSensor implements ProjectSensor {
 
   private static final Logger LOG = LoggerFactory.getLogger(CxxSquidSensor.class);
 
+  private static final String INCLUDED_FILES_CACHE_KEY = "cxx:includedFiles:";
+  private static final String[] ANALYSIS_SETTINGS_KEYS = {DEFINES_KEY, INCLUDE_DIRECTORIES_KEY, FORCE_INCLUDES_KEY,
+    ANALYSIS_TIER_KEY, ERROR_RECOVERY_KEY, PARSE_BUDGET_INSTRUCTIONS_KEY, PARSE_BUDGET_EXPANSION_TOKENS_KEY,
+    PARSE_BUDGET_TIMEOUT_KEY, JSON_COMPILATION_DATABASE_KEY, MsBuild.REPORT_PATH_KEY};
+
   private final FileLinesContextFactory fileLinesContextFactory;
   private final CxxChecks checks;
   private final NoSonarFilter noSonarFilter;
+  private final ReportFileIndex reportFileIndex;
 
   private SensorContext context;
+  private boolean lexerOnly;
+  private Set<File> parseBudgetExceededFiles = Collections.emptySet();
 
   /**
    * {@inheritDoc}
    */
   public CxxSquidSensor(FileLinesContextFactory fileLinesContextFactory,
     CheckFactory checkFactory,
-    NoSonarFilter noSonarFilter) {
-    this(fileLinesContextFactory, checkFactory, noSonarFilter, null);
+    NoSonarFilter noSonarFilter,
+    ReportFileIndex reportFileIndex) {
+    this(fileLinesContextFactory, checkFactory, noSonarFilter, reportFileIndex, null);
   }
 
   /**
@@ -114,12 +142,14 @@ public class CxxSquidSensor implements ProjectSensor {
   public CxxSquidSensor(FileLinesContextFactory fileLinesContextFactory,
     CheckFactory checkFactory,
     NoSonarFilter noSonarFilter,
+    ReportFileIndex reportFileIndex,
     @Nullable CustomCxxRulesDefinition[] customRulesDefinition) {
     this.checks = CxxChecks.createCxxCheck(checkFactory)
       .addChecks(CheckList.REPOSITORY_KEY, CheckList.getChecks())
       .addCustomChecks(customRulesDefinition);
     this.fileLinesContextFactory = fileLinesContextFactory;
     this.noSonarFilter = noSonarFilter;
+    this.reportFileIndex = reportFileIndex;
   }
 
   public static List<PropertyDefinition> properties() {
@@ -182,6 +212,100 @@ public class CxxSquidSensor implements ProjectSensor {
         .onQualifiers(Qualifiers.PROJECT)
         .type(PropertyType.BOOLEAN)
         .build(),
+      PropertyDefinition.builder(ANALYSIS_TIER_KEY)
+        .defaultValue(CxxAstScanner.TIER_FULL)
+        .name("Analysis Tier")
+        .description("""
+          Defines the depth of the source code analysis. `full` preprocesses and parses the source files and executes \
+          all rules and metrics. `lexer` only preprocesses and tokenizes the source files: syntax highlighting, \
+          duplications, lines of code, comment lines, NOSONAR and token or line based rules are available, rules and \
+          metrics depending on the syntax tree (e.g. complexity, functions, classes, statements) are skipped. \
+          The `lexer` tier is intended for a fast feedback e.g. in pull request analyses.""")
+        .category(category)
+        .subCategory("(1) General")
+        .onQualifiers(Qualifiers.PROJECT)
+        .type(PropertyType.SINGLE_SELECT_LIST)
+        .options(CxxAstScanner.TIER_FULL, CxxAstScanner.TIER_LEXER)
+        .build(),
+      PropertyDefinition.builder(PARSE_BUDGET_INSTRUCTIONS_KEY)
+        .defaultValue("0")
+        .name("Parse Budget: Parser Instructions")
+        .description("""
+          Maximum number of parser instructions per source file. Files exceeding the budget are analyzed like in \
+          the `lexer` analysis tier (without syntax tree), a warning is logged. `0` means unlimited.""")
+        .category(category)
+        .subCategory("(1) General")
+        .onQualifiers(Qualifiers.PROJECT)
+        .type(PropertyType.INTEGER)
+        .build(),
+      PropertyDefinition.builder(PARSE_BUDGET_EXPANSION_TOKENS_KEY)
+        .defaultValue("0")
+        .name("Parse Budget: Macro Expansion Tokens")
+        .description("""
+          Maximum number of tokens produced by macro expansions per source file. If the budget is exceeded, macros \
+          are no longer expanded and the file is analyzed like in the `lexer` analysis tier (without syntax tree), a \
+          warning is logged. `0` means unlimited.""")
+        .category(category)
+        .subCategory("(1) General")
+        .onQualifiers(Qualifiers.PROJECT)
+        .type(PropertyType.INTEGER)
+        .build(),
+      PropertyDefinition.builder(PARSE_BUDGET_TIMEOUT_KEY)
+        .defaultValue("0")
+        .name("Parse Budget: Timeout")
+        .description("""
+          Maximum time in seconds to preprocess and parse a source file. Files exceeding the budget are analyzed \
+          like in the `lexer` analysis tier (without syntax tree), a warning is logged. `0` means unlimited.""")
+        .category(category)
+        .subCategory("(1) General")
+        .onQualifiers(Qualifiers.PROJECT)
+        .type(PropertyType.INTEGER)
+        .build(),
+      PropertyDefinition.builder(PARSER_BYTECODE_KEY)
+        .defaultValue(Boolean.FALSE.toString())
+        .name("Parser: Compile Grammar to Bytecode")
+        .description("""
+          Experimental: parse with the C++ grammar compiled to JVM bytecode instead of interpreting the grammar. The \
+          syntax tree is the same, the parse budget `sonar.cxx.parseBudget.instructions` counts rule invocations \
+          instead of parser instructions.""")
+        .category(category)
+        .subCategory("(1) General")
+        .onQualifiers(Qualifiers.PROJECT)
+        .type(PropertyType.BOOLEAN)
+        .build(),
+      PropertyDefinition.builder(PARALLEL_VISITOR_MIN_LINES_KEY)
+        .defaultValue("0")
+        .name("Parallel Visitors: Minimum Lines")
+        .description("""
+          Experimental: checks which only read the syntax tree are run in parallel to the metrics and the other checks \
+          for source files with at least this number of lines. `0` means all files are analyzed sequentially.""")
+        .category(category)
+        .subCategory("(1) General")
+        .onQualifiers(Qualifiers.PROJECT)
+        .type(PropertyType.INTEGER)
+        .build(),
+      PropertyDefinition.builder(PREFETCH_DEPTH_KEY)
+        .defaultValue("4")
+        .name("Prefetch Depth")
+        .description("""
+          Number of source files read and decoded in a background thread ahead of the file being parsed. `0` means \
+          each file is read when it is parsed.""")
+        .category(category)
+        .subCategory("(1) General")
+        .onQualifiers(Qualifiers.PROJECT)
+        .type(PropertyType.INTEGER)
+        .build(),
+      PropertyDefinition.builder(AST_INDEX_KEY)
+        .defaultValue(Boolean.TRUE.toString())
+        .name("Syntax Tree Index")
+        .description("""
+          Index the syntax tree of each file after parsing, so checks and metrics find nodes in a subtree with a \
+          binary search instead of walking the subtree. The index needs some memory per syntax tree node.""")
+        .category(category)
+        .subCategory("(1) General")
+        .onQualifiers(Qualifiers.PROJECT)
+        .type(PropertyType.BOOLEAN)
+        .build(),
       PropertyDefinition.builder(MsBuild.REPORT_PATH_KEY)
         .name("(2.6) Path(s) to MSBuild Log(s)")
         .description("""
@@ -310,13 +434,27 @@ public class CxxSquidSensor implements ProjectSensor {
     }
 
     var squidConfig = createConfiguration();
+    lexerOnly = CxxAstScanner.isLexerOnly(squidConfig);
+    if (lexerOnly) {
+      LOG.info("Lexer-only analysis tier: rules and metrics depending on the syntax tree are skipped");
+    }
     var scanner = CxxAstScanner.create(squidConfig, visitors.toArray(SquidAstVisitor[]::new));
 
+    var fingerprint = context.isCacheEnabled() ? analysisFingerprint() : null;
     Iterable<InputFile> inputFiles = getInputFiles(context, squidConfig);
+    if (fingerprint != null) {
+      inputFiles = skipUnchangedFiles(inputFiles, fingerprint);
+    }
     scanner.scanInputFiles(inputFiles);
 
+    parseBudgetExceededFiles = scanner.getParseBudgetExceededFiles();
+    if (!parseBudgetExceededFiles.isEmpty()) {
+      LOG.warn("Parse budget exceeded for {} file(s), analyzed without syntax tree: {}",
+        parseBudgetExceededFiles.size(), parseBudgetExceededFiles);
+    }
+
     Collection<SourceCode> squidSourceFiles = scanner.getIndex().search(new QueryByType(SourceFile.class));
-    save(squidSourceFiles);
+    save(squidSourceFiles, fingerprint);
   }
 
   @Override
@@ -339,6 +477,22 @@ public class CxxSquidSensor implements ProjectSensor {
 
     squidConfig.add(CxxSquidConfiguration.SONAR_PROJECT_PROPERTIES, CxxSquidConfiguration.ERROR_RECOVERY_ENABLED,
       context.config().get(ERROR_RECOVERY_KEY));
+    squidConfig.add(CxxSquidConfiguration.SONAR_PROJECT_PROPERTIES, CxxSquidConfiguration.ANALYSIS_TIER,
+      context.config().get(ANALYSIS_TIER_KEY));
+    squidConfig.add(CxxSquidConfiguration.SONAR_PROJECT_PROPERTIES, CxxSquidConfiguration.PARSE_BUDGET_INSTRUCTIONS,
+      context.config().get(PARSE_BUDGET_INSTRUCTIONS_KEY));
+    squidConfig.add(CxxSquidConfiguration.SONAR_PROJECT_PROPERTIES, CxxSquidConfiguration.PARSE_BUDGET_EXPANSION_TOKENS,
+      context.config().get(PARSE_BUDGET_EXPANSION_TOKENS_KEY));
+    squidConfig.add(CxxSquidConfiguration.SONAR_PROJECT_PROPERTIES, CxxSquidConfiguration.PARSE_BUDGET_TIMEOUT,
+      context.config().get(PARSE_BUDGET_TIMEOUT_KEY));
+    squidConfig.add(CxxSquidConfiguration.SONAR_PROJECT_PROPERTIES, CxxSquidConfiguration.PARSER_BYTECODE,
+      context.config().get(PARSER_BYTECODE_KEY));
+    squidConfig.add(CxxSquidConfiguration.SONAR_PROJECT_PROPERTIES, CxxSquidConfiguration.PARALLEL_VISITOR_MIN_LINES,
+      context.config().get(PARALLEL_VISITOR_MIN_LINES_KEY));
+    squidConfig.add(CxxSquidConfiguration.SONAR_PROJECT_PROPERTIES, CxxSquidConfiguration.PREFETCH_DEPTH,
+      context.config().get(PREFETCH_DEPTH_KEY));
+    squidConfig.add(CxxSquidConfiguration.SONAR_PROJECT_PROPERTIES, CxxSquidConfiguration.AST_INDEX,
+      context.config().get(AST_INDEX_KEY));
     squidConfig.add(CxxSquidConfiguration.SONAR_PROJECT_PROPERTIES, CxxSquidConfiguration.CPD_IGNORE_LITERALS,
       context.config().get(CPD_IGNORE_LITERALS_KEY));
     squidConfig.add(CxxSquidConfiguration.SONAR_PROJECT_PROPERTIES, CxxSquidConfiguration.CPD_IGNORE_IDENTIFIERS,
@@ -362,7 +516,7 @@ public class CxxSquidSensor implements ProjectSensor {
     squidConfig.readJsonCompilationDb();
 
     if (context.config().hasKey(MsBuild.REPORT_PATH_KEY)) {
-      List<File> logFiles = CxxUtils.getFiles(context, MsBuild.REPORT_PATH_KEY);
+      List<File> logFiles = CxxUtils.getFiles(context, MsBuild.REPORT_PATH_KEY, reportFileIndex);
       squidConfig.readMsBuildFiles(logFiles, context.config().get(MsBuild.REPORT_ENCODING_DEF)
         .orElse(MsBuild.DEFAULT_ENCODING_DEF));
     }
@@ -408,7 +562,136 @@ public class CxxSquidSensor implements ProjectSensor {
     return inputFiles;
   }
 
-  private void save(Collection<SourceCode> sourceCodeFiles) {
+  /**
+   * In pull request analyses the platform can reuse the results of files with status SAME. A file is only skipped if
+   * the include files of its last analysis are known from the analysis cache and none of them has been changed, added
+   * or deleted since. The include files are stored together with a fingerprint of the analysis settings.
+   */
+  private Iterable<InputFile> skipUnchangedFiles(Iterable<InputFile> inputFiles, String fingerprint) {
+    if (!context.canSkipUnchangedFiles()) {
+      return inputFiles;
+    }
+
+    var changedFiles = new HashSet<Path>();
+    var addedFileNames = new HashSet<String>();
+    for (var file : context.fileSystem().inputFiles(context.fileSystem().predicates().all())) {
+      if (file.status() != InputFile.Status.SAME) {
+        changedFiles.add(Path.of(file.uri()));
+      }
+      if (file.status() == InputFile.Status.ADDED) {
+        // a new file can hide an include file with the same name found before in another directory
+        addedFileNames.add(file.filename());
+      }
+    }
+
+    var result = new ArrayList<InputFile>();
+    var skipped = 0;
+    for (var inputFile : inputFiles) {
+      if (isUnchanged(inputFile, fingerprint, changedFiles, addedFileNames)) {
+        context.markAsUnchanged(inputFile);
+        context.nextCache().copyFromPrevious(INCLUDED_FILES_CACHE_KEY + inputFile.key());
+        skipped++;
+      } else {
+        result.add(inputFile);
+      }
+    }
+
+    LOG.info("Skipping {} unchanged file(s), the results of the previous analysis are reused", skipped);
+    return result;
+  }
+
+  private boolean isUnchanged(InputFile inputFile, String fingerprint, Set<Path> changedFiles,
+    Set<String> addedFileNames) {
+    var key = INCLUDED_FILES_CACHE_KEY + inputFile.key();
+    if (inputFile.status() != InputFile.Status.SAME || !context.previousCache().contains(key)) {
+      return false;
+    }
+
+    try (var in = context.previousCache().read(key)) {
+      var lines = new String(in.readAllBytes(), StandardCharsets.UTF_8).split("\n", -1);
+      if (!lines[0].equals(fingerprint)) {
+        return false;
+      }
+      for (int i = 1; i < lines.length; i++) {
+        var includedFile = Path.of(lines[i]);
+        if (changedFiles.contains(includedFile) || addedFileNames.contains(includedFile.getFileName().toString())
+              || !Files.isRegularFile(includedFile)) {
+          return false;
+        }
+      }
+      return true;
+    } catch (IOException | RuntimeException e) {
+      LOG.debug("Cannot read included files of '{}' from the analysis cache", inputFile, e);
+      return false;
+    }
+  }
+
+  /**
+   * SHA-256 of the analysis settings: the cached include files are only valid for the same settings. The JSON
+   * Compilation Database and the MSBuild logs are part of the settings with their content.
+   */
+  private String analysisFingerprint() {
+    var settings = new StringBuilder();
+    for (var key : ANALYSIS_SETTINGS_KEYS) {
+      settings.append(key).append('=');
+      for (var value : context.config().getStringArray(key)) {
+        // length prefix: values containing separators cannot collide
+        settings.append(value.length()).append(':').append(value);
+      }
+      settings.append('\n');
+    }
+
+    var settingFiles = new ArrayList<File>();
+    context.config().get(JSON_COMPILATION_DATABASE_KEY).map(File::new).ifPresent(settingFiles::add);
+    if (context.config().hasKey(MsBuild.REPORT_PATH_KEY)) {
+      settingFiles.addAll(CxxUtils.getFiles(context, MsBuild.REPORT_PATH_KEY, reportFileIndex));
+    }
+    for (var file : settingFiles) {
+      settings.append(file.getPath().length()).append(':').append(file.getPath())
+        .append('=').append(contentHash(file)).append('\n');
+    }
+
+    return HexFormat.of().formatHex(sha256().digest(settings.toString().getBytes(StandardCharsets.UTF_8)));
+  }
+
+  private static String contentHash(File file) {
+    var digest = sha256();
+    try (var in = new DigestInputStream(Files.newInputStream(file.toPath()), digest)) {
+      in.transferTo(OutputStream.nullOutputStream());
+      return HexFormat.of().formatHex(digest.digest());
+    } catch (IOException | RuntimeException e) {
+      LOG.debug("Cannot read '{}' for the fingerprint of the analysis settings", file, e);
+      return "";
+    }
+  }
+
+  private static MessageDigest sha256() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not supported", e);
+    }
+  }
+
+  private void saveIncludedFiles(InputFile inputFile, SourceFile sourceFile, String fingerprint) {
+    var includedFiles = sourceFile.getData(CxxMetric.INCLUDED_FILES_DATA) instanceof List<?> list ? list : null;
+    if (includedFiles == null) {
+      // the include files are unknown, e.g. not all could be found: the file is analyzed again next time
+      return;
+    }
+
+    var data = new StringBuilder(fingerprint);
+    for (var includedFile : includedFiles) {
+      data.append('\n').append(includedFile);
+    }
+    context.nextCache().write(INCLUDED_FILES_CACHE_KEY + inputFile.key(),
+      data.toString().getBytes(StandardCharsets.UTF_8));
+  }
+
+  private void save(Collection<SourceCode> sourceCodeFiles, @Nullable String fingerprint) {
+    var event = new IssuesSavedEvent();
+    event.begin();
+    var issues = 0;
     for (var sourceCodeFile : sourceCodeFiles) {
       try {
         var sourceFile = (SourceFile) sourceCodeFile;
@@ -416,15 +699,25 @@ public class CxxSquidSensor implements ProjectSensor {
           context.fileSystem().predicates().hasPath(sourceFile.getKey())
         );
         saveMeasures(inputFile, sourceFile);
-        saveViolations(inputFile, sourceFile);
+        issues += saveViolations(inputFile, sourceFile);
         saveFileLinesContext(inputFile, sourceFile);
         saveCpdTokens(inputFile, sourceFile);
         saveHighlighting(inputFile, sourceFile);
+        if (fingerprint != null) {
+          saveIncludedFiles(inputFile, sourceFile, fingerprint);
+        }
       } catch (IllegalStateException e) {
         var msg = "Cannot save all measures for file '" + sourceCodeFile.getKey() + "'";
         CxxUtils.validateRecovery(msg, e, context.config());
       }
     }
+
+    event.end();
+    if (event.shouldCommit()) {
+      event.files = sourceCodeFiles.size();
+      event.issues = issues;
+      event.commit();
+    }
   }
 
   private void saveMeasures(InputFile inputFile, SourceFile sourceFile) {
@@ -434,12 +727,18 @@ public class CxxSquidSensor implements ProjectSensor {
 
     // CORE METRICS
     saveMetric(inputFile, CoreMetrics.NCLOC, sourceFile.getInt(CxxMetric.LINES_OF_CODE));
+    saveMetric(inputFile, CoreMetrics.COMMENT_LINES, sourceFile.getInt(CxxMetric.COMMENT_LINES));
+
+    if (lexerOnly || parseBudgetExceededFiles.contains(new File(inputFile.uri().getPath()))) {
+      // all other metrics need the syntax tree
+      return;
+    }
+
     saveMetric(inputFile, CoreMetrics.STATEMENTS, sourceFile.getInt(CxxMetric.STATEMENTS));
     saveMetric(inputFile, CoreMetrics.FUNCTIONS, sourceFile.getInt(CxxMetric.FUNCTIONS));
     saveMetric(inputFile, CoreMetrics.CLASSES, sourceFile.getInt(CxxMetric.CLASSES));
     saveMetric(inputFile, CoreMetrics.COMPLEXITY, sourceFile.getInt(CxxMetric.COMPLEXITY));
     saveMetric(inputFile, CoreMetrics.COGNITIVE_COMPLEXITY, sourceFile.getInt(CxxMetric.COGNITIVE_COMPLEXITY));
-    saveMetric(inputFile, CoreMetrics.COMMENT_LINES, sourceFile.getInt(CxxMetric.COMMENT_LINES));
 
     // CUSTOM METRICS
     //
@@ -460,7 +759,8 @@ public class CxxSquidSensor implements ProjectSensor {
     saveMetric(inputFile, CxxMetrics.BIG_FUNCTIONS_LOC, sourceFile.getInt(CxxMetric.BIG_FUNCTIONS_LOC));
   }
 
-  private void saveViolations(InputFile inputFile, SourceFile sourceFile) {
+  private int saveViolations(InputFile inputFile, SourceFile sourceFile) {
+    var issues = 0;
     if (sourceFile.hasCheckMessages()) {
       for (var message : sourceFile.getCheckMessages()) {
         var line = 1;
@@ -478,6 +778,7 @@ public class CxxSquidSensor implements ProjectSensor {
 
           newIssue.at(location);
           newIssue.save();
+          issues++;
         } else {
           LOG.debug("Unknown rule key: {}", message);
         }
@@ -500,16 +801,18 @@ public class CxxSquidSensor implements ProjectSensor {
           ++locationNr;
         }
         newIssue.save();
+        issues++;
       }
       MultiLocatitionSquidCheck.eraseMultilineCheckMessages(sourceFile);
     }
+    return issues;
   }
 
   private void saveFileLinesContext(InputFile inputFile, SourceFile sourceFile) {
     // measures for the lines of file
     var fileLinesContext = fileLinesContextFactory.createFor(inputFile);
-    List<Integer> linesOfCode = (List<Integer>) sourceFile.getData(CxxMetric.NCLOC_DATA);
-    linesOfCode.stream().sequential().distinct().forEach((Integer line) -> {
+    var linesOfCode = (LineSet) sourceFile.getData(CxxMetric.NCLOC_DATA);
+    linesOfCode.forEach((int line) -> {
       try {
         fileLinesContext.setIntValue(CoreMetrics.NCLOC_DATA_KEY, line, 1);
       } catch (IllegalArgumentException | IllegalStateException e) {
@@ -517,8 +820,8 @@ public class CxxSquidSensor implements ProjectSensor {
         LOG.debug("NCLOC error in file '{}' at line:{}", inputFile.filename(), line);
       }
     });
-    List<Integer> executableLines = (List<Integer>) sourceFile.getData(CxxMetric.EXECUTABLE_LINES_DATA);
-    executableLines.stream().sequential().distinct().forEach((Integer line) -> {
+    var executableLines = (LineSet) sourceFile.getData(CxxMetric.EXECUTABLE_LINES_DATA);
+    executableLines.forEach((int line) -> {
       try {
         fileLinesContext.setIntValue(CoreMetrics.EXECUTABLE_LINES_DATA_KEY, line, 1);
       } catch (IllegalArgumentException | IllegalStateException e) {
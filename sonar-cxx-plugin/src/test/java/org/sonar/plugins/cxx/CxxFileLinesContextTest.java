@@ -38,6 +38,7 @@ import org.sonar.api.batch.sensor.issue.internal.DefaultNoSonarFilter;
 import org.sonar.api.measures.CoreMetrics;
 import org.sonar.api.measures.FileLinesContext;
 import org.sonar.api.measures.FileLinesContextFactory;
+import org.sonar.cxx.sensors.utils.ReportFileIndex;
 
 class CxxFileLinesContextTest {
 
@@ -56,7 +57,8 @@ class CxxFileLinesContextTest {
     var inputFile = TestUtils.buildInputFile(baseDir, "ncloc.cc");
     context.fileSystem().add(inputFile);
 
-    var sensor = new CxxSquidSensor(fileLinesContextFactory, checkFactory, new DefaultNoSonarFilter(), null);
+    var sensor = new CxxSquidSensor(fileLinesContextFactory, checkFactory, new DefaultNoSonarFilter(),
+      new ReportFileIndex(), null);
     sensor.execute(context);
   }
 
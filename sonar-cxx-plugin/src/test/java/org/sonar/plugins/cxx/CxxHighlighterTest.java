@@ -36,6 +36,7 @@ import org.sonar.api.batch.sensor.internal.SensorContextTester;
 import org.sonar.api.batch.sensor.issue.internal.DefaultNoSonarFilter;
 import org.sonar.api.measures.FileLinesContext;
 import org.sonar.api.measures.FileLinesContextFactory;
+import org.sonar.cxx.sensors.utils.ReportFileIndex;
 
 class CxxHighlighterTest {
 
@@ -56,7 +57,8 @@ class CxxHighlighterTest {
     context = SensorContextTester.create(baseDir);
     context.fileSystem().add(inputFile);
 
-    sensor = new CxxSquidSensor(fileLinesContextFactory, checkFactory, new DefaultNoSonarFilter(), null);
+    sensor = new CxxSquidSensor(fileLinesContextFactory, checkFactory, new DefaultNoSonarFilter(),
+      new ReportFileIndex(), null);
     sensor.execute(context);
   }
 
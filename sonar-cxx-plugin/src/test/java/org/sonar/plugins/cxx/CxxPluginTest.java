@@ -40,7 +40,7 @@ class CxxPluginTest {
     var context = new Plugin.Context(runtime);
     var plugin = new CxxPlugin();
     plugin.define(context);
-    assertThat(context.getExtensions()).hasSize(83);
+    assertThat(context.getExtensions()).hasSize(93);
   }
 
 }
@@ -19,18 +19,30 @@
  */
 package org.sonar.plugins.cxx;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import static org.assertj.core.api.Assertions.*;
 import org.assertj.core.api.SoftAssertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mockito;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 import org.sonar.api.batch.fs.InputFile;
+import org.sonar.api.batch.fs.internal.DefaultInputFile;
+import org.sonar.api.batch.fs.internal.TestInputFileBuilder;
 import org.sonar.api.batch.rule.ActiveRules;
 import org.sonar.api.batch.rule.CheckFactory;
+import org.sonar.api.batch.sensor.cache.ReadCache;
+import org.sonar.api.batch.sensor.cache.WriteCache;
 import org.sonar.api.batch.sensor.cpd.internal.TokensLine;
 import org.sonar.api.batch.sensor.internal.SensorContextTester;
 import org.sonar.api.batch.sensor.issue.internal.DefaultNoSonarFilter;
@@ -39,9 +51,13 @@ import org.sonar.api.measures.CoreMetrics;
 import org.sonar.api.measures.FileLinesContext;
 import org.sonar.api.measures.FileLinesContextFactory;
 import org.sonar.cxx.CxxMetrics;
+import org.sonar.cxx.sensors.utils.ReportFileIndex;
 
 class CxxSquidSensorTest {
 
+  @TempDir
+  Path tempDir;
+
   private CxxSquidSensor sensor;
   private final MapSettings settings = new MapSettings();
 
@@ -53,7 +69,8 @@ class CxxSquidSensorTest {
     FileLinesContext fileLinesContext = mock(FileLinesContext.class);
     when(fileLinesContextFactory.createFor(Mockito.any(InputFile.class))).thenReturn(fileLinesContext);
 
-    sensor = new CxxSquidSensor(fileLinesContextFactory, checkFactory, new DefaultNoSonarFilter(), null);
+    sensor = new CxxSquidSensor(fileLinesContextFactory, checkFactory, new DefaultNoSonarFilter(),
+      new ReportFileIndex(), null);
   }
 
   @Test
@@ -76,6 +93,46 @@ class CxxSquidSensorTest {
     softly.assertAll();
   }
 
+  @Test
+  void testLexerOnlyTier() {
+    File baseDir = TestUtils.loadResource("/org/sonar/plugins/cxx/codechunks-project");
+    var inputFile0 = TestUtils.buildInputFile(baseDir, "code_chunks.cc");
+
+    var context = SensorContextTester.create(baseDir);
+    settings.setProperty(CxxSquidSensor.ANALYSIS_TIER_KEY, "lexer");
+    context.setSettings(settings);
+    context.fileSystem().add(inputFile0);
+    sensor.execute(context);
+
+    var softly = new SoftAssertions();
+    softly.assertThat(context.measure(inputFile0.key(), CoreMetrics.NCLOC).value()).isEqualTo(54);
+    softly.assertThat(context.measure(inputFile0.key(), CoreMetrics.COMMENT_LINES).value()).isEqualTo(15);
+    softly.assertThat(context.measure(inputFile0.key(), CoreMetrics.STATEMENTS)).isNull();
+    softly.assertThat(context.measure(inputFile0.key(), CoreMetrics.FUNCTIONS)).isNull();
+    softly.assertThat(context.measure(inputFile0.key(), CoreMetrics.COMPLEXITY)).isNull();
+    softly.assertThat(context.cpdTokens(inputFile0.key())).isNotEmpty();
+    softly.assertAll();
+  }
+
+  @Test
+  void testParseBudgetExceeded() {
+    File baseDir = TestUtils.loadResource("/org/sonar/plugins/cxx/codechunks-project");
+    var inputFile0 = TestUtils.buildInputFile(baseDir, "code_chunks.cc");
+
+    var context = SensorContextTester.create(baseDir);
+    settings.setProperty(CxxSquidSensor.PARSE_BUDGET_INSTRUCTIONS_KEY, 1);
+    context.setSettings(settings);
+    context.fileSystem().add(inputFile0);
+    sensor.execute(context);
+
+    var softly = new SoftAssertions();
+    softly.assertThat(context.measure(inputFile0.key(), CoreMetrics.NCLOC).value()).isEqualTo(54);
+    softly.assertThat(context.measure(inputFile0.key(), CoreMetrics.COMMENT_LINES).value()).isEqualTo(15);
+    softly.assertThat(context.measure(inputFile0.key(), CoreMetrics.FUNCTIONS)).isNull();
+    softly.assertThat(context.measure(inputFile0.key(), CoreMetrics.COMPLEXITY)).isNull();
+    softly.assertAll();
+  }
+
   @Test
   void testCpdTokens() {
     File baseDir = TestUtils.loadResource("/org/sonar/plugins/cxx");
@@ -244,4 +301,163 @@ class CxxSquidSensorTest {
     assertThat(context.measure(inputFile.key(), CoreMetrics.NCLOC).value()).isEqualTo(1);
   }
 
+  @Test
+  void testUnchangedFilesAreSkipped() {
+    var cache = analyzeIncludeDirectoriesProject(new MapCache(), false, InputFile.Status.SAME);
+    assertThat(cache.data).hasSize(1);
+
+    var nextCache = analyzeIncludeDirectoriesProject(cache, true, InputFile.Status.SAME);
+    assertThat(nextCache.copied).hasSize(1);
+    assertThat(nextCache.data).isEmpty();
+  }
+
+  @Test
+  void testFilesWithChangedIncludeFilesAreAnalyzed() {
+    var cache = analyzeIncludeDirectoriesProject(new MapCache(), false, InputFile.Status.SAME);
+
+    var nextCache = analyzeIncludeDirectoriesProject(cache, true, InputFile.Status.CHANGED);
+    assertThat(nextCache.copied).isEmpty();
+    assertThat(nextCache.data).hasSize(1);
+  }
+
+  @Test
+  void testFilesAreAnalyzedWithChangedSettings() {
+    var cache = analyzeIncludeDirectoriesProject(new MapCache(), false, InputFile.Status.SAME);
+
+    settings.setProperty(CxxSquidSensor.DEFINES_KEY, "FOO 1");
+    var nextCache = analyzeIncludeDirectoriesProject(cache, true, InputFile.Status.SAME);
+    assertThat(nextCache.copied).isEmpty();
+    assertThat(nextCache.data).hasSize(1);
+  }
+
+  @Test
+  void testFilesAreAnalyzedWithChangedSettingsOfSameHashCode() {
+    // "Aa" and "BB" have the same String.hashCode()
+    settings.setProperty(CxxSquidSensor.DEFINES_KEY, "Aa");
+    var cache = analyzeIncludeDirectoriesProject(new MapCache(), false, InputFile.Status.SAME);
+
+    settings.setProperty(CxxSquidSensor.DEFINES_KEY, "BB");
+    var nextCache = analyzeIncludeDirectoriesProject(cache, true, InputFile.Status.SAME);
+    assertThat(nextCache.copied).isEmpty();
+    assertThat(nextCache.data).hasSize(1);
+  }
+
+  @Test
+  void testFilesAreAnalyzedWithChangedCompilationDatabase() throws IOException {
+    var jsonDb = tempDir.resolve("compile_commands.json");
+    Files.writeString(jsonDb, "[]");
+    settings.setProperty(CxxSquidSensor.JSON_COMPILATION_DATABASE_KEY, jsonDb.toString());
+    var cache = analyzeIncludeDirectoriesProject(new MapCache(), false, InputFile.Status.SAME);
+
+    var nextCache = analyzeIncludeDirectoriesProject(cache, true, InputFile.Status.SAME);
+    assertThat(nextCache.copied).hasSize(1);
+
+    // same path, other content
+    Files.writeString(jsonDb, "[ ]");
+    nextCache = analyzeIncludeDirectoriesProject(cache, true, InputFile.Status.SAME);
+    assertThat(nextCache.copied).isEmpty();
+    assertThat(nextCache.data).hasSize(1);
+  }
+
+  @Test
+  void testFilesAreAnalyzedWithChangedParseBudget() {
+    var cache = analyzeIncludeDirectoriesProject(new MapCache(), false, InputFile.Status.SAME);
+
+    settings.setProperty(CxxSquidSensor.PARSE_BUDGET_TIMEOUT_KEY, 60);
+    var nextCache = analyzeIncludeDirectoriesProject(cache, true, InputFile.Status.SAME);
+    assertThat(nextCache.copied).isEmpty();
+    assertThat(nextCache.data).hasSize(1);
+  }
+
+  @Test
+  void testFilesWithUnknownIncludeFilesAreNotCached() {
+    File baseDir = TestUtils.loadResource("/org/sonar/plugins/cxx/include-directories-project");
+    var context = SensorContextTester.create(baseDir);
+    // lexer-only tier without include directories: not all include files are found
+    settings.setProperty(CxxSquidSensor.ANALYSIS_TIER_KEY, "lexer");
+    context.setSettings(settings);
+    context.setCacheEnabled(true);
+    context.setPreviousCache(new MapCache());
+    var nextCache = new MapCache();
+    context.setNextCache(nextCache);
+
+    var inputFile = TestUtils.buildInputFile(baseDir, "src/main.cc", InputFile.Status.SAME);
+    context.fileSystem().add(inputFile);
+    sensor.execute(context);
+
+    assertThat(context.measure(inputFile.key(), CoreMetrics.NCLOC)).isNotNull();
+    assertThat(nextCache.data).isEmpty();
+  }
+
+  private MapCache analyzeIncludeDirectoriesProject(MapCache previousCache, boolean canSkipUnchangedFiles,
+    InputFile.Status headerStatus) {
+    File baseDir = TestUtils.loadResource("/org/sonar/plugins/cxx/include-directories-project");
+    var context = SensorContextTester.create(baseDir);
+    settings.setProperty(CxxSquidSensor.INCLUDE_DIRECTORIES_KEY, "include");
+    context.setSettings(settings);
+    context.setCanSkipUnchangedFiles(canSkipUnchangedFiles);
+    context.setCacheEnabled(true);
+    context.setPreviousCache(previousCache);
+    var nextCache = new MapCache(previousCache);
+    context.setNextCache(nextCache);
+
+    var inputFile = TestUtils.buildInputFile(baseDir, "src/main.cc", InputFile.Status.SAME);
+    context.fileSystem().add(inputFile);
+    context.fileSystem().add(header(baseDir, "include/include2.hh", headerStatus));
+    sensor.execute(context);
+
+    assertThat(context.measure(inputFile.key(), CoreMetrics.NCLOC) == null).isEqualTo(nextCache.data.isEmpty());
+    return nextCache;
+  }
+
+  private static DefaultInputFile header(File baseDir, String fileName, InputFile.Status status) {
+    // without language: the header is only an include file, it is not analyzed itself
+    return new TestInputFileBuilder("ProjectKey", fileName)
+      .setModuleBaseDir(baseDir.toPath())
+      .setStatus(status)
+      .build();
+  }
+
+  private static class MapCache implements ReadCache, WriteCache {
+
+    private final Map<String, byte[]> data = new HashMap<>();
+    private final Map<String, byte[]> copied = new HashMap<>();
+    private final MapCache previous;
+
+    MapCache() {
+      this(null);
+    }
+
+    MapCache(MapCache previous) {
+      this.previous = previous;
+    }
+
+    @Override
+    public InputStream read(String key) {
+      var value = data.containsKey(key) ? data.get(key) : copied.get(key);
+      return new ByteArrayInputStream(value);
+    }
+
+    @Override
+    public boolean contains(String key) {
+      return data.containsKey(key) || copied.containsKey(key);
+    }
+
+    @Override
+    public void write(String key, InputStream value) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void write(String key, byte[] value) {
+      data.put(key, value);
+    }
+
+    @Override
+    public void copyFromPrevious(String key) {
+      copied.put(key, previous.data.get(key));
+    }
+
+  }
+
 }
@@ -67,12 +67,17 @@ public final class TestUtils {
   }
 
   public static DefaultInputFile buildInputFile(File baseDir, String fileName) {
+    return buildInputFile(baseDir, fileName, InputFile.Status.ADDED);
+  }
+
+  public static DefaultInputFile buildInputFile(File baseDir, String fileName, InputFile.Status status) {
     var target = new File(baseDir, fileName);
     String content = Files.contentOf(target, StandardCharsets.UTF_8);
     return TestInputFileBuilder.create("ProjectKey", baseDir, target)
       .setContents(content)
       .setCharset(StandardCharsets.UTF_8)
       .setLanguage("cxx")
+      .setStatus(status)
       .setType(InputFile.Type.MAIN).build();
   }
 